@@ -0,0 +1,8 @@
+-- 001 exchange_project 增加 extra_hash, 供批量 upsert 判断 extra 是否变化
+ALTER TABLE `exchange_project`
+    ADD COLUMN `extra_hash` CHAR(64) NULL COMMENT 'extra 的 SHA-256 (十六进制), 未变化时批量 upsert 跳过 extra' AFTER `extra`;
+
+-- 回填存量数据 (按 JSON 文本计算, 与应用侧对原始字符串的哈希可能不同, 首次 upsert 时会自然收敛)
+UPDATE `exchange_project`
+SET `extra_hash` = SHA2(CAST(`extra` AS CHAR), 256)
+WHERE `extra_hash` IS NULL;
@@ -0,0 +1,4 @@
+-- 002 exchange_project 增加 updated_at, 供读接口构造 ETag (行内容未变化的 upsert 不会刷新该列)
+ALTER TABLE `exchange_project`
+    ADD COLUMN `updated_at` TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3)
+        COMMENT '最后更新时间 (用于读接口 ETag)' AFTER `extra_hash`;
@@ -0,0 +1,3 @@
+-- 003 exchange_project_snapshot 增加 valid_until, 指标未变化的观察只延长上一行, 不再新增整行 (含 raw)
+ALTER TABLE `exchange_project_snapshot`
+    ADD COLUMN `valid_until` TIMESTAMP(3) NULL COMMENT '增量压缩: 指标持续不变的最后一次观察时间, NULL 表示只观察到一次' AFTER `raw`;
@@ -0,0 +1,66 @@
+-- 004 exchange_project_snapshot: 生成列改为应用写入的普通列, raw 支持压缩存储
+-- 1) STORED 生成列直接改为普通列, 已计算的值原样保留, 无需单独回填
+-- 2) 新增 raw_z (MySQL COMPRESS 格式), raw 改为可空, 二者至少一个非空
+-- 注意: 该 ALTER 会重建整张分区表, 请在低峰期执行
+ALTER TABLE `exchange_project_snapshot`
+    MODIFY COLUMN `aum_usd` DECIMAL(36, 18) NULL COMMENT 'AUM(USDT), 入库时由应用写入, 便于筛选/排序',
+    MODIFY COLUMN `win_ratio` DECIMAL(18, 6) NULL COMMENT '胜率 (0.1=10%), 入库时由应用写入',
+    MODIFY COLUMN `pnl_ratio_90d` DECIMAL(18, 6) NULL COMMENT '近90日收益率, 入库时由应用写入',
+    MODIFY COLUMN `pnl_90d_usd` DECIMAL(36, 18) NULL COMMENT '近90日收益 (USDT), 入库时由应用写入',
+    MODIFY COLUMN `raw` JSON NULL COMMENT '原始快照 JSON; 按 source 存放对应来源的原文 (便于审计与回放), 压缩存储时为 NULL',
+    ADD COLUMN `raw_z` MEDIUMBLOB NULL COMMENT '压缩后的原始快照 (MySQL COMPRESS 格式, 可直接 UNCOMPRESS), 与 raw 二选一' AFTER `raw`,
+    ADD CONSTRAINT `chk_snapshot_raw` CHECK (`raw` IS NOT NULL OR `raw_z` IS NOT NULL);
+
+-- 3) 按分区分批把存量 raw 压缩到 raw_z (每批 5000 行)
+--    分区列表从 information_schema.PARTITIONS 读取 (含 pMAX), 不依赖执行时已有哪些月分区
+--    分区内按 id 键集推进 (id > 上一批的最大 id), 每批只扫描本批的 id 区间, 不会反复扫描已转换的行
+DROP PROCEDURE IF EXISTS `backfill_snapshot_raw_z`;
+DELIMITER $$
+CREATE PROCEDURE `backfill_snapshot_raw_z`()
+BEGIN
+    DECLARE done INT DEFAULT 0;
+    DECLARE p_partition VARCHAR(64);
+    DECLARE partitions CURSOR FOR
+        SELECT `PARTITION_NAME`
+        FROM information_schema.PARTITIONS
+        WHERE `TABLE_SCHEMA` = DATABASE()
+          AND `TABLE_NAME` = 'exchange_project_snapshot'
+          AND `PARTITION_NAME` IS NOT NULL
+        ORDER BY `PARTITION_ORDINAL_POSITION`;
+    DECLARE CONTINUE HANDLER FOR NOT FOUND SET done = 1;
+
+    OPEN partitions;
+    partition_loop:
+    LOOP
+        FETCH partitions INTO p_partition;
+        IF done = 1 THEN
+            LEAVE partition_loop;
+        END IF;
+        -- 本批的 id 上界: 从 @last_id 之后按 id 顺序取 5000 行, 没有剩余时为 NULL
+        SET @next_sql = CONCAT('SELECT MAX(`id`) INTO @hi_id FROM (',
+                               'SELECT `id` FROM `exchange_project_snapshot` PARTITION (`', p_partition, '`) ',
+                               'WHERE `id` > @last_id ORDER BY `id` LIMIT 5000) AS `batch`');
+        SET @update_sql = CONCAT('UPDATE `exchange_project_snapshot` PARTITION (`', p_partition, '`) ',
+                                 'SET `raw_z` = COMPRESS(CAST(`raw` AS CHAR)), `raw` = NULL ',
+                                 'WHERE `id` > @last_id AND `id` <= @hi_id AND `raw` IS NOT NULL');
+        PREPARE next_stmt FROM @next_sql;
+        PREPARE update_stmt FROM @update_sql;
+        SET @last_id = 0;
+        batch_loop:
+        LOOP
+            EXECUTE next_stmt;
+            IF @hi_id IS NULL THEN
+                LEAVE batch_loop;
+            END IF;
+            EXECUTE update_stmt;
+            SET @last_id = @hi_id;
+        END LOOP;
+        DEALLOCATE PREPARE next_stmt;
+        DEALLOCATE PREPARE update_stmt;
+    END LOOP;
+    CLOSE partitions;
+END $$
+DELIMITER ;
+
+CALL `backfill_snapshot_raw_z`();
+DROP PROCEDURE `backfill_snapshot_raw_z`;
@@ -0,0 +1,28 @@
+-- 005 新增 exchange_project_snapshot_rollup: 原始快照按 1h / 1d 汇总 (last / min / max / 时间加权 avg), 长区间曲线直接读取
+CREATE TABLE `exchange_project_snapshot_rollup`
+(
+    `project_id`     BIGINT          NOT NULL COMMENT '逻辑外键, 指向 exchange_project.id',
+    `source`         VARCHAR(32)     NOT NULL COMMENT '快照来源 (OKX_RANK/OKX_DETAIL/COMPUTED)',
+    `resolution`     VARCHAR(4)      NOT NULL COMMENT '分辨率: 1h / 1d (UTC 自然日)',
+    `bucket_ts`      TIMESTAMP(3)    NOT NULL COMMENT '桶起点',
+    `covered_ms`     BIGINT          NOT NULL COMMENT '桶内有值的时长 (毫秒), 合并粗分辨率时作为权重',
+    `aum_last`       DECIMAL(36, 18) NULL COMMENT 'AUM(USDT) 桶内最后值',
+    `aum_min`        DECIMAL(36, 18) NULL COMMENT 'AUM(USDT) 桶内最小值',
+    `aum_max`        DECIMAL(36, 18) NULL COMMENT 'AUM(USDT) 桶内最大值',
+    `aum_avg`        DECIMAL(36, 18) NULL COMMENT 'AUM(USDT) 按持续时间加权的平均值',
+    `followers_last` INT             NULL COMMENT '跟随人数桶内最后值',
+    `followers_min`  INT             NULL COMMENT '跟随人数桶内最小值',
+    `followers_max`  INT             NULL COMMENT '跟随人数桶内最大值',
+    `followers_avg`  DECIMAL(18, 6)  NULL COMMENT '跟随人数按持续时间加权的平均值',
+    `pnl_last`       DECIMAL(36, 18) NULL COMMENT '近90日收益 (USDT) 桶内最后值',
+    `pnl_min`        DECIMAL(36, 18) NULL COMMENT '近90日收益 (USDT) 桶内最小值',
+    `pnl_max`        DECIMAL(36, 18) NULL COMMENT '近90日收益 (USDT) 桶内最大值',
+    `pnl_avg`        DECIMAL(36, 18) NULL COMMENT '近90日收益 (USDT) 按持续时间加权的平均值',
+    `updated_at`     TIMESTAMP(3)    NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3) COMMENT '更新时间',
+    PRIMARY KEY (`project_id`, `source`, `resolution`, `bucket_ts`),
+    KEY `idx_res_bucket` (`resolution`, `bucket_ts`)
+)
+    ENGINE = InnoDB
+    DEFAULT CHARSET = utf8mb4
+    COLLATE = utf8mb4_0900_ai_ci
+    COMMENT ='项目快照汇总桶, 由 exchange_project_snapshot 按 1h / 1d 压缩, 长区间曲线直接读取';
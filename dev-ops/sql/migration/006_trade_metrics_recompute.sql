@@ -0,0 +1,22 @@
+-- 006 行情指标增量重算: 记录输入字段指纹, 新增按 (algo_ver, 分块) 的检查点表
+ALTER TABLE `exchange_project_trade_metrics`
+    ADD COLUMN `input_crc` INT UNSIGNED NULL COMMENT '计算时回合输入字段 (symbol/side/ts_open/ts_close/entry_price/qty) 的 CRC32, 与回合表不一致时重算' AFTER `extra`;
+
+CREATE TABLE `exchange_project_trade_metrics_checkpoint`
+(
+    `algo_ver`    VARCHAR(16)  NOT NULL COMMENT '算法版本',
+    `chunk_start` TIMESTAMP(3) NOT NULL COMMENT '分块起点 (ts_open, 包含)',
+    `chunk_end`   TIMESTAMP(3) NOT NULL COMMENT '分块终点 (ts_open, 不包含), 不跨月分区',
+    `pass`        INT          NOT NULL COMMENT '完成该分块的轮次',
+    `trades`      INT          NOT NULL COMMENT '本轮该分块中缺失或输入变化的回合数',
+    `computed`    INT          NOT NULL COMMENT '计算并写入的回合数',
+    `no_bars`     INT          NOT NULL COMMENT '无 K 线跳过的回合数',
+    `failed`      INT          NOT NULL COMMENT '数据不合法跳过的回合数',
+    `elapsed_ms`  BIGINT       NOT NULL COMMENT '分块耗时 (毫秒)',
+    `updated_at`  TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3) COMMENT '更新时间',
+    PRIMARY KEY (`algo_ver`, `chunk_start`)
+)
+    ENGINE = InnoDB
+    DEFAULT CHARSET = utf8mb4
+    COLLATE = utf8mb4_0900_ai_ci
+    COMMENT ='exchange_project_trade_metrics 按 ts_open 分块重算的检查点, 进程重启后跳过本轮已完成的分块';
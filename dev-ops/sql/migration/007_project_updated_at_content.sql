@@ -0,0 +1,4 @@
+-- 007 exchange_project.updated_at 改为内容版本: 批量 upsert / 写后缓冲落库显式维护, 仅推进 last_seen 时不刷新 (只改注释, 行为在 SQL 中)
+ALTER TABLE `exchange_project`
+    MODIFY COLUMN `updated_at` TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3)
+        COMMENT '内容最后变化时间 (用于读接口 ETag), 仅推进 last_seen 时不刷新';
@@ -13,6 +13,8 @@ CREATE TABLE `exchange_project`
     `base_currency`      VARCHAR(16)                         NULL     DEFAULT 'USDT' COMMENT '计价币 (默认USDT)',
     `data_quality_score` FLOAT                               NULL     DEFAULT 1.0 COMMENT '数据质量分 (0~1)',
     `extra`              JSON                                NOT NULL COMMENT '平台特有原始字段 (JSON)',
+    `extra_hash`         CHAR(64)                            NULL COMMENT 'extra 的 SHA-256 (十六进制), 未变化时批量 upsert 跳过 extra',
+    `updated_at`         TIMESTAMP(3)                        NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3) COMMENT '内容最后变化时间 (用于读接口 ETag), 仅推进 last_seen 时不刷新',
     PRIMARY KEY (`id`),
     UNIQUE KEY `uk_exchange_leader` (`exchange`, `leader_external_id`),
     KEY `idx_exchange` (`exchange`) USING BTREE
@@ -34,21 +36,15 @@ CREATE TABLE `exchange_project_snapshot`
     `positions_open` INT                                 NULL COMMENT '持仓笔数 (仅对包含持仓信息的来源有效)',
     `fees_daily`     DECIMAL(36, 18)                     NULL COMMENT '当日费用 (仅对包含费用信息的来源有效)',
     `pnl_daily`      DECIMAL(36, 18)                     NULL COMMENT '当日 PnL (仅对包含收益信息的来源有效)',
-    `raw`            JSON                                NOT NULL COMMENT '原始快照 JSON; 按 source 存放对应来源的原文 (便于审计与回放)',
-
-    -- 常用排序/筛选项做生成列, 避免每次查询解析 JSON
-    `aum_usd`        DECIMAL(36, 18)
-        GENERATED ALWAYS AS (CAST(JSON_UNQUOTE(JSON_EXTRACT(`raw`, '$.aum')) AS DECIMAL(36, 18))) STORED
-        COMMENT '生成列, raw($.aum) → AUM(USDT), 便于筛选/排序',
-    `win_ratio`      DECIMAL(18, 6)
-        GENERATED ALWAYS AS (CAST(JSON_UNQUOTE(JSON_EXTRACT(`raw`, '$.winRatio')) AS DECIMAL(18, 6))) STORED
-        COMMENT '生成列, raw($.winRatio) → 胜率 (0.1=10%)',
-    `pnl_ratio_90d`  DECIMAL(18, 6)
-        GENERATED ALWAYS AS (CAST(JSON_UNQUOTE(JSON_EXTRACT(`raw`, '$.pnlRatio')) AS DECIMAL(18, 6))) STORED
-        COMMENT '生成列, raw($.pnlRatio) → 近90日收益率',
-    `pnl_90d_usd`    DECIMAL(36, 18)
-        GENERATED ALWAYS AS (CAST(JSON_UNQUOTE(JSON_EXTRACT(`raw`, '$.pnl')) AS DECIMAL(36, 18))) STORED
-        COMMENT '生成列, raw($.pnl) → 近90日收益 (USDT)',
+    `raw`            JSON                                NULL COMMENT '原始快照 JSON; 按 source 存放对应来源的原文 (便于审计与回放), 压缩存储时为 NULL',
+    `raw_z`          MEDIUMBLOB                          NULL COMMENT '压缩后的原始快照 (MySQL COMPRESS 格式, 可直接 UNCOMPRESS), 与 raw 二选一',
+    `valid_until`    TIMESTAMP(3)                        NULL COMMENT '增量压缩: 指标持续不变的最后一次观察时间, NULL 表示只观察到一次',
+
+    -- 常用排序/筛选项由应用在入库时写入类型化的值, 数据库不再解析 JSON
+    `aum_usd`        DECIMAL(36, 18)                     NULL COMMENT 'AUM(USDT), 入库时由应用写入, 便于筛选/排序',
+    `win_ratio`      DECIMAL(18, 6)                      NULL COMMENT '胜率 (0.1=10%), 入库时由应用写入',
+    `pnl_ratio_90d`  DECIMAL(18, 6)                      NULL COMMENT '近90日收益率, 入库时由应用写入',
+    `pnl_90d_usd`    DECIMAL(36, 18)                     NULL COMMENT '近90日收益 (USDT), 入库时由应用写入',
 
     PRIMARY KEY (`id`),
 
@@ -58,7 +54,9 @@ CREATE TABLE `exchange_project_snapshot`
     KEY `idx_proj_ts` (`project_id`, `ts`) USING BTREE,
     KEY `idx_snapshot_aum` (`aum_usd`) USING BTREE,
     KEY `idx_snapshot_win_ratio` (`win_ratio`) USING BTREE,
-    KEY `idx_snapshot_pnl_ratio` (`pnl_ratio_90d`) USING BTREE
+    KEY `idx_snapshot_pnl_ratio` (`pnl_ratio_90d`) USING BTREE,
+
+    CHECK (`raw` IS NOT NULL OR `raw_z` IS NOT NULL)
 )
     ENGINE = InnoDB
     DEFAULT CHARSET = utf8mb4
@@ -167,6 +165,7 @@ CREATE TABLE `exchange_project_trade_metrics`
 
     `quality_score` FLOAT           NULL     DEFAULT 1.0 COMMENT '数据质量分 (0~1), 低于阈值可标记无效',
     `extra`         JSON            NOT NULL COMMENT '计算上下文与参数原文 (如 bars 使用条数, 异常标记等)',
+    `input_crc`     INT UNSIGNED    NULL COMMENT '计算时回合输入字段 (symbol/side/ts_open/ts_close/entry_price/qty) 的 CRC32, 与回合表不一致时重算',
 
     PRIMARY KEY (`id`),
 
@@ -349,3 +348,53 @@ CREATE TABLE `rm_project_kpi_window`
     COLLATE = utf8mb4_0900_ai_ci
     COMMENT ='读模型 · 窗口KPI物化, 列表/排行榜直接读取, 算法变更用 algo_ver 版本化, 便于灰度与回滚';
 
+
+-- 读模型, 项目快照汇总桶 (1h / 1d, 长区间曲线读取)
+CREATE TABLE `exchange_project_snapshot_rollup`
+(
+    `project_id`     BIGINT          NOT NULL COMMENT '逻辑外键, 指向 exchange_project.id',
+    `source`         VARCHAR(32)     NOT NULL COMMENT '快照来源 (OKX_RANK/OKX_DETAIL/COMPUTED)',
+    `resolution`     VARCHAR(4)      NOT NULL COMMENT '分辨率: 1h / 1d (UTC 自然日)',
+    `bucket_ts`      TIMESTAMP(3)    NOT NULL COMMENT '桶起点',
+    `covered_ms`     BIGINT          NOT NULL COMMENT '桶内有值的时长 (毫秒), 合并粗分辨率时作为权重',
+    `aum_last`       DECIMAL(36, 18) NULL COMMENT 'AUM(USDT) 桶内最后值',
+    `aum_min`        DECIMAL(36, 18) NULL COMMENT 'AUM(USDT) 桶内最小值',
+    `aum_max`        DECIMAL(36, 18) NULL COMMENT 'AUM(USDT) 桶内最大值',
+    `aum_avg`        DECIMAL(36, 18) NULL COMMENT 'AUM(USDT) 按持续时间加权的平均值',
+    `followers_last` INT             NULL COMMENT '跟随人数桶内最后值',
+    `followers_min`  INT             NULL COMMENT '跟随人数桶内最小值',
+    `followers_max`  INT             NULL COMMENT '跟随人数桶内最大值',
+    `followers_avg`  DECIMAL(18, 6)  NULL COMMENT '跟随人数按持续时间加权的平均值',
+    `pnl_last`       DECIMAL(36, 18) NULL COMMENT '近90日收益 (USDT) 桶内最后值',
+    `pnl_min`        DECIMAL(36, 18) NULL COMMENT '近90日收益 (USDT) 桶内最小值',
+    `pnl_max`        DECIMAL(36, 18) NULL COMMENT '近90日收益 (USDT) 桶内最大值',
+    `pnl_avg`        DECIMAL(36, 18) NULL COMMENT '近90日收益 (USDT) 按持续时间加权的平均值',
+    `updated_at`     TIMESTAMP(3)    NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3) COMMENT '更新时间',
+    PRIMARY KEY (`project_id`, `source`, `resolution`, `bucket_ts`),
+    KEY `idx_res_bucket` (`resolution`, `bucket_ts`)
+)
+    ENGINE = InnoDB
+    DEFAULT CHARSET = utf8mb4
+    COLLATE = utf8mb4_0900_ai_ci
+    COMMENT ='项目快照汇总桶, 由 exchange_project_snapshot 按 1h / 1d 压缩, 长区间曲线直接读取';
+
+
+-- 行情指标重算检查点, 每个 (algo_ver, 分块) 一行, 记录最近一次完成该分块的轮次
+CREATE TABLE `exchange_project_trade_metrics_checkpoint`
+(
+    `algo_ver`    VARCHAR(16)  NOT NULL COMMENT '算法版本',
+    `chunk_start` TIMESTAMP(3) NOT NULL COMMENT '分块起点 (ts_open, 包含)',
+    `chunk_end`   TIMESTAMP(3) NOT NULL COMMENT '分块终点 (ts_open, 不包含), 不跨月分区',
+    `pass`        INT          NOT NULL COMMENT '完成该分块的轮次',
+    `trades`      INT          NOT NULL COMMENT '本轮该分块中缺失或输入变化的回合数',
+    `computed`    INT          NOT NULL COMMENT '计算并写入的回合数',
+    `no_bars`     INT          NOT NULL COMMENT '无 K 线跳过的回合数',
+    `failed`      INT          NOT NULL COMMENT '数据不合法跳过的回合数',
+    `elapsed_ms`  BIGINT       NOT NULL COMMENT '分块耗时 (毫秒)',
+    `updated_at`  TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3) COMMENT '更新时间',
+    PRIMARY KEY (`algo_ver`, `chunk_start`)
+)
+    ENGINE = InnoDB
+    DEFAULT CHARSET = utf8mb4
+    COLLATE = utf8mb4_0900_ai_ci
+    COMMENT ='exchange_project_trade_metrics 按 ts_open 分块重算的检查点, 进程重启后跳过本轮已完成的分块';
@@ -0,0 +1,21 @@
+package xin.eason.smartfollow.api;
+
+import org.springframework.http.ResponseEntity;
+import xin.eason.smartfollow.api.request.LeadTradersPageRequest;
+import xin.eason.smartfollow.api.response.LeadTradersPageResponse;
+
+/**
+ * 榜单读接口
+ */
+public interface ILeaderboardApi {
+
+    /**
+     * 分页查询榜单; 响应带有由 dataVer 构造的强 ETag, {@code If-None-Match} 命中时直接返回 304
+     * <p>请求的 dataVer 已不在内存中时使用最新版本, 并带上 {@code X-Data-Ver-Fallback} 响应头 (值为原请求版本)</p>
+     *
+     * @param request     查询条件
+     * @param ifNoneMatch 请求头 {@code If-None-Match}, 可空
+     * @return 200 + 分页结果, 304 (未变化), 400 (参数非法, 或按资产范围过滤 / 按当前跟单人收益排序), 或 404 (尚无可用榜单)
+     */
+    ResponseEntity<LeadTradersPageResponse> queryLeadTraders(LeadTradersPageRequest request, String ifNoneMatch);
+}
@@ -0,0 +1,36 @@
+package xin.eason.smartfollow.api;
+
+import org.springframework.http.ResponseEntity;
+import xin.eason.smartfollow.api.response.ProjectResponse;
+import xin.eason.smartfollow.api.response.SnapshotSeriesResponse;
+
+/**
+ * 项目主档读接口
+ */
+public interface IProjectApi {
+
+    /**
+     * 查询项目主档; 响应带有由内容最后变化时间构造的弱 ETag (lastSeen 的推进不产生新版本), {@code If-None-Match} 命中时直接返回 304
+     *
+     * @param exchange    交易所标识 (OKX/BINANCE)
+     * @param externalId  平台侧外部 ID
+     * @param ifNoneMatch 请求头 {@code If-None-Match}, 可空
+     * @return 200 + 项目主档, 304 (未变化), 或 404 (项目不存在)
+     */
+    ResponseEntity<ProjectResponse> queryProject(String exchange, String externalId, String ifNoneMatch);
+
+    /**
+     * 查询项目指标曲线, 按 LTTB 降采样到不超过 {@code points} 个点 (保留峰谷), 响应大小与历史长度无关
+     *
+     * @param exchange   交易所标识 (OKX/BINANCE)
+     * @param externalId 平台侧外部 ID
+     * @param source     快照来源, 默认 <code>OKX_RANK</code>
+     * @param metric     降采样依据的指标, 默认 <code>aum_usd</code>
+     * @param from       起始时间 (毫秒时间戳, 包含), 默认结束时间前 90 天
+     * @param to         结束时间 (毫秒时间戳, 不包含), 默认当前时间
+     * @param points     目标点数, 默认 500
+     * @return 200 + 降采样时序, 或 404 (项目不存在)
+     */
+    ResponseEntity<SnapshotSeriesResponse> querySeries(String exchange, String externalId, String source, String metric,
+                                                       Long from, Long to, Integer points);
+}
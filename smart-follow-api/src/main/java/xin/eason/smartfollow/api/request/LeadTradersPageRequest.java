@@ -0,0 +1,54 @@
+package xin.eason.smartfollow.api.request;
+
+import lombok.Data;
+
+/**
+ * 榜单分页查询请求 (字段含义与 OKX <code>public-lead-traders</code> 查询条件一致)
+ */
+@Data
+public class LeadTradersPageRequest {
+    /**
+     * 产品类型 (<code>SWAP</code> / <code>SPOT</code>), 默认 <code>SWAP</code>
+     */
+    private String instType;
+    /**
+     * 排序字段 (<code>overview</code> / <code>pnl</code> / <code>aum</code> / <code>win_ratio</code> / <code>pnl_ratio</code>)
+     */
+    private String sortType;
+    /**
+     * 交易员状态 (<code>0</code>: 全部, <code>1</code>: 有空位)
+     */
+    private String state;
+    /**
+     * 最短带单时长档位 (<code>1</code>: 7 天, <code>2</code>: 30 天, <code>3</code>: 90 天, <code>4</code>: 180 天)
+     */
+    private String minLeadDays;
+    /**
+     * 交易员资产范围的最小值, 单位为 USDT
+     */
+    private String minAssets;
+    /**
+     * 交易员资产范围的最大值, 单位为 USDT
+     */
+    private String maxAssets;
+    /**
+     * 带单规模的最小值, 单位为 USDT
+     */
+    private String minAum;
+    /**
+     * 带单规模的最大值, 单位为 USDT
+     */
+    private String maxAum;
+    /**
+     * 数据版本, 为空表示最新版本
+     */
+    private String dataVer;
+    /**
+     * 当前页码, 默认为 1
+     */
+    private Integer page;
+    /**
+     * 每页条数, 默认为 20
+     */
+    private Integer limit;
+}
@@ -0,0 +1,52 @@
+package xin.eason.smartfollow.api.response;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * 榜单中的单个交易员
+ */
+@Data
+public class LeadTraderResponse {
+    /**
+     * 交易员唯一标识码
+     */
+    private String externalId;
+    /**
+     * 项目名称
+     */
+    private String name;
+    /**
+     * 结算币种
+     */
+    private String baseCurrency;
+    /**
+     * 带单规模
+     */
+    private BigDecimal aum;
+    /**
+     * 跟随者数量
+     */
+    private Integer followers;
+    /**
+     * 跟随者数量上限
+     */
+    private Integer maxFollowers;
+    /**
+     * 带单天数
+     */
+    private Integer leadDays;
+    /**
+     * 收益额
+     */
+    private BigDecimal pnl;
+    /**
+     * 收益率
+     */
+    private BigDecimal pnlRatio;
+    /**
+     * 胜率
+     */
+    private BigDecimal winRatio;
+}
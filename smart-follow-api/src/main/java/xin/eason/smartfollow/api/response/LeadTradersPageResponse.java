@@ -0,0 +1,24 @@
+package xin.eason.smartfollow.api.response;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 榜单分页查询响应
+ */
+@Data
+public class LeadTradersPageResponse {
+    /**
+     * 本页实际使用的数据版本
+     */
+    private String dataVer;
+    /**
+     * 总页数
+     */
+    private int totalPage;
+    /**
+     * 当前页的交易员列表
+     */
+    private List<LeadTraderResponse> ranks;
+}
@@ -0,0 +1,49 @@
+package xin.eason.smartfollow.api.response;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * 项目主档响应
+ */
+@Data
+public class ProjectResponse {
+    /**
+     * 交易所标识 (OKX/BINANCE)
+     */
+    private String exchange;
+    /**
+     * 平台侧外部 ID
+     */
+    private String externalId;
+    /**
+     * 项目名称
+     */
+    private String name;
+    /**
+     * 结算币种
+     */
+    private String baseCurrency;
+    /**
+     * 最后一次可见状态
+     */
+    private String lastVisibility;
+    /**
+     * 第一次可见时间
+     */
+    private Instant firstSeen;
+    /**
+     * 最后一次可见时间
+     */
+    private Instant lastSeen;
+    /**
+     * 最小跟单数额
+     */
+    private BigDecimal minCopyCost;
+    /**
+     * 项目运行状态
+     */
+    private String status;
+}
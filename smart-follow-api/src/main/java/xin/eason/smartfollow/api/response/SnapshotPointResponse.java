@@ -0,0 +1,41 @@
+package xin.eason.smartfollow.api.response;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * 时序点响应
+ */
+@Data
+public class SnapshotPointResponse {
+    /**
+     * 时间戳
+     */
+    private Instant ts;
+    /**
+     * 带单规模
+     */
+    private BigDecimal aumUsd;
+    /**
+     * 跟随者数量
+     */
+    private Integer followers;
+    /**
+     * 胜率
+     */
+    private BigDecimal winRatio;
+    /**
+     * 近 90 日收益率
+     */
+    private BigDecimal pnlRatio90d;
+    /**
+     * 近 90 日收益
+     */
+    private BigDecimal pnl90dUsd;
+    /**
+     * 可见性 (VISIBLE/MISSING/HIDDEN)
+     */
+    private String visibility;
+}
@@ -0,0 +1,28 @@
+package xin.eason.smartfollow.api.response;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 降采样时序响应
+ */
+@Data
+public class SnapshotSeriesResponse {
+    /**
+     * 降采样依据的指标
+     */
+    private String metric;
+    /**
+     * 数据分辨率 (<code>raw</code> / <code>1h</code> / <code>1d</code>)
+     */
+    private String resolution;
+    /**
+     * 降采样前的点数
+     */
+    private Integer rawPoints;
+    /**
+     * 降采样后的时序点, 按时间升序
+     */
+    private List<SnapshotPointResponse> points;
+}
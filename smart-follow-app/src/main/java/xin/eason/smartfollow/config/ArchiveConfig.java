@@ -0,0 +1,37 @@
+package xin.eason.smartfollow.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import xin.eason.smartfollow.infrastructure.archive.SegmentLogStore;
+
+import java.nio.file.Path;
+
+/**
+ * 原始响应本地归档配置
+ * <p>根据 {@link ArchiveProperties} 打开分段日志存储, 容器关闭时自动调用 {@link SegmentLogStore#close()}</p>
+ */
+@Configuration
+@EnableConfigurationProperties(ArchiveProperties.class)
+@RequiredArgsConstructor
+public class ArchiveConfig {
+
+    /**
+     * 归档配置属性
+     */
+    private final ArchiveProperties archiveProperties;
+
+    /**
+     * 打开 (或创建) 原始响应归档的分段日志存储
+     *
+     * @return 分段日志存储
+     */
+    @Bean(destroyMethod = "close")
+    public SegmentLogStore rawResponseSegmentLogStore() {
+        return new SegmentLogStore(
+                Path.of(archiveProperties.getDir()),
+                archiveProperties.getSegmentSizeBytes(),
+                archiveProperties.isFsync());
+    }
+}
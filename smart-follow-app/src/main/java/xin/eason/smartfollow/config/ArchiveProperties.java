@@ -0,0 +1,24 @@
+package xin.eason.smartfollow.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 原始响应本地归档配置属性
+ */
+@Data
+@ConfigurationProperties(prefix = "smart-follow.archive")
+public class ArchiveProperties {
+    /**
+     * 归档根目录 (分段文件与索引文件所在目录)
+     */
+    private String dir = "data/raw-archive";
+    /**
+     * 单个分段文件的滚动阈值 (字节), 默认 256MB, 最大 1GB
+     */
+    private long segmentSizeBytes = 256L * 1024 * 1024;
+    /**
+     * 每次追加后是否强制刷盘; 关闭时依赖操作系统刷盘, 崩溃后由索引恢复逻辑截断残缺记录
+     */
+    private boolean fsync = false;
+}
@@ -0,0 +1,34 @@
+package xin.eason.smartfollow.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import xin.eason.smartfollow.infrastructure.archive.ColdSnapshotStore;
+
+import java.nio.file.Path;
+
+/**
+ * 冷存储归档配置
+ * <p>根据 {@link ColdArchiveProperties} 打开快照冷存储; 归档任务关闭时仍会加载已有的冷分区, 保证读路径完整</p>
+ */
+@Configuration
+@EnableConfigurationProperties(ColdArchiveProperties.class)
+@RequiredArgsConstructor
+public class ColdArchiveConfig {
+
+    /**
+     * 冷存储配置属性
+     */
+    private final ColdArchiveProperties coldArchiveProperties;
+
+    /**
+     * 打开 (或创建) 快照冷存储
+     *
+     * @return 快照冷存储
+     */
+    @Bean(destroyMethod = "close")
+    public ColdSnapshotStore coldSnapshotStore() {
+        return new ColdSnapshotStore(Path.of(coldArchiveProperties.getDir()), coldArchiveProperties.getRowGroupRows());
+    }
+}
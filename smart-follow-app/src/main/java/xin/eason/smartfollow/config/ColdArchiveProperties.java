@@ -0,0 +1,20 @@
+package xin.eason.smartfollow.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 冷存储归档配置属性
+ */
+@Data
+@ConfigurationProperties(prefix = "smart-follow.cold-archive")
+public class ColdArchiveProperties {
+    /**
+     * 冷存储根目录 (每张表一个子目录, 每个月分区一个列存文件)
+     */
+    private String dir = "data/cold-archive";
+    /**
+     * 每个行组的行数; 行组是 min / max 裁剪与解码的最小单位
+     */
+    private int rowGroupRows = 65536;
+}
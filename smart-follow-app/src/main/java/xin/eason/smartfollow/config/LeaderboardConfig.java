@@ -0,0 +1,88 @@
+package xin.eason.smartfollow.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import xin.eason.smartfollow.domain.ILeaderboardService;
+import xin.eason.smartfollow.domain.service.leaderboard.LeaderboardResultCache;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 内存榜单配置
+ * <p>根据 {@link LeaderboardProperties} 创建查询结果缓存, 并将 {@link ILeaderboardService} 的统计绑定到 Micrometer</p>
+ */
+@Configuration
+@EnableConfigurationProperties(LeaderboardProperties.class)
+@RequiredArgsConstructor
+public class LeaderboardConfig {
+
+    /**
+     * 内存榜单配置属性
+     */
+    private final LeaderboardProperties leaderboardProperties;
+
+    /**
+     * 创建榜单查询结果缓存
+     *
+     * @return 查询结果缓存
+     */
+    @Bean
+    public LeaderboardResultCache leaderboardResultCache() {
+        LeaderboardProperties.Cache cache = leaderboardProperties.getCache();
+        return new LeaderboardResultCache(cache.getMaxEntries(), cache.getMaxBytes());
+    }
+
+    @Bean
+    public MeterBinder leaderboardMetrics(ILeaderboardService leaderboardService) {
+        return (MeterRegistry registry) -> {
+            FunctionTimer.builder("smart_follow.leaderboard.query", leaderboardService,
+                            s -> s.stats().getQueryCount(),
+                            s -> s.stats().getQueryTotalNanos(),
+                            TimeUnit.NANOSECONDS)
+                    .description("内存榜单查询耗时")
+                    .register(registry);
+            Gauge.builder("smart_follow.leaderboard.query.max", leaderboardService, s -> s.stats().getQueryMaxNanos() / 1_000_000.0)
+                    .description("内存榜单单次查询最大耗时")
+                    .baseUnit("milliseconds")
+                    .register(registry);
+            Gauge.builder("smart_follow.leaderboard.memory", leaderboardService, s -> s.stats().getMemoryBytes())
+                    .description("内存榜单列式数组与排序下标估算占用")
+                    .baseUnit("bytes")
+                    .register(registry);
+            Gauge.builder("smart_follow.leaderboard.rows", leaderboardService, s -> s.stats().getRows())
+                    .description("内存榜单当前行数 (全部版本)")
+                    .register(registry);
+            Gauge.builder("smart_follow.leaderboard.versions", leaderboardService, s -> s.stats().getVersions())
+                    .description("内存榜单当前持有的版本数")
+                    .register(registry);
+
+            // ===== 查询结果缓存 =====
+            FunctionCounter.builder("smart_follow.leaderboard.cache.hits", leaderboardService, s -> s.cacheStats().getHits())
+                    .description("榜单结果缓存命中次数")
+                    .register(registry);
+            FunctionCounter.builder("smart_follow.leaderboard.cache.misses", leaderboardService, s -> s.cacheStats().getMisses())
+                    .description("榜单结果缓存未命中次数")
+                    .register(registry);
+            FunctionCounter.builder("smart_follow.leaderboard.cache.evictions", leaderboardService, s -> s.cacheStats().getEvictions())
+                    .description("榜单结果缓存淘汰条目数")
+                    .register(registry);
+            FunctionCounter.builder("smart_follow.leaderboard.cache.invalidations", leaderboardService, s -> s.cacheStats().getInvalidations())
+                    .description("榜单结果缓存因新版本整体失效次数")
+                    .register(registry);
+            Gauge.builder("smart_follow.leaderboard.cache.hit.ratio", leaderboardService, s -> s.cacheStats().hitRatio())
+                    .description("榜单结果缓存命中率")
+                    .register(registry);
+            Gauge.builder("smart_follow.leaderboard.cache.size", leaderboardService, s -> s.cacheStats().getBytes())
+                    .description("榜单结果缓存估算占用")
+                    .baseUnit("bytes")
+                    .register(registry);
+        };
+    }
+}
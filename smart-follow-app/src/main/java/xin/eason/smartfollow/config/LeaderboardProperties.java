@@ -0,0 +1,28 @@
+package xin.eason.smartfollow.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 内存榜单配置属性
+ */
+@Data
+@ConfigurationProperties(prefix = "smart-follow.leaderboard")
+public class LeaderboardProperties {
+    /**
+     * 查询结果缓存配置
+     */
+    private Cache cache = new Cache();
+
+    @Data
+    public static class Cache {
+        /**
+         * 条目数上限
+         */
+        private int maxEntries = 10_000;
+        /**
+         * 字节预算, 默认 32MB
+         */
+        private long maxBytes = 32L * 1024 * 1024;
+    }
+}
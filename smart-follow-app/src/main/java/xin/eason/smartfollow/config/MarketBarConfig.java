@@ -0,0 +1,44 @@
+package xin.eason.smartfollow.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import xin.eason.smartfollow.infrastructure.archive.BarFileStore;
+
+import java.nio.file.Path;
+
+/**
+ * 行情 K 线本地存储配置
+ * <p>根据 {@link MarketBarProperties} 打开 K 线存储, 容器关闭时自动调用 {@link BarFileStore#close()}</p>
+ */
+@Configuration
+@EnableConfigurationProperties(MarketBarProperties.class)
+@RequiredArgsConstructor
+public class MarketBarConfig {
+
+    /**
+     * K 线存储配置属性
+     */
+    private final MarketBarProperties marketBarProperties;
+
+    /**
+     * 打开 (或创建) K 线存储
+     *
+     * @return K 线存储
+     */
+    @Bean(destroyMethod = "close")
+    public BarFileStore barFileStore() {
+        return new BarFileStore(Path.of(marketBarProperties.getDir()), marketBarProperties.getGrowRecords());
+    }
+
+    @Bean
+    public MeterBinder marketBarMetrics(BarFileStore barFileStore) {
+        return (MeterRegistry registry) -> Gauge.builder("smart_follow.market.bars.files", barFileStore, BarFileStore::openFiles)
+                .description("已打开 (映射) 的 K 线文件数")
+                .register(registry);
+    }
+}
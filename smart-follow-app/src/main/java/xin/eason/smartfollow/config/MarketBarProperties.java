@@ -0,0 +1,20 @@
+package xin.eason.smartfollow.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 行情 K 线本地存储配置属性
+ */
+@Data
+@ConfigurationProperties(prefix = "smart-follow.market.bars")
+public class MarketBarProperties {
+    /**
+     * K 线存储根目录 (每个 价格口径 / 粒度 / 标的 一个文件)
+     */
+    private String dir = "data/bars";
+    /**
+     * 文件每次扩展的记录数 (每根 40 字节)
+     */
+    private int growRecords = 4096;
+}
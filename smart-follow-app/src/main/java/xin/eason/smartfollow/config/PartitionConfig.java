@@ -0,0 +1,87 @@
+package xin.eason.smartfollow.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import xin.eason.smartfollow.domain.IPartitionMaintenanceService;
+import xin.eason.smartfollow.domain.model.vo.partition.PartitionMaintenanceVO;
+import xin.eason.smartfollow.domain.model.vo.partition.PartitionPolicyVO;
+import xin.eason.smartfollow.domain.model.vo.partition.PartitionedTable;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 按月分区维护配置
+ * <p>根据 {@link PartitionProperties} 创建维护策略, 并将各表兜底分区的行数绑定到 Micrometer</p>
+ */
+@Configuration
+@EnableConfigurationProperties(PartitionProperties.class)
+@RequiredArgsConstructor
+public class PartitionConfig {
+
+    /**
+     * 分区维护配置属性
+     */
+    private final PartitionProperties partitionProperties;
+
+    /**
+     * 创建分区维护策略
+     *
+     * @return 分区维护策略
+     */
+    @Bean
+    public PartitionPolicyVO partitionPolicy() {
+        PartitionProperties.Retention retention = partitionProperties.getRetention();
+        Map<PartitionedTable, Integer> months = new EnumMap<>(PartitionedTable.class);
+        months.put(PartitionedTable.SNAPSHOT, retention.getSnapshotMonths());
+        months.put(PartitionedTable.TRADE, retention.getTradeMonths());
+        months.put(PartitionedTable.TRADE_METRICS, retention.getTradeMetricsMonths());
+        return new PartitionPolicyVO(partitionProperties.getAheadMonths(), months, partitionProperties.getRetentionMode());
+    }
+
+    @Bean
+    public MeterBinder partitionMetrics(IPartitionMaintenanceService partitionMaintenanceService) {
+        return (MeterRegistry registry) -> {
+            for (PartitionedTable table : PartitionedTable.values()) {
+                Gauge.builder("smart_follow.partition.max.rows", partitionMaintenanceService, s -> maxRows(s, table))
+                        .description("兜底分区 pMAX 的估算行数, 非 0 说明分区没有提前切出")
+                        .tag("table", table.getTableName())
+                        .register(registry);
+                Gauge.builder("smart_follow.partition.split.skipped", partitionMaintenanceService, s -> skippedCount(s, table))
+                        .description("因兜底分区 pMAX 非空而跳过切出的月分区数量, 非 0 需要人工处理")
+                        .tag("table", table.getTableName())
+                        .register(registry);
+                Gauge.builder("smart_follow.partition.count", partitionMaintenanceService, s -> partitionCount(s, table))
+                        .description("表当前的分区数量")
+                        .tag("table", table.getTableName())
+                        .register(registry);
+            }
+        };
+    }
+
+    private static double maxRows(IPartitionMaintenanceService service, PartitionedTable table) {
+        for (PartitionMaintenanceVO report : service.lastReports())
+            if (report.table() == table)
+                return report.maxPartitionRows();
+        return 0;
+    }
+
+    private static double skippedCount(IPartitionMaintenanceService service, PartitionedTable table) {
+        for (PartitionMaintenanceVO report : service.lastReports())
+            if (report.table() == table)
+                return report.skipped().size();
+        return 0;
+    }
+
+    private static double partitionCount(IPartitionMaintenanceService service, PartitionedTable table) {
+        for (PartitionMaintenanceVO report : service.lastReports())
+            if (report.table() == table)
+                return report.partitions().size();
+        return 0;
+    }
+}
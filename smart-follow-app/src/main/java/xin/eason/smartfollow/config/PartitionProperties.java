@@ -0,0 +1,41 @@
+package xin.eason.smartfollow.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import xin.eason.smartfollow.domain.model.vo.partition.RetentionMode;
+
+/**
+ * 按月分区维护配置属性
+ */
+@Data
+@ConfigurationProperties(prefix = "smart-follow.partition")
+public class PartitionProperties {
+    /**
+     * 提前创建的月份数 (不含当月)
+     */
+    private int aheadMonths = 2;
+    /**
+     * 过期分区的处理方式
+     */
+    private RetentionMode retentionMode = RetentionMode.NONE;
+    /**
+     * 各表保留的月份数 (不含当月), 0 表示永久保留
+     */
+    private Retention retention = new Retention();
+
+    @Data
+    public static class Retention {
+        /**
+         * exchange_project_snapshot
+         */
+        private int snapshotMonths;
+        /**
+         * exchange_project_trade
+         */
+        private int tradeMonths;
+        /**
+         * exchange_project_trade_metrics
+         */
+        private int tradeMetricsMonths;
+    }
+}
@@ -0,0 +1,12 @@
+package xin.eason.smartfollow.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * 定时任务配置, 开启 trigger 层 {@code @Scheduled} 任务
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
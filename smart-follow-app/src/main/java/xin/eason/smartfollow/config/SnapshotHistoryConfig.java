@@ -0,0 +1,51 @@
+package xin.eason.smartfollow.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import xin.eason.smartfollow.domain.service.observation.SnapshotHistoryBuffer;
+
+import java.time.Duration;
+
+/**
+ * 项目近期历史配置
+ * <p>根据 {@link SnapshotHistoryProperties} 创建内存环形缓冲, 并将其规模绑定到 Micrometer</p>
+ */
+@Configuration
+@EnableConfigurationProperties(SnapshotHistoryProperties.class)
+@RequiredArgsConstructor
+public class SnapshotHistoryConfig {
+
+    /**
+     * 项目近期历史配置属性
+     */
+    private final SnapshotHistoryProperties snapshotHistoryProperties;
+
+    /**
+     * 创建项目近期历史环形缓冲
+     *
+     * @return 环形缓冲
+     */
+    @Bean
+    public SnapshotHistoryBuffer snapshotHistoryBuffer() {
+        return new SnapshotHistoryBuffer(snapshotHistoryProperties.getSource(), snapshotHistoryProperties.getCapacity(),
+                Duration.ofDays(snapshotHistoryProperties.getWarmUpDays()));
+    }
+
+    @Bean
+    public MeterBinder snapshotHistoryMetrics(SnapshotHistoryBuffer snapshotHistoryBuffer) {
+        return (MeterRegistry registry) -> {
+            Gauge.builder("smart_follow.snapshot.history.projects", snapshotHistoryBuffer, SnapshotHistoryBuffer::projects)
+                    .description("内存历史中有数据的项目数")
+                    .register(registry);
+            Gauge.builder("smart_follow.snapshot.history.memory", snapshotHistoryBuffer, SnapshotHistoryBuffer::memoryBytes)
+                    .description("内存历史数组估算占用")
+                    .baseUnit("bytes")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,25 @@
+package xin.eason.smartfollow.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import xin.eason.smartfollow.types.enums.SnapshotSource;
+
+/**
+ * 项目近期历史 (内存环形缓冲) 配置属性
+ */
+@Data
+@ConfigurationProperties(prefix = "smart-follow.snapshot.history")
+public class SnapshotHistoryProperties {
+    /**
+     * 缓冲的快照来源
+     */
+    private SnapshotSource source = SnapshotSource.OKX_RANK;
+    /**
+     * 每个项目保留的行数
+     */
+    private int capacity = 64;
+    /**
+     * 启动预热回查的天数
+     */
+    private int warmUpDays = 30;
+}
@@ -0,0 +1,57 @@
+package xin.eason.smartfollow.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import xin.eason.smartfollow.domain.service.trade.TradeIdFilterIndex;
+
+import java.time.Duration;
+
+/**
+ * 仓位回合批量写入配置
+ * <p>根据 {@link TradeIngestProperties} 创建幂等预检索引, 并将过滤器规模与假阳性率绑定到 Micrometer</p>
+ */
+@Configuration
+@EnableConfigurationProperties(TradeIngestProperties.class)
+@RequiredArgsConstructor
+public class TradeIngestConfig {
+
+    /**
+     * 批量写入配置属性
+     */
+    private final TradeIngestProperties tradeIngestProperties;
+
+    /**
+     * 创建幂等预检索引
+     *
+     * @return 预检索引
+     */
+    @Bean
+    public TradeIdFilterIndex tradeIdFilterIndex() {
+        return new TradeIdFilterIndex(tradeIngestProperties.getFpp(), tradeIngestProperties.getMinCapacity(),
+                Duration.ofHours(tradeIngestProperties.getIdleHours()), tradeIngestProperties.isVerifyPositives());
+    }
+
+    @Bean
+    public MeterBinder tradeIngestMetrics(TradeIdFilterIndex tradeIdFilterIndex) {
+        return (MeterRegistry registry) -> {
+            Gauge.builder("smart_follow.trade.ingest.filters", tradeIdFilterIndex, TradeIdFilterIndex::size)
+                    .description("已加载的 (项目, 月分区) 布隆过滤器数量")
+                    .register(registry);
+            Gauge.builder("smart_follow.trade.ingest.filter.memory", tradeIdFilterIndex, TradeIdFilterIndex::memoryBytes)
+                    .description("布隆过滤器位数组总占用")
+                    .baseUnit("bytes")
+                    .register(registry);
+            Gauge.builder("smart_follow.trade.ingest.fpp.expected", tradeIdFilterIndex, TradeIdFilterIndex::maxExpectedFpp)
+                    .description("已加载过滤器按写入量估算的假阳性率 (最大值)")
+                    .register(registry);
+            Gauge.builder("smart_follow.trade.ingest.fpp.observed", tradeIdFilterIndex, TradeIdFilterIndex::observedFpp)
+                    .description("回查确认的实测假阳性率")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,28 @@
+package xin.eason.smartfollow.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 仓位回合批量写入 (布隆过滤器预检) 配置属性
+ */
+@Data
+@ConfigurationProperties(prefix = "smart-follow.trade.ingest")
+public class TradeIngestProperties {
+    /**
+     * 单个过滤器的目标假阳性率
+     */
+    private double fpp = 0.01;
+    /**
+     * 单个过滤器的最小容量 (键数)
+     */
+    private long minCapacity = 1024;
+    /**
+     * 超过该小时数未访问的过滤器在重建时淘汰
+     */
+    private int idleHours = 6;
+    /**
+     * 过滤器命中时是否回查数据库确认; 关闭后假阳性的新回合会被当作重复丢弃
+     */
+    private boolean verifyPositives = true;
+}
@@ -0,0 +1,43 @@
+package xin.eason.smartfollow.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import xin.eason.smartfollow.domain.service.trade.TradeMatchingEngine;
+
+/**
+ * 开平仓撮合配置
+ * <p>根据 {@link TradeMatchingProperties} 创建撮合引擎, 容器关闭时自动调用 {@link TradeMatchingEngine#close()} 停止分片线程</p>
+ */
+@Configuration
+@EnableConfigurationProperties(TradeMatchingProperties.class)
+@RequiredArgsConstructor
+public class TradeMatchingConfig {
+
+    /**
+     * 撮合配置属性
+     */
+    private final TradeMatchingProperties tradeMatchingProperties;
+
+    /**
+     * 创建撮合引擎
+     *
+     * @return 撮合引擎
+     */
+    @Bean(destroyMethod = "close")
+    public TradeMatchingEngine tradeMatchingEngine() {
+        int shards = tradeMatchingProperties.getShards();
+        return new TradeMatchingEngine(shards > 0 ? shards : Runtime.getRuntime().availableProcessors());
+    }
+
+    @Bean
+    public MeterBinder tradeMatchingMetrics(TradeMatchingEngine tradeMatchingEngine) {
+        return (MeterRegistry registry) -> Gauge.builder("smart_follow.trade.matching.open.lots", tradeMatchingEngine, TradeMatchingEngine::openLots)
+                .description("撮合引擎中未完全平仓的开仓数量")
+                .register(registry);
+    }
+}
@@ -0,0 +1,16 @@
+package xin.eason.smartfollow.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 开平仓撮合配置属性
+ */
+@Data
+@ConfigurationProperties(prefix = "smart-follow.trade.matching")
+public class TradeMatchingProperties {
+    /**
+     * 分片数 (并行度), 0 表示使用 CPU 核数
+     */
+    private int shards = 0;
+}
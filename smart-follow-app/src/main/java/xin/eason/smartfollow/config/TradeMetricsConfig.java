@@ -0,0 +1,85 @@
+package xin.eason.smartfollow.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import xin.eason.smartfollow.domain.adapter.repository.IMarketBarRepository;
+import xin.eason.smartfollow.domain.service.trade.TradeMetricsEngine;
+import xin.eason.smartfollow.domain.service.trade.TradeMetricsRecomputeProgress;
+import xin.eason.smartfollow.types.enums.BarInterval;
+import xin.eason.smartfollow.types.enums.PriceSource;
+
+import java.time.Duration;
+import java.time.YearMonth;
+
+/**
+ * 回合行情指标配置
+ * <p>根据 {@link TradeMetricsProperties} 创建指标计算引擎 (容器关闭时自动调用 {@link TradeMetricsEngine#close()} 停止 fork-join 线程池)
+ * 与增量重算的分块规划, 并将重算进度与吞吐量绑定到 Micrometer</p>
+ */
+@Configuration
+@EnableConfigurationProperties(TradeMetricsProperties.class)
+@RequiredArgsConstructor
+public class TradeMetricsConfig {
+
+    /**
+     * 指标配置属性
+     */
+    private final TradeMetricsProperties tradeMetricsProperties;
+
+    /**
+     * 创建指标计算引擎
+     *
+     * @param marketBarRepository 行情 K 线仓储
+     * @return 指标计算引擎
+     */
+    @Bean(destroyMethod = "close")
+    public TradeMetricsEngine tradeMetricsEngine(IMarketBarRepository marketBarRepository) {
+        int parallelism = tradeMetricsProperties.getParallelism();
+        return new TradeMetricsEngine(marketBarRepository, tradeMetricsProperties.getAlgoVer(),
+                BarInterval.of(tradeMetricsProperties.getBarInterval()),
+                PriceSource.valueOf(tradeMetricsProperties.getPriceSource().toUpperCase()),
+                parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors(),
+                tradeMetricsProperties.getBatchSize());
+    }
+
+    /**
+     * 创建增量重算的分块规划与进度
+     *
+     * @return 重算进度
+     */
+    @Bean
+    public TradeMetricsRecomputeProgress tradeMetricsRecomputeProgress() {
+        TradeMetricsProperties.Recompute recompute = tradeMetricsProperties.getRecompute();
+        return new TradeMetricsRecomputeProgress(YearMonth.parse(recompute.getStartMonth()),
+                Duration.ofHours(recompute.getChunkHours()), recompute.getWorkers());
+    }
+
+    @Bean
+    public MeterBinder tradeMetricsRecomputeMetrics(TradeMetricsRecomputeProgress progress) {
+        return (MeterRegistry registry) -> {
+            Gauge.builder("smart_follow.trade.metrics.recompute.pass", progress, TradeMetricsRecomputeProgress::pass)
+                    .description("当前 (或最近一次) 重算的轮次")
+                    .register(registry);
+            Gauge.builder("smart_follow.trade.metrics.recompute.chunks.total", progress, TradeMetricsRecomputeProgress::chunksTotal)
+                    .description("本次待处理的分块数")
+                    .register(registry);
+            Gauge.builder("smart_follow.trade.metrics.recompute.chunks.done", progress, TradeMetricsRecomputeProgress::chunksDone)
+                    .description("本次已完成的分块数")
+                    .register(registry);
+            Gauge.builder("smart_follow.trade.metrics.recompute.chunks.failed", progress, TradeMetricsRecomputeProgress::chunksFailed)
+                    .description("本次失败的分块数")
+                    .register(registry);
+            Gauge.builder("smart_follow.trade.metrics.recompute.trades", progress, TradeMetricsRecomputeProgress::trades)
+                    .description("本次已处理的缺失或输入变化的回合数")
+                    .register(registry);
+            Gauge.builder("smart_follow.trade.metrics.recompute.throughput", progress, TradeMetricsRecomputeProgress::throughput)
+                    .description("本次 (空闲时为上一次) 每秒处理的回合数")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,56 @@
+package xin.eason.smartfollow.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 回合行情指标 (MAE / MFE) 配置属性
+ */
+@Data
+@ConfigurationProperties(prefix = "smart-follow.trade.metrics")
+public class TradeMetricsProperties {
+    /**
+     * 算法版本, 写入 exchange_project_trade_metrics.algo_ver (不超过 16 个字符)
+     */
+    private String algoVer = "v1";
+    /**
+     * K 线粒度代码, 如 1m
+     */
+    private String barInterval = "1m";
+    /**
+     * 价格口径, MID / LAST / BID / ASK
+     */
+    private String priceSource = "LAST";
+    /**
+     * fork-join 并行度, 0 表示使用 CPU 核数
+     */
+    private int parallelism = 0;
+    /**
+     * 单批读取并计算的回合数
+     */
+    private int batchSize = 5000;
+    /**
+     * 增量重算
+     */
+    private Recompute recompute = new Recompute();
+
+    @Data
+    public static class Recompute {
+        /**
+         * 是否注册定时重算任务
+         */
+        private boolean enabled = false;
+        /**
+         * 第一个分块所在的月份 (UTC), 形如 2025-08
+         */
+        private String startMonth = "2025-08";
+        /**
+         * 分块时长 (小时), 分块不跨月分区
+         */
+        private int chunkHours = 24;
+        /**
+         * 并行处理分块的工作线程数
+         */
+        private int workers = 2;
+    }
+}
@@ -0,0 +1,124 @@
+package xin.eason.smartfollow.domain.model.aggregate.trade;
+
+import org.junit.jupiter.api.Test;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectKey;
+import xin.eason.smartfollow.domain.model.vo.trade.ItemId;
+import xin.eason.smartfollow.domain.model.vo.trade.TradeFillVO;
+import xin.eason.smartfollow.types.enums.Exchange;
+import xin.eason.smartfollow.types.enums.PositionAction;
+import xin.eason.smartfollow.types.enums.TradeSide;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * {@link TradeIdSynthesizer} 与原实现 (拼接字符串 → UTF-8 → SHA-256 → 十六进制) 的逐位兼容性
+ */
+class TradeIdSynthesizerTest {
+
+    private static final TradeSide[] SIDES = TradeSide.values();
+    /**
+     * 1 / 2 / 3 / 4 字节的 UTF-8 字符, 以及孤立的高 / 低代理字符
+     */
+    private static final String[] CHARS = {"a", "Z", "7", "-", "|", ":", "é", "ß", "中", "文", "€", "😀", "𝄞", "\uD83D", "\uDE00"};
+
+    @Test
+    void matchesLegacyOnRandomInputs() throws NoSuchAlgorithmException {
+        Random random = new Random(20250918L);
+        for (int i = 0; i < 20_000; i++) {
+            ProjectKey key = ProjectKey.of(random.nextBoolean() ? Exchange.OKX : Exchange.BINANCE, "P" + text(random));
+            ItemId item = new ItemId(random.nextBoolean() ? "SWAP" : "SPOT", "S" + text(random));
+            TradeSide side = SIDES[random.nextInt(SIDES.length)];
+            Instant openTs = Instant.ofEpochMilli(random.nextLong() % 4_000_000_000_000L);
+            BigDecimal qty = random.nextInt(10) == 0 ? null : decimal(random);
+            BigDecimal price = random.nextInt(10) == 0 ? null : decimal(random);
+            String source = random.nextInt(4) == 0 ? text(random) + "源" : "OKX";
+
+            assertEquals(legacy(key, item, side, openTs, qty, price, source),
+                    TradeIdSynthesizer.synthesize(key, item, side, openTs, qty, price, source),
+                    () -> key.asString() + "|" + item + "|" + qty + "|" + price);
+        }
+    }
+
+    @Test
+    void matchesLegacyOnDecimalBoundaries() throws NoSuchAlgorithmException {
+        ProjectKey key = ProjectKey.of(Exchange.OKX, "边界");
+        ItemId item = new ItemId("SWAP", "BTC-USDT-SWAP");
+        Instant openTs = Instant.parse("2025-09-01T00:00:00.123Z");
+        long pow62 = 1L << 62;
+        long[] unscaled = {0, 1, -1, 10, -10, 1000, pow62 - 1, -(pow62 - 1), pow62, -pow62, Long.MAX_VALUE, Long.MIN_VALUE};
+        for (long u : unscaled) {
+            for (int scale = -6; scale <= 24; scale++) {
+                BigDecimal value = BigDecimal.valueOf(u, scale);
+                assertEquals(legacy(key, item, TradeSide.LONG, openTs, value, value, "OKX"),
+                        TradeIdSynthesizer.synthesize(key, item, TradeSide.LONG, openTs, value, value, "OKX"),
+                        () -> value.toString());
+            }
+        }
+        // 超过 62 位的数值 (含尾随零) 走 BigDecimal 字符串回落
+        BigDecimal big = new BigDecimal(BigInteger.ONE.shiftLeft(90).multiply(BigInteger.TEN.pow(5)), 7);
+        assertEquals(legacy(key, item, TradeSide.SHORT, openTs, big, big.negate(), "OKX"),
+                TradeIdSynthesizer.synthesize(key, item, TradeSide.SHORT, openTs, big, big.negate(), "OKX"));
+    }
+
+    @Test
+    void synthesizeAllMatchesSingle() {
+        Random random = new Random(7);
+        List<TradeFillVO> opens = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            BigDecimal qty = decimal(random).abs().add(BigDecimal.ONE);
+            BigDecimal price = decimal(random).abs().add(BigDecimal.ONE);
+            opens.add(new TradeFillVO(ProjectKey.of(Exchange.OKX, "P-" + text(random) + "x"), new ItemId("SWAP", "ETH"),
+                    TradeSide.LONG, PositionAction.OPEN, null, null, qty, price, null,
+                    Instant.ofEpochMilli(1_700_000_000_000L + i), "OKX", null, null, null));
+        }
+        String[] expected = opens.stream()
+                .map(f -> TradeIdSynthesizer.synthesize(f.projectKey(), f.item(), f.side(), f.ts(), f.qty(), f.price(), f.source()))
+                .toArray(String[]::new);
+        assertArrayEquals(expected, TradeIdSynthesizer.synthesizeAll(opens));
+    }
+
+    /**
+     * 原实现: 格式化字符串 → UTF-8 → SHA-256 → 小写十六进制
+     */
+    private static String legacy(ProjectKey key, ItemId inst, TradeSide side, Instant openTs,
+                                 BigDecimal qty, BigDecimal price, String source) throws NoSuchAlgorithmException {
+        String str = String.format("%s|%s|%s|%d|%s|%s|%s", key.asString(), inst, side.name(), openTs.toEpochMilli(),
+                qty == null ? "" : qty.stripTrailingZeros().toPlainString(),
+                price == null ? "" : price.stripTrailingZeros().toPlainString(), source);
+        MessageDigest md = MessageDigest.getInstance("SHA-256");
+        return HexFormat.of().formatHex(md.digest(str.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * 随机小数位 (含负数), 随机位宽的 unscaled 值 (含 0, 负数, 尾随零与超过 62 位)
+     */
+    private static BigDecimal decimal(Random random) {
+        int bits = random.nextInt(100);
+        BigInteger unscaled = new BigInteger(bits, random);
+        if (random.nextInt(4) == 0)
+            unscaled = unscaled.multiply(BigInteger.TEN.pow(random.nextInt(6)));
+        if (random.nextBoolean())
+            unscaled = unscaled.negate();
+        return new BigDecimal(unscaled, random.nextInt(31) - 8);
+    }
+
+    private static String text(Random random) {
+        StringBuilder sb = new StringBuilder();
+        int n = random.nextInt(8);
+        for (int i = 0; i < n; i++)
+            sb.append(CHARS[random.nextInt(CHARS.length)]);
+        return sb.toString();
+    }
+}
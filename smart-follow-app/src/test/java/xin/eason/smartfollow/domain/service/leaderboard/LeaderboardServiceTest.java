@@ -0,0 +1,71 @@
+package xin.eason.smartfollow.domain.service.leaderboard;
+
+import org.junit.jupiter.api.Test;
+import xin.eason.smartfollow.domain.model.vo.project.LeadTradersPageVO;
+import xin.eason.smartfollow.domain.model.vo.project.LeadTradersQuery;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectBriefVO;
+import xin.eason.smartfollow.types.exceptions.IllegalParamException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link LeaderboardService#query} 的边界: 内存无法回答的条件显式拒绝, 尚无榜单时为空
+ */
+class LeaderboardServiceTest {
+
+    @Test
+    void rejectsQueriesTheBoardCannotAnswer() {
+        LeaderboardService service = new LeaderboardService(new LeaderboardResultCache(16, 1 << 20));
+        service.publish("SWAP", "20250101000000", ranks(30));
+
+        LeadTradersQuery assets = new LeadTradersQuery();
+        assets.setMinAssets("1000");
+        assertThrows(IllegalParamException.class, () -> service.query(assets));
+
+        LeadTradersQuery copyTraderPnl = new LeadTradersQuery();
+        copyTraderPnl.setSortType("current_copy_trader_pnl");
+        assertThrows(IllegalParamException.class, () -> service.query(copyTraderPnl));
+
+        // 拒绝与是否已有榜单无关
+        LeadTradersQuery spot = new LeadTradersQuery();
+        spot.setInstType("SPOT");
+        spot.setMaxAssets("5000");
+        assertThrows(IllegalParamException.class, () -> service.query(spot));
+    }
+
+    @Test
+    void answersSupportedQueriesAndIsEmptyWithoutBoard() {
+        LeaderboardService service = new LeaderboardService(new LeaderboardResultCache(16, 1 << 20));
+        service.publish("SWAP", "20250101000000", ranks(30));
+
+        LeadTradersQuery byAum = new LeadTradersQuery();
+        byAum.setSortType("aum");
+        byAum.setLimit(10);
+        LeadTradersPageVO page = service.query(byAum).orElseThrow();
+        assertEquals("20250101000000", page.getDataVer());
+        assertEquals(3, page.getTotalPage());
+        assertEquals("P-29", page.getRanks().get(0).getExternalId());
+
+        LeadTradersQuery spot = new LeadTradersQuery();
+        spot.setInstType("SPOT");
+        assertTrue(service.query(spot).isEmpty());
+    }
+
+    private static List<ProjectBriefVO> ranks(int n) {
+        List<ProjectBriefVO> ranks = new ArrayList<>(n);
+        for (int i = 0; i < n; i++)
+            ranks.add(ProjectBriefVO.builder()
+                    .externalId("P-" + i)
+                    .aum(BigDecimal.valueOf(1_000L * (i + 1)))
+                    .followers(i)
+                    .maxFollowers(100)
+                    .build());
+        return ranks;
+    }
+}
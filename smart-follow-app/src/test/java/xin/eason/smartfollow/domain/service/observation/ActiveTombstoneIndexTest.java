@@ -0,0 +1,110 @@
+package xin.eason.smartfollow.domain.service.observation;
+
+import org.junit.jupiter.api.Test;
+import xin.eason.smartfollow.domain.model.aggregate.observation.TombstoneAggregate;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectKey;
+import xin.eason.smartfollow.types.enums.Exchange;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link ActiveTombstoneIndex} 的加载, 打开 / 关闭维护, 以及加载完成前写入的重放
+ */
+class ActiveTombstoneIndexTest {
+
+    /**
+     * 外部 ID "P-n" → 稠密编号 n, "X-" 开头视为未注册
+     */
+    private static final ToIntFunction<TombstoneAggregate> DENSE_ID = t -> {
+        String externalId = t.getProjectKey().externalId();
+        return externalId.startsWith("P-") ? Integer.parseInt(externalId.substring(2)) : -1;
+    };
+
+    private final ActiveTombstoneIndex index = new ActiveTombstoneIndex();
+
+    @Test
+    void loadsOpenTombstonesAndTracksUpdates() {
+        assertFalse(index.isLoaded());
+        int loaded = index.load(List.of(open(0, 10), open(5, 20), open(3000, 30),
+                closed(7, 10, 20), TombstoneAggregate.open(ProjectKey.of(Exchange.OKX, "X-1"), at(10), "T", null, "T")), DENSE_ID);
+
+        // 已关闭与未注册的墓碑跳过, 稠密编号超过初始容量时扩容
+        assertEquals(3, loaded);
+        assertTrue(index.isLoaded());
+        assertEquals(3, index.count());
+        assertTrue(index.isInvisible(3000));
+        assertFalse(index.isInvisible(7));
+        assertFalse(index.isInvisible(-1));
+        assertEquals(at(20), index.get(5).getFromTs());
+
+        // 同一项目重复打开保留较早的墓碑, 不重复计数
+        index.open(5, open(5, 40));
+        index.open(5, open(5, 15));
+        assertEquals(at(15), index.get(5).getFromTs());
+        assertEquals(3, index.count());
+
+        // 关闭较早的墓碑不影响之后重新打开的墓碑
+        assertNull(index.remove(0, at(5)));
+        assertTrue(index.isInvisible(0));
+        assertEquals(at(10), index.remove(0, at(10)).getFromTs());
+        assertFalse(index.isInvisible(0));
+        assertNull(index.remove(0, at(10)));
+        assertEquals(2, index.count());
+    }
+
+    @Test
+    void replaysWritesMadeBeforeLoadCompletes() {
+        // 全量扫描在以下写入之前完成: 只看到项目 2, 4 的打开墓碑
+        List<TombstoneAggregate> scanned = List.of(open(2, 0), open(4, 0));
+
+        // 预热期间: 1 打开, 2 关闭, 3 打开后又关闭, 4 关闭后重新打开
+        index.open(1, open(1, 10));
+        index.remove(2, at(0));
+        index.open(3, open(3, 20));
+        index.remove(3, at(20));
+        index.remove(4, at(0));
+        TombstoneAggregate reopened = open(4, 30);
+        index.open(4, reopened);
+
+        assertEquals(2, index.load(scanned, DENSE_ID));
+        assertTrue(index.isInvisible(1));
+        assertFalse(index.isInvisible(2));
+        assertFalse(index.isInvisible(3));
+        assertSame(reopened, index.get(4));
+        assertEquals(2, index.count());
+
+        // 加载完成后不再记录: 再次加载以全量结果为准
+        index.open(9, open(9, 50));
+        index.load(List.of(), DENSE_ID);
+        assertEquals(0, index.count());
+    }
+
+    @Test
+    void scanNewerThanWarmUpWritesIsNotDoubleCounted() {
+        index.open(1, open(1, 10));
+        // 全量扫描晚于写入, 已经包含该墓碑
+        index.load(List.of(open(1, 10)), DENSE_ID);
+        assertEquals(1, index.count());
+        assertEquals(at(10), index.get(1).getFromTs());
+    }
+
+    private static TombstoneAggregate open(int id, long from) {
+        return TombstoneAggregate.open(ProjectKey.of(Exchange.OKX, "P-" + id), at(from), "TEST", null, "TEST");
+    }
+
+    private static TombstoneAggregate closed(int id, long from, long to) {
+        return TombstoneAggregate.restore(ProjectKey.of(Exchange.OKX, "P-" + id), at(from), at(to), "TEST", null, "TEST");
+    }
+
+    private static Instant at(long seconds) {
+        return Instant.ofEpochSecond(1_750_000_000L + seconds);
+    }
+}
@@ -0,0 +1,148 @@
+package xin.eason.smartfollow.domain.service.observation;
+
+import xin.eason.smartfollow.domain.adapter.repository.IProjectSnapshotRepository;
+import xin.eason.smartfollow.domain.adapter.repository.ISnapshotRollupRepository;
+import xin.eason.smartfollow.domain.model.aggregate.observation.ProjectSnapshotAggregate;
+import xin.eason.smartfollow.domain.model.vo.observation.RollupResolution;
+import xin.eason.smartfollow.domain.model.vo.observation.SnapshotMetricVO;
+import xin.eason.smartfollow.domain.model.vo.observation.SnapshotRollupVO;
+import xin.eason.smartfollow.domain.model.vo.observation.SnapshotWriteResultVO;
+import xin.eason.smartfollow.domain.model.vo.observation.StoredSnapshotVO;
+import xin.eason.smartfollow.types.enums.SnapshotSource;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * 快照查询 / 汇总测试共用的内存仓储
+ */
+final class InMemorySnapshotStores {
+
+    private InMemorySnapshotStores() {
+    }
+
+    static StoredSnapshotVO row(long projectId, Instant ts, Instant validUntil, String aum, Integer followers) {
+        return new StoredSnapshotVO(projectId, SnapshotSource.OKX_RANK, ts, validUntil, "V",
+                new SnapshotMetricVO(new BigDecimal(aum), followers, null, null, null, null));
+    }
+
+    /**
+     * 原始快照行, 只支持查询类方法
+     */
+    static final class Snapshots implements IProjectSnapshotRepository {
+
+        final List<StoredSnapshotVO> rows = new ArrayList<>();
+
+        @Override
+        public SnapshotWriteResultVO insertBatch(Collection<ProjectSnapshotAggregate> snapshots) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int extendValidUntil(Collection<StoredSnapshotVO> extended) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<StoredSnapshotVO> findLatest(Collection<Long> projectIds, SnapshotSource source, Instant since) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<StoredSnapshotVO> findRange(long projectId, SnapshotSource source, Instant from, Instant to) {
+            return window(List.of(projectId), source, from, to);
+        }
+
+        @Override
+        public List<StoredSnapshotVO> findWindow(Collection<Long> projectIds, SnapshotSource source, Instant from, Instant to) {
+            return window(projectIds, source, from, to);
+        }
+
+        @Override
+        public List<StoredSnapshotVO> findRecent(Collection<Long> projectIds, SnapshotSource source, Instant since, int limit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<StoredSnapshotVO> findLastBefore(Collection<Long> projectIds, SnapshotSource source, Instant before, Instant since) {
+            List<StoredSnapshotVO> result = new ArrayList<>();
+            for (long projectId : projectIds)
+                findLastBefore(projectId, source, before, since).ifPresent(result::add);
+            return result;
+        }
+
+        @Override
+        public Optional<StoredSnapshotVO> findLastBefore(long projectId, SnapshotSource source, Instant before, Instant since) {
+            return window(List.of(projectId), source, since, before).stream().reduce((a, b) -> b);
+        }
+
+        @Override
+        public Optional<String> findRawJson(long projectId, SnapshotSource source, Instant ts) {
+            throw new UnsupportedOperationException();
+        }
+
+        private List<StoredSnapshotVO> window(Collection<Long> projectIds, SnapshotSource source, Instant from, Instant to) {
+            return rows.stream()
+                    .filter(r -> projectIds.contains(r.projectId()) && r.source() == source)
+                    .filter(r -> !r.ts().isBefore(from) && r.ts().isBefore(to))
+                    .sorted(Comparator.comparingLong(StoredSnapshotVO::projectId).thenComparing(StoredSnapshotVO::ts))
+                    .toList();
+        }
+    }
+
+    /**
+     * 汇总桶, 按 (项目, 来源, 分辨率, 桶起点) 覆盖写入
+     */
+    static final class Rollups implements ISnapshotRollupRepository {
+
+        final Map<String, SnapshotRollupVO> buckets = new TreeMap<>();
+
+        @Override
+        public int upsertBatch(Collection<SnapshotRollupVO> rollups) {
+            rollups.forEach(b -> buckets.put(b.projectId() + "/" + b.source() + "/" + b.resolution() + "/" + b.bucketTs(), b));
+            return rollups.size();
+        }
+
+        @Override
+        public List<SnapshotRollupVO> findBuckets(Collection<Long> projectIds, SnapshotSource source, RollupResolution resolution,
+                                                  Instant from, Instant to) {
+            return buckets.values().stream()
+                    .filter(b -> projectIds.contains(b.projectId()) && b.source() == source && b.resolution() == resolution)
+                    .filter(b -> !b.bucketTs().isBefore(from) && b.bucketTs().isBefore(to))
+                    .toList();
+        }
+
+        @Override
+        public List<SnapshotRollupVO> findRange(long projectId, SnapshotSource source, RollupResolution resolution, Instant from, Instant to) {
+            return findBuckets(List.of(projectId), source, resolution, from, to).stream()
+                    .sorted(Comparator.comparing(SnapshotRollupVO::bucketTs))
+                    .toList();
+        }
+
+        @Override
+        public Optional<Instant> findWatermark(RollupResolution resolution) {
+            return of(resolution).map(SnapshotRollupVO::bucketTs).max(Comparator.naturalOrder())
+                    .map(last -> last.plus(resolution.getStep()));
+        }
+
+        @Override
+        public Optional<Instant> findEarliestBucket(RollupResolution resolution) {
+            return of(resolution).map(SnapshotRollupVO::bucketTs).min(Comparator.naturalOrder());
+        }
+
+        List<Instant> bucketTs(RollupResolution resolution) {
+            return of(resolution).map(SnapshotRollupVO::bucketTs).sorted().toList();
+        }
+
+        private java.util.stream.Stream<SnapshotRollupVO> of(RollupResolution resolution) {
+            return buckets.values().stream().filter(b -> b.resolution() == resolution);
+        }
+    }
+}
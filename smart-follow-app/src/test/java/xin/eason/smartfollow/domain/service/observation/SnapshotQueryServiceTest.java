@@ -0,0 +1,96 @@
+package xin.eason.smartfollow.domain.service.observation;
+
+import org.junit.jupiter.api.Test;
+import xin.eason.smartfollow.domain.IProjectIdentityService;
+import xin.eason.smartfollow.domain.model.vo.observation.RollupResolution;
+import xin.eason.smartfollow.domain.model.vo.observation.RollupStatVO;
+import xin.eason.smartfollow.domain.model.vo.observation.SeriesMetric;
+import xin.eason.smartfollow.domain.model.vo.observation.SnapshotPointVO;
+import xin.eason.smartfollow.domain.model.vo.observation.SnapshotRollupVO;
+import xin.eason.smartfollow.domain.model.vo.observation.SnapshotSeriesVO;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectIdentityVO;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectKey;
+import xin.eason.smartfollow.types.enums.Exchange;
+import xin.eason.smartfollow.types.enums.SnapshotSource;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static xin.eason.smartfollow.domain.service.observation.InMemorySnapshotStores.row;
+
+/**
+ * {@link SnapshotQueryService#downsample} 读汇总桶时: 第一个桶之前回落原始快照, 每个桶输出最小 / 最大两个点
+ */
+class SnapshotQueryServiceTest {
+
+    private static final ProjectKey KEY = ProjectKey.of(Exchange.OKX, "P-1");
+    private static final Instant T0 = Instant.parse("2025-09-01T00:00:00Z");
+
+    private final InMemorySnapshotStores.Snapshots snapshots = new InMemorySnapshotStores.Snapshots();
+    private final InMemorySnapshotStores.Rollups rollups = new InMemorySnapshotStores.Rollups();
+    private final SnapshotQueryService service = new SnapshotQueryService(snapshots, new FixedIdentity(), rollups);
+
+    @Test
+    void fillsHeadAndTailFromRawAndKeepsBucketExtremes() {
+        // 第一个桶之前只有原始快照 (汇总尚未覆盖)
+        snapshots.rows.add(row(1, h(0), h(2), "100", 10));
+        // 上行桶: 先最小后最大; 下行桶: 先最大后最小
+        rollups.upsertBatch(List.of(
+                bucket(h(10), stat("300", "200", "400", "250"), stat("5", "3", "9", "4.5")),
+                bucket(h(11), stat("200", "150", "450", "300"), stat("4", "4", "7", "6.2"))));
+        // 汇总水位之后的尾部
+        snapshots.rows.add(row(1, h(150), h(199), "500", 12));
+
+        SnapshotSeriesVO series = service.downsample(KEY, SnapshotSource.OKX_RANK, SeriesMetric.AUM_USD, h(0), h(200), 100);
+
+        assertEquals(RollupResolution.H1.getCode(), series.resolution());
+        List<SnapshotPointVO> points = series.points();
+        assertEquals(List.of(h(0), h(2), h(10), h(10).plusSeconds(1800), h(11), h(11).plusSeconds(1800), h(150), h(199)),
+                points.stream().map(SnapshotPointVO::getTs).toList());
+        assertEquals(List.of("100", "100", "200", "400", "450", "150", "500", "500"),
+                points.stream().map(p -> p.getAumUsd().stripTrailingZeros().toPlainString()).toList());
+        // 跟随者取整数极值, 不截断均值
+        assertEquals(List.of(10, 10, 3, 9, 7, 4, 12, 12), points.stream().map(SnapshotPointVO::getFollowers).toList());
+    }
+
+    @Test
+    void fallsBackToRawWithoutBuckets() {
+        snapshots.rows.add(row(1, h(0), h(100), "100", 10));
+        SnapshotSeriesVO series = service.downsample(KEY, SnapshotSource.OKX_RANK, SeriesMetric.AUM_USD, h(0), h(200), 100);
+        assertEquals("raw", series.resolution());
+        assertEquals(2, series.points().size());
+    }
+
+    private static Instant h(int hours) {
+        return T0.plus(Duration.ofHours(hours));
+    }
+
+    private static SnapshotRollupVO bucket(Instant ts, RollupStatVO aum, RollupStatVO followers) {
+        return new SnapshotRollupVO(1, SnapshotSource.OKX_RANK, RollupResolution.H1, ts, 3_600_000L, aum, followers, null);
+    }
+
+    private static RollupStatVO stat(String last, String min, String max, String avg) {
+        return new RollupStatVO(new BigDecimal(last), new BigDecimal(min), new BigDecimal(max), new BigDecimal(avg));
+    }
+
+    private static final class FixedIdentity implements IProjectIdentityService {
+
+        @Override
+        public long warmUp() {
+            return 1;
+        }
+
+        @Override
+        public ProjectIdentityVO resolve(ProjectKey key) {
+            return KEY.equals(key) ? new ProjectIdentityVO(KEY, 1, 0) : null;
+        }
+
+        @Override
+        public long requireProjectId(ProjectKey key) {
+            return resolve(key).projectId();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package xin.eason.smartfollow.domain.service.observation;
+
+import org.junit.jupiter.api.Test;
+import xin.eason.smartfollow.domain.adapter.repository.IPartitionRepository;
+import xin.eason.smartfollow.domain.model.vo.observation.RollupResolution;
+import xin.eason.smartfollow.domain.model.vo.observation.RollupStatVO;
+import xin.eason.smartfollow.domain.model.vo.observation.SnapshotRollupVO;
+import xin.eason.smartfollow.domain.model.vo.partition.PartitionInfoVO;
+import xin.eason.smartfollow.domain.model.vo.partition.PartitionedTable;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectKey;
+import xin.eason.smartfollow.domain.service.project.ProjectIdentityCache;
+import xin.eason.smartfollow.types.enums.Exchange;
+import xin.eason.smartfollow.types.enums.SnapshotSource;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static xin.eason.smartfollow.domain.service.observation.InMemorySnapshotStores.row;
+
+/**
+ * {@link SnapshotRollupService#backfill}: 从最早的桶逐日向前补算到最老的月分区起点, 重启后续跑
+ */
+class SnapshotRollupServiceTest {
+
+    private static final Instant NOW = Instant.parse("2025-09-15T00:00:00Z");
+
+    private final InMemorySnapshotStores.Snapshots snapshots = new InMemorySnapshotStores.Snapshots();
+    private final InMemorySnapshotStores.Rollups rollups = new InMemorySnapshotStores.Rollups();
+    private final ProjectIdentityCache identityCache = new ProjectIdentityCache();
+    private final Partitions partitions = new Partitions();
+
+    @Test
+    void backfillsOlderPartitionsDayByDayAndResumes() {
+        identityCache.register(ProjectKey.of(Exchange.OKX, "P-1"), 1);
+        // 前向汇总已从 08-03 05:00 开始, 1 天水位已推进到 09-11
+        rollups.upsertBatch(List.of(
+                hourBucket(Instant.parse("2025-08-03T05:00:00Z")),
+                new SnapshotRollupVO(1, SnapshotSource.OKX_RANK, RollupResolution.D1, Instant.parse("2025-09-10T00:00:00Z"),
+                        1L, null, null, null)));
+        snapshots.rows.add(row(1, Instant.parse("2025-08-01T08:00:00Z"), Instant.parse("2025-08-01T08:30:00Z"), "50", 2));
+        snapshots.rows.add(row(1, Instant.parse("2025-08-02T10:00:00Z"), Instant.parse("2025-08-02T11:30:00Z"), "100", 5));
+
+        SnapshotRollupService service = newService();
+        // 每步一天: [08-03 00:00, 05:00) 只重算 08-03 的 1 天桶; 08-02 两个小时桶; 08-01 一个; 之后到达最老月分区的起点
+        assertEquals(1, service.backfill(NOW));
+        assertEquals(3, service.backfill(NOW));
+        assertEquals(2, service.backfill(NOW));
+        assertEquals(0, service.backfill(NOW));
+
+        assertEquals(List.of(
+                        Instant.parse("2025-08-01T08:00:00Z"),
+                        Instant.parse("2025-08-02T10:00:00Z"),
+                        Instant.parse("2025-08-02T11:00:00Z"),
+                        Instant.parse("2025-08-03T05:00:00Z")),
+                rollups.bucketTs(RollupResolution.H1));
+        assertTrue(rollups.bucketTs(RollupResolution.D1).containsAll(List.of(
+                Instant.parse("2025-08-01T00:00:00Z"), Instant.parse("2025-08-02T00:00:00Z"))));
+
+        // 重启: 从最早的桶续跑, 已补算的桶被原样覆盖, 不产生新桶
+        int before = rollups.buckets.size();
+        SnapshotRollupService restarted = newService();
+        for (int i = 0; i < 3; i++)
+            restarted.backfill(NOW);
+        assertEquals(0, restarted.backfill(NOW));
+        assertEquals(before, rollups.buckets.size());
+    }
+
+    @Test
+    void leavesUnfinishedDayToForwardRollup() {
+        identityCache.register(ProjectKey.of(Exchange.OKX, "P-1"), 1);
+        // 1 天水位尚未推进: 补算只写 1 小时桶, 当日的 1 天桶留给 rollupClosed
+        rollups.upsertBatch(List.of(hourBucket(Instant.parse("2025-08-31T12:00:00Z"))));
+        snapshots.rows.add(row(1, Instant.parse("2025-08-31T03:00:00Z"), Instant.parse("2025-08-31T03:10:00Z"), "10", 1));
+
+        SnapshotRollupService service = newService();
+        service.backfill(Instant.parse("2025-08-31T13:30:00Z"));
+        assertEquals(List.of(Instant.parse("2025-08-31T03:00:00Z"), Instant.parse("2025-08-31T12:00:00Z")),
+                rollups.bucketTs(RollupResolution.H1));
+        assertTrue(rollups.bucketTs(RollupResolution.D1).isEmpty());
+    }
+
+    private SnapshotRollupService newService() {
+        return new SnapshotRollupService(snapshots, rollups, identityCache, partitions);
+    }
+
+    private static SnapshotRollupVO hourBucket(Instant ts) {
+        RollupStatVO aum = new RollupStatVO(BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ONE);
+        return new SnapshotRollupVO(1, SnapshotSource.OKX_RANK, RollupResolution.H1, ts, 3_600_000L, aum, null, null);
+    }
+
+    /**
+     * 快照表分区: 最老的月分区 p2025_08 + 下一个月分区 + 兜底分区
+     */
+    private static final class Partitions implements IPartitionRepository {
+
+        private final LocalDate oldest = LocalDate.of(2025, 9, 1);
+
+        @Override
+        public List<PartitionInfoVO> findPartitions(PartitionedTable table) {
+            return List.of(new PartitionInfoVO("p2025_08", oldest, 0L, 0L),
+                    new PartitionInfoVO("p2025_09", oldest.plusMonths(1), 0L, 0L),
+                    new PartitionInfoVO("pMAX", null, 0L, 0L));
+        }
+
+        @Override
+        public boolean isEmpty(PartitionedTable table, String partition) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long countRows(PartitionedTable table, String partition) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void splitMax(PartitionedTable table, Map<String, LocalDate> partitions) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void dropPartitions(PartitionedTable table, List<String> partitions) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean dropPartitionIfEmpty(PartitionedTable table, String partition) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String exchangePartition(PartitionedTable table, String partition) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String findArchiveTable(PartitionedTable table, String partition) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long countArchiveRows(PartitionedTable table, String partition) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void dropArchiveTable(PartitionedTable table, String partition) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package xin.eason.smartfollow.domain.service.observation;
+
+import org.junit.jupiter.api.Test;
+import xin.eason.smartfollow.domain.model.aggregate.observation.TombstoneAggregate;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectKey;
+import xin.eason.smartfollow.types.enums.Exchange;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.function.ToIntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * {@link TombstoneIntervalIndex} 与逐条扫描的结果一致性: 单条 / 批量写入, 跨越归并阈值, 以及加载完成前的写入重放
+ */
+class TombstoneIntervalIndexTest {
+
+    private static final ToIntFunction<TombstoneAggregate> DENSE_ID =
+            t -> Integer.parseInt(t.getProjectKey().externalId().substring(2));
+
+    @Test
+    void matchesBruteForceAcrossBatchesAndMerges() {
+        Random random = new Random(38L);
+        int projects = 3_000;
+        List<long[]> model = new ArrayList<>();
+        long[] openFrom = new long[projects];
+        Arrays.fill(openFrom, -1);
+
+        // 基线: 已关闭的历史区间 + 部分打开的墓碑
+        List<TombstoneAggregate> initial = new ArrayList<>();
+        long now = 1_000_000;
+        for (int id = 0; id < projects; id++) {
+            for (int k = random.nextInt(3); k > 0; k--) {
+                long from = now + random.nextInt(100_000);
+                long to = from + 1 + random.nextInt(50_000);
+                initial.add(tombstone(id, from, to));
+                model.add(new long[]{id, from, to});
+            }
+        }
+        now += 200_000;
+        for (int id = 0; id < projects; id += 3) {
+            long from = now + random.nextInt(1_000);
+            initial.add(tombstone(id, from, null));
+            model.add(new long[]{id, from, Long.MAX_VALUE});
+            openFrom[id] = from;
+        }
+        TombstoneIntervalIndex index = new TombstoneIntervalIndex();
+        assertEquals(initial.size(), index.load(initial, DENSE_ID));
+        now += 2_000;
+
+        for (int step = 0; step < 600; step++) {
+            now += 1 + random.nextInt(100);
+            List<TombstoneAggregate> opened = new ArrayList<>();
+            List<TombstoneAggregate> closed = new ArrayList<>();
+            int batch = 1 + random.nextInt(12);
+            for (int k = 0; k < batch; k++) {
+                int id = random.nextInt(projects);
+                if (openFrom[id] < 0) {
+                    long from = now + k;
+                    opened.add(tombstone(id, from, null));
+                    model.add(new long[]{id, from, Long.MAX_VALUE});
+                    openFrom[id] = from;
+                } else if (openFrom[id] < now) {
+                    long to = now + k;
+                    closed.add(tombstone(id, openFrom[id], to));
+                    close(model, id, openFrom[id], to);
+                    openFrom[id] = -1;
+                }
+            }
+            // 单条与批量接口交替使用
+            if (random.nextBoolean()) {
+                index.openAll(opened, DENSE_ID);
+                index.closeAll(closed, DENSE_ID);
+            } else {
+                opened.forEach(t -> index.open(DENSE_ID.applyAsInt(t), t.getFromTs()));
+                closed.forEach(t -> index.close(DENSE_ID.applyAsInt(t), t.getFromTs(), t.getToTs()));
+            }
+            assertEquals(model.size(), index.size());
+            for (int q = 0; q < 5; q++) {
+                long t = 1_000_000 + (long) (random.nextDouble() * (now - 1_000_000 + 1_000));
+                assertEquals(expectedAt(model, t), actualAt(index, t), "asOf " + t);
+                long a = 1_000_000 + (long) (random.nextDouble() * (now - 1_000_000));
+                long b = a + random.nextInt(20_000);
+                assertEquals(expectedOverlapping(model, a, b), actualOverlapping(index, a, b), "[" + a + ", " + b + ")");
+            }
+        }
+    }
+
+    @Test
+    void replaysWritesMadeBeforeLoad() {
+        TombstoneIntervalIndex index = new TombstoneIntervalIndex();
+        // 全量扫描之后, 加载完成之前: 项目 1 的墓碑被关闭, 项目 2 打开了新墓碑
+        index.closeAll(List.of(tombstone(1, 100, 500L)), DENSE_ID);
+        index.openAll(List.of(tombstone(2, 400, null)), DENSE_ID);
+
+        List<TombstoneAggregate> scanned = List.of(tombstone(1, 100, null), tombstone(3, 50, 80L));
+        index.load(scanned, DENSE_ID);
+
+        List<long[]> model = new ArrayList<>();
+        model.add(new long[]{1, 100, 500});
+        model.add(new long[]{2, 400, Long.MAX_VALUE});
+        model.add(new long[]{3, 50, 80});
+        assertEquals(3, index.size());
+        for (long t : new long[]{60, 100, 450, 499, 500, 10_000})
+            assertEquals(expectedAt(model, t), actualAt(index, t), "asOf " + t);
+        assertEquals(expectedOverlapping(model, 0, 1_000), actualOverlapping(index, 0, 1_000));
+    }
+
+    // =========================== 工具 ===========================
+
+    private static TombstoneAggregate tombstone(int id, long from, Long to) {
+        return TombstoneAggregate.restore(ProjectKey.of(Exchange.OKX, "P-" + id), Instant.ofEpochMilli(from),
+                to == null ? null : Instant.ofEpochMilli(to), "TEST", null, "TEST");
+    }
+
+    private static void close(List<long[]> model, int id, long from, long to) {
+        for (long[] interval : model)
+            if (interval[0] == id && interval[1] == from)
+                interval[2] = to;
+    }
+
+    private static TreeSet<String> expectedAt(List<long[]> model, long t) {
+        TreeSet<String> result = new TreeSet<>();
+        for (long[] i : model)
+            if (i[1] <= t && i[2] > t)
+                result.add(i[0] + "@" + i[1] + "-" + i[2]);
+        return result;
+    }
+
+    private static TreeSet<String> expectedOverlapping(List<long[]> model, long a, long b) {
+        TreeSet<String> result = new TreeSet<>();
+        for (long[] i : model)
+            if (i[1] < b && i[2] > a)
+                result.add(i[0] + "@" + i[1] + "-" + i[2]);
+        return result;
+    }
+
+    private static TreeSet<String> actualAt(TombstoneIntervalIndex index, long t) {
+        TreeSet<String> result = new TreeSet<>();
+        index.forEachAt(Instant.ofEpochMilli(t), (id, from, to) -> result.add(id + "@" + from + "-" + to));
+        return result;
+    }
+
+    private static TreeSet<String> actualOverlapping(TombstoneIntervalIndex index, long a, long b) {
+        TreeSet<String> result = new TreeSet<>();
+        index.forEachOverlapping(Instant.ofEpochMilli(a), Instant.ofEpochMilli(b), (id, from, to) -> result.add(id + "@" + from + "-" + to));
+        return result;
+    }
+}
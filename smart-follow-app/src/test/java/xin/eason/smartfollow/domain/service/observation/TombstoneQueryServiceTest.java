@@ -0,0 +1,97 @@
+package xin.eason.smartfollow.domain.service.observation;
+
+import org.junit.jupiter.api.Test;
+import xin.eason.smartfollow.domain.adapter.repository.ITombstoneRepository;
+import xin.eason.smartfollow.domain.model.aggregate.observation.TombstoneAggregate;
+import xin.eason.smartfollow.domain.model.vo.observation.TombstoneCrossSectionVO;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectKey;
+import xin.eason.smartfollow.domain.service.project.ProjectIdentityCache;
+import xin.eason.smartfollow.types.enums.Exchange;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * {@link TombstoneQueryService#crossSections}: 每个时刻的分母只统计首次出现时间不晚于该时刻的项目
+ */
+class TombstoneQueryServiceTest {
+
+    private static final Instant T = Instant.parse("2025-09-01T00:00:00Z");
+
+    private final ProjectIdentityCache identityCache = new ProjectIdentityCache();
+    private final Tombstones tombstones = new Tombstones();
+    private final TombstoneQueryService service = new TombstoneQueryService(tombstones, new ActiveTombstoneIndex(),
+            new TombstoneIntervalIndex(), identityCache);
+
+    @Test
+    void universeExcludesProjectsFirstSeenAfterAsOf() {
+        identityCache.register(key(0), 100, T.minusSeconds(86_400));
+        identityCache.register(key(1), 101, T.minusSeconds(3_600));
+        // 在 T 之后才出现的项目
+        identityCache.register(key(2), 102, T.plusSeconds(3_600));
+        // 首次出现时间未知: 视为一直存在
+        identityCache.register(key(3), 103);
+        tombstones.all.add(TombstoneAggregate.restore(key(1), T.minusSeconds(600), null, "TEST", null, "TEST"));
+        service.warmUp();
+
+        List<TombstoneCrossSectionVO> sections = service.crossSections(List.of(T, T.plusSeconds(7_200), T.minusSeconds(7_200)));
+
+        assertEquals(3, sections.get(0).universe());
+        assertEquals(1, sections.get(0).invisibleCount());
+        assertEquals(2, sections.get(0).visibleCount());
+        assertEquals(4, sections.get(1).universe());
+        assertEquals(3, sections.get(1).visibleCount());
+        assertEquals(2, sections.get(2).universe());
+        assertEquals(0, sections.get(2).invisibleCount());
+    }
+
+    @Test
+    void earlierFirstSeenReplacesLaterOrUnknown() {
+        identityCache.register(key(0), 100);
+        identityCache.register(key(0), 100, T.plusSeconds(60));
+        identityCache.register(key(0), 100, T.minusSeconds(60));
+        // 更晚的时间不覆盖
+        identityCache.register(key(0), 100, T.plusSeconds(120));
+
+        assertEquals(1, service.crossSections(List.of(T)).get(0).universe());
+        assertEquals(0, service.crossSections(List.of(T.minusSeconds(61))).get(0).universe());
+    }
+
+    private static ProjectKey key(int id) {
+        return ProjectKey.of(Exchange.OKX, "P-" + id);
+    }
+
+    /**
+     * 只支持全量扫描的墓碑仓储
+     */
+    private static final class Tombstones implements ITombstoneRepository {
+
+        private final List<TombstoneAggregate> all = new ArrayList<>();
+
+        @Override
+        public int openBatch(Collection<TombstoneAggregate> tombstones) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int closeBatch(Collection<TombstoneAggregate> tombstones) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<TombstoneAggregate> findOpen(Collection<ProjectKey> keys) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long scanAll(Consumer<TombstoneAggregate> consumer) {
+            all.forEach(consumer);
+            return all.size();
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package xin.eason.smartfollow.domain.service.observation;
+
+import org.junit.jupiter.api.Test;
+import xin.eason.smartfollow.domain.IProjectIdentityService;
+import xin.eason.smartfollow.domain.IProjectSeenService;
+import xin.eason.smartfollow.domain.adapter.repository.IProjectRepository;
+import xin.eason.smartfollow.domain.adapter.repository.ITombstoneRepository;
+import xin.eason.smartfollow.domain.model.aggregate.observation.TombstoneAggregate;
+import xin.eason.smartfollow.domain.model.aggregate.project.ProjectAggregate;
+import xin.eason.smartfollow.domain.model.vo.observation.VisibilityChangeVO;
+import xin.eason.smartfollow.domain.model.vo.observation.VisibilitySweepVO;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectIdentityVO;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectKey;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectSeenVO;
+import xin.eason.smartfollow.domain.service.project.ProjectIdentityCache;
+import xin.eason.smartfollow.types.enums.Exchange;
+import xin.eason.smartfollow.types.enums.Visibility;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link VisibilityService} 的位图差分: 首次扫描只建立基线, 之后按 出现 / 消失 打开与关闭墓碑
+ */
+class VisibilityServiceTest {
+
+    private static final String SCOPE = "SWAP";
+    private static final Instant T0 = Instant.parse("2025-09-01T00:00:00Z");
+
+    private final ProjectIdentityCache identityCache = new ProjectIdentityCache();
+    private final Projects projects = new Projects();
+    private final Tombstones tombstones = new Tombstones();
+    private final ActiveTombstoneIndex activeIndex = new ActiveTombstoneIndex();
+    private final TombstoneIntervalIndex intervalIndex = new TombstoneIntervalIndex();
+    private final VisibilityService service = new VisibilityService(projects, tombstones, new CachedIdentity(identityCache),
+            new DirectSeen(), identityCache, activeIndex, intervalIndex);
+
+    @Test
+    void diffsSweepsAfterBaseline() {
+        for (int i = 0; i < 5; i++)
+            project(i, Visibility.VISIBLE);
+        activeIndex.load(List.of(), t -> -1);
+        intervalIndex.load(List.of(), t -> -1);
+
+        // 首次扫描: 只建立基线, 不在榜的 4 不判定消失; 未注册的项目跳过
+        VisibilitySweepVO first = service.applySweep(SCOPE, "v1", T0, List.of(key(0), key(1), key(2), key(3), key(99)));
+        assertTrue(first.baseline());
+        assertEquals(4, first.members());
+        assertEquals(1, first.skipped());
+        assertEquals(0, first.disappeared());
+        assertTrue(first.changes().isEmpty());
+
+        // 1 消失, 4 出现 (一直可见, 无变化)
+        Instant t1 = T0.plusSeconds(600);
+        VisibilitySweepVO second = service.applySweep(SCOPE, "v2", t1, List.of(key(0), key(2), key(3), key(4)));
+        assertFalse(second.baseline());
+        assertEquals(1, second.appeared());
+        assertEquals(1, second.disappeared());
+        assertEquals(List.of(key(1)), second.changes().stream().map(VisibilityChangeVO::getProjectKey).toList());
+        assertEquals(Visibility.MISSING, projects.get(1).getLastVisibility());
+        assertTrue(activeIndex.isInvisible(identityCache.denseId(key(1))));
+        assertEquals(t1, tombstones.open.get(key(1)).getFromTs());
+
+        // 1 重新出现: 从索引取出打开的墓碑关闭
+        Instant t2 = T0.plusSeconds(1_200);
+        VisibilitySweepVO third = service.applySweep(SCOPE, "v3", t2, List.of(key(0), key(1), key(2), key(3), key(4)));
+        assertEquals(1, third.appeared());
+        assertEquals(0, third.disappeared());
+        assertEquals(Visibility.VISIBLE, third.changes().get(0).getTo());
+        assertEquals(Visibility.VISIBLE, projects.get(1).getLastVisibility());
+        assertFalse(activeIndex.isInvisible(identityCache.denseId(key(1))));
+        assertEquals(t2, tombstones.closed.get(0).getToTs());
+        List<long[]> intervals = new ArrayList<>();
+        intervalIndex.forEachOverlapping(T0, t2.plusSeconds(1), (id, from, to) -> intervals.add(new long[]{id, from, to}));
+        assertEquals(1, intervals.size());
+        assertEquals(t2.toEpochMilli(), intervals.get(0)[2]);
+
+        // 成员不变: 无出现 / 消失, 不加载任何项目
+        projects.loads = 0;
+        VisibilitySweepVO fourth = service.applySweep(SCOPE, "v4", t2.plusSeconds(600), List.of(key(4), key(3), key(2), key(1), key(0)));
+        assertEquals(0, fourth.appeared() + fourth.disappeared());
+        assertEquals(0, projects.loads);
+    }
+
+    @Test
+    void baselineRestoresPreviouslyInvisibleMembers() {
+        project(0, Visibility.MISSING);
+        project(1, Visibility.VISIBLE);
+        // 索引未加载: 打开的墓碑从数据库回查
+        tombstones.open.put(key(0), TombstoneAggregate.open(key(0), T0.minusSeconds(3_600), "RANK_GAP", null, "RANK_GAP"));
+
+        Instant t1 = T0.plusSeconds(60);
+        VisibilitySweepVO first = service.applySweep(SCOPE, "v1", t1, List.of(key(0)));
+
+        assertTrue(first.baseline());
+        assertEquals(0, first.disappeared());
+        assertEquals(List.of(key(0)), first.changes().stream().map(VisibilityChangeVO::getProjectKey).toList());
+        assertEquals(Visibility.VISIBLE, projects.get(0).getLastVisibility());
+        assertEquals(Visibility.VISIBLE, projects.get(1).getLastVisibility());
+        assertEquals(t1, tombstones.closed.get(0).getToTs());
+        assertTrue(tombstones.open.isEmpty());
+    }
+
+    private void project(int id, Visibility visibility) {
+        ProjectKey key = key(id);
+        identityCache.register(key, 100 + id, T0.minusSeconds(86_400));
+        projects.byKey.put(key, ProjectAggregate.restore(key, "N-" + id, "USDT", visibility, T0.minusSeconds(86_400),
+                T0.minusSeconds(60), null, "1", null, null));
+    }
+
+    private static ProjectKey key(int id) {
+        return ProjectKey.of(Exchange.OKX, "P-" + id);
+    }
+
+    /**
+     * 只支持批量按业务键查询的项目主档
+     */
+    private static final class Projects implements IProjectRepository {
+
+        private final Map<ProjectKey, ProjectAggregate> byKey = new HashMap<>();
+        private int loads;
+
+        ProjectAggregate get(int id) {
+            return byKey.get(key(id));
+        }
+
+        @Override
+        public List<ProjectAggregate> findByKeys(Collection<ProjectKey> keys) {
+            loads += keys.size();
+            return keys.stream().map(byKey::get).filter(p -> p != null).toList();
+        }
+
+        @Override
+        public long scanIdentities(IdentityConsumer consumer) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Optional<Long> findIdByKey(ProjectKey key) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Optional<ProjectAggregate> findByKey(ProjectKey key) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Optional<Instant> findUpdatedAtByKey(ProjectKey key) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long insert(ProjectAggregate project) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int upsertBatch(Collection<ProjectAggregate> projects) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int updateSeenBatch(List<ProjectSeenVO> seen) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * 墓碑表: 业务键 → 打开的墓碑, 以及按顺序记录的关闭
+     */
+    private static final class Tombstones implements ITombstoneRepository {
+
+        private final Map<ProjectKey, TombstoneAggregate> open = new HashMap<>();
+        private final List<TombstoneAggregate> closed = new ArrayList<>();
+
+        @Override
+        public int openBatch(Collection<TombstoneAggregate> tombstones) {
+            tombstones.forEach(t -> open.put(t.getProjectKey(), t));
+            return tombstones.size();
+        }
+
+        @Override
+        public int closeBatch(Collection<TombstoneAggregate> tombstones) {
+            tombstones.forEach(t -> open.remove(t.getProjectKey()));
+            closed.addAll(tombstones);
+            return tombstones.size();
+        }
+
+        @Override
+        public List<TombstoneAggregate> findOpen(Collection<ProjectKey> keys) {
+            return keys.stream().map(open::get).filter(t -> t != null).toList();
+        }
+
+        @Override
+        public long scanAll(Consumer<TombstoneAggregate> consumer) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * 只查身份缓存的身份服务
+     */
+    private record CachedIdentity(ProjectIdentityCache cache) implements IProjectIdentityService {
+
+        @Override
+        public long warmUp() {
+            return cache.size();
+        }
+
+        @Override
+        public ProjectIdentityVO resolve(ProjectKey key) {
+            return cache.get(key);
+        }
+
+        @Override
+        public long requireProjectId(ProjectKey key) {
+            return cache.get(key).projectId();
+        }
+    }
+
+    /**
+     * 聚合本身即是内存中的项目主档, 转移与落库均无需额外动作
+     */
+    private static final class DirectSeen implements IProjectSeenService {
+
+        @Override
+        public void record(ProjectKey key, Instant seenAt, Visibility visibility) {
+        }
+
+        @Override
+        public boolean absorb(ProjectAggregate project) {
+            return true;
+        }
+
+        @Override
+        public int flush() {
+            return 0;
+        }
+
+        @Override
+        public int pending() {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package xin.eason.smartfollow.domain.service.partition;
+
+import org.junit.jupiter.api.Test;
+import xin.eason.smartfollow.domain.adapter.repository.IColdArchiveRepository;
+import xin.eason.smartfollow.domain.adapter.repository.IPartitionRepository;
+import xin.eason.smartfollow.domain.model.vo.partition.ColdArchiveVO;
+import xin.eason.smartfollow.domain.model.vo.partition.PartitionInfoVO;
+import xin.eason.smartfollow.domain.model.vo.partition.PartitionedTable;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link ColdArchiveService} 的交换 → 导出 → 核对 → 删除流程: 迟到写入, 冷分区损坏与中断后重跑
+ */
+class ColdArchiveServiceTest {
+
+    private static final String P = "p2025_01";
+    private static final String ARCHIVE = "exchange_project_snapshot_" + P;
+    private static final Instant NOW = Instant.parse("2025-09-15T00:00:00Z");
+
+    private final FakePartitions partitions = new FakePartitions();
+    private final FakeCold cold = new FakeCold(partitions);
+    private final ColdArchiveService service = new ColdArchiveService(partitions, cold);
+
+    @Test
+    void exchangesExportsVerifiesAndDrops() {
+        partitions.live.put(P, 100L);
+        ColdArchiveVO result = single(service.archiveExpired(NOW, 6));
+        assertEquals(100, result.rows());
+        assertTrue(result.detached());
+        assertEquals(100L, cold.published.get(P));
+        assertFalse(partitions.live.containsKey(P));
+        assertTrue(partitions.archives.isEmpty());
+    }
+
+    @Test
+    void lateRowsAfterExchangeStayInMySql() {
+        partitions.live.put(P, 100L);
+        // 交换之后, 导出期间又写入 3 行
+        partitions.afterExchange = () -> partitions.live.merge(P, 3L, Long::sum);
+        ColdArchiveVO result = single(service.archiveExpired(NOW, 6));
+        assertEquals(100, result.rows());
+        assertFalse(result.detached());
+        assertEquals(3L, partitions.live.get(P));
+        assertTrue(partitions.archives.isEmpty());
+
+        // 重跑: 冷分区不被丢弃, 迟到行仍保留在分区中
+        partitions.afterExchange = null;
+        result = single(service.archiveExpired(NOW, 6));
+        assertFalse(result.detached());
+        assertEquals(100L, cold.published.get(P));
+        assertEquals(3L, partitions.live.get(P));
+        assertEquals(1, cold.exports);
+    }
+
+    @Test
+    void resumesFromArchiveTableAfterCrash() {
+        // 上次已交换并发布, 删除归档表之前中断
+        partitions.live.put(P, 0L);
+        partitions.archives.put(ARCHIVE, 100L);
+        cold.published.put(P, 100L);
+        ColdArchiveVO result = single(service.archiveExpired(NOW, 6));
+        assertTrue(result.detached());
+        assertEquals(0, cold.exports);
+        assertTrue(partitions.archives.isEmpty());
+
+        // 上次已交换, 导出之前中断
+        partitions.live.put(P, 0L);
+        partitions.archives.put(ARCHIVE, 42L);
+        cold.published.clear();
+        result = single(service.archiveExpired(NOW, 6));
+        assertTrue(result.detached());
+        assertEquals(42L, cold.published.get(P));
+    }
+
+    @Test
+    void reExportsFromArchiveTableOnMismatch() {
+        partitions.live.put(P, 0L);
+        partitions.archives.put(ARCHIVE, 100L);
+        cold.published.put(P, 97L);
+        ColdArchiveVO result = single(service.archiveExpired(NOW, 6));
+        assertTrue(result.detached());
+        assertEquals(100L, cold.published.get(P));
+        assertEquals(1, cold.exports);
+    }
+
+    private static ColdArchiveVO single(List<ColdArchiveVO> results) {
+        assertEquals(1, results.size());
+        return results.get(0);
+    }
+
+    // =========================== 内存仓储 ===========================
+
+    private static final class FakePartitions implements IPartitionRepository {
+
+        private final Map<String, Long> live = new LinkedHashMap<>();
+        private final Map<String, Long> archives = new HashMap<>();
+        private Runnable afterExchange;
+
+        @Override
+        public List<PartitionInfoVO> findPartitions(PartitionedTable table) {
+            List<PartitionInfoVO> result = new ArrayList<>();
+            if (table != PartitionedTable.SNAPSHOT)
+                return result;
+            live.forEach((name, rows) -> result.add(new PartitionInfoVO(name, LocalDate.of(2025, 2, 1), rows, 0L)));
+            result.add(new PartitionInfoVO("pMAX", null, 0L, 0L));
+            return result;
+        }
+
+        @Override
+        public boolean isEmpty(PartitionedTable table, String partition) {
+            return live.getOrDefault(partition, 0L) == 0L;
+        }
+
+        @Override
+        public long countRows(PartitionedTable table, String partition) {
+            return live.getOrDefault(partition, 0L);
+        }
+
+        @Override
+        public void splitMax(PartitionedTable table, Map<String, LocalDate> partitions) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void dropPartitions(PartitionedTable table, List<String> partitions) {
+            partitions.forEach(live::remove);
+        }
+
+        @Override
+        public boolean dropPartitionIfEmpty(PartitionedTable table, String partition) {
+            if (!isEmpty(table, partition))
+                return false;
+            live.remove(partition);
+            return true;
+        }
+
+        @Override
+        public String exchangePartition(PartitionedTable table, String partition) {
+            String archive = table.getTableName() + "_" + partition;
+            if (isEmpty(table, partition))
+                return archives.containsKey(archive) ? archive : null;
+            archives.put(archive, live.put(partition, 0L));
+            if (afterExchange != null)
+                afterExchange.run();
+            return archive;
+        }
+
+        @Override
+        public String findArchiveTable(PartitionedTable table, String partition) {
+            String archive = table.getTableName() + "_" + partition;
+            return archives.containsKey(archive) ? archive : null;
+        }
+
+        @Override
+        public long countArchiveRows(PartitionedTable table, String partition) {
+            return archives.get(table.getTableName() + "_" + partition);
+        }
+
+        @Override
+        public void dropArchiveTable(PartitionedTable table, String partition) {
+            archives.remove(table.getTableName() + "_" + partition);
+        }
+    }
+
+    private static final class FakeCold implements IColdArchiveRepository {
+
+        private final FakePartitions partitions;
+        private final Map<String, Long> published = new HashMap<>();
+        private int exports;
+
+        private FakeCold(FakePartitions partitions) {
+            this.partitions = partitions;
+        }
+
+        @Override
+        public boolean supports(PartitionedTable table) {
+            return table == PartitionedTable.SNAPSHOT;
+        }
+
+        @Override
+        public boolean isArchived(PartitionedTable table, String partition) {
+            return published.containsKey(partition);
+        }
+
+        @Override
+        public long archivedRows(PartitionedTable table, String partition) {
+            return published.getOrDefault(partition, -1L);
+        }
+
+        @Override
+        public long export(PartitionedTable table, String partition, String archiveTable) {
+            if (published.containsKey(partition))
+                throw new IllegalStateException("冷存储已存在分区: " + partition);
+            exports++;
+            long rows = partitions.archives.get(archiveTable);
+            published.put(partition, rows);
+            return rows;
+        }
+
+        @Override
+        public void discard(PartitionedTable table, String partition) {
+            published.remove(partition);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package xin.eason.smartfollow.domain.service.partition;
+
+import org.junit.jupiter.api.Test;
+import xin.eason.smartfollow.domain.adapter.repository.IPartitionRepository;
+import xin.eason.smartfollow.domain.model.vo.partition.PartitionInfoVO;
+import xin.eason.smartfollow.domain.model.vo.partition.PartitionMaintenanceVO;
+import xin.eason.smartfollow.domain.model.vo.partition.PartitionPolicyVO;
+import xin.eason.smartfollow.domain.model.vo.partition.PartitionedTable;
+import xin.eason.smartfollow.domain.model.vo.partition.RetentionMode;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link PartitionMaintenanceService} 提前切出月分区: 上界计算, 以及兜底分区非空时跳过拆分
+ */
+class PartitionMaintenanceServiceTest {
+
+    private static final Instant NOW = Instant.parse("2025-10-31T23:59:59Z");
+
+    private final FakePartitions partitions = new FakePartitions();
+    private final PartitionMaintenanceService service = new PartitionMaintenanceService(partitions,
+            new PartitionPolicyVO(2, Map.of(), RetentionMode.NONE));
+
+    @Test
+    void splitsEmptyMaxUpToAheadMonths() {
+        partitions.add("p2025_09", LocalDate.of(2025, 10, 1), 10);
+        partitions.add("p2025_10", LocalDate.of(2025, 11, 1), 10);
+
+        PartitionMaintenanceVO result = service.maintain(PartitionedTable.SNAPSHOT, NOW);
+
+        // 当月 10 月 + 提前 2 个月: 需要覆盖到 12 月 (上界跨年到 2026-01-01), 按 UTC 月份计算
+        Map<String, LocalDate> expected = new LinkedHashMap<>();
+        expected.put("p2025_11", LocalDate.of(2025, 12, 1));
+        expected.put("p2025_12", LocalDate.of(2026, 1, 1));
+        assertEquals(expected, partitions.lastSplit);
+        assertEquals(List.copyOf(expected.keySet()), result.created());
+        assertTrue(result.skipped().isEmpty());
+        assertEquals(List.of("p2025_09", "p2025_10", "p2025_11", "p2025_12", "pMAX"),
+                result.partitions().stream().map(PartitionInfoVO::name).toList());
+
+        // 已经覆盖时不再拆分
+        partitions.lastSplit = null;
+        assertTrue(service.maintain(PartitionedTable.SNAPSHOT, NOW).created().isEmpty());
+        assertNull(partitions.lastSplit);
+    }
+
+    @Test
+    void skipsSplitWhenMaxHasRows() {
+        partitions.add("p2025_10", LocalDate.of(2025, 11, 1), 10);
+        partitions.maxRows = 42;
+
+        PartitionMaintenanceVO result = service.maintain(PartitionedTable.SNAPSHOT, NOW);
+
+        assertNull(partitions.lastSplit);
+        assertTrue(result.created().isEmpty());
+        assertEquals(List.of("p2025_11", "p2025_12"), result.skipped());
+        assertEquals(List.of(result), service.lastReports());
+
+        // 人工清空 pMAX 后, 下次维护正常切出
+        partitions.maxRows = 0;
+        result = service.maintain(PartitionedTable.SNAPSHOT, NOW);
+        assertEquals(List.of("p2025_11", "p2025_12"), result.created());
+        assertTrue(result.skipped().isEmpty());
+    }
+
+    /**
+     * 只有快照表分区; pMAX 的行数可调
+     */
+    private static final class FakePartitions implements IPartitionRepository {
+
+        private final List<PartitionInfoVO> months = new ArrayList<>();
+        private long maxRows;
+        private Map<String, LocalDate> lastSplit;
+
+        void add(String name, LocalDate lessThan, long rows) {
+            months.add(new PartitionInfoVO(name, lessThan, rows, 0L));
+        }
+
+        @Override
+        public List<PartitionInfoVO> findPartitions(PartitionedTable table) {
+            if (table != PartitionedTable.SNAPSHOT)
+                return List.of();
+            List<PartitionInfoVO> result = new ArrayList<>(months);
+            result.add(new PartitionInfoVO("pMAX", null, maxRows, 0L));
+            return result;
+        }
+
+        @Override
+        public boolean isEmpty(PartitionedTable table, String partition) {
+            return !"pMAX".equals(partition) || maxRows == 0;
+        }
+
+        @Override
+        public long countRows(PartitionedTable table, String partition) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void splitMax(PartitionedTable table, Map<String, LocalDate> partitions) {
+            lastSplit = partitions;
+            partitions.forEach((name, lessThan) -> add(name, lessThan, 0L));
+        }
+
+        @Override
+        public void dropPartitions(PartitionedTable table, List<String> partitions) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean dropPartitionIfEmpty(PartitionedTable table, String partition) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String exchangePartition(PartitionedTable table, String partition) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String findArchiveTable(PartitionedTable table, String partition) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long countArchiveRows(PartitionedTable table, String partition) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void dropArchiveTable(PartitionedTable table, String partition) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package xin.eason.smartfollow.domain.service.trade;
+
+import org.junit.jupiter.api.Test;
+import xin.eason.smartfollow.domain.model.vo.market.BarSeries;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link BarRangeTree} 与逐根扫描的结果一致性: 非 2 的幂的 n, 高低价大量相等, 同值取最早下标
+ */
+class BarRangeTreeTest {
+
+    @Test
+    void matchesBruteForceOnRandomRanges() {
+        Random random = new Random(49L);
+        int trees = 0;
+        while (trees < 200) {
+            int n = 1 + random.nextInt(700);
+            if (Integer.bitCount(n) == 1 && n > 2)
+                continue;
+            trees++;
+            // 价格只取少量离散值, 保证区间内经常出现相同的最低 / 最高价
+            int levels = 1 + random.nextInt(6);
+            double[] low = new double[n];
+            double[] high = new double[n];
+            for (int i = 0; i < n; i++) {
+                low[i] = 10 + random.nextInt(levels);
+                high[i] = low[i] + random.nextInt(3);
+            }
+            BarRangeTree tree = new BarRangeTree(series(low, high));
+            BarRangeTree.Range out = new BarRangeTree.Range();
+            BarRangeTree.Range right = new BarRangeTree.Range();
+            for (int q = 0; q < 300; q++) {
+                int from = random.nextInt(n + 1);
+                int to = from + random.nextInt(n - from + 1);
+                tree.query(from, to, out, right);
+                assertRange(low, high, from, to, out, "n=" + n + " [" + from + ", " + to + ")");
+            }
+            tree.query(0, n, out, right);
+            assertRange(low, high, 0, n, out, "n=" + n + " 全区间");
+        }
+    }
+
+    @Test
+    void breaksTiesTowardsTheEarliestBar() {
+        // 每根 K 线的高低价完全相同
+        int n = 13;
+        double[] low = new double[n];
+        double[] high = new double[n];
+        Arrays.fill(low, 5);
+        Arrays.fill(high, 7);
+        BarRangeTree tree = new BarRangeTree(series(low, high));
+        BarRangeTree.Range out = new BarRangeTree.Range();
+        BarRangeTree.Range right = new BarRangeTree.Range();
+        for (int from = 0; from < n; from++) {
+            for (int to = from + 1; to <= n; to++) {
+                tree.query(from, to, out, right);
+                assertEquals(from, out.minAt, "[" + from + ", " + to + ")");
+                assertEquals(from, out.maxAt, "[" + from + ", " + to + ")");
+            }
+        }
+        // 两个相同的最低价分别落在左右累积中
+        low[3] = 1;
+        low[11] = 1;
+        high[2] = 9;
+        high[10] = 9;
+        tree = new BarRangeTree(series(low, high));
+        tree.query(1, 12, out, right);
+        assertEquals(3, out.minAt);
+        assertEquals(2, out.maxAt);
+        tree.query(4, 12, out, right);
+        assertEquals(11, out.minAt);
+        assertEquals(10, out.maxAt);
+    }
+
+    @Test
+    void emptyAndSingleBarRanges() {
+        BarRangeTree tree = new BarRangeTree(series(new double[]{3, 2, 1}, new double[]{4, 3, 2}));
+        BarRangeTree.Range out = new BarRangeTree.Range();
+        BarRangeTree.Range right = new BarRangeTree.Range();
+        assertTrue(tree.query(1, 1, out, right).isEmpty());
+        tree.query(2, 3, out, right);
+        assertEquals(2, out.minAt);
+        assertEquals(Double.POSITIVE_INFINITY, out.fall);
+        assertEquals(Double.NEGATIVE_INFINITY, out.rise);
+        assertEquals(0, tree.lowerBound(Long.MIN_VALUE));
+        assertEquals(1, tree.lowerBound(60_000L));
+        assertEquals(2, tree.lowerBound(60_001L));
+        assertEquals(3, tree.lowerBound(Long.MAX_VALUE));
+    }
+
+    private static void assertRange(double[] low, double[] high, int from, int to, BarRangeTree.Range out, String at) {
+        if (from == to) {
+            assertTrue(out.isEmpty(), at);
+            return;
+        }
+        int minAt = from;
+        int maxAt = from;
+        double fall = Double.POSITIVE_INFINITY;
+        double rise = Double.NEGATIVE_INFINITY;
+        // 价格恒正: min(low[j] / high[i]) = low[j] / max(high[i]), i < j; rise 同理
+        for (int j = from + 1; j < to; j++) {
+            fall = Math.min(fall, low[j] / high[maxAt]);
+            rise = Math.max(rise, high[j] / low[minAt]);
+            if (low[j] < low[minAt])
+                minAt = j;
+            if (high[j] > high[maxAt])
+                maxAt = j;
+        }
+        assertEquals(minAt, out.minAt, at + " minAt");
+        assertEquals(maxAt, out.maxAt, at + " maxAt");
+        assertEquals(fall, out.fall, at + " fall");
+        assertEquals(rise, out.rise, at + " rise");
+    }
+
+    /**
+     * 开盘时间为 0, 1m, 2m, ...
+     */
+    private static BarSeries series(double[] low, double[] high) {
+        return new BarSeries() {
+            @Override
+            public int size() {
+                return low.length;
+            }
+
+            @Override
+            public long ts(int i) {
+                return i * 60_000L;
+            }
+
+            @Override
+            public double open(int i) {
+                return low[i];
+            }
+
+            @Override
+            public double high(int i) {
+                return high[i];
+            }
+
+            @Override
+            public double low(int i) {
+                return low[i];
+            }
+
+            @Override
+            public double close(int i) {
+                return high[i];
+            }
+        };
+    }
+}
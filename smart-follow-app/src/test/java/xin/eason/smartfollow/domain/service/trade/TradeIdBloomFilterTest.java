@@ -0,0 +1,43 @@
+package xin.eason.smartfollow.domain.service.trade;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link TradeIdBloomFilter} 无假阴性, 设计容量内实测假阳性率接近目标值, 超过容量后提示重建
+ */
+class TradeIdBloomFilterTest {
+
+    @Test
+    void noFalseNegativesAndFppNearTarget() {
+        TradeIdBloomFilter filter = new TradeIdBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++)
+            filter.put("T-" + i);
+        for (int i = 0; i < 10_000; i++)
+            assertTrue(filter.mightContain("T-" + i));
+        assertFalse(filter.isSaturated());
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++)
+            if (filter.mightContain("N-" + i))
+                falsePositives++;
+        double observed = falsePositives / 100_000.0;
+        assertTrue(observed < 0.02, "实测假阳性率 " + observed);
+        assertEquals(filter.expectedFpp(), observed, 0.01);
+    }
+
+    @Test
+    void saturatesPastCapacity() {
+        TradeIdBloomFilter filter = new TradeIdBloomFilter(100, 0.01);
+        for (int i = 0; i < 100; i++)
+            filter.put("T-" + i);
+        assertFalse(filter.isSaturated());
+        double atCapacity = filter.expectedFpp();
+        filter.put("T-100");
+        assertTrue(filter.isSaturated());
+        assertTrue(filter.expectedFpp() > atCapacity);
+    }
+}
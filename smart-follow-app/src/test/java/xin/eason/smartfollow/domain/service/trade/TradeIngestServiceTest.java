@@ -0,0 +1,228 @@
+package xin.eason.smartfollow.domain.service.trade;
+
+import org.junit.jupiter.api.Test;
+import xin.eason.smartfollow.domain.IProjectIdentityService;
+import xin.eason.smartfollow.domain.adapter.repository.ITradeRepository;
+import xin.eason.smartfollow.domain.model.aggregate.trade.ProjectTradeAggregate;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectIdentityVO;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectKey;
+import xin.eason.smartfollow.domain.model.vo.trade.ItemId;
+import xin.eason.smartfollow.domain.model.vo.trade.Quantity;
+import xin.eason.smartfollow.domain.model.vo.trade.TradeIdentityVO;
+import xin.eason.smartfollow.domain.model.vo.trade.TradeIngestResultVO;
+import xin.eason.smartfollow.domain.model.vo.trade.TradeMetricInputVO;
+import xin.eason.smartfollow.domain.service.project.ProjectIdentityCache;
+import xin.eason.smartfollow.types.enums.Exchange;
+import xin.eason.smartfollow.types.enums.TradeSide;
+import xin.eason.smartfollow.types.enums.TradeStatus;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * {@link TradeIngestService} 的过滤器预检: 假阳性经回查后照常写入, 非终态回合不进过滤器, 之后到达的终态能够覆盖
+ */
+class TradeIngestServiceTest {
+
+    private static final ProjectKey PROJECT = ProjectKey.of(Exchange.OKX, "P-1");
+    private static final ItemId BTC = new ItemId("SWAP", "BTC-USDT-SWAP");
+    private static final String PAYLOAD_HASH = "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855";
+    private static final Instant T0 = Instant.parse("2025-09-01T00:00:00Z");
+    private static final YearMonth MONTH = YearMonth.of(2025, 9);
+
+    private final ProjectIdentityCache identityCache = new ProjectIdentityCache();
+    private final Trades repository = new Trades();
+
+    @Test
+    void falsePositivesAreVerifiedAndWritten() {
+        int denseId = identityCache.register(PROJECT, 100, T0).denseId();
+        for (int i = 0; i < 10; i++)
+            repository.store(trade("T-" + i, TradeStatus.CLOSED, i));
+        // 容量下限 1、目标假阳性率 0.2 的小过滤器, 便于找到假阳性的键
+        TradeIdFilterIndex filterIndex = new TradeIdFilterIndex(0.2, 1, Duration.ofHours(1), true);
+        TradeIngestService service = service(filterIndex);
+
+        // 已落库的终态回合: 过滤器命中且回查确认, 不发往 MySQL
+        List<ProjectTradeAggregate> existing = new ArrayList<>();
+        for (int i = 0; i < 10; i++)
+            existing.add(trade("T-" + i, TradeStatus.CLOSED, i));
+        TradeIngestResultVO first = service.ingest(existing);
+        assertEquals(10, first.known());
+        assertEquals(0, first.written());
+        assertEquals(0, repository.upserts);
+
+        // 找一个库内不存在、但过滤器命中的 tradeId
+        TradeIdBloomFilter filter = filterIndex.get(denseId, MONTH);
+        assertNotNull(filter);
+        String falsePositive = null;
+        for (int i = 0; falsePositive == null && i < 100_000; i++)
+            if (filter.mightContain("N-" + i))
+                falsePositive = "N-" + i;
+        assertNotNull(falsePositive);
+
+        TradeIngestResultVO second = service.ingest(List.of(trade(falsePositive, TradeStatus.CLOSED, 20)));
+        assertEquals(0, second.known());
+        assertEquals(1, second.falsePositives());
+        assertEquals(1, second.written());
+        assertEquals(TradeStatus.CLOSED, repository.rows.get(falsePositive).getStatus());
+        assertEquals(1, filterIndex.getFalsePositives());
+
+        // 写入后再次到达: 回查确认已存在
+        TradeIngestResultVO third = service.ingest(List.of(trade(falsePositive, TradeStatus.CLOSED, 20)));
+        assertEquals(1, third.known());
+        assertEquals(0, third.written());
+
+        // 关闭回查时命中即视为已存在 (假阳性的回合被丢弃)
+        TradeIdFilterIndex unverified = new TradeIdFilterIndex(0.2, 1, Duration.ofHours(1), false);
+        unverified.install(denseId, MONTH, filter);
+        repository.rows.remove(falsePositive);
+        TradeIngestResultVO dropped = service(unverified).ingest(List.of(trade(falsePositive, TradeStatus.CLOSED, 20)));
+        assertEquals(1, dropped.known());
+        assertEquals(0, dropped.written());
+        assertFalse(repository.rows.containsKey(falsePositive));
+    }
+
+    @Test
+    void finalStatusOverwritesEarlierNonFinalRow() {
+        identityCache.register(PROJECT, 100, T0);
+        TradeIngestService service = service(new TradeIdFilterIndex(0.01, 1_000, Duration.ofHours(1), true));
+
+        // 非终态回合不做预检, 每次都写入以推进状态
+        assertEquals(1, service.ingest(List.of(trade("T-1", TradeStatus.OPEN, 0))).written());
+        TradeIngestResultVO partial = service.ingest(List.of(trade("T-1", TradeStatus.PARTIALLY_CLOSED, 0)));
+        assertEquals(1, partial.written());
+        assertEquals(0, partial.known());
+        assertEquals(TradeStatus.PARTIALLY_CLOSED, repository.rows.get("T-1").getStatus());
+
+        // 非终态写入不进过滤器: 终态到达时判定为新回合, 覆盖库内的非终态行
+        TradeIngestResultVO closed = service.ingest(List.of(trade("T-1", TradeStatus.CLOSED, 0)));
+        assertEquals(0, closed.known());
+        assertEquals(0, closed.falsePositives());
+        assertEquals(1, closed.written());
+        assertEquals(2, closed.affected());
+        assertEquals(TradeStatus.CLOSED, repository.rows.get("T-1").getStatus());
+
+        // 终态写入后补入过滤器: 重复抓取在进程内拦下
+        int upserts = repository.upserts;
+        TradeIngestResultVO replay = service.ingest(List.of(trade("T-1", TradeStatus.CLOSED, 0)));
+        assertEquals(1, replay.known());
+        assertEquals(0, replay.written());
+        assertEquals(upserts, repository.upserts);
+    }
+
+    private TradeIngestService service(TradeIdFilterIndex filterIndex) {
+        return new TradeIngestService(repository, new CachedIdentity(identityCache), identityCache, filterIndex);
+    }
+
+    private static ProjectTradeAggregate trade(String tradeId, TradeStatus status, int minute) {
+        return ProjectTradeAggregate.builder()
+                .tradeId(tradeId)
+                .projectKey(PROJECT)
+                .item(BTC)
+                .side(TradeSide.LONG)
+                .qty(new Quantity(BigDecimal.ONE, "BTC"))
+                .entryPrice(new BigDecimal("60000"))
+                .exitPrice(status.isFinal() ? new BigDecimal("61000") : null)
+                .tsOpen(T0.plusSeconds(minute * 60L))
+                .tsClose(status.isFinal() ? T0.plusSeconds(minute * 60L + 3_600) : null)
+                .status(status)
+                .source("OKX")
+                .sourcePayloadHash(PAYLOAD_HASH)
+                .build();
+    }
+
+    /**
+     * 与 upsertBatch 的 SQL 语义一致: 终态行保持不变, 非终态行被覆盖
+     */
+    private static final class Trades implements ITradeRepository {
+
+        private final Map<String, ProjectTradeAggregate> rows = new LinkedHashMap<>();
+        private int upserts;
+
+        void store(ProjectTradeAggregate trade) {
+            rows.put(trade.getTradeId(), trade);
+        }
+
+        @Override
+        public int upsertBatch(Collection<ProjectTradeAggregate> trades) {
+            upserts++;
+            int affected = 0;
+            for (ProjectTradeAggregate trade : trades) {
+                ProjectTradeAggregate existing = rows.get(trade.getTradeId());
+                if (existing == null) {
+                    rows.put(trade.getTradeId(), trade);
+                    affected += 1;
+                } else if (!existing.getStatus().isFinal() && existing.getStatus() != trade.getStatus()) {
+                    rows.put(trade.getTradeId(), trade);
+                    affected += 2;
+                }
+            }
+            return affected;
+        }
+
+        @Override
+        public List<TradeIdentityVO> findFinal(ProjectKey key, Collection<TradeIdentityVO> identities) {
+            List<TradeIdentityVO> found = new ArrayList<>();
+            for (TradeIdentityVO identity : identities) {
+                ProjectTradeAggregate row = rows.get(identity.tradeId());
+                if (row != null && row.getStatus().isFinal())
+                    found.add(identity);
+            }
+            return found;
+        }
+
+        @Override
+        public long scanFinal(ProjectKey key, Instant from, Instant to, Consumer<TradeIdentityVO> consumer) {
+            long scanned = 0;
+            for (ProjectTradeAggregate row : rows.values())
+                if (row.getStatus().isFinal() && !row.getTsOpen().isBefore(from) && row.getTsOpen().isBefore(to)) {
+                    consumer.accept(new TradeIdentityVO(row.getTradeId(), row.getSource(), row.getExternalTradeId()));
+                    scanned++;
+                }
+            return scanned;
+        }
+
+        @Override
+        public List<TradeMetricInputVO> findClosedForMetrics(Instant from, Instant to, long afterId, int limit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<TradeMetricInputVO> findMetricsPending(Instant from, Instant to, String algoVer, long afterId, int limit) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * 只查身份缓存的身份服务
+     */
+    private record CachedIdentity(ProjectIdentityCache cache) implements IProjectIdentityService {
+
+        @Override
+        public long warmUp() {
+            return cache.size();
+        }
+
+        @Override
+        public ProjectIdentityVO resolve(ProjectKey key) {
+            return cache.get(key);
+        }
+
+        @Override
+        public long requireProjectId(ProjectKey key) {
+            return cache.get(key).projectId();
+        }
+    }
+}
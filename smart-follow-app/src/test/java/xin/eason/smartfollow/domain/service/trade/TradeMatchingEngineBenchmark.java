@@ -0,0 +1,121 @@
+package xin.eason.smartfollow.domain.service.trade;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectKey;
+import xin.eason.smartfollow.domain.model.vo.trade.ItemId;
+import xin.eason.smartfollow.domain.model.vo.trade.Money;
+import xin.eason.smartfollow.domain.model.vo.trade.TradeFillVO;
+import xin.eason.smartfollow.domain.model.vo.trade.TradeMatchBatchVO;
+import xin.eason.smartfollow.types.enums.Exchange;
+import xin.eason.smartfollow.types.enums.PositionAction;
+import xin.eason.smartfollow.types.enums.TradeSide;
+import xin.eason.smartfollow.types.utils.FixedPointUtils;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TradeMatchingEngine} 撮合吞吐量 (成交 / 秒)
+ * <ul>
+ *     <li>一批 {@value #FILLS} 笔成交分布在 {@value #PROJECTS} 个项目 × 4 个标的上, 开平仓数量配平, 每次调用结束后开仓队列回到空</li>
+ *     <li>exact = false 时价格带 12 位小数, 全部开仓走 BigDecimal 回落路径, 用于对比定点快路径</li>
+ * </ul>
+ * 运行: 先 <code>mvn -pl smart-follow-app -am test-compile</code>, 再执行本类的 main 方法
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TradeMatchingEngineBenchmark {
+
+    private static final int FILLS = 100_000;
+    private static final int PROJECTS = 1_000;
+    private static final String PAYLOAD_HASH = "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855";
+    private static final String[] SYMBOLS = {"BTC-USDT-SWAP", "ETH-USDT-SWAP", "SOL-USDT-SWAP", "DOGE-USDT-SWAP"};
+
+    @Param({"1", "4"})
+    public int shards;
+
+    @Param({"true", "false"})
+    public boolean exact;
+
+    private TradeMatchingEngine engine;
+    private List<TradeFillVO> fills;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        engine = new TradeMatchingEngine(shards);
+        Random random = new Random(42);
+        Instant t0 = Instant.parse("2025-09-01T00:00:00Z");
+        fills = new ArrayList<>(FILLS);
+        // 每组: 两笔开仓 + 两笔平仓 (先平 1.5 倍首笔, 再平剩余), 覆盖完全平仓与部分平仓
+        for (int i = 0; fills.size() < FILLS; i++) {
+            ProjectKey key = ProjectKey.of(Exchange.OKX, "P-" + (i % PROJECTS));
+            ItemId item = new ItemId("SWAP", SYMBOLS[random.nextInt(SYMBOLS.length)]);
+            TradeSide side = random.nextBoolean() ? TradeSide.LONG : TradeSide.SHORT;
+            BigDecimal q1 = BigDecimal.valueOf(1 + random.nextInt(10_000), 3);
+            BigDecimal q2 = BigDecimal.valueOf(1 + random.nextInt(10_000), 3);
+            BigDecimal firstClose = q1.add(q2.min(q1).divide(BigDecimal.valueOf(2)));
+            Instant ts = t0.plusMillis(i * 10L);
+            fills.add(fill(key, item, side, PositionAction.OPEN, q1, price(random), ts));
+            fills.add(fill(key, item, side, PositionAction.OPEN, q2, price(random), ts.plusMillis(1)));
+            fills.add(fill(key, item, side, PositionAction.CLOSE, firstClose, price(random), ts.plusMillis(2)));
+            fills.add(fill(key, item, side, PositionAction.CLOSE, q1.add(q2).subtract(firstClose), price(random), ts.plusMillis(3)));
+        }
+        // exact = true 时每笔名义价值都必须能精确计算, 否则实际测到的是回落路径
+        for (TradeFillVO fill : fills) {
+            long notional = FixedPointUtils.multiply(FixedPointUtils.toScaled(fill.price(), FixedPointUtils.PRICE_SCALE), FixedPointUtils.PRICE_SCALE,
+                    FixedPointUtils.toScaled(fill.qty(), FixedPointUtils.QTY_SCALE), FixedPointUtils.QTY_SCALE, FixedPointUtils.scaleOf(fill.fee().ccy()));
+            if (exact == (notional == FixedPointUtils.INEXACT))
+                throw new IllegalStateException("基准输入与 exact = " + exact + " 不符: " + fill.price() + " × " + fill.qty());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        engine.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FILLS)
+    public TradeMatchBatchVO match() {
+        return engine.match(fills);
+    }
+
+    private BigDecimal price(Random random) {
+        BigDecimal price = BigDecimal.valueOf(10_000_00 + random.nextInt(1_000_00), 2);
+        return exact ? price : price.add(new BigDecimal("0.000000000001"));
+    }
+
+    private static TradeFillVO fill(ProjectKey key, ItemId item, TradeSide side, PositionAction action,
+                                    BigDecimal qty, BigDecimal price, Instant ts) {
+        return new TradeFillVO(key, item, side, action, null, null, qty, price, new Money(new BigDecimal("0.05"), "USDT"),
+                ts, "BENCH", null, null, PAYLOAD_HASH);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TradeMatchingEngineBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,308 @@
+package xin.eason.smartfollow.domain.service.trade;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import xin.eason.smartfollow.domain.model.aggregate.trade.ProjectTradeAggregate;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectKey;
+import xin.eason.smartfollow.domain.model.vo.trade.ItemId;
+import xin.eason.smartfollow.domain.model.vo.trade.Money;
+import xin.eason.smartfollow.domain.model.vo.trade.TradeFillVO;
+import xin.eason.smartfollow.domain.model.vo.trade.TradeMatchBatchVO;
+import xin.eason.smartfollow.types.enums.Exchange;
+import xin.eason.smartfollow.types.enums.PositionAction;
+import xin.eason.smartfollow.types.enums.TradeSide;
+import xin.eason.smartfollow.types.enums.TradeStatus;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link TradeMatchingEngine} 的撮合语义与定点 / BigDecimal 两条路径的一致性
+ */
+class TradeMatchingEngineTest {
+
+    private static final ProjectKey PROJECT = ProjectKey.of(Exchange.OKX, "P-1");
+    private static final ItemId BTC = new ItemId("SWAP", "BTC-USDT-SWAP");
+    private static final String PAYLOAD_HASH = "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855";
+    private static final Instant T0 = Instant.parse("2025-09-01T00:00:00Z");
+
+    private TradeMatchingEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new TradeMatchingEngine(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.close();
+    }
+
+    @Test
+    void closesLotsFirstInFirstOut() {
+        engine.match(List.of(
+                fill(PROJECT, TradeSide.LONG, PositionAction.OPEN, "1", "100", 0, "A"),
+                fill(PROJECT, TradeSide.LONG, PositionAction.OPEN, "1", "110", 1, "B")));
+
+        TradeMatchBatchVO batch = engine.match(List.of(fill(PROJECT, TradeSide.LONG, PositionAction.CLOSE, "1.5", "120", 2, "C1")));
+
+        Map<String, ProjectTradeAggregate> trades = byExternalId(batch.trades());
+        assertEquals(2, trades.size());
+        ProjectTradeAggregate a = trades.get("A");
+        assertEquals(TradeStatus.CLOSED, a.getStatus());
+        assertEquals(0, new BigDecimal("20").compareTo(a.getPnl().amount()));
+        assertEquals(0, new BigDecimal("120").compareTo(a.getExitPrice()));
+        assertEquals(T0.plusSeconds(2), a.getTsClose());
+        ProjectTradeAggregate b = trades.get("B");
+        assertEquals(TradeStatus.PARTIALLY_CLOSED, b.getStatus());
+        assertEquals(0, new BigDecimal("5").compareTo(b.getPnl().amount()));
+        assertNull(b.getTsClose());
+        assertEquals(1, batch.closed());
+        assertEquals(0, batch.unmatched());
+        assertEquals(1, engine.openLots());
+    }
+
+    @Test
+    void partialClosesKeepLotPartiallyClosedUntilFlat() {
+        engine.match(List.of(fill(PROJECT, TradeSide.SHORT, PositionAction.OPEN, "3", "200", 0, "S")));
+
+        ProjectTradeAggregate first = single(engine.match(List.of(
+                fill(PROJECT, TradeSide.SHORT, PositionAction.CLOSE, "1", "190", 1, "C1"))));
+        assertEquals(TradeStatus.PARTIALLY_CLOSED, first.getStatus());
+        assertEquals(0, new BigDecimal("190").compareTo(first.getExitPrice()));
+        assertEquals(0, new BigDecimal("10").compareTo(first.getPnl().amount()));
+        assertNull(first.getTsClose());
+
+        ProjectTradeAggregate second = single(engine.match(List.of(
+                fill(PROJECT, TradeSide.SHORT, PositionAction.CLOSE, "2", "205", 2, "C2"))));
+        assertEquals(TradeStatus.CLOSED, second.getStatus());
+        assertEquals(first.getTradeId(), second.getTradeId());
+        // (190 × 1 + 205 × 2) / 3 = 200, 空头盈亏 10 - 10 = 0
+        assertEquals(0, new BigDecimal("200").compareTo(second.getExitPrice()));
+        assertEquals(0, second.getPnl().amount().signum());
+        assertEquals(T0.plusSeconds(2), second.getTsClose());
+        assertEquals(0, engine.openLots());
+    }
+
+    @Test
+    void closeWithoutOpenLotIsCountedAndDropped() {
+        TradeMatchBatchVO orphan = engine.match(List.of(fill(PROJECT, TradeSide.LONG, PositionAction.CLOSE, "1", "100", 0, "C0")));
+        assertEquals(1, orphan.unmatched());
+        assertTrue(orphan.trades().isEmpty());
+        assertEquals(0, engine.openLots());
+
+        engine.match(List.of(fill(PROJECT, TradeSide.LONG, PositionAction.OPEN, "1", "100", 1, "A")));
+        TradeMatchBatchVO over = engine.match(List.of(fill(PROJECT, TradeSide.LONG, PositionAction.CLOSE, "3", "101", 2, "C1")));
+        assertEquals(1, over.unmatched());
+        assertEquals(TradeStatus.CLOSED, single(over).getStatus());
+
+        // 超出部分已丢弃, 不会消耗之后的开仓
+        TradeMatchBatchVO next = engine.match(List.of(fill(PROJECT, TradeSide.LONG, PositionAction.OPEN, "2", "102", 3, "B")));
+        assertEquals(TradeStatus.OPEN, single(next).getStatus());
+        assertEquals(1, engine.openLots());
+    }
+
+    @Test
+    void keepsPerProjectOrderAcrossShards() {
+        int projects = 64;
+        List<TradeFillVO> opens = new ArrayList<>();
+        List<TradeFillVO> closes = new ArrayList<>();
+        for (int p = 0; p < projects; p++) {
+            ProjectKey key = ProjectKey.of(Exchange.OKX, "P-" + p);
+            // 每个项目两笔开仓, 开仓价区分先后; 平仓只够平第一笔
+            opens.add(fill(key, TradeSide.LONG, PositionAction.OPEN, "1", String.valueOf(100 + p), 0, p + "-A"));
+            opens.add(fill(key, TradeSide.LONG, PositionAction.OPEN, "1", String.valueOf(200 + p), 1, p + "-B"));
+            closes.add(fill(key, TradeSide.LONG, PositionAction.CLOSE, "1", "300", 2, p + "-C"));
+        }
+        // 同一批内乱序提交, 分片内按成交时间排序
+        List<TradeFillVO> all = new ArrayList<>(opens);
+        all.addAll(closes);
+        Collections.shuffle(all, new Random(7));
+
+        TradeMatchBatchVO batch = engine.match(all);
+
+        assertEquals(0, batch.unmatched());
+        assertEquals(projects, batch.closed());
+        Map<String, ProjectTradeAggregate> trades = byExternalId(batch.trades());
+        for (int p = 0; p < projects; p++) {
+            ProjectTradeAggregate a = trades.get(p + "-A");
+            assertEquals(TradeStatus.CLOSED, a.getStatus(), "项目 " + p);
+            assertEquals(0, BigDecimal.valueOf(200 - p).compareTo(a.getPnl().amount()), "项目 " + p);
+            assertEquals(TradeStatus.OPEN, trades.get(p + "-B").getStatus(), "项目 " + p);
+        }
+        assertEquals(projects, engine.openLots());
+
+        engine.reset(ProjectKey.of(Exchange.OKX, "P-0"));
+        assertEquals(projects - 1, engine.openLots());
+    }
+
+    @Test
+    void fixedPointAgreesWithBigDecimalOnRandomFills() {
+        Random random = new Random(20250901L);
+        for (int round = 0; round < 20; round++) {
+            ProjectKey key = ProjectKey.of(Exchange.BINANCE, "R-" + round);
+            ReferenceBook reference = new ReferenceBook();
+            Map<String, ProjectTradeAggregate> latest = new HashMap<>();
+            long ts = 0;
+            for (int b = 0; b < 10; b++) {
+                List<TradeFillVO> batch = new ArrayList<>();
+                for (int i = 0; i < 50; i++) {
+                    TradeSide side = random.nextBoolean() ? TradeSide.LONG : TradeSide.SHORT;
+                    PositionAction action = random.nextInt(5) < 2 ? PositionAction.CLOSE : PositionAction.OPEN;
+                    TradeFillVO fill = fill(key, side, action, randomQty(random), randomPrice(random), randomFee(random),
+                            ts++, "F-" + round + "-" + ts);
+                    batch.add(fill);
+                    reference.apply(fill);
+                }
+                TradeMatchBatchVO result = engine.match(batch);
+                result.trades().forEach(t -> latest.put(t.getExternalTradeId(), t));
+                assertEquals(0, result.failed());
+            }
+            assertEquals(reference.lots.size(), latest.size());
+            for (RefLot lot : reference.lots.values()) {
+                ProjectTradeAggregate trade = latest.get(lot.open.externalFillId());
+                assertNotNull(trade, lot.open.externalFillId());
+                String at = "round " + round + " lot " + lot.open.externalFillId();
+                assertEquals(lot.status(), trade.getStatus(), at);
+                assertDecimalEquals(lot.pnl, trade.getPnl().amount(), at);
+                assertDecimalEquals(lot.exitPrice(), trade.getExitPrice(), at);
+                assertDecimalEquals(lot.open.fee().amount().add(lot.closeFee), trade.getFee().amount(), at);
+            }
+        }
+    }
+
+    // =========================== 随机成交 ===========================
+
+    /**
+     * 大多数数量 / 价格在定点范围内, 少量超出小数位或乘积溢出, 让对应开仓回落到 BigDecimal
+     */
+    private static String randomQty(Random random) {
+        return switch (random.nextInt(20)) {
+            case 0 -> "0.000000000123";
+            case 1 -> "900000000";
+            default -> BigDecimal.valueOf(1 + random.nextInt(50_000), random.nextInt(5)).toPlainString();
+        };
+    }
+
+    private static String randomPrice(Random random) {
+        return switch (random.nextInt(20)) {
+            case 0 -> "100.123456789012";
+            case 1 -> "90000000";
+            default -> BigDecimal.valueOf(1 + random.nextInt(10_000_000), random.nextInt(5)).toPlainString();
+        };
+    }
+
+    private static Money randomFee(Random random) {
+        return new Money(BigDecimal.valueOf(random.nextInt(1_000), 3), "USDT");
+    }
+
+    // =========================== BigDecimal 参考实现 ===========================
+
+    private static final class ReferenceBook {
+        private final Map<TradeSide, ArrayDeque<RefLot>> queues = new EnumMap<>(TradeSide.class);
+        private final Map<String, RefLot> lots = new LinkedHashMap<>();
+
+        private void apply(TradeFillVO fill) {
+            ArrayDeque<RefLot> queue = queues.computeIfAbsent(fill.side(), k -> new ArrayDeque<>());
+            if (fill.action() == PositionAction.OPEN) {
+                RefLot lot = new RefLot(fill);
+                queue.addLast(lot);
+                lots.put(fill.externalFillId(), lot);
+                return;
+            }
+            BigDecimal left = fill.qty();
+            while (!queue.isEmpty() && left.signum() > 0) {
+                RefLot lot = queue.peekFirst();
+                BigDecimal take = lot.remaining.min(left);
+                lot.close(take, fill);
+                left = left.subtract(take);
+                if (lot.remaining.signum() == 0)
+                    queue.pollFirst();
+            }
+        }
+    }
+
+    private static final class RefLot {
+        private static final MathContext MC = MathContext.DECIMAL64;
+
+        private final TradeFillVO open;
+        private BigDecimal remaining;
+        private BigDecimal closed = BigDecimal.ZERO;
+        private BigDecimal exitNotional = BigDecimal.ZERO;
+        private BigDecimal pnl = BigDecimal.ZERO;
+        private BigDecimal closeFee = BigDecimal.ZERO;
+
+        private RefLot(TradeFillVO open) {
+            this.open = open;
+            this.remaining = open.qty();
+        }
+
+        private void close(BigDecimal qty, TradeFillVO fill) {
+            remaining = remaining.subtract(qty);
+            closed = closed.add(qty);
+            exitNotional = exitNotional.add(fill.price().multiply(qty));
+            BigDecimal move = fill.price().subtract(open.price()).multiply(qty);
+            pnl = open.side() == TradeSide.SHORT ? pnl.subtract(move) : pnl.add(move);
+            if (fill.fee().amount().signum() != 0)
+                closeFee = closeFee.add(qty.compareTo(fill.qty()) == 0
+                        ? fill.fee().amount()
+                        : fill.fee().amount().multiply(qty).divide(fill.qty(), MC));
+        }
+
+        private TradeStatus status() {
+            return remaining.signum() == 0 ? TradeStatus.CLOSED
+                    : closed.signum() > 0 ? TradeStatus.PARTIALLY_CLOSED : TradeStatus.OPEN;
+        }
+
+        private BigDecimal exitPrice() {
+            return closed.signum() == 0 ? null : exitNotional.divide(closed, MC);
+        }
+    }
+
+    // =========================== 工具 ===========================
+
+    private static TradeFillVO fill(ProjectKey key, TradeSide side, PositionAction action, String qty, String price,
+                                    long second, String fillId) {
+        return fill(key, side, action, qty, price, null, second, fillId);
+    }
+
+    private static TradeFillVO fill(ProjectKey key, TradeSide side, PositionAction action, String qty, String price,
+                                    Money fee, long second, String fillId) {
+        return new TradeFillVO(key, BTC, side, action, null, null, new BigDecimal(qty), new BigDecimal(price), fee,
+                T0.plusSeconds(second), "TEST", fillId, null, PAYLOAD_HASH);
+    }
+
+    private static Map<String, ProjectTradeAggregate> byExternalId(List<ProjectTradeAggregate> trades) {
+        return trades.stream().collect(Collectors.toMap(ProjectTradeAggregate::getExternalTradeId, t -> t));
+    }
+
+    private static ProjectTradeAggregate single(TradeMatchBatchVO batch) {
+        assertEquals(1, batch.trades().size());
+        return batch.trades().get(0);
+    }
+
+    private static void assertDecimalEquals(BigDecimal expected, BigDecimal actual, String message) {
+        if (expected == null || actual == null) {
+            assertEquals(expected, actual, message);
+            return;
+        }
+        assertEquals(0, expected.compareTo(actual), message + ": " + expected + " != " + actual);
+    }
+}
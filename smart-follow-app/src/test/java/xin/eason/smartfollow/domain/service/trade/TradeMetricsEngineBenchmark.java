@@ -0,0 +1,218 @@
+package xin.eason.smartfollow.domain.service.trade;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import xin.eason.smartfollow.domain.adapter.repository.IMarketBarRepository;
+import xin.eason.smartfollow.domain.model.vo.market.BarSeries;
+import xin.eason.smartfollow.domain.model.vo.market.BarVO;
+import xin.eason.smartfollow.domain.model.vo.trade.TradeMetricInputVO;
+import xin.eason.smartfollow.domain.model.vo.trade.TradeMetricsBatchVO;
+import xin.eason.smartfollow.types.enums.BarInterval;
+import xin.eason.smartfollow.types.enums.PriceSource;
+import xin.eason.smartfollow.types.enums.TradeSide;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TradeMetricsEngine} 在一年 1m K 线上的吞吐量 (回合 / 秒)
+ * <ul>
+ *     <li>每个标的 525,600 根随机游走 K 线, 保存在内存数组中, 仓储视图不复制</li>
+ *     <li>每次调用计算 {@value #TRADES} 个回合, 持仓时长 1 分钟 ~ 30 天, 均匀分布在全年</li>
+ *     <li>每次调用都会为每个标的重新构建线段树, 吞吐量包含构建开销</li>
+ * </ul>
+ * 运行: 先 <code>mvn -pl smart-follow-app -am test-compile</code>, 再执行本类的 main 方法
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class TradeMetricsEngineBenchmark {
+
+    private static final int TRADES = 1_000_000;
+    private static final int BARS = 525_600;
+    private static final long T0 = Instant.parse("2025-01-01T00:00:00Z").toEpochMilli();
+    private static final long MINUTE = BarInterval.M1.millis();
+
+    @Param({"1", "4"})
+    public int symbols;
+
+    @Param({"1", "4"})
+    public int parallelism;
+
+    private TradeMetricsEngine engine;
+    private List<TradeMetricInputVO> trades;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(49);
+        InMemoryBarRepository repository = new InMemoryBarRepository();
+        String[] names = new String[symbols];
+        for (int s = 0; s < symbols; s++) {
+            names[s] = "SYM" + s + "-USDT-SWAP";
+            repository.put(names[s], randomWalk(random));
+        }
+        engine = new TradeMetricsEngine(repository, "bench", BarInterval.M1, PriceSource.LAST, parallelism, TRADES);
+
+        trades = new ArrayList<>(TRADES);
+        for (int i = 0; i < TRADES; i++) {
+            String symbol = names[i % symbols];
+            int openBar = random.nextInt(BARS - 1);
+            int holdBars = 1 + random.nextInt(Math.min(30 * 1440, BARS - 1 - openBar));
+            long open = T0 + openBar * MINUTE + random.nextInt((int) MINUTE);
+            long close = T0 + (openBar + holdBars) * MINUTE + random.nextInt((int) MINUTE);
+            BigDecimal entry = BigDecimal.valueOf(repository.bars(symbol).close[openBar]).setScale(4, RoundingMode.HALF_UP);
+            trades.add(new TradeMetricInputVO(i + 1, 1 + i % 1000, symbol, random.nextBoolean() ? TradeSide.LONG : TradeSide.SHORT,
+                    Instant.ofEpochMilli(open), Instant.ofEpochMilli(close), entry, BigDecimal.ONE, 0L));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        engine.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TRADES)
+    public TradeMetricsBatchVO compute() {
+        return engine.compute(trades);
+    }
+
+    private static Bars randomWalk(Random random) {
+        Bars bars = new Bars(BARS);
+        double price = 30_000;
+        for (int i = 0; i < BARS; i++) {
+            double open = price;
+            double close = Math.max(1, open * (1 + random.nextGaussian() * 0.001));
+            bars.ts[i] = T0 + i * MINUTE;
+            bars.open[i] = open;
+            bars.close[i] = close;
+            bars.high[i] = Math.max(open, close) * (1 + random.nextDouble() * 0.0005);
+            bars.low[i] = Math.min(open, close) * (1 - random.nextDouble() * 0.0005);
+            price = close;
+        }
+        return bars;
+    }
+
+    // =========================== 内存 K 线仓储 ===========================
+
+    private static final class Bars {
+        private final long[] ts;
+        private final double[] open;
+        private final double[] high;
+        private final double[] low;
+        private final double[] close;
+
+        private Bars(int n) {
+            ts = new long[n];
+            open = new double[n];
+            high = new double[n];
+            low = new double[n];
+            close = new double[n];
+        }
+    }
+
+    private static final class InMemoryBarRepository implements IMarketBarRepository {
+
+        private final Map<String, Bars> bySymbol = new HashMap<>();
+
+        private void put(String symbol, Bars bars) {
+            bySymbol.put(symbol, bars);
+        }
+
+        private Bars bars(String symbol) {
+            return bySymbol.get(symbol);
+        }
+
+        @Override
+        public BarSeries range(String symbol, BarInterval interval, PriceSource source, Instant from, Instant to) {
+            Bars bars = bySymbol.get(symbol);
+            if (bars == null)
+                return BarSeries.EMPTY;
+            int start = lowerBound(bars.ts, from.toEpochMilli());
+            int end = lowerBound(bars.ts, to.toEpochMilli());
+            int size = end - start;
+            return new BarSeries() {
+                @Override
+                public int size() {
+                    return size;
+                }
+
+                @Override
+                public long ts(int i) {
+                    return bars.ts[start + i];
+                }
+
+                @Override
+                public double open(int i) {
+                    return bars.open[start + i];
+                }
+
+                @Override
+                public double high(int i) {
+                    return bars.high[start + i];
+                }
+
+                @Override
+                public double low(int i) {
+                    return bars.low[start + i];
+                }
+
+                @Override
+                public double close(int i) {
+                    return bars.close[start + i];
+                }
+            };
+        }
+
+        @Override
+        public int append(String symbol, BarInterval interval, PriceSource source, List<BarVO> bars) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long importCsv(Path file, String symbol, BarInterval interval, PriceSource source) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long importDir(Path dir) {
+            throw new UnsupportedOperationException();
+        }
+
+        private static int lowerBound(long[] ts, long key) {
+            int i = Arrays.binarySearch(ts, key);
+            return i >= 0 ? i : -i - 1;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TradeMetricsEngineBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,101 @@
+package xin.eason.smartfollow.infrastructure.archive;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import xin.eason.smartfollow.infrastructure.dao.po.ProjectSnapshotPO;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link ColdSnapshotStore#discard} 与并发扫描: 扫描要么看到完整分区, 要么看不到, 不会读到已关闭的通道
+ */
+class ColdSnapshotStoreTest {
+
+    private static final String P = "p2025_01";
+    private static final String SOURCE = "OKX_RANK";
+    private static final int PROJECTS = 200;
+    private static final int ROWS_PER_PROJECT = 20;
+    private static final Instant T0 = Instant.parse("2025-01-01T00:00:00Z");
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void discardWaitsForInFlightScans() throws Exception {
+        List<Long> ids = LongStream.rangeClosed(1, PROJECTS).boxed().toList();
+        Instant to = T0.plusSeconds(ROWS_PER_PROJECT * 60L);
+        try (ColdSnapshotStore store = new ColdSnapshotStore(dir, 16)) {
+            AtomicBoolean running = new AtomicBoolean(true);
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            CountDownLatch started = new CountDownLatch(1);
+            Thread reader = new Thread(() -> {
+                try {
+                    while (running.get()) {
+                        int rows = store.findWindow(ids, SOURCE, T0, to).size();
+                        if (rows != 0 && rows != PROJECTS * ROWS_PER_PROJECT)
+                            throw new AssertionError("读到不完整的冷分区: " + rows);
+                        started.countDown();
+                    }
+                } catch (Throwable e) {
+                    failure.set(e);
+                    started.countDown();
+                }
+            });
+
+            export(store);
+            reader.start();
+            started.await();
+            // 反复删除并重新导出同名分区, 与扫描交错
+            for (int round = 0; round < 50 && failure.get() == null; round++) {
+                store.discard(P);
+                assertFalse(store.contains(P));
+                export(store);
+            }
+            running.set(false);
+            reader.join();
+            assertNull(failure.get());
+            assertEquals(PROJECTS * ROWS_PER_PROJECT, store.findWindow(ids, SOURCE, T0, to).size());
+        }
+    }
+
+    @Test
+    void reopensOnlyPublishedPartitions() {
+        try (ColdSnapshotStore store = new ColdSnapshotStore(dir, 16)) {
+            export(store);
+            store.discard(P);
+        }
+        try (ColdSnapshotStore store = new ColdSnapshotStore(dir, 16)) {
+            assertTrue(store.partitions().isEmpty());
+            export(store);
+        }
+        try (ColdSnapshotStore store = new ColdSnapshotStore(dir, 16)) {
+            assertEquals(PROJECTS * ROWS_PER_PROJECT, store.rows(P));
+        }
+    }
+
+    private static void export(ColdSnapshotStore store) {
+        ColdSnapshotStore.Export export = store.beginExport(P);
+        for (long id = 1; id <= PROJECTS; id++)
+            for (int i = 0; i < ROWS_PER_PROJECT; i++)
+                export.append(ProjectSnapshotPO.builder()
+                        .projectId(id)
+                        .ts(T0.plusSeconds(i * 60L))
+                        .source(SOURCE)
+                        .aumUsd(BigDecimal.valueOf(id * 100 + i))
+                        .followers(i)
+                        .build());
+        export.publish();
+    }
+}
@@ -0,0 +1,145 @@
+package xin.eason.smartfollow.infrastructure.archive;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link SegmentLogStore} 的内容去重, 重复回放的幂等性, 以及崩溃后残缺尾部的恢复
+ */
+class SegmentLogStoreTest {
+
+    private static final long SEGMENT_BYTES = 256;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void dedupsBodiesAndIgnoresReplayedCrawls() throws IOException {
+        try (SegmentLogStore store = open()) {
+            assertTrue(store.append(3, 3_000, "OKX", "rank", body("A")));
+            assertTrue(store.append(1, 1_000, "OKX", "rank", body("B")));
+            // 相同响应体只写一次
+            assertFalse(store.append(2, 2_000, "OKX", "rank", body("A")));
+            // 同一 crawlLogId 再次写入 (回放) 不产生新记录
+            assertFalse(store.append(1, 1_000, "OKX", "rank", body("C")));
+            assertEquals(2, store.contentCount());
+            assertEquals(3, store.crawlCount());
+            assertEquals(1, store.dedupHits());
+            assertEquals(List.of(1L, 2L, 3L), crawlIds(store));
+            assertArrayEquals(body("B"), store.readBody(store.findEntry(1).digest()));
+        }
+
+        // 重启后从索引文件恢复; 对同一批抓取重新回放仍然幂等, 新抓取的重复内容命中已加载的内容索引
+        try (SegmentLogStore store = open()) {
+            assertEquals(2, store.contentCount());
+            assertEquals(List.of(1L, 2L, 3L), crawlIds(store));
+            assertFalse(store.append(2, 2_000, "OKX", "rank", body("A")));
+            assertFalse(store.append(4, 4_000, "OKX", "rank", body("B")));
+            assertEquals(2, store.contentCount());
+            assertEquals(4, store.crawlCount());
+            assertEquals(store.findEntry(1).digest(), store.findEntry(4).digest());
+            assertArrayEquals(body("A"), store.readBody(store.findEntry(2).digest()));
+        }
+    }
+
+    @Test
+    void rollsSegmentsAndReadsThemAfterReopen() throws IOException {
+        try (SegmentLogStore store = open()) {
+            for (int i = 0; i < 20; i++)
+                store.append(i, i, "OKX", "rank", body("body-" + i));
+        }
+        assertTrue(Files.exists(dir.resolve("segment-00000003.log")));
+        try (SegmentLogStore store = open()) {
+            for (int i = 0; i < 20; i++)
+                assertArrayEquals(body("body-" + i), store.readBody(store.findEntry(i).digest()));
+        }
+    }
+
+    @Test
+    void truncatesTornTailsOnReopen() throws IOException {
+        try (SegmentLogStore store = open()) {
+            store.append(1, 1_000, "OKX", "rank", body("A"));
+            store.append(2, 2_000, "OKX", "rank", body("B"));
+        }
+        Path segment = dir.resolve("segment-00000000.log");
+        long segmentSize = Files.size(segment);
+        long contentSize = Files.size(dir.resolve("content.idx"));
+        long crawlSize = Files.size(dir.resolve("crawl.idx"));
+        // 崩溃: 分段写了一半的响应体, 两个索引各留下半条记录 (声明长度超过文件末尾)
+        appendBytes(segment, new byte[]{0x53, 0x46, 0x52, 0x4C, 0, 0, 0, 99, 1, 2, 3});
+        appendBytes(dir.resolve("content.idx"), ByteBuffer.allocate(12).putInt(48).putInt(7).array());
+        appendBytes(dir.resolve("crawl.idx"), ByteBuffer.allocate(6).putInt(80).array());
+
+        try (SegmentLogStore store = open()) {
+            assertEquals(2, store.contentCount());
+            assertEquals(2, store.crawlCount());
+            assertEquals(contentSize, Files.size(dir.resolve("content.idx")));
+            assertEquals(crawlSize, Files.size(dir.resolve("crawl.idx")));
+            assertEquals(segmentSize, Files.size(segment));
+            // 残缺数据被截断后, 新记录紧接在最后一条完整记录之后
+            assertTrue(store.append(3, 3_000, "OKX", "rank", body("C")));
+            assertArrayEquals(body("C"), store.readBody(store.findEntry(3).digest()));
+        }
+        try (SegmentLogStore store = open()) {
+            assertEquals(List.of(1L, 2L, 3L), crawlIds(store));
+            assertArrayEquals(body("B"), store.readBody(store.findEntry(2).digest()));
+        }
+    }
+
+    @Test
+    void dropsIndexRecordsWhoseBodyNeverReachedDisk() throws IOException {
+        long segmentSizeAfterFirst;
+        try (SegmentLogStore store = open()) {
+            store.append(1, 1_000, "OKX", "rank", body("A"));
+            segmentSizeAfterFirst = Files.size(dir.resolve("segment-00000000.log"));
+            store.append(2, 2_000, "OKX", "rank", body("B"));
+        }
+        // 崩溃: 索引已落盘, 但第二条响应体没有落盘
+        try (FileChannel channel = FileChannel.open(dir.resolve("segment-00000000.log"), StandardOpenOption.WRITE)) {
+            channel.truncate(segmentSizeAfterFirst);
+        }
+
+        try (SegmentLogStore store = open()) {
+            assertEquals(1, store.contentCount());
+            assertEquals(List.of(1L), crawlIds(store));
+            assertNull(store.findEntry(2));
+            // 同一抓取重新写入时恢复
+            assertTrue(store.append(2, 2_000, "OKX", "rank", body("B")));
+            assertArrayEquals(body("B"), store.readBody(store.findEntry(2).digest()));
+        }
+    }
+
+    private SegmentLogStore open() {
+        return new SegmentLogStore(dir, SEGMENT_BYTES, false);
+    }
+
+    private static byte[] body(String text) {
+        return ("{\"code\":\"0\",\"data\":\"" + text + "\"}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<Long> crawlIds(SegmentLogStore store) {
+        List<Long> ids = new ArrayList<>();
+        store.forEachEntry(entry -> ids.add(entry.crawlLogId()));
+        return ids;
+    }
+
+    private static void appendBytes(Path file, byte[] bytes) throws IOException {
+        Files.write(file, bytes, StandardOpenOption.APPEND);
+    }
+}
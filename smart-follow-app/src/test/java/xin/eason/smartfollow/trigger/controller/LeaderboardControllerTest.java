@@ -0,0 +1,99 @@
+package xin.eason.smartfollow.trigger.controller;
+
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import xin.eason.smartfollow.api.request.LeadTradersPageRequest;
+import xin.eason.smartfollow.api.response.LeadTradersPageResponse;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectBriefVO;
+import xin.eason.smartfollow.domain.service.leaderboard.LeaderboardResultCache;
+import xin.eason.smartfollow.domain.service.leaderboard.LeaderboardService;
+import xin.eason.smartfollow.trigger.controller.converter.ReadApiConverter;
+import xin.eason.smartfollow.types.exceptions.IllegalParamException;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * {@link LeaderboardController} 的校验顺序, ETag / 304 与过期 dataVer 的提示
+ */
+class LeaderboardControllerTest {
+
+    private static final String OLD = "20250101000000";
+    private static final String NEW = "20250101001000";
+
+    private final LeaderboardService service = new LeaderboardService(new LeaderboardResultCache(16, 1 << 20));
+    private final LeaderboardController controller = new LeaderboardController(service, Mappers.getMapper(ReadApiConverter.class));
+
+    @Test
+    void validatesBeforeConditionalRequest() {
+        service.publish("SWAP", NEW, ranks());
+        String etag = controller.queryLeadTraders(new LeadTradersPageRequest(), null).getHeaders().getETag();
+
+        // 即使 If-None-Match 命中, 无法回答的条件也必须是 400 而不是 304
+        LeadTradersPageRequest assets = new LeadTradersPageRequest();
+        assets.setMinAssets("100");
+        assertThrows(IllegalParamException.class, () -> controller.queryLeadTraders(assets, etag));
+        LeadTradersPageRequest copyTraderPnl = new LeadTradersPageRequest();
+        copyTraderPnl.setSortType("current_copy_trader_pnl");
+        assertThrows(IllegalParamException.class, () -> controller.queryLeadTraders(copyTraderPnl, etag));
+        LeadTradersPageRequest badLimit = new LeadTradersPageRequest();
+        badLimit.setLimit(0);
+        assertThrows(IllegalParamException.class, () -> controller.queryLeadTraders(badLimit, etag));
+
+        assertEquals(HttpStatus.NOT_MODIFIED, controller.queryLeadTraders(new LeadTradersPageRequest(), etag).getStatusCode());
+    }
+
+    @Test
+    void notModifiedKeepsCacheControl() {
+        service.publish("SWAP", NEW, ranks());
+        ResponseEntity<LeadTradersPageResponse> ok = controller.queryLeadTraders(new LeadTradersPageRequest(), null);
+        ResponseEntity<LeadTradersPageResponse> notModified =
+                controller.queryLeadTraders(new LeadTradersPageRequest(), ok.getHeaders().getETag());
+
+        assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatusCode());
+        assertEquals("no-cache", ok.getHeaders().getCacheControl());
+        assertEquals(ok.getHeaders().getCacheControl(), notModified.getHeaders().getCacheControl());
+    }
+
+    @Test
+    void signalsExpiredDataVer() {
+        service.publish("SWAP", OLD, ranks());
+        service.publish("SWAP", NEW, ranks());
+
+        LeadTradersPageRequest held = new LeadTradersPageRequest();
+        held.setDataVer(OLD);
+        ResponseEntity<LeadTradersPageResponse> response = controller.queryLeadTraders(held, null);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(OLD, response.getBody().getDataVer());
+        assertNull(response.getHeaders().getFirst(LeaderboardController.DATA_VER_FALLBACK_HEADER));
+
+        LeadTradersPageRequest expired = new LeadTradersPageRequest();
+        expired.setDataVer("20240101000000");
+        response = controller.queryLeadTraders(expired, null);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(NEW, response.getBody().getDataVer());
+        assertEquals("20240101000000", response.getHeaders().getFirst(LeaderboardController.DATA_VER_FALLBACK_HEADER));
+
+        // 304 同样带上提示, 客户端才能知道缓存的是最新版本而不是请求的版本
+        response = controller.queryLeadTraders(expired, response.getHeaders().getETag());
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals("20240101000000", response.getHeaders().getFirst(LeaderboardController.DATA_VER_FALLBACK_HEADER));
+    }
+
+    @Test
+    void notFoundOnlyWithoutBoard() {
+        assertEquals(HttpStatus.NOT_FOUND, controller.queryLeadTraders(new LeadTradersPageRequest(), null).getStatusCode());
+    }
+
+    private static List<ProjectBriefVO> ranks() {
+        return List.of(
+                ProjectBriefVO.builder().externalId("A").aum(BigDecimal.TEN).build(),
+                ProjectBriefVO.builder().externalId("B").aum(BigDecimal.ONE).build());
+    }
+}
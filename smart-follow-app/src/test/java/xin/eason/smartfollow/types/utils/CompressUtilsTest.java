@@ -0,0 +1,75 @@
+package xin.eason.smartfollow.types.utils;
+
+import org.junit.jupiter.api.Test;
+import xin.eason.smartfollow.types.exceptions.AppException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * {@link CompressUtils} 与 MySQL {@code COMPRESS()} 格式互通: 4 字节小端序长度 + zlib, 空输入为空
+ */
+class CompressUtilsTest {
+
+    /**
+     * {@code SELECT HEX(COMPRESS('a'))}
+     */
+    private static final String MYSQL_COMPRESS_A = "01000000789C4B040000620062";
+
+    @Test
+    void matchesMysqlCompressOutput() {
+        byte[] compressed = CompressUtils.mysqlCompress("a".getBytes(StandardCharsets.UTF_8));
+        assertEquals(MYSQL_COMPRESS_A, HexFormat.of().withUpperCase().formatHex(compressed));
+        assertEquals("a", new String(CompressUtils.mysqlUncompress(HexFormat.of().parseHex(MYSQL_COMPRESS_A)), StandardCharsets.UTF_8));
+        // MySQL 在压缩结果以空格结尾时追加 '.', 解压时忽略 zlib 流之后的字节
+        assertEquals("a", new String(CompressUtils.mysqlUncompress(HexFormat.of().parseHex(MYSQL_COMPRESS_A + "2E")),
+                StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void emptyAndNull() {
+        assertArrayEquals(new byte[0], CompressUtils.mysqlCompress(new byte[0]));
+        assertArrayEquals(new byte[0], CompressUtils.mysqlUncompress(new byte[0]));
+        assertNull(CompressUtils.mysqlCompress(null));
+        assertNull(CompressUtils.mysqlUncompress(null));
+    }
+
+    @Test
+    void roundTripsWithLittleEndianLength() {
+        Random random = new Random(35L);
+        // 可压缩的 JSON 与不可压缩的随机字节, 都超过单次 deflate 缓冲区 (64KB)
+        StringBuilder json = new StringBuilder("[");
+        while (json.length() < 200_000)
+            json.append("{\"uniqueCode\":\"").append(random.nextLong()).append("\",\"aum\":\"12345.67\"},");
+        byte[] text = json.append("{}]").toString().getBytes(StandardCharsets.UTF_8);
+        byte[] noise = new byte[70_000];
+        random.nextBytes(noise);
+
+        for (byte[] original : new byte[][]{text, noise, {0}}) {
+            byte[] compressed = CompressUtils.mysqlCompress(original);
+            int length = (compressed[0] & 0xFF) | (compressed[1] & 0xFF) << 8 | (compressed[2] & 0xFF) << 16 | (compressed[3] & 0xFF) << 24;
+            assertEquals(original.length, length);
+            // zlib 头 (CMF = 0x78)
+            assertEquals(0x78, compressed[4] & 0xFF);
+            assertArrayEquals(original, CompressUtils.mysqlUncompress(compressed));
+        }
+    }
+
+    @Test
+    void rejectsMalformedInput() {
+        assertThrows(AppException.class, () -> CompressUtils.mysqlUncompress(new byte[]{1, 0}));
+        byte[] compressed = CompressUtils.mysqlCompress("hello".getBytes(StandardCharsets.UTF_8));
+        // 声明长度与实际不一致
+        compressed[0]++;
+        assertThrows(AppException.class, () -> CompressUtils.mysqlUncompress(compressed));
+        byte[] truncated = Arrays.copyOf(CompressUtils.mysqlCompress("hello".getBytes(StandardCharsets.UTF_8)), 7);
+        assertThrows(AppException.class, () -> CompressUtils.mysqlUncompress(truncated));
+    }
+}
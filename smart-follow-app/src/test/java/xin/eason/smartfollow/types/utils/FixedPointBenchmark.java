@@ -0,0 +1,127 @@
+package xin.eason.smartfollow.types.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static xin.eason.smartfollow.types.utils.FixedPointUtils.INEXACT;
+import static xin.eason.smartfollow.types.utils.FixedPointUtils.PRICE_SCALE;
+import static xin.eason.smartfollow.types.utils.FixedPointUtils.QTY_SCALE;
+
+/**
+ * 定点路径与 BigDecimal 路径的内核对比 (每次操作为一行)
+ * <ul>
+ *     <li>toScaled: DECIMAL 列读出的 BigDecimal 转为定点数</li>
+ *     <li>notional / pnl: 撮合热点路径的 Σ(价格 × 数量) 与 Σ((出场价 - 入场价) × 数量), 金额 8 位小数; 输入保证全部精确, setUp 中校验</li>
+ * </ul>
+ * 运行: 先 <code>mvn -pl smart-follow-app -am test-compile</code>, 再执行本类的 main 方法
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FixedPointBenchmark {
+
+    private static final int ROWS = 4_096;
+    private static final int MONEY_SCALE = 8;
+    private static final MathContext MC = MathContext.DECIMAL64;
+
+    private BigDecimal[] qtyDecimal;
+    private BigDecimal[] entryDecimal;
+    private BigDecimal[] exitDecimal;
+    private long[] qty;
+    private long[] entry;
+    private long[] exit;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(47);
+        qtyDecimal = new BigDecimal[ROWS];
+        entryDecimal = new BigDecimal[ROWS];
+        exitDecimal = new BigDecimal[ROWS];
+        qty = new long[ROWS];
+        entry = new long[ROWS];
+        exit = new long[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            // 与 DECIMAL(36, 18) 列读出的形式一致: 固定 18 位小数
+            qtyDecimal[i] = BigDecimal.valueOf(1 + random.nextInt(100_000), 3).setScale(18);
+            entryDecimal[i] = BigDecimal.valueOf(1_000_000 + random.nextInt(9_000_000), 2).setScale(18);
+            exitDecimal[i] = BigDecimal.valueOf(1_000_000 + random.nextInt(9_000_000), 2).setScale(18);
+            qty[i] = FixedPointUtils.toScaled(qtyDecimal[i], QTY_SCALE);
+            entry[i] = FixedPointUtils.toScaled(entryDecimal[i], PRICE_SCALE);
+            exit[i] = FixedPointUtils.toScaled(exitDecimal[i], PRICE_SCALE);
+        }
+        // 输入必须全部走定点快路径, 否则测到的只是 INEXACT 的提前返回
+        if (notionalFixed() == INEXACT || pnlFixed() == 0)
+            throw new IllegalStateException("基准输入没有走定点路径");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void toScaled(Blackhole bh) {
+        for (int i = 0; i < ROWS; i++)
+            bh.consume(FixedPointUtils.toScaled(qtyDecimal[i], QTY_SCALE));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long notionalFixed() {
+        long sum = 0;
+        for (int i = 0; i < ROWS; i++)
+            sum = FixedPointUtils.add(sum, FixedPointUtils.multiply(exit[i], PRICE_SCALE, qty[i], QTY_SCALE, MONEY_SCALE));
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public BigDecimal notionalDecimal() {
+        BigDecimal sum = BigDecimal.ZERO;
+        for (int i = 0; i < ROWS; i++)
+            sum = sum.add(exitDecimal[i].multiply(qtyDecimal[i]));
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long pnlFixed() {
+        long pnl = 0;
+        for (int i = 0; i < ROWS; i++) {
+            long move = FixedPointUtils.multiply(FixedPointUtils.subtract(exit[i], entry[i]), PRICE_SCALE, qty[i], QTY_SCALE, MONEY_SCALE);
+            pnl = FixedPointUtils.add(pnl, move);
+        }
+        return pnl == INEXACT ? 0 : pnl;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public BigDecimal pnlDecimal() {
+        BigDecimal pnl = BigDecimal.ZERO;
+        for (int i = 0; i < ROWS; i++)
+            pnl = pnl.add(exitDecimal[i].subtract(entryDecimal[i]).multiply(qtyDecimal[i]));
+        return pnl.round(MC);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(FixedPointBenchmark.class.getSimpleName()).build()).run();
+    }
+}
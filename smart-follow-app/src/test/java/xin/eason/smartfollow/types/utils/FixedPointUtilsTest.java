@@ -0,0 +1,168 @@
+package xin.eason.smartfollow.types.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static xin.eason.smartfollow.types.utils.FixedPointUtils.INEXACT;
+import static xin.eason.smartfollow.types.utils.FixedPointUtils.MAX_SCALE;
+import static xin.eason.smartfollow.types.utils.FixedPointUtils.PRICE_SCALE;
+import static xin.eason.smartfollow.types.utils.FixedPointUtils.QTY_SCALE;
+import static xin.eason.smartfollow.types.utils.FixedPointUtils.add;
+import static xin.eason.smartfollow.types.utils.FixedPointUtils.multiply;
+import static xin.eason.smartfollow.types.utils.FixedPointUtils.rescale;
+import static xin.eason.smartfollow.types.utils.FixedPointUtils.subtract;
+import static xin.eason.smartfollow.types.utils.FixedPointUtils.toDecimal;
+import static xin.eason.smartfollow.types.utils.FixedPointUtils.toScaled;
+
+/**
+ * {@link FixedPointUtils} 的 INEXACT 边界: 溢出, <code>Long.MIN_VALUE</code> 输入, 小数位超出, 真实成交的精确乘法, 以及与 BigDecimal 的一致性
+ */
+class FixedPointUtilsTest {
+
+    private static final BigInteger LONG_MIN = BigInteger.valueOf(Long.MIN_VALUE);
+    private static final BigInteger LONG_MAX = BigInteger.valueOf(Long.MAX_VALUE);
+
+    @Test
+    void addAndSubtractOverflowIsInexact() {
+        assertEquals(INEXACT, add(Long.MAX_VALUE, 1));
+        assertEquals(INEXACT, add(-Long.MAX_VALUE, -1));
+        assertEquals(INEXACT, add(-Long.MAX_VALUE, -Long.MAX_VALUE));
+        assertEquals(Long.MAX_VALUE, add(Long.MAX_VALUE - 1, 1));
+        assertEquals(-Long.MAX_VALUE, add(-Long.MAX_VALUE + 1, -1));
+
+        assertEquals(INEXACT, subtract(Long.MAX_VALUE, -1));
+        assertEquals(INEXACT, subtract(-1, Long.MAX_VALUE));
+        assertEquals(INEXACT, subtract(-Long.MAX_VALUE, Long.MAX_VALUE));
+        assertEquals(-Long.MAX_VALUE, subtract(0, Long.MAX_VALUE));
+        assertEquals(0, subtract(Long.MAX_VALUE, Long.MAX_VALUE));
+    }
+
+    @Test
+    void multiplyOverflowIsInexact() {
+        assertEquals(INEXACT, multiply(Long.MAX_VALUE, 0, 2, 0, 0));
+        assertEquals(INEXACT, multiply(1L << 32, 0, 1L << 31, 0, 0));
+        assertEquals(INEXACT, multiply(-(1L << 32), 0, 1L << 31, 0, 0));
+        assertEquals(-Long.MAX_VALUE, multiply(-1, 0, Long.MAX_VALUE, 0, 0));
+        // 结果缩放到 8 位后超出 long
+        long big = toScaled(new BigDecimal("100000000"), PRICE_SCALE);
+        assertEquals(INEXACT, multiply(big, PRICE_SCALE, big, QTY_SCALE, 8));
+        // 缩放需要舍入
+        assertEquals(INEXACT, multiply(toScaled(new BigDecimal("0.0001"), PRICE_SCALE), PRICE_SCALE,
+                toScaled(new BigDecimal("0.00001"), QTY_SCALE), QTY_SCALE, 8));
+    }
+
+    @Test
+    void realisticFillsStayExact() {
+        // 20 位小数下的中间乘积超出 long, 缩放到金额小数位后可以表示, 必须走定点路径
+        assertEquals(1_00000000L, multiply(toScaled(BigDecimal.ONE, PRICE_SCALE), PRICE_SCALE,
+                toScaled(BigDecimal.ONE, QTY_SCALE), QTY_SCALE, 8));
+        assertEquals(30000_00000000L, multiply(toScaled(new BigDecimal("60000.00"), PRICE_SCALE), PRICE_SCALE,
+                toScaled(new BigDecimal("0.500"), QTY_SCALE), QTY_SCALE, 8));
+        // BTC 成交: 价格 2 位小数, 数量 4 位小数, 名义价值 8 位小数
+        assertEquals(1_575_810_92385000L, multiply(toScaled(new BigDecimal("104823.45"), PRICE_SCALE), PRICE_SCALE,
+                toScaled(new BigDecimal("15.0330"), QTY_SCALE), QTY_SCALE, 8));
+        assertEquals(-1_575_810_92385000L, multiply(toScaled(new BigDecimal("-104823.45"), PRICE_SCALE), PRICE_SCALE,
+                toScaled(new BigDecimal("15.0330"), QTY_SCALE), QTY_SCALE, 8));
+        // 以币计价的金额 (12 位小数) 同样精确
+        assertEquals(52_411725000000L, multiply(toScaled(new BigDecimal("104823.45"), PRICE_SCALE), PRICE_SCALE,
+                toScaled(new BigDecimal("0.0005"), QTY_SCALE), QTY_SCALE, 12));
+    }
+
+    @Test
+    void minValueInputsPropagateInexact() {
+        assertEquals(INEXACT, add(Long.MIN_VALUE, 0));
+        assertEquals(INEXACT, add(0, Long.MIN_VALUE));
+        assertEquals(INEXACT, subtract(Long.MIN_VALUE, 0));
+        assertEquals(INEXACT, subtract(0, Long.MIN_VALUE));
+        assertEquals(INEXACT, multiply(Long.MIN_VALUE, 0, 1, 0, 0));
+        assertEquals(INEXACT, multiply(1, 0, Long.MIN_VALUE, 0, 0));
+        assertEquals(INEXACT, multiply(Long.MIN_VALUE, 0, 0, 0, 0));
+        assertEquals(INEXACT, rescale(Long.MIN_VALUE, 0, 2));
+        assertEquals(INEXACT, rescale(Long.MIN_VALUE, 2, 0));
+        assertThrows(ArithmeticException.class, () -> toDecimal(Long.MIN_VALUE, 0));
+        // 结果恰好为 Long.MIN_VALUE 时同样不是合法数值
+        assertEquals(INEXACT, toScaled(new BigDecimal(LONG_MIN), 0));
+        assertEquals(INEXACT, toScaled(new BigDecimal("-922337203685477580.8"), 1));
+        assertEquals(INEXACT, toScaled(new BigDecimal("-922337203685477580.8"), 2));
+        assertEquals(INEXACT, toScaled(new BigDecimal("-92233720368.54775808"), 8));
+        assertEquals(INEXACT, multiply(-(1L << 31), 0, 1L << 32, 0, 0));
+    }
+
+    @Test
+    void extraDecimalsAreInexact() {
+        assertEquals(INEXACT, toScaled(new BigDecimal("0.00000000001"), QTY_SCALE));
+        assertEquals(INEXACT, toScaled(new BigDecimal("123.45678901234"), PRICE_SCALE));
+        assertEquals(INEXACT, toScaled(new BigDecimal("1E-19"), MAX_SCALE));
+        // 尾随零不算额外小数位
+        assertEquals(1_0000000000L, toScaled(new BigDecimal("1.000000000000000"), QTY_SCALE));
+        assertEquals(1234567890L, toScaled(new BigDecimal("0.123456789000"), PRICE_SCALE));
+        assertEquals(0L, toScaled(new BigDecimal("0E-30"), QTY_SCALE));
+        // DECIMAL(36, 18) 列读出的值: unscaled 超过 63 位, 多出的小数位全为 0
+        assertEquals(12_4500000000L, toScaled(new BigDecimal("12345.67").setScale(18).add(new BigDecimal("-12333.22")), QTY_SCALE));
+        assertEquals(-98765_4321000000L, toScaled(new BigDecimal("-98765.4321").setScale(18), QTY_SCALE));
+        assertEquals(INEXACT, toScaled(new BigDecimal("98765.43210000001").setScale(18), QTY_SCALE));
+        assertEquals(5_0000000000L, toScaled(new BigDecimal("5").setScale(40), QTY_SCALE));
+        assertEquals(INEXACT, toScaled(new BigDecimal("5").setScale(40).add(new BigDecimal("1E-39")), QTY_SCALE));
+        assertEquals(INEXACT, toScaled(null, QTY_SCALE));
+        // 超出 long 范围
+        assertEquals(INEXACT, toScaled(new BigDecimal("1000000000"), QTY_SCALE));
+        assertEquals(INEXACT, toScaled(new BigDecimal("1E+30"), 0));
+        assertEquals(INEXACT, rescale(12345, 4, 2));
+        assertEquals(123, rescale(12300, 4, 2));
+    }
+
+    @Test
+    void randomArithmeticAgreesWithBigDecimal() {
+        Random random = new Random(47L);
+        for (int i = 0; i < 200_000; i++) {
+            long a = randomLong(random);
+            long b = randomLong(random);
+            int aScale = random.nextInt(MAX_SCALE + 1);
+            int bScale = random.nextInt(MAX_SCALE + 1);
+            int outScale = random.nextInt(MAX_SCALE + 1);
+
+            assertEquals(expect(BigInteger.valueOf(a).add(BigInteger.valueOf(b))), add(a, b));
+            assertEquals(expect(BigInteger.valueOf(a).subtract(BigInteger.valueOf(b))), subtract(a, b));
+
+            // 乘法: 结果能在 outScale 下精确表示就必须返回, 与中间乘积是否超出 long 无关
+            BigInteger product = BigInteger.valueOf(a).multiply(BigInteger.valueOf(b));
+            BigDecimal exact = new BigDecimal(product, aScale + bScale);
+            assertEquals(toScaled(exact, outScale), multiply(a, aScale, b, bScale, outScale),
+                    a + "e-" + aScale + " × " + b + "e-" + bScale + " @ " + outScale);
+            // 两个因子都较小时 (常见的价格 × 数量) 同样逐一核对
+            long sa = a >> 40;
+            long sb = b >> 36;
+            assertEquals(toScaled(new BigDecimal(BigInteger.valueOf(sa).multiply(BigInteger.valueOf(sb)), aScale + bScale), outScale),
+                    multiply(sa, aScale, sb, bScale, outScale));
+
+            BigDecimal value = new BigDecimal(BigInteger.valueOf(a), random.nextInt(25) - 4);
+            long scaled = toScaled(value, QTY_SCALE);
+            if (scaled != INEXACT)
+                assertEquals(0, value.compareTo(toDecimal(scaled, QTY_SCALE)));
+            else
+                assertEquals(true, value.stripTrailingZeros().scale() > QTY_SCALE
+                        || expect(value.movePointRight(QTY_SCALE).toBigInteger()) == INEXACT, value.toPlainString());
+        }
+    }
+
+    /**
+     * 精确结果能用 long 表示 (且不是 INEXACT 本身) 时为该值, 否则为 INEXACT
+     */
+    private static long expect(BigInteger exact) {
+        return exact.compareTo(LONG_MIN) <= 0 || exact.compareTo(LONG_MAX) > 0 ? INEXACT : exact.longValue();
+    }
+
+    private static long randomLong(Random random) {
+        return switch (random.nextInt(6)) {
+            case 0 -> random.nextLong();
+            case 1 -> random.nextBoolean() ? Long.MAX_VALUE - random.nextInt(3) : -Long.MAX_VALUE + random.nextInt(3);
+            case 2 -> 0;
+            default -> random.nextLong() >> random.nextInt(64);
+        };
+    }
+}
@@ -0,0 +1,22 @@
+package xin.eason.smartfollow.domain;
+
+import xin.eason.smartfollow.domain.model.vo.partition.ColdArchiveVO;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * 冷存储归档服务
+ * <p>把足够旧的月分区导出为本地压缩列存文件, 校验行数后从 MySQL 摘除; 摘除后的区间由仓储透明地从冷存储读取</p>
+ */
+public interface IColdArchiveService {
+
+    /**
+     * 归档上界不晚于 "当月 - afterMonths" 的全部分区
+     *
+     * @param now         当前时间
+     * @param afterMonths 在热存储中保留的月份数 (不含当月)
+     * @return 本次处理的分区
+     */
+    List<ColdArchiveVO> archiveExpired(Instant now, int afterMonths);
+}
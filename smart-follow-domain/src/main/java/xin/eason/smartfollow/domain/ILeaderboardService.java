@@ -0,0 +1,75 @@
+package xin.eason.smartfollow.domain;
+
+import xin.eason.smartfollow.domain.model.vo.leaderboard.LeaderboardCacheStatsVO;
+import xin.eason.smartfollow.domain.model.vo.leaderboard.LeaderboardQueryVO;
+import xin.eason.smartfollow.domain.model.vo.leaderboard.LeaderboardStatsVO;
+import xin.eason.smartfollow.domain.model.vo.project.LeadTradersPageVO;
+import xin.eason.smartfollow.domain.model.vo.project.LeadTradersQuery;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectBriefVO;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 内存榜单服务: 按产品类型持有最近若干个 dataVer 的榜单, 在内存中完成过滤, 排序与分页
+ */
+public interface ILeaderboardService {
+
+    /**
+     * 发布一次完整扫描得到的榜单: 在新对象上构建列式数组与排序下标, 构建完成后原子替换
+     *
+     * @param instType 产品类型
+     * @param dataVer  数据版本
+     * @param ranks    按名次排列的全部项目
+     */
+    void publish(String instType, String dataVer, List<ProjectBriefVO> ranks);
+
+    /**
+     * 规范化并校验查询条件, 不执行查询; 供接口层在任何缓存判断之前先拒绝非法条件
+     *
+     * @param query 查询条件
+     * @return 规范化查询条件
+     * @throws xin.eason.smartfollow.types.exceptions.IllegalParamException 参数非法, 或条件无法在内存中回答 (资产范围, 按当前跟单人收益排序) 时抛出
+     */
+    LeaderboardQueryVO validate(LeadTradersQuery query);
+
+    /**
+     * 查询榜单; 指定的 dataVer 不存在时使用最新版本 (与 OKX 行为一致), 结果按 (规范化条件, 实际版本) 缓存
+     *
+     * @param query 查询条件
+     * @return 分页结果; 尚无该产品类型的榜单时为空
+     * @throws xin.eason.smartfollow.types.exceptions.IllegalParamException 参数非法, 或条件无法在内存中回答 (资产范围, 按当前跟单人收益排序) 时抛出
+     */
+    Optional<LeadTradersPageVO> query(LeadTradersQuery query);
+
+    /**
+     * 获取某产品类型的最新数据版本
+     *
+     * @param instType 产品类型
+     * @return 最新数据版本
+     */
+    Optional<String> latestDataVer(String instType);
+
+    /**
+     * 判断某个数据版本是否仍在内存中
+     *
+     * @param instType 产品类型
+     * @param dataVer  数据版本
+     * @return 仍在内存中时返回 true
+     */
+    boolean holdsDataVer(String instType, String dataVer);
+
+    /**
+     * 获取运行统计 (查询耗时, 内存占用等)
+     *
+     * @return 统计信息
+     */
+    LeaderboardStatsVO stats();
+
+    /**
+     * 获取查询结果缓存统计 (命中率, 淘汰数等)
+     *
+     * @return 缓存统计信息
+     */
+    LeaderboardCacheStatsVO cacheStats();
+}
@@ -0,0 +1,38 @@
+package xin.eason.smartfollow.domain;
+
+import xin.eason.smartfollow.domain.model.vo.partition.PartitionMaintenanceVO;
+import xin.eason.smartfollow.domain.model.vo.partition.PartitionedTable;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * 按月分区维护服务
+ * <p>提前切出未来月份的分区, 让兜底分区 pMAX 始终为空; 按保留策略删除或交换过期分区</p>
+ */
+public interface IPartitionMaintenanceService {
+
+    /**
+     * 对全部分区表执行一次维护
+     *
+     * @param now 当前时间
+     * @return 每张表的维护结果
+     */
+    List<PartitionMaintenanceVO> maintain(Instant now);
+
+    /**
+     * 对单张表执行一次维护
+     *
+     * @param table 分区表
+     * @param now   当前时间
+     * @return 维护结果
+     */
+    PartitionMaintenanceVO maintain(PartitionedTable table, Instant now);
+
+    /**
+     * 获取最近一次维护的结果 (含各分区行数)
+     *
+     * @return 每张表最近一次维护的结果, 尚未维护过的表不包含在内
+     */
+    List<PartitionMaintenanceVO> lastReports();
+}
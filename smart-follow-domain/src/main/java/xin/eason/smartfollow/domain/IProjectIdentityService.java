@@ -0,0 +1,35 @@
+package xin.eason.smartfollow.domain;
+
+import xin.eason.smartfollow.domain.model.vo.project.ProjectIdentityVO;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectKey;
+
+/**
+ * 项目身份服务: 将 {@link ProjectKey} 解析为数据库主键与进程内稠密编号
+ * <p>启动时预热全部身份, 入库路径上的解析只读内存, 不再逐行查询数据库</p>
+ */
+public interface IProjectIdentityService {
+
+    /**
+     * 预热身份缓存 (按主键顺序分批加载全部项目)
+     *
+     * @return 加载的项目数量
+     */
+    long warmUp();
+
+    /**
+     * 解析项目身份; 缓存未命中时回退查询一次数据库并注册
+     *
+     * @param key 项目唯一标识
+     * @return 项目身份, 项目不存在返回 <code>null</code>
+     */
+    ProjectIdentityVO resolve(ProjectKey key);
+
+    /**
+     * 解析数据库主键
+     *
+     * @param key 项目唯一标识
+     * @return 数据库主键
+     * @throws xin.eason.smartfollow.types.exceptions.AppException 如果项目不存在
+     */
+    long requireProjectId(ProjectKey key);
+}
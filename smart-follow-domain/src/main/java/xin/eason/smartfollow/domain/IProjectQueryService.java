@@ -0,0 +1,29 @@
+package xin.eason.smartfollow.domain;
+
+import xin.eason.smartfollow.domain.model.aggregate.project.ProjectAggregate;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectKey;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * 项目主档查询服务 (读接口使用)
+ */
+public interface IProjectQueryService {
+
+    /**
+     * 查询项目内容最后变化时间 (不含 last_seen 的推进), 只读一列, 供读接口在加载聚合之前判断是否可以返回 304
+     *
+     * @param key 项目唯一标识
+     * @return 最后更新时间, 项目不存在时为空
+     */
+    Optional<Instant> lastModified(ProjectKey key);
+
+    /**
+     * 查询项目主档聚合
+     *
+     * @param key 项目唯一标识
+     * @return 项目聚合
+     */
+    Optional<ProjectAggregate> findProject(ProjectKey key);
+}
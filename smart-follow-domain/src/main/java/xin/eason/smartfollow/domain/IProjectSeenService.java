@@ -0,0 +1,46 @@
+package xin.eason.smartfollow.domain;
+
+import xin.eason.smartfollow.domain.model.aggregate.project.ProjectAggregate;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectKey;
+import xin.eason.smartfollow.types.enums.Visibility;
+
+import java.time.Instant;
+
+/**
+ * 项目观察状态写后缓冲服务
+ * <p>每次扫描都会推进 lastSeen, 但读方只需要分钟级新鲜度; 该服务在内存中合并同一项目的多次观察, 按间隔或停机时批量落库</p>
+ */
+public interface IProjectSeenService {
+
+    /**
+     * 记录一次观察, 与缓冲中已有状态合并 (lastSeen 单调递增, 可见性以最后一次记录为准)
+     *
+     * @param key        项目唯一标识
+     * @param seenAt     可见时间, 为空表示只更新可见性 (如标记丢失)
+     * @param visibility 可见状态, 为空表示只推进时间
+     */
+    void record(ProjectKey key, Instant seenAt, Visibility visibility);
+
+    /**
+     * 将聚合上待写的 lastSeen / lastVisibility 转入缓冲, 并清除这两个字段的脏标记;
+     * 尚未入库 (身份缓存中不存在) 的新项目不转移, 仍随整行插入
+     *
+     * @param project 项目聚合
+     * @return 是否发生转移
+     */
+    boolean absorb(ProjectAggregate project);
+
+    /**
+     * 立即将缓冲批量落库
+     *
+     * @return 落库的项目数量
+     */
+    int flush();
+
+    /**
+     * 当前缓冲中待落库的项目数量
+     *
+     * @return 待落库数量
+     */
+    int pending();
+}
@@ -0,0 +1,22 @@
+package xin.eason.smartfollow.domain;
+
+import xin.eason.smartfollow.domain.model.vo.crawl.ReplayReportVO;
+
+import java.time.Instant;
+
+/**
+ * 原始响应离线回放服务
+ * <p>将本地归档的 OKX 原始响应按抓取时间顺序重新送入解析器与入库管道, 全程不访问网络</p>
+ */
+public interface IRawResponseReplayService {
+
+    /**
+     * 回放指定时间范围内的归档响应
+     *
+     * @param from         请求开始时间下界 (包含), 为空表示不限制
+     * @param to           请求开始时间上界 (不包含), 为空表示不限制
+     * @param targetPrefix 抓取目标前缀, 为空表示全部目标
+     * @return 回放结果统计
+     */
+    ReplayReportVO replay(Instant from, Instant to, String targetPrefix);
+}
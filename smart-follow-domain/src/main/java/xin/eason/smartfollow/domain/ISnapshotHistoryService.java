@@ -0,0 +1,43 @@
+package xin.eason.smartfollow.domain;
+
+import xin.eason.smartfollow.domain.model.vo.observation.HistoryStatVO;
+import xin.eason.smartfollow.domain.model.vo.observation.SeriesMetric;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectKey;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 项目近期历史服务: 评分 / 排名所需的近 N 行快照保存在内存中, 窗口统计不访问数据库
+ */
+public interface ISnapshotHistoryService {
+
+    /**
+     * 清空内存历史, 从数据库为每个已注册项目加载最近的若干行
+     *
+     * @return 载入的行数
+     */
+    int warmUp();
+
+    /**
+     * 统计全部项目在 [from, to) 内某个指标的起点值, 末值与极值
+     *
+     * @param metric 指标, 仅支持 AUM_USD / FOLLOWERS / PNL_RATIO_90D
+     * @param from   起始时间 (包含)
+     * @param to     结束时间 (不包含)
+     * @return 窗口内有数据的项目
+     */
+    List<HistoryStatVO> windowStats(SeriesMetric metric, Instant from, Instant to);
+
+    /**
+     * 统计指定项目在 [from, to) 内某个指标的起点值, 末值与极值
+     *
+     * @param keys   项目唯一标识
+     * @param metric 指标, 仅支持 AUM_USD / FOLLOWERS / PNL_RATIO_90D
+     * @param from   起始时间 (包含)
+     * @param to     结束时间 (不包含)
+     * @return 窗口内有数据的项目
+     */
+    List<HistoryStatVO> windowStats(Collection<ProjectKey> keys, SeriesMetric metric, Instant from, Instant to);
+}
@@ -0,0 +1,21 @@
+package xin.eason.smartfollow.domain;
+
+import xin.eason.smartfollow.domain.model.aggregate.observation.ProjectSnapshotAggregate;
+import xin.eason.smartfollow.domain.model.vo.observation.SnapshotWriteResultVO;
+
+import java.util.Collection;
+
+/**
+ * 快照入库服务 (增量压缩)
+ * <p>与上一行已落库快照指标相同的观察不再新增整行, 只延长上一行的 valid_until</p>
+ */
+public interface ISnapshotIngestService {
+
+    /**
+     * 写入一批快照 (通常为一次扫描的一页或全部)
+     *
+     * @param snapshots 快照集合
+     * @return 插入 / 忽略 / 延长 / 跳过的统计
+     */
+    SnapshotWriteResultVO ingest(Collection<ProjectSnapshotAggregate> snapshots);
+}
@@ -0,0 +1,40 @@
+package xin.eason.smartfollow.domain;
+
+import xin.eason.smartfollow.domain.model.vo.observation.SeriesMetric;
+import xin.eason.smartfollow.domain.model.vo.observation.SnapshotPointVO;
+import xin.eason.smartfollow.domain.model.vo.observation.SnapshotSeriesVO;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectKey;
+import xin.eason.smartfollow.types.enums.SnapshotSource;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * 快照查询服务
+ */
+public interface ISnapshotQueryService {
+
+    /**
+     * 查询项目时序, 由增量压缩后的区间行还原: 每行在 ts 与 valid_until 各输出一个点 (阶梯曲线)
+     *
+     * @param key    项目唯一标识
+     * @param source 快照来源
+     * @param from   起始时间 (包含)
+     * @param to     结束时间 (不包含)
+     * @return 按时间升序的时序点
+     */
+    List<SnapshotPointVO> series(ProjectKey key, SnapshotSource source, Instant from, Instant to);
+
+    /**
+     * 查询降采样后的项目时序 (LTTB), 返回点数不超过 {@code maxPoints}, 峰谷点保留
+     *
+     * @param key       项目唯一标识
+     * @param source    快照来源
+     * @param metric    降采样依据的指标
+     * @param from      起始时间 (包含)
+     * @param to        结束时间 (不包含)
+     * @param maxPoints 目标点数
+     * @return 降采样后的时序
+     */
+    SnapshotSeriesVO downsample(ProjectKey key, SnapshotSource source, SeriesMetric metric, Instant from, Instant to, int maxPoints);
+}
@@ -0,0 +1,38 @@
+package xin.eason.smartfollow.domain;
+
+import xin.eason.smartfollow.domain.model.vo.observation.RollupResolution;
+
+import java.time.Instant;
+
+/**
+ * 快照汇总服务
+ * <p>把原始快照压缩为每个项目 1 小时 / 1 天的汇总桶 (AUM, 跟随者, 收益的 last / min / max / 时间加权 avg), 供长区间曲线读取</p>
+ */
+public interface ISnapshotRollupService {
+
+    /**
+     * 从水位继续汇总所有已结束的桶: 先 1 小时, 再由 1 小时桶合并 1 天
+     *
+     * @param now 当前时间
+     * @return 写入的桶数量
+     */
+    int rollupClosed(Instant now);
+
+    /**
+     * 向前补算首次汇总之前的存量分区, 每次最多一个自然日; 从汇总表最早的桶续跑, 到最老的月分区起点为止
+     *
+     * @param now 当前时间
+     * @return 写入的桶数量, 已补算完成时为 0
+     */
+    int backfill(Instant now);
+
+    /**
+     * 重算指定区间的汇总桶 (补数 / 口径修正), 不推进水位
+     *
+     * @param resolution 分辨率
+     * @param from       起始时间, 向下取整到桶起点
+     * @param to         结束时间 (不包含), 向下取整到桶起点
+     * @return 写入的桶数量
+     */
+    int rollup(RollupResolution resolution, Instant from, Instant to);
+}
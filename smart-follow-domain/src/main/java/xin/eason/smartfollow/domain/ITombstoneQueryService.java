@@ -0,0 +1,72 @@
+package xin.eason.smartfollow.domain;
+
+import xin.eason.smartfollow.domain.model.vo.observation.TombstoneCrossSectionVO;
+import xin.eason.smartfollow.domain.model.vo.observation.TombstoneIntervalVO;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectKey;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 墓碑查询服务
+ * <p>"当前不可见" 类查询由内存中的打开墓碑索引回答, 不再扫描 <code>toTs IS NULL</code>;
+ * 历史时刻的横截面与区间重叠查询由全量墓碑区间索引回答, 不再扫描 <code>fromTs &lt;= :asOf AND (toTs IS NULL OR toTs &gt; :asOf)</code></p>
+ */
+public interface ITombstoneQueryService {
+
+    /**
+     * 从数据库加载全部墓碑, 重建打开墓碑索引与区间索引
+     *
+     * @return 载入的墓碑数量
+     */
+    int warmUp();
+
+    /**
+     * 项目当前是否处于不可见状态
+     *
+     * @param key 项目唯一标识
+     * @return 是否不可见
+     */
+    boolean isInvisibleNow(ProjectKey key);
+
+    /**
+     * 当前处于不可见状态的项目数量
+     *
+     * @return 不可见项目数量
+     */
+    int countInvisible();
+
+    /**
+     * 项目本次不可见的起点
+     *
+     * @param key 项目唯一标识
+     * @return 打开墓碑的 fromTs, 项目可见时为空
+     */
+    Optional<Instant> invisibleSince(ProjectKey key);
+
+    /**
+     * 时刻 {@code asOf} 处于不可见状态的项目
+     *
+     * @param asOf 查询时刻
+     * @return 不可见的项目
+     */
+    List<ProjectKey> invisibleAt(Instant asOf);
+
+    /**
+     * 与 <code>[from, to)</code> 重叠的墓碑区间
+     *
+     * @param from 区间起点
+     * @param to   区间终点 (不含)
+     * @return 重叠的墓碑区间
+     */
+    List<TombstoneIntervalVO> overlapping(Instant from, Instant to);
+
+    /**
+     * 一次计算多个时刻的可见 / 不可见横截面; 每个时刻只统计首次出现时间不晚于该时刻的项目
+     *
+     * @param asOfs 查询时刻列表
+     * @return 与入参顺序一致的横截面
+     */
+    List<TombstoneCrossSectionVO> crossSections(List<Instant> asOfs);
+}
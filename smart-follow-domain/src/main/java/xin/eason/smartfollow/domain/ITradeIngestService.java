@@ -0,0 +1,27 @@
+package xin.eason.smartfollow.domain;
+
+import xin.eason.smartfollow.domain.model.aggregate.trade.ProjectTradeAggregate;
+import xin.eason.smartfollow.domain.model.vo.trade.TradeIngestResultVO;
+
+import java.util.Collection;
+
+/**
+ * 仓位回合批量写入服务: 以 (项目, 月分区) 维度的布隆过滤器预判重复, 只把新回合与状态变化发往 MySQL
+ */
+public interface ITradeIngestService {
+
+    /**
+     * 批量写入仓位回合; 过滤器判定已落库的终态回合直接跳过, 其余以多行 SQL 幂等写入
+     *
+     * @param trades 仓位回合, 可以包含多个项目
+     * @return 写入统计
+     */
+    TradeIngestResultVO ingest(Collection<ProjectTradeAggregate> trades);
+
+    /**
+     * 重建已饱和的过滤器, 并淘汰长时间未访问的过滤器
+     *
+     * @return 重建的过滤器数量
+     */
+    int rebuildFilters();
+}
@@ -0,0 +1,33 @@
+package xin.eason.smartfollow.domain;
+
+import xin.eason.smartfollow.domain.model.vo.project.ProjectKey;
+import xin.eason.smartfollow.domain.model.vo.trade.TradeFillVO;
+import xin.eason.smartfollow.domain.model.vo.trade.TradeMatchBatchVO;
+
+import java.util.Collection;
+
+/**
+ * 开平仓撮合服务: 按 (项目, 标的, 方向) 以先进先出方式将平仓成交匹配到开仓成交, 生成仓位回合
+ */
+public interface ITradeMatchingService {
+
+    /**
+     * 撮合一批成交; 同一项目的成交按时间顺序处理, 未平完的开仓留在队列中等待后续批次
+     *
+     * @param fills 成交集合, 可以包含多个项目
+     * @return 本批状态发生变化的仓位回合与统计
+     */
+    TradeMatchBatchVO match(Collection<TradeFillVO> fills);
+
+    /**
+     * 丢弃项目的全部未平仓队列 (重新回放该项目的成交前调用)
+     *
+     * @param key 项目唯一标识
+     */
+    void reset(ProjectKey key);
+
+    /**
+     * @return 当前未完全平仓的开仓数量
+     */
+    long openLots();
+}
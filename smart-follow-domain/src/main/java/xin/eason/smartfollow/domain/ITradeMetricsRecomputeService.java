@@ -0,0 +1,20 @@
+package xin.eason.smartfollow.domain;
+
+import xin.eason.smartfollow.domain.model.vo.trade.TradeMetricsRecomputeVO;
+
+import java.time.Instant;
+
+/**
+ * 回合行情指标增量重算服务: 为当前算法版本补齐缺失指标, 并重算输入字段已变化的回合
+ */
+public interface ITradeMetricsRecomputeService {
+
+    /**
+     * 执行 (或继续) 一轮重算: 按 ts_open 分块, 多个工作线程并行处理, 每个分块完成后写入检查点;
+     * 中断后再次调用时跳过本轮已完成的分块, 本轮全部完成后下一次调用开始新一轮
+     *
+     * @param now 当前时间, 分块只规划到此为止
+     * @return 本次统计
+     */
+    TradeMetricsRecomputeVO recompute(Instant now);
+}
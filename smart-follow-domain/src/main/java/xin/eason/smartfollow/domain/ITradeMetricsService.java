@@ -0,0 +1,30 @@
+package xin.eason.smartfollow.domain;
+
+import xin.eason.smartfollow.domain.model.vo.trade.TradeMetricInputVO;
+import xin.eason.smartfollow.domain.model.vo.trade.TradeMetricsResultVO;
+
+import java.time.Instant;
+import java.util.Collection;
+
+/**
+ * 回合行情指标服务: 基于本地 K 线计算 MAE / MFE 与区间回撤 / 回升, 按算法版本写入 exchange_project_trade_metrics
+ */
+public interface ITradeMetricsService {
+
+    /**
+     * 计算并写入一批回合的指标
+     *
+     * @param trades 回合
+     * @return 统计
+     */
+    TradeMetricsResultVO compute(Collection<TradeMetricInputVO> trades);
+
+    /**
+     * 计算并写入 [from, to) 内开仓的全部已平仓回合的指标, 按主键分批读取
+     *
+     * @param from 开仓时间下界 (包含)
+     * @param to   开仓时间上界 (不包含)
+     * @return 统计
+     */
+    TradeMetricsResultVO computeRange(Instant from, Instant to);
+}
@@ -0,0 +1,25 @@
+package xin.eason.smartfollow.domain;
+
+import xin.eason.smartfollow.domain.model.vo.observation.VisibilitySweepVO;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectKey;
+
+import java.time.Instant;
+import java.util.Collection;
+
+/**
+ * 项目可见性差分服务
+ * <p>以位图保存每个范围最近一次榜单扫描的成员集合, 与本次扫描做集合差得到出现 / 消失的项目, 并批量维护墓碑与项目可见性</p>
+ */
+public interface IVisibilityService {
+
+    /**
+     * 应用一次完整的榜单扫描结果
+     *
+     * @param scope   扫描范围 (如 instType)
+     * @param dataVer 本次扫描的数据版本号
+     * @param atTs    扫描时间
+     * @param members 本次扫描榜单上的全部项目
+     * @return 差分结果与可见性变化事件
+     */
+    VisibilitySweepVO applySweep(String scope, String dataVer, Instant atTs, Collection<ProjectKey> members);
+}
@@ -0,0 +1,47 @@
+package xin.eason.smartfollow.domain.adapter.port;
+
+import xin.eason.smartfollow.domain.model.vo.project.ProjectIdentityVO;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectKey;
+
+import java.time.Instant;
+
+/**
+ * 项目身份注册表: 供仓储实现在读写主档时登记 / 反查项目身份, 不依赖领域层的具体缓存实现
+ */
+public interface IProjectIdentityRegistry {
+
+    /**
+     * 注册一个项目身份; 如果该 key 已注册则直接返回已有身份 (幂等)
+     *
+     * @param key       项目唯一标识
+     * @param projectId 数据库主键
+     * @return 项目身份
+     */
+    ProjectIdentityVO register(ProjectKey key, long projectId);
+
+    /**
+     * 注册一个项目身份并记录首次出现时间; 已注册时只把首次出现时间向前合并 (与库内 first_seen 只退不进一致)
+     *
+     * @param key       项目唯一标识
+     * @param projectId 数据库主键
+     * @param firstSeen 首次出现时间, 为 <code>null</code> 时不记录
+     * @return 项目身份
+     */
+    ProjectIdentityVO register(ProjectKey key, long projectId, Instant firstSeen);
+
+    /**
+     * 按业务键查找身份
+     *
+     * @param key 项目唯一标识
+     * @return 项目身份, 未注册返回 <code>null</code>
+     */
+    ProjectIdentityVO get(ProjectKey key);
+
+    /**
+     * 按数据库主键查找身份
+     *
+     * @param projectId 数据库主键
+     * @return 项目身份, 未注册返回 <code>null</code>
+     */
+    ProjectIdentityVO getByProjectId(long projectId);
+}
@@ -0,0 +1,47 @@
+package xin.eason.smartfollow.domain.adapter.repository;
+
+import xin.eason.smartfollow.domain.model.vo.partition.PartitionedTable;
+
+/**
+ * 冷存储仓储: 把整个月分区导出为本地压缩列存文件, 导出后的数据由对应表的仓储透明读取
+ */
+public interface IColdArchiveRepository {
+
+    /**
+     * @param table 分区表
+     * @return 是否支持导出该表 (需要有对应的读路径)
+     */
+    boolean supports(PartitionedTable table);
+
+    /**
+     * @param table     分区表
+     * @param partition 分区名
+     * @return 分区是否已发布到冷存储
+     */
+    boolean isArchived(PartitionedTable table, String partition);
+
+    /**
+     * @param table     分区表
+     * @param partition 分区名
+     * @return 冷分区的行数, 不存在返回 -1
+     */
+    long archivedRows(PartitionedTable table, String partition);
+
+    /**
+     * 导出分区交换出的归档表, 以分区名发布 (发布前写入临时文件, 失败不留下半个分区)
+     *
+     * @param table        分区表
+     * @param partition    分区名 (冷分区名)
+     * @param archiveTable 归档表名, 见 {@link IPartitionRepository#exchangePartition}
+     * @return 导出的行数
+     */
+    long export(PartitionedTable table, String partition, String archiveTable);
+
+    /**
+     * 删除已发布的冷分区
+     *
+     * @param table     分区表
+     * @param partition 分区名
+     */
+    void discard(PartitionedTable table, String partition);
+}
@@ -0,0 +1,62 @@
+package xin.eason.smartfollow.domain.adapter.repository;
+
+import xin.eason.smartfollow.domain.model.vo.market.BarSeries;
+import xin.eason.smartfollow.domain.model.vo.market.BarVO;
+import xin.eason.smartfollow.types.enums.BarInterval;
+import xin.eason.smartfollow.types.enums.PriceSource;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * 行情 K 线仓储 (本地内存映射文件, 每个 (价格口径, 粒度, 标的) 一个文件)
+ * <ul>
+ *     <li>只追加: 开盘时间必须递增, 与最后一根相同时覆盖 (未收盘的 K 线), 更早的 K 线被忽略</li>
+ *     <li>范围查询返回直接引用映射内存的视图, 不经过网络或数据库</li>
+ * </ul>
+ */
+public interface IMarketBarRepository {
+
+    /**
+     * 追加 K 线
+     *
+     * @param symbol   标的, 如 <code>BTC-USDT-SWAP</code>
+     * @param interval 粒度
+     * @param source   价格口径
+     * @param bars     按开盘时间升序的 K 线
+     * @return 实际写入 (含覆盖最后一根) 的根数
+     */
+    int append(String symbol, BarInterval interval, PriceSource source, List<BarVO> bars);
+
+    /**
+     * 查询开盘时间在 [from, to) 内的 K 线
+     *
+     * @param symbol   标的
+     * @param interval 粒度
+     * @param source   价格口径
+     * @param from     开盘时间下界 (包含)
+     * @param to       开盘时间上界 (不包含)
+     * @return 只读视图, 没有数据时为 {@link BarSeries#EMPTY}
+     */
+    BarSeries range(String symbol, BarInterval interval, PriceSource source, Instant from, Instant to);
+
+    /**
+     * 从 CSV 文件导入 K 线 (每行 <code>ts,open,high,low,close[,...]</code>, ts 为毫秒或 ISO-8601, 非数字开头的行视为表头跳过)
+     *
+     * @param file     CSV 文件
+     * @param symbol   标的
+     * @param interval 粒度
+     * @param source   价格口径
+     * @return 实际写入的根数
+     */
+    long importCsv(Path file, String symbol, BarInterval interval, PriceSource source);
+
+    /**
+     * 导入目录下全部 <code>{价格口径}/{粒度}/{标的}.csv</code> 文件
+     *
+     * @param dir 导入根目录
+     * @return 实际写入的根数
+     */
+    long importDir(Path dir);
+}
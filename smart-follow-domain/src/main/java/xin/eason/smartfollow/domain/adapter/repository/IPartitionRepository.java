@@ -0,0 +1,100 @@
+package xin.eason.smartfollow.domain.adapter.repository;
+
+import xin.eason.smartfollow.domain.model.vo.partition.PartitionInfoVO;
+import xin.eason.smartfollow.domain.model.vo.partition.PartitionedTable;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 分区元数据与分区 DDL 仓储
+ */
+public interface IPartitionRepository {
+
+    /**
+     * 查询表的全部分区
+     *
+     * @param table 分区表
+     * @return 分区状态, 按分区顺序 (上界升序); 表未分区时为空
+     */
+    List<PartitionInfoVO> findPartitions(PartitionedTable table);
+
+    /**
+     * 判断分区内是否没有任何行 (精确判断, 只读取一行)
+     *
+     * @param table     分区表
+     * @param partition 分区名
+     * @return 分区为空时返回 true
+     */
+    boolean isEmpty(PartitionedTable table, String partition);
+
+    /**
+     * 精确统计分区行数 ({@code COUNT(*)}, 会扫描整个分区)
+     *
+     * @param table     分区表
+     * @param partition 分区名
+     * @return 行数
+     */
+    long countRows(PartitionedTable table, String partition);
+
+    /**
+     * 把兜底分区拆分为若干月分区 + 新的兜底分区 ({@code REORGANIZE PARTITION pMAX})
+     *
+     * @param table      分区表
+     * @param partitions 新分区名 → 上界 (不包含), 按上界升序
+     */
+    void splitMax(PartitionedTable table, Map<String, LocalDate> partitions);
+
+    /**
+     * 删除分区
+     *
+     * @param table      分区表
+     * @param partitions 分区名
+     */
+    void dropPartitions(PartitionedTable table, List<String> partitions);
+
+    /**
+     * 在表写锁下确认分区为空后删除分区; 写锁阻塞写入, 检查与删除之间不会有新行落入该分区
+     *
+     * @param table     分区表
+     * @param partition 分区名
+     * @return 分区为空并已删除时返回 true, 分区非空时不做任何修改并返回 false
+     */
+    boolean dropPartitionIfEmpty(PartitionedTable table, String partition);
+
+    /**
+     * 把分区数据交换到同结构的独立归档表, 之后分区为空
+     *
+     * @param table     分区表
+     * @param partition 分区名
+     * @return 归档表名, 分区为空且此前没有归档表时返回 <code>null</code>
+     */
+    String exchangePartition(PartitionedTable table, String partition);
+
+    /**
+     * 查询分区对应的归档表 ({@link #exchangePartition} 的目标表) 是否存在
+     *
+     * @param table     分区表
+     * @param partition 分区名
+     * @return 归档表名, 不存在时返回 <code>null</code>
+     */
+    String findArchiveTable(PartitionedTable table, String partition);
+
+    /**
+     * 精确统计归档表行数 ({@code COUNT(*)})
+     *
+     * @param table     分区表
+     * @param partition 分区名
+     * @return 行数
+     */
+    long countArchiveRows(PartitionedTable table, String partition);
+
+    /**
+     * 删除分区对应的归档表
+     *
+     * @param table     分区表
+     * @param partition 分区名
+     */
+    void dropArchiveTable(PartitionedTable table, String partition);
+}
@@ -0,0 +1,94 @@
+package xin.eason.smartfollow.domain.adapter.repository;
+
+import xin.eason.smartfollow.domain.model.aggregate.project.ProjectAggregate;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectKey;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectSeenVO;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 项目主档仓储 (exchange_project)
+ */
+public interface IProjectRepository {
+
+    /**
+     * 项目身份消费者
+     */
+    @FunctionalInterface
+    interface IdentityConsumer {
+        /**
+         * @param key       项目唯一标识
+         * @param projectId 数据库主键
+         * @param firstSeen 首次出现时间
+         */
+        void accept(ProjectKey key, long projectId, Instant firstSeen);
+    }
+
+    /**
+     * 按主键顺序分批扫描全部项目身份 (业务键 + 数据库主键 + 首次出现时间), 用于启动时预热身份缓存
+     *
+     * @param consumer 项目身份消费者
+     * @return 扫描的项目数量
+     */
+    long scanIdentities(IdentityConsumer consumer);
+
+    /**
+     * 按业务键查询数据库主键
+     *
+     * @param key 项目唯一标识
+     * @return 数据库主键
+     */
+    Optional<Long> findIdByKey(ProjectKey key);
+
+    /**
+     * 按业务键查询项目聚合
+     *
+     * @param key 项目唯一标识
+     * @return 项目聚合
+     */
+    Optional<ProjectAggregate> findByKey(ProjectKey key);
+
+    /**
+     * 按业务键查询项目内容最后变化时间 (只读一列, 用于构造 ETag); 仅推进 last_seen 的写入不会改变该值
+     *
+     * @param key 项目唯一标识
+     * @return 最后更新时间
+     */
+    Optional<Instant> findUpdatedAtByKey(ProjectKey key);
+
+    /**
+     * 插入一个新项目, 并在插入成功后原子地注册到项目身份缓存
+     *
+     * @param project 项目聚合
+     * @return 数据库主键
+     */
+    long insert(ProjectAggregate project);
+
+    /**
+     * 按业务键批量查询项目聚合 (不加载 extra 正文, 仅带 extra 哈希用于变化判断)
+     *
+     * @param keys 项目唯一标识集合
+     * @return 已存在的项目聚合
+     */
+    List<ProjectAggregate> findByKeys(Collection<ProjectKey> keys);
+
+    /**
+     * 批量写入一页项目 (多行 {@code INSERT ... ON DUPLICATE KEY UPDATE}), 只更新聚合记录的脏字段,
+     * extra 哈希未变化时不重写 extra; 写入成功后清空聚合的脏字段, 新项目注册到身份缓存
+     *
+     * @param projects 项目聚合集合
+     * @return 实际写入的项目数量 (无变化的聚合不计入)
+     */
+    int upsertBatch(Collection<ProjectAggregate> projects);
+
+    /**
+     * 批量更新项目观察状态 (单条 {@code UPDATE ... CASE id}), lastSeen 在库内同样只进不退, 不会插入新行
+     *
+     * @param seen 合并后的观察状态
+     * @return 受影响行数
+     */
+    int updateSeenBatch(List<ProjectSeenVO> seen);
+}
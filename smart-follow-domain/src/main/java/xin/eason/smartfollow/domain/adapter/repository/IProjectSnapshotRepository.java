@@ -0,0 +1,108 @@
+package xin.eason.smartfollow.domain.adapter.repository;
+
+import xin.eason.smartfollow.domain.model.aggregate.observation.ProjectSnapshotAggregate;
+import xin.eason.smartfollow.domain.model.vo.observation.SnapshotWriteResultVO;
+import xin.eason.smartfollow.domain.model.vo.observation.StoredSnapshotVO;
+import xin.eason.smartfollow.types.enums.SnapshotSource;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 项目时序快照仓储 (exchange_project_snapshot)
+ */
+public interface IProjectSnapshotRepository {
+
+    /**
+     * 批量幂等写入快照: 按块生成多行 {@code INSERT IGNORE}, 依赖 uk_proj_ts_src 去重
+     *
+     * @param snapshots 快照集合
+     * @return 插入 / 忽略 / 跳过的统计
+     */
+    SnapshotWriteResultVO insertBatch(Collection<ProjectSnapshotAggregate> snapshots);
+
+    /**
+     * 批量延长已有快照行的 valid_until (按 (project_id, ts, source) 定位, 只进不退)
+     *
+     * @param extended 需要延长的行, validUntil 为新的结束时间
+     * @return 受影响行数
+     */
+    int extendValidUntil(Collection<StoredSnapshotVO> extended);
+
+    /**
+     * 批量查询多个项目在 {@code since} 之后的最后一行快照 (用于进程重启后补齐增量缓存)
+     *
+     * @param projectIds 项目主键集合
+     * @param source     快照来源
+     * @param since      回查下界 (用于分区裁剪)
+     * @return 每个项目最多一行
+     */
+    List<StoredSnapshotVO> findLatest(Collection<Long> projectIds, SnapshotSource source, Instant since);
+
+    /**
+     * 按时间范围查询快照行 (ts 在 [from, to) 内, 升序), 内部按 ts 做 keyset 分页
+     *
+     * @param projectId 项目主键
+     * @param source    快照来源
+     * @param from      起始时间 (包含)
+     * @param to        结束时间 (不包含)
+     * @return 快照行
+     */
+    List<StoredSnapshotVO> findRange(long projectId, SnapshotSource source, Instant from, Instant to);
+
+    /**
+     * 批量查询一组项目在 [from, to) 内的快照行 (用于汇总), 按项目, 时间升序
+     *
+     * @param projectIds 项目主键
+     * @param source     快照来源
+     * @param from       起始时间 (包含)
+     * @param to         结束时间 (不包含)
+     * @return 快照行
+     */
+    List<StoredSnapshotVO> findWindow(Collection<Long> projectIds, SnapshotSource source, Instant from, Instant to);
+
+    /**
+     * 批量查询每个项目在 since 之后的最近 limit 行 (用于预热内存历史), 按项目, 时间升序; 不回查冷存储
+     *
+     * @param projectIds 项目主键
+     * @param source     快照来源
+     * @param since      回查下界 (包含)
+     * @param limit      每个项目的行数上限
+     * @return 快照行
+     */
+    List<StoredSnapshotVO> findRecent(Collection<Long> projectIds, SnapshotSource source, Instant since, int limit);
+
+    /**
+     * 批量查询一组项目在 [since, before) 内的最后一行快照 (其取值可能延续到 before 之后)
+     *
+     * @param projectIds 项目主键
+     * @param source     快照来源
+     * @param before     截止时间 (不包含)
+     * @param since      回查下界 (用于分区裁剪)
+     * @return 每个项目至多一行
+     */
+    List<StoredSnapshotVO> findLastBefore(Collection<Long> projectIds, SnapshotSource source, Instant before, Instant since);
+
+    /**
+     * 查询 [since, before) 内的最后一行快照 (其区间可能覆盖查询起点)
+     *
+     * @param projectId 项目主键
+     * @param source    快照来源
+     * @param before    时间上界 (不包含)
+     * @param since     回查下界 (用于分区裁剪), 通常为 before - {@link StoredSnapshotVO#MAX_SPAN}
+     * @return 快照行
+     */
+    Optional<StoredSnapshotVO> findLastBefore(long projectId, SnapshotSource source, Instant before, Instant since);
+
+    /**
+     * 按唯一键读取原始快照 JSON (压缩存储时透明解压)
+     *
+     * @param projectId 项目主键
+     * @param source    快照来源
+     * @param ts        快照时间
+     * @return 原始 JSON
+     */
+    Optional<String> findRawJson(long projectId, SnapshotSource source, Instant ts);
+}
@@ -0,0 +1,54 @@
+package xin.eason.smartfollow.domain.adapter.repository;
+
+import xin.eason.smartfollow.domain.model.entity.crawl.CrawlLogEntity;
+import xin.eason.smartfollow.domain.model.vo.crawl.RawResponseVO;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * 原始响应归档仓储 (本地追加写分段日志)
+ * <ul>
+ *     <li>按 <code>content_hash</code> 去重, 相同响应体只存一份</li>
+ *     <li>按 <code>crawl_log.id</code> 建立索引, 支持单条查找与按时间顺序回放</li>
+ * </ul>
+ */
+public interface IRawResponseArchiveRepository {
+
+    /**
+     * 归档一次抓取的响应体原文
+     *
+     * @param crawlLog 已落库的抓取日志 (必须已有 ID)
+     * @param body     响应体原文字节
+     * @return 如果本次写入了新的响应体返回 <code>true</code>; 如果响应体已存在 (仅追加索引) 返回 <code>false</code>
+     */
+    boolean archive(CrawlLogEntity crawlLog, byte[] body);
+
+    /**
+     * 按抓取日志 ID 查找归档的响应
+     *
+     * @param crawlLogId 抓取日志 ID
+     * @return 归档的响应
+     */
+    Optional<RawResponseVO> findByCrawlLogId(long crawlLogId);
+
+    /**
+     * 按内容哈希查找归档的响应体原文
+     *
+     * @param contentHash 内容哈希 (SHA-256, 64 位十六进制)
+     * @return 响应体原文字节
+     */
+    Optional<byte[]> findBodyByContentHash(String contentHash);
+
+    /**
+     * 按 crawl_log ID 升序 (即抓取时间顺序) 遍历归档的响应
+     *
+     * @param from         请求开始时间下界 (包含), 为空表示不限制
+     * @param to           请求开始时间上界 (不包含), 为空表示不限制
+     * @param targetPrefix 抓取目标前缀, 为空表示不限制
+     * @param consumer     每条归档响应的消费者
+     * @return 遍历的条数
+     */
+    long forEach(Instant from, Instant to, String targetPrefix, Consumer<RawResponseVO> consumer);
+}
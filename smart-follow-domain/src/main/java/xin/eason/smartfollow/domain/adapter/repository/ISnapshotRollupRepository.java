@@ -0,0 +1,64 @@
+package xin.eason.smartfollow.domain.adapter.repository;
+
+import xin.eason.smartfollow.domain.model.vo.observation.RollupResolution;
+import xin.eason.smartfollow.domain.model.vo.observation.SnapshotRollupVO;
+import xin.eason.smartfollow.types.enums.SnapshotSource;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 快照汇总仓储 (exchange_project_snapshot_rollup)
+ */
+public interface ISnapshotRollupRepository {
+
+    /**
+     * 批量写入汇总桶, 已存在的桶整行覆盖 (重算幂等)
+     *
+     * @param rollups 汇总桶
+     * @return 写入的桶数量
+     */
+    int upsertBatch(Collection<SnapshotRollupVO> rollups);
+
+    /**
+     * 批量查询一组项目在 [from, to) 内的汇总桶
+     *
+     * @param projectIds 项目主键
+     * @param source     快照来源
+     * @param resolution 分辨率
+     * @param from       起始桶 (包含)
+     * @param to         结束桶 (不包含)
+     * @return 汇总桶
+     */
+    List<SnapshotRollupVO> findBuckets(Collection<Long> projectIds, SnapshotSource source, RollupResolution resolution, Instant from, Instant to);
+
+    /**
+     * 查询单个项目在 [from, to) 内的汇总桶, 按时间升序
+     *
+     * @param projectId  项目主键
+     * @param source     快照来源
+     * @param resolution 分辨率
+     * @param from       起始时间 (包含)
+     * @param to         结束时间 (不包含)
+     * @return 汇总桶
+     */
+    List<SnapshotRollupVO> findRange(long projectId, SnapshotSource source, RollupResolution resolution, Instant from, Instant to);
+
+    /**
+     * 查询某分辨率已汇总到的位置 (最后一个桶的结束时间)
+     *
+     * @param resolution 分辨率
+     * @return 水位, 尚未汇总过时为空
+     */
+    Optional<Instant> findWatermark(RollupResolution resolution);
+
+    /**
+     * 查询某分辨率最早的桶 (向前补算存量分区的续跑位置)
+     *
+     * @param resolution 分辨率
+     * @return 最早一个桶的起点, 尚未汇总过时为空
+     */
+    Optional<Instant> findEarliestBucket(RollupResolution resolution);
+}
@@ -0,0 +1,46 @@
+package xin.eason.smartfollow.domain.adapter.repository;
+
+import xin.eason.smartfollow.domain.model.aggregate.observation.TombstoneAggregate;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectKey;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 墓碑仓储 (tombstone)
+ */
+public interface ITombstoneRepository {
+
+    /**
+     * 批量打开墓碑, 同一 (project_id, fromTs) 已存在时忽略; 未注册的项目跳过
+     *
+     * @param tombstones 打开状态的墓碑
+     * @return 实际插入的行数
+     */
+    int openBatch(Collection<TombstoneAggregate> tombstones);
+
+    /**
+     * 批量关闭墓碑, 只更新库内仍处于打开状态的行
+     *
+     * @param tombstones 已调用 {@link TombstoneAggregate#close(java.time.Instant)} 的墓碑
+     * @return 实际关闭的行数
+     */
+    int closeBatch(Collection<TombstoneAggregate> tombstones);
+
+    /**
+     * 批量查询项目当前打开的墓碑
+     *
+     * @param keys 项目唯一标识
+     * @return 打开状态的墓碑 (每个项目至多一条)
+     */
+    List<TombstoneAggregate> findOpen(Collection<ProjectKey> keys);
+
+    /**
+     * 按主键顺序分批扫描全部墓碑 (含已关闭), 用于启动时构建区间索引
+     *
+     * @param consumer 墓碑消费者
+     * @return 扫描的墓碑数量
+     */
+    long scanAll(Consumer<TombstoneAggregate> consumer);
+}
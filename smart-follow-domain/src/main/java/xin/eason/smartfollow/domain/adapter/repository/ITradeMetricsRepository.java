@@ -0,0 +1,37 @@
+package xin.eason.smartfollow.domain.adapter.repository;
+
+import xin.eason.smartfollow.domain.model.vo.trade.TradeMetricsChunkVO;
+import xin.eason.smartfollow.domain.model.vo.trade.TradeMetricsVO;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * 回合行情指标仓储 (exchange_project_trade_metrics)
+ */
+public interface ITradeMetricsRepository {
+
+    /**
+     * 多行幂等写入指标: 按 (trade_id, algo_ver) 覆盖已有结果
+     *
+     * @param metrics 指标
+     * @return MySQL 返回的影响行数
+     */
+    int upsertBatch(Collection<TradeMetricsVO> metrics);
+
+    /**
+     * 查询算法版本的重算检查点
+     *
+     * @param algoVer 算法版本
+     * @return 分块起点 → 完成该分块的轮次
+     */
+    Map<Instant, Integer> findCheckpoints(String algoVer);
+
+    /**
+     * 写入分块检查点, 同一 (algo_ver, 分块起点) 覆盖
+     *
+     * @param chunk 已完成的分块
+     */
+    void saveCheckpoint(TradeMetricsChunkVO chunk);
+}
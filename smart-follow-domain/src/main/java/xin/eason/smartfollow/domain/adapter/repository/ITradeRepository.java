@@ -0,0 +1,68 @@
+package xin.eason.smartfollow.domain.adapter.repository;
+
+import xin.eason.smartfollow.domain.model.aggregate.trade.ProjectTradeAggregate;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectKey;
+import xin.eason.smartfollow.domain.model.vo.trade.TradeIdentityVO;
+import xin.eason.smartfollow.domain.model.vo.trade.TradeMetricInputVO;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 仓位回合仓储 (exchange_project_trade)
+ */
+public interface ITradeRepository {
+
+    /**
+     * 多行幂等写入仓位回合: 唯一键冲突时只推进非终态行的状态与平仓字段, 终态行保持不变; 未注册的项目跳过
+     *
+     * @param trades 仓位回合
+     * @return MySQL 返回的影响行数
+     */
+    int upsertBatch(Collection<ProjectTradeAggregate> trades);
+
+    /**
+     * 查询项目已落库的终态回合中, trade_uid 或 (source, external_trade_id) 命中给定身份的行 (走唯一索引)
+     *
+     * @param key        项目唯一标识
+     * @param identities 待确认的回合身份
+     * @return 命中的已落库身份
+     */
+    List<TradeIdentityVO> findFinal(ProjectKey key, Collection<TradeIdentityVO> identities);
+
+    /**
+     * 扫描项目在 [from, to) 内开仓的终态回合身份 (与月分区对齐时只读取单个分区)
+     *
+     * @param key      项目唯一标识
+     * @param from     开仓时间下界 (包含)
+     * @param to       开仓时间上界 (不包含)
+     * @param consumer 回调
+     * @return 扫描的行数
+     */
+    long scanFinal(ProjectKey key, Instant from, Instant to, Consumer<TradeIdentityVO> consumer);
+
+    /**
+     * 按主键分页读取 [from, to) 内开仓的已平仓回合 (CLOSED 且入场价格不为空), 供计算行情指标
+     *
+     * @param from    开仓时间下界 (包含)
+     * @param to      开仓时间上界 (不包含)
+     * @param afterId 上一页最后一行的主键, 第一页为 0
+     * @param limit   每页行数
+     * @return 按主键升序的回合
+     */
+    List<TradeMetricInputVO> findClosedForMetrics(Instant from, Instant to, long afterId, int limit);
+
+    /**
+     * 按主键分页读取 [from, to) 内开仓、在目标算法版本下缺少指标或输入字段指纹已变化的已平仓回合
+     *
+     * @param from    开仓时间下界 (包含)
+     * @param to      开仓时间上界 (不包含)
+     * @param algoVer 目标算法版本
+     * @param afterId 上一页最后一行的主键, 第一页为 0
+     * @param limit   每页行数
+     * @return 按主键升序的回合
+     */
+    List<TradeMetricInputVO> findMetricsPending(Instant from, Instant to, String algoVer, long afterId, int limit);
+}
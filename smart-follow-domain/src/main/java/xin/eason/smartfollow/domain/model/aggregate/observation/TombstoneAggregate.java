@@ -79,6 +79,23 @@ public class TombstoneAggregate {
         return new TombstoneAggregate(key, fromTs, reasonCode, reasonMsg, detector);
     }
 
+    /**
+     * 从持久化数据还原墓碑
+     *
+     * @param key        项目唯一标识, 不能为空
+     * @param fromTs     开始不可见的时间, 不能为空
+     * @param toTs       不可见状态结束时间, 为空表示仍处于不可见
+     * @param reasonCode 不可见原因代码
+     * @param reasonMsg  不可见的原因描述
+     * @param detector   触发来源
+     * @return 还原后的 <code>Tombstone</code> 对象
+     */
+    public static TombstoneAggregate restore(ProjectKey key, Instant fromTs, Instant toTs, String reasonCode, String reasonMsg, String detector) {
+        TombstoneAggregate tombstone = new TombstoneAggregate(key, fromTs, reasonCode, reasonMsg, detector);
+        tombstone.toTs = toTs;
+        return tombstone;
+    }
+
     /**
      * 检查当前墓碑是否处于打开状态, 即项目是否仍然不可见
      *
@@ -1,14 +1,19 @@
 package xin.eason.smartfollow.domain.model.aggregate.project;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.ToString;
 import xin.eason.smartfollow.domain.model.vo.project.ProjectBriefVO;
 import xin.eason.smartfollow.domain.model.vo.project.ProjectKey;
 import xin.eason.smartfollow.types.enums.Visibility;
 import xin.eason.smartfollow.types.exceptions.AppException;
+import xin.eason.smartfollow.types.utils.HashUtils;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
 
 import static xin.eason.smartfollow.types.utils.FieldValidateUtils.requireNotBlank;
 import static xin.eason.smartfollow.types.utils.FieldValidateUtils.requireNotNull;
@@ -62,6 +67,17 @@ public class ProjectAggregate {
      * 额外 JSON 字符串
      */
     private String extra;           // 原始 JSON 字符串
+    /**
+     * 额外 JSON 的 SHA-256 (十六进制), 用于判断 extra 是否真正变化
+     */
+    private String extraHash;
+
+    // 脏字段追踪
+    /**
+     * 自上次持久化以来真正发生变化的字段
+     */
+    @Getter(AccessLevel.NONE)
+    private final EnumSet<ProjectField> dirtyFields = EnumSet.noneOf(ProjectField.class);
 
     /**
      * 工厂: 从项目简单快照创建 首次发现 的项目
@@ -85,6 +101,41 @@ public class ProjectAggregate {
         project.firstSeen = now;
         project.lastSeen = now;
         project.extra = brief.getRawJson();
+        project.extraHash = HashUtils.sha256Hex(project.extra);
+        // 首次发现的项目全部字段均需写入
+        project.dirtyFields.addAll(EnumSet.allOf(ProjectField.class));
+        return project;
+    }
+
+    /**
+     * 工厂: 从持久化数据重建项目聚合 (仅供仓储使用, 不做首次发现的默认值填充)
+     *
+     * @param key            项目唯一标识
+     * @param name           项目名称
+     * @param baseCurrency   结算币种
+     * @param lastVisibility 最后一次可见状态
+     * @param firstSeen      第一次可见时间
+     * @param lastSeen       最后一次可见时间
+     * @param minCopyCost    最小跟单数额
+     * @param status         项目运行状态
+     * @param extra          额外 JSON 字符串 (批量加载时可为空, 此时依赖 extraHash 判断变化)
+     * @param extraHash      额外 JSON 的 SHA-256, 为空时由 extra 计算
+     * @return 项目聚合对象
+     */
+    public static ProjectAggregate restore(ProjectKey key, String name, String baseCurrency, Visibility lastVisibility,
+                                           Instant firstSeen, Instant lastSeen, BigDecimal minCopyCost,
+                                           String status, String extra, String extraHash) {
+        requireNotNull(key, "key 不能为空");
+        ProjectAggregate project = new ProjectAggregate(key);
+        project.name = name;
+        project.baseCurrency = baseCurrency;
+        project.lastVisibility = lastVisibility;
+        project.firstSeen = firstSeen;
+        project.lastSeen = lastSeen;
+        project.minCopyCost = minCopyCost;
+        project.status = status;
+        project.extra = extra;
+        project.extraHash = extraHash != null ? extraHash : HashUtils.sha256Hex(extra);
         return project;
     }
 
@@ -96,13 +147,14 @@ public class ProjectAggregate {
      */
     public void addDetailFromBrief(ProjectBriefVO brief, Instant now) {
         requireNotNull(brief, "brief 不能为空");
-        this.lastVisibility = Visibility.VISIBLE;
+        setLastVisibility(Visibility.VISIBLE);
         if (brief.getName() != null && !brief.getName().isBlank())
-            this.name = brief.getName();
+            setName(brief.getName());
         if (brief.getBaseCurrency() != null && !brief.getBaseCurrency().isBlank())
-            this.baseCurrency = brief.getBaseCurrency().toUpperCase();
-        this.lastSeen = ensureMonotonic(this.lastSeen, now);
-        if (brief.getRawJson() != null && !brief.getRawJson().isBlank()) this.extra = brief.getRawJson();
+            setBaseCurrency(brief.getBaseCurrency().toUpperCase());
+        setLastSeen(ensureMonotonic(this.lastSeen, now));
+        if (brief.getRawJson() != null && !brief.getRawJson().isBlank())
+            setExtra(brief.getRawJson());
     }
 
     /**
@@ -113,19 +165,24 @@ public class ProjectAggregate {
         if (minCopyCost != null) {
             if (minCopyCost.signum() < 0)
                 throw AppException.of("minCopyCost 不能为负数");
-            this.minCopyCost = minCopyCost;
+            if (this.minCopyCost == null || this.minCopyCost.compareTo(minCopyCost) != 0) {
+                this.minCopyCost = minCopyCost;
+                dirtyFields.add(ProjectField.MIN_COPY_COST);
+            }
         }
-        if (status != null && !status.isBlank())
+        if (status != null && !status.isBlank() && !status.equals(this.status)) {
             this.status = status;
+            dirtyFields.add(ProjectField.STATUS);
+        }
         if (extraJson != null && !extraJson.isBlank())
-            this.extra = extraJson;
+            setExtra(extraJson);
     }
 
     /**
      * 标记项目丢失
      */
     public void markMissing() {
-        this.lastVisibility = Visibility.MISSING;
+        setLastVisibility(Visibility.MISSING);
     }
 
     /**
@@ -134,8 +191,8 @@ public class ProjectAggregate {
      * @param now 当前时间
      */
     public void restoreVisible(Instant now) {
-        this.lastVisibility = Visibility.VISIBLE;
-        this.lastSeen = ensureMonotonic(this.lastSeen, now);
+        setLastVisibility(Visibility.VISIBLE);
+        setLastSeen(ensureMonotonic(this.lastSeen, now));
     }
 
     /**
@@ -145,7 +202,7 @@ public class ProjectAggregate {
      */
     public void rename(String newName) {
         requireNotBlank(newName, "name 不能为空");
-        this.name = newName;
+        setName(newName);
     }
 
     /**
@@ -155,7 +212,84 @@ public class ProjectAggregate {
      */
     public void changeBaseCurrency(String newBaseCurrency) {
         requireNotBlank(newBaseCurrency, "baseCurrency 不能为空");
-        this.baseCurrency = newBaseCurrency.toUpperCase();
+        setBaseCurrency(newBaseCurrency.toUpperCase());
+    }
+
+    // ===== 脏字段追踪 =====
+
+    /**
+     * 获取自上次持久化以来发生变化的字段
+     *
+     * @return 脏字段集合 (副本)
+     */
+    public Set<ProjectField> getDirtyFields() {
+        return dirtyFields.isEmpty() ? EnumSet.noneOf(ProjectField.class) : EnumSet.copyOf(dirtyFields);
+    }
+
+    /**
+     * 是否存在未持久化的变化
+     *
+     * @return 存在脏字段时返回 true
+     */
+    public boolean isDirty() {
+        return !dirtyFields.isEmpty();
+    }
+
+    /**
+     * 持久化成功后清空脏字段 (仅供仓储使用)
+     */
+    public void markClean() {
+        dirtyFields.clear();
+    }
+
+    /**
+     * 清除指定字段的脏标记, 用于这些字段改由其他通道 (如写后缓冲) 持久化的场景
+     *
+     * @param fields 需要清除的字段
+     */
+    public void markClean(ProjectField... fields) {
+        for (ProjectField field : fields)
+            dirtyFields.remove(field);
+    }
+
+    private void setName(String name) {
+        if (!Objects.equals(this.name, name)) {
+            this.name = name;
+            dirtyFields.add(ProjectField.NAME);
+        }
+    }
+
+    private void setBaseCurrency(String baseCurrency) {
+        if (!Objects.equals(this.baseCurrency, baseCurrency)) {
+            this.baseCurrency = baseCurrency;
+            dirtyFields.add(ProjectField.BASE_CURRENCY);
+        }
+    }
+
+    private void setLastVisibility(Visibility visibility) {
+        if (this.lastVisibility != visibility) {
+            this.lastVisibility = visibility;
+            dirtyFields.add(ProjectField.LAST_VISIBILITY);
+        }
+    }
+
+    private void setLastSeen(Instant lastSeen) {
+        if (!Objects.equals(this.lastSeen, lastSeen)) {
+            this.lastSeen = lastSeen;
+            dirtyFields.add(ProjectField.LAST_SEEN);
+        }
+    }
+
+    /**
+     * 按内容哈希判断 extra 是否变化, 未变化时不替换也不标脏 (避免重写大字段)
+     */
+    private void setExtra(String extraJson) {
+        String hash = HashUtils.sha256Hex(extraJson);
+        if (hash.equals(this.extraHash))
+            return;
+        this.extra = extraJson;
+        this.extraHash = hash;
+        dirtyFields.add(ProjectField.EXTRA);
     }
 
     /**
@@ -185,7 +319,7 @@ public class ProjectAggregate {
      * @param now   当前时间戳
      * @return 单调递增的时间戳
      */
-    private static Instant ensureMonotonic(Instant oldTs, Instant now) {
+    public static Instant ensureMonotonic(Instant oldTs, Instant now) {
         if (oldTs == null)
             return now;
         return now.isAfter(oldTs) ? now : oldTs;
@@ -0,0 +1,18 @@
+package xin.eason.smartfollow.domain.model.aggregate.project;
+
+/**
+ * 项目主档可变字段, 用于 {@link ProjectAggregate} 的脏字段追踪
+ * <ul>
+ *     <li><code>NAME</code>: 项目名称</li>
+ *     <li><code>BASE_CURRENCY</code>: 结算币种</li>
+ *     <li><code>LAST_VISIBILITY</code>: 最后一次可见状态</li>
+ *     <li><code>FIRST_SEEN</code>: 第一次可见时间</li>
+ *     <li><code>LAST_SEEN</code>: 最后一次可见时间</li>
+ *     <li><code>MIN_COPY_COST</code>: 最小跟单数额</li>
+ *     <li><code>STATUS</code>: 项目运行状态</li>
+ *     <li><code>EXTRA</code>: 额外 JSON (与 extra_hash 一起写入)</li>
+ * </ul>
+ */
+public enum ProjectField {
+    NAME, BASE_CURRENCY, LAST_VISIBILITY, FIRST_SEEN, LAST_SEEN, MIN_COPY_COST, STATUS, EXTRA
+}
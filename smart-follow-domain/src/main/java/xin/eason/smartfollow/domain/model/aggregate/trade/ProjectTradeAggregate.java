@@ -3,7 +3,6 @@ package xin.eason.smartfollow.domain.model.aggregate.trade;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.ToString;
-import lombok.extern.slf4j.Slf4j;
 import xin.eason.smartfollow.domain.model.vo.project.ProjectKey;
 import xin.eason.smartfollow.domain.model.vo.trade.*;
 import xin.eason.smartfollow.types.enums.OrderType;
@@ -13,17 +12,13 @@ import xin.eason.smartfollow.types.exceptions.AppException;
 import xin.eason.smartfollow.types.exceptions.IllegalParamException;
 
 import java.math.BigDecimal;
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
 import java.time.Instant;
-import java.util.HexFormat;
 
 import static xin.eason.smartfollow.types.utils.FieldValidateUtils.*;
 
 /**
  * 单个仓位回合聚合根 (事实记录)
  */
-@Slf4j
 @Getter
 @ToString
 public class ProjectTradeAggregate {
@@ -173,8 +168,8 @@ public class ProjectTradeAggregate {
         requireNotNull(tsOpen, "tsOpen 不能为空");
         requireNotNull(status, "status 不能为空");
         require(source != null && !source.isBlank(), "source 不能为空");
-        require(entryPrice != null && entryPrice.signum() <= 0, "entryPrice 必须 > 0");
-        require(exitPrice != null && exitPrice.signum() <= 0, "exitPrice 必须 > 0");
+        require(entryPrice == null || entryPrice.signum() > 0, "entryPrice 必须 > 0");
+        require(exitPrice == null || exitPrice.signum() > 0, "exitPrice 必须 > 0");
 
         this.projectKey = projectKey;
         this.item = item;
@@ -258,18 +253,10 @@ public class ProjectTradeAggregate {
      * @param source    交易来源, 不能为空且非空白
      * @return 返回通过 {@code SHA-256} 哈希算法生成的字符串形式的 {@code tradeId}
      * @throws AppException 如果在生成过程中遇到任何异常, 将抛出此异常, 携带具体的错误信息
+     * @see TradeIdSynthesizer
      */
     public static String synthesizeId(ProjectKey key, ItemId inst, TradeSide side,
                                       Instant openTs, BigDecimal qty, BigDecimal price, String source) {
-        try {
-            String str = key.asString() + "|" + inst + "|" + side.name() + "|" +
-                    openTs.toEpochMilli() + "|" + (qty == null ? "" : qty.stripTrailingZeros().toPlainString()) + "|" +
-                    (price == null ? "" : price.stripTrailingZeros().toPlainString()) + "|" + source;
-            log.info("合成 tradeId: {}", str);
-            var md = MessageDigest.getInstance("SHA-256");
-            return HexFormat.of().formatHex(md.digest(str.getBytes(StandardCharsets.UTF_8)));
-        } catch (Exception e) {
-            throw AppException.of("生成合成 tradeId 失败: " + e.getMessage());
-        }
+        return TradeIdSynthesizer.synthesize(key, inst, side, openTs, qty, price, source);
     }
 }
@@ -0,0 +1,242 @@
+package xin.eason.smartfollow.domain.model.aggregate.trade;
+
+import xin.eason.smartfollow.domain.model.vo.project.ProjectKey;
+import xin.eason.smartfollow.domain.model.vo.trade.ItemId;
+import xin.eason.smartfollow.domain.model.vo.trade.TradeFillVO;
+import xin.eason.smartfollow.types.enums.TradeSide;
+import xin.eason.smartfollow.types.exceptions.AppException;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 合成 tradeId 生成器
+ * <p>结果与原实现逐位一致: SHA-256( UTF-8( <code>项目键|标的|方向|开仓毫秒|数量|价格|来源</code> ) ) 的小写十六进制,
+ * 数量 / 价格为 <code>stripTrailingZeros().toPlainString()</code>, 为空时写空串</p>
+ * <ul>
+ *     <li>每个线程复用一个 {@link MessageDigest} 与一块字节缓冲, 规范化字段直接编码进缓冲, 不拼接字符串</li>
+ *     <li>数值在 long 范围内去除尾随零并输出十进制, 超出范围时才回落到 BigDecimal 的字符串形式</li>
+ *     <li>十六进制编码写入复用的字节数组, 每个 ID 只创建结果字符串本身</li>
+ * </ul>
+ */
+public final class TradeIdSynthesizer {
+
+    private static final byte SEP = '|';
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final ThreadLocal<State> STATE = ThreadLocal.withInitial(State::new);
+
+    private TradeIdSynthesizer() {
+    }
+
+    /**
+     * 生成单个合成 tradeId
+     *
+     * @param key    项目键
+     * @param inst   标的
+     * @param side   方向
+     * @param openTs 开仓时间
+     * @param qty    数量, 可为空
+     * @param price  价格, 可为空
+     * @param source 来源
+     * @return 64 位小写十六进制
+     */
+    public static String synthesize(ProjectKey key, ItemId inst, TradeSide side,
+                                    Instant openTs, BigDecimal qty, BigDecimal price, String source) {
+        return STATE.get().synthesize(key, inst, side, openTs.toEpochMilli(), qty, price, source);
+    }
+
+    /**
+     * 为一页开仓成交批量生成合成 tradeId (以开仓成交的时间, 数量, 价格为自然键), 整批共用同一份线程状态
+     *
+     * @param opens 开仓成交
+     * @return 与输入一一对应的 tradeId
+     */
+    public static String[] synthesizeAll(List<TradeFillVO> opens) {
+        State state = STATE.get();
+        String[] ids = new String[opens.size()];
+        for (int i = 0; i < ids.length; i++) {
+            TradeFillVO fill = opens.get(i);
+            ids[i] = state.synthesize(fill.projectKey(), fill.item(), fill.side(), fill.ts().toEpochMilli(),
+                    fill.qty(), fill.price(), fill.source());
+        }
+        return ids;
+    }
+
+    /**
+     * 单个线程的摘要器与缓冲
+     */
+    private static final class State {
+
+        private final MessageDigest digest;
+        private final byte[] hash = new byte[32];
+        private final byte[] hex = new byte[64];
+        private byte[] buf = new byte[256];
+        private int len;
+
+        private State() {
+            try {
+                digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new AppException("生成合成 tradeId 失败: " + e.getMessage(), e);
+            }
+        }
+
+        private String synthesize(ProjectKey key, ItemId inst, TradeSide side, long openTsMs,
+                                  BigDecimal qty, BigDecimal price, String source) {
+            len = 0;
+            putAscii(key.exchange().name());
+            put((byte) ':');
+            putUtf8(key.externalId());
+            put(SEP);
+            putUtf8(inst.itemType());
+            put((byte) ':');
+            putUtf8(inst.symbol());
+            put(SEP);
+            putAscii(side.name());
+            put(SEP);
+            putLong(openTsMs);
+            put(SEP);
+            putDecimal(qty);
+            put(SEP);
+            putDecimal(price);
+            put(SEP);
+            putUtf8(source);
+
+            digest.update(buf, 0, len);
+            try {
+                digest.digest(hash, 0, hash.length);
+            } catch (DigestException e) {
+                throw new AppException("生成合成 tradeId 失败: " + e.getMessage(), e);
+            }
+            for (int i = 0; i < hash.length; i++) {
+                hex[i << 1] = HEX[(hash[i] >> 4) & 0xF];
+                hex[(i << 1) + 1] = HEX[hash[i] & 0xF];
+            }
+            return new String(hex, StandardCharsets.ISO_8859_1);
+        }
+
+        // ===== 编码 =====
+
+        private void put(byte b) {
+            if (len == buf.length)
+                buf = Arrays.copyOf(buf, buf.length << 1);
+            buf[len++] = b;
+        }
+
+        private void putAscii(String s) {
+            for (int i = 0; i < s.length(); i++)
+                put((byte) s.charAt(i));
+        }
+
+        /**
+         * 与 {@link String#getBytes(java.nio.charset.Charset)} (UTF-8) 相同的编码, 孤立的代理字符输出 '?'
+         */
+        private void putUtf8(String s) {
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                if (c < 0x80) {
+                    put((byte) c);
+                } else if (c < 0x800) {
+                    put((byte) (0xC0 | (c >> 6)));
+                    put((byte) (0x80 | (c & 0x3F)));
+                } else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, s.charAt(++i));
+                    put((byte) (0xF0 | (cp >> 18)));
+                    put((byte) (0x80 | ((cp >> 12) & 0x3F)));
+                    put((byte) (0x80 | ((cp >> 6) & 0x3F)));
+                    put((byte) (0x80 | (cp & 0x3F)));
+                } else if (Character.isSurrogate(c)) {
+                    put((byte) '?');
+                } else {
+                    put((byte) (0xE0 | (c >> 12)));
+                    put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                    put((byte) (0x80 | (c & 0x3F)));
+                }
+            }
+        }
+
+        private void putLong(long v) {
+            if (v == Long.MIN_VALUE) {
+                putAscii(Long.toString(v));
+                return;
+            }
+            if (v < 0) {
+                put((byte) '-');
+                v = -v;
+            }
+            int start = len;
+            do {
+                put((byte) ('0' + v % 10));
+                v /= 10;
+            } while (v != 0);
+            reverse(start, len - 1);
+        }
+
+        /**
+         * 写出 <code>value.stripTrailingZeros().toPlainString()</code>, 为空时不写
+         */
+        private void putDecimal(BigDecimal value) {
+            if (value == null)
+                return;
+            BigInteger unscaledBig = value.unscaledValue();
+            if (unscaledBig.bitLength() > 62) {
+                putAscii(value.stripTrailingZeros().toPlainString());
+                return;
+            }
+            long unscaled = unscaledBig.longValue();
+            int scale = value.scale();
+            if (unscaled == 0) {
+                put((byte) '0');
+                return;
+            }
+            while (scale > 0 && unscaled % 10 == 0) {
+                unscaled /= 10;
+                scale--;
+            }
+            if (scale <= 0) {
+                // 整数: 去零后的数字再补回 -scale 个零
+                putLong(unscaled);
+                for (int i = 0; i < -scale; i++)
+                    put((byte) '0');
+                return;
+            }
+            if (unscaled < 0) {
+                put((byte) '-');
+                unscaled = -unscaled;
+            }
+            int start = len;
+            int digits = 0;
+            do {
+                put((byte) ('0' + unscaled % 10));
+                unscaled /= 10;
+                digits++;
+                if (digits == scale)
+                    put((byte) '.');
+            } while (unscaled != 0);
+            // 小数位多于有效数字时补前导零: 0.00x
+            if (digits < scale) {
+                for (int i = digits; i < scale; i++)
+                    put((byte) '0');
+                put((byte) '.');
+            }
+            if (digits <= scale)
+                put((byte) '0');
+            reverse(start, len - 1);
+        }
+
+        private void reverse(int from, int to) {
+            while (from < to) {
+                byte t = buf[from];
+                buf[from++] = buf[to];
+                buf[to--] = t;
+            }
+        }
+    }
+}
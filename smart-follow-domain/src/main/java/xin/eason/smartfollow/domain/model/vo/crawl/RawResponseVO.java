@@ -0,0 +1,56 @@
+package xin.eason.smartfollow.domain.model.vo.crawl;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import xin.eason.smartfollow.types.enums.Exchange;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * 归档的原始响应, 一次抓取 (crawl_log) 对应的响应体原文
+ * <p>相同内容 (contentHash 相同) 的响应体在归档中只保存一份, 多条 crawl_log 共享同一份原文</p>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RawResponseVO {
+    /**
+     * 对应的抓取日志 ID (crawl_log.id)
+     */
+    private Long crawlLogId;
+    /**
+     * 交易所
+     */
+    private Exchange exchange;
+    /**
+     * 规范化抓取目标 (URL), 用于回放时路由到对应的解析器
+     */
+    private String target;
+    /**
+     * 请求开始时间
+     */
+    private Instant startedAt;
+    /**
+     * 响应体内容哈希 (SHA-256, 64 位十六进制)
+     */
+    private String contentHash;
+    /**
+     * 响应体原文字节
+     */
+    @ToString.Exclude
+    private byte[] body;
+
+    /**
+     * 以 UTF-8 解码响应体原文
+     *
+     * @return 响应体字符串, 响应体为空时返回 <code>null</code>
+     */
+    public String bodyAsString() {
+        return body == null ? null : new String(body, StandardCharsets.UTF_8);
+    }
+}
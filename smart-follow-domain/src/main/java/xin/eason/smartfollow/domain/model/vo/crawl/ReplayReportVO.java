@@ -0,0 +1,38 @@
+package xin.eason.smartfollow.domain.model.vo.crawl;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 离线回放结果统计
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReplayReportVO {
+    /**
+     * 遍历的归档响应条数
+     */
+    private long total;
+    /**
+     * 被处理器成功处理的条数
+     */
+    private long handled;
+    /**
+     * 没有处理器支持的条数
+     */
+    private long unhandled;
+    /**
+     * 处理失败的条数
+     */
+    private long failed;
+    /**
+     * 回放的响应体总字节数
+     */
+    private long bytes;
+    /**
+     * 回放耗时 (毫秒)
+     */
+    private long elapsedMs;
+}
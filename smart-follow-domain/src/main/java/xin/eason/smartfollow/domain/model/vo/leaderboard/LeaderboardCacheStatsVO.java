@@ -0,0 +1,48 @@
+package xin.eason.smartfollow.domain.model.vo.leaderboard;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 榜单查询结果缓存统计
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardCacheStatsVO {
+    /**
+     * 累计命中次数
+     */
+    private long hits;
+    /**
+     * 累计未命中次数
+     */
+    private long misses;
+    /**
+     * 累计因容量 / 字节预算淘汰的条目数
+     */
+    private long evictions;
+    /**
+     * 累计因新版本发布而整体失效的次数
+     */
+    private long invalidations;
+    /**
+     * 当前条目数
+     */
+    private int entries;
+    /**
+     * 当前估算字节数
+     */
+    private long bytes;
+
+    /**
+     * 命中率, 尚无请求时为 0
+     *
+     * @return 命中率 (0~1)
+     */
+    public double hitRatio() {
+        long total = hits + misses;
+        return total == 0 ? 0D : (double) hits / total;
+    }
+}
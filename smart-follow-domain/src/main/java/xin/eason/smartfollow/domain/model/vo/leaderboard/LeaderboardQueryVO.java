@@ -0,0 +1,112 @@
+package xin.eason.smartfollow.domain.model.vo.leaderboard;
+
+import xin.eason.smartfollow.domain.model.vo.project.LeadTradersQuery;
+import xin.eason.smartfollow.types.exceptions.IllegalParamException;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 规范化后的榜单查询条件, 由 {@link LeadTradersQuery} 解析得到 (字符串数值已解析, 默认值已填充)
+ * <p>两个语义相同的查询规范化后相等, 可直接作为缓存键</p>
+ *
+ * @param instType    产品类型 (大写)
+ * @param sortType    排序字段 (小写)
+ * @param vacantOnly  是否只看有空位的交易员 (state = 1)
+ * @param minLeadDays 最短带单天数, 0 表示不限制
+ * @param minAum      带单规模下限, 不限制时为负无穷
+ * @param maxAum      带单规模上限, 不限制时为正无穷
+ * @param assetsRange 是否带有交易员资产范围条件 (榜单数据不含资产字段, 查询时以参数错误拒绝)
+ * @param dataVer     指定的数据版本, 为空表示最新版本
+ * @param page        页码 (从 1 开始)
+ * @param limit       每页条数
+ */
+public record LeaderboardQueryVO(String instType, String sortType, boolean vacantOnly, int minLeadDays,
+                                 double minAum, double maxAum, boolean assetsRange, String dataVer,
+                                 int page, int limit) {
+
+    /**
+     * 支持的排序字段
+     */
+    public static final Set<String> SORT_TYPES = Set.of("overview", "pnl", "aum", "win_ratio", "pnl_ratio",
+            "current_copy_trader_pnl");
+    /**
+     * 每页条数上限
+     */
+    public static final int MAX_LIMIT = 100;
+
+    /**
+     * 解析并规范化查询条件
+     *
+     * @param query 原始查询条件
+     * @return 规范化后的查询条件
+     * @throws IllegalParamException 参数格式非法时抛出
+     */
+    public static LeaderboardQueryVO of(LeadTradersQuery query) {
+        if (query == null)
+            throw IllegalParamException.of("query 不能为空");
+        String instType = isBlank(query.getInstType()) ? "SWAP" : query.getInstType().trim().toUpperCase(Locale.ROOT);
+        String sortType = isBlank(query.getSortType()) ? "overview" : query.getSortType().trim().toLowerCase(Locale.ROOT);
+        if (!SORT_TYPES.contains(sortType))
+            throw IllegalParamException.of("sortType 不支持: " + query.getSortType());
+        boolean vacantOnly = "1".equals(trim(query.getState()));
+        double minAum = parseBound(query.getMinAum(), "minAum", Double.NEGATIVE_INFINITY);
+        double maxAum = parseBound(query.getMaxAum(), "maxAum", Double.POSITIVE_INFINITY);
+        if (minAum > maxAum)
+            throw IllegalParamException.of("minAum 不能大于 maxAum");
+        boolean assetsRange = !isBlank(query.getMinAssets()) || !isBlank(query.getMaxAssets());
+        int page = query.getPage() == null ? 1 : query.getPage();
+        int limit = query.getLimit() == null ? 20 : query.getLimit();
+        if (page < 1)
+            throw IllegalParamException.of("page 必须大于 0");
+        if (limit < 1 || limit > MAX_LIMIT)
+            throw IllegalParamException.of("limit 必须在 1 ~ " + MAX_LIMIT + " 之间");
+        return new LeaderboardQueryVO(instType, sortType, vacantOnly, parseLeadDays(query.getMinLeadDays()),
+                minAum, maxAum, assetsRange, isBlank(query.getDataVer()) ? null : query.getDataVer().trim(), page, limit);
+    }
+
+    /**
+     * 替换数据版本 (将 "最新版本" 固定为具体版本, 便于缓存)
+     *
+     * @param resolvedDataVer 实际使用的数据版本
+     * @return 新的查询条件
+     */
+    public LeaderboardQueryVO withDataVer(String resolvedDataVer) {
+        return new LeaderboardQueryVO(instType, sortType, vacantOnly, minLeadDays, minAum, maxAum, assetsRange,
+                resolvedDataVer, page, limit);
+    }
+
+    /**
+     * 最短带单时长档位 → 天数 (1: 7 天, 2: 30 天, 3: 90 天, 4: 180 天)
+     */
+    private static int parseLeadDays(String level) {
+        String value = trim(level);
+        if (value == null || value.isEmpty())
+            return 0;
+        return switch (value) {
+            case "1" -> 7;
+            case "2" -> 30;
+            case "3" -> 90;
+            case "4" -> 180;
+            default -> throw IllegalParamException.of("minLeadDays 不支持: " + level);
+        };
+    }
+
+    private static double parseBound(String text, String name, double unbounded) {
+        if (isBlank(text))
+            return unbounded;
+        try {
+            return Double.parseDouble(text.trim());
+        } catch (NumberFormatException e) {
+            throw IllegalParamException.of(name + " 不是合法数字: " + text);
+        }
+    }
+
+    private static boolean isBlank(String text) {
+        return text == null || text.isBlank();
+    }
+
+    private static String trim(String text) {
+        return text == null ? null : text.trim();
+    }
+}
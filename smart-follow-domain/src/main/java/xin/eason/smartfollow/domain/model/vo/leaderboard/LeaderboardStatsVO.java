@@ -0,0 +1,42 @@
+package xin.eason.smartfollow.domain.model.vo.leaderboard;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 内存榜单运行统计
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardStatsVO {
+    /**
+     * 当前持有的榜单版本数 (全部产品类型)
+     */
+    private int versions;
+    /**
+     * 当前持有的榜单行数 (全部版本)
+     */
+    private long rows;
+    /**
+     * 列式数组与排序索引的估算内存占用 (字节)
+     */
+    private long memoryBytes;
+    /**
+     * 累计发布的榜单版本数
+     */
+    private long published;
+    /**
+     * 累计查询次数
+     */
+    private long queryCount;
+    /**
+     * 累计查询耗时 (纳秒)
+     */
+    private long queryTotalNanos;
+    /**
+     * 单次查询最大耗时 (纳秒)
+     */
+    private long queryMaxNanos;
+}
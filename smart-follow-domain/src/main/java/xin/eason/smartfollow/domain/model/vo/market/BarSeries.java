@@ -0,0 +1,61 @@
+package xin.eason.smartfollow.domain.model.vo.market;
+
+/**
+ * 按开盘时间升序的一段 K 线的只读视图
+ * <p>实现可以直接引用底层存储 (如内存映射文件) 而不复制; 下标从 0 开始, 越界时抛出 {@link IndexOutOfBoundsException}</p>
+ */
+public interface BarSeries {
+
+    /**
+     * 空序列
+     */
+    BarSeries EMPTY = new BarSeries() {
+        @Override
+        public int size() {
+            return 0;
+        }
+
+        @Override
+        public long ts(int i) {
+            throw new IndexOutOfBoundsException(i);
+        }
+
+        @Override
+        public double open(int i) {
+            throw new IndexOutOfBoundsException(i);
+        }
+
+        @Override
+        public double high(int i) {
+            throw new IndexOutOfBoundsException(i);
+        }
+
+        @Override
+        public double low(int i) {
+            throw new IndexOutOfBoundsException(i);
+        }
+
+        @Override
+        public double close(int i) {
+            throw new IndexOutOfBoundsException(i);
+        }
+    };
+
+    /**
+     * @return K 线根数
+     */
+    int size();
+
+    /**
+     * @return 第 i 根 K 线的开盘时间 (毫秒)
+     */
+    long ts(int i);
+
+    double open(int i);
+
+    double high(int i);
+
+    double low(int i);
+
+    double close(int i);
+}
@@ -0,0 +1,13 @@
+package xin.eason.smartfollow.domain.model.vo.market;
+
+/**
+ * 一根 OHLC K 线
+ *
+ * @param ts    开盘时间 (毫秒)
+ * @param open  开盘价
+ * @param high  最高价
+ * @param low   最低价
+ * @param close 收盘价
+ */
+public record BarVO(long ts, double open, double high, double low, double close) {
+}
@@ -0,0 +1,30 @@
+package xin.eason.smartfollow.domain.model.vo.observation;
+
+import xin.eason.smartfollow.domain.model.vo.project.ProjectKey;
+
+/**
+ * 项目在一个时间窗口内某个指标的统计, 由内存历史计算 (缺失值不参与统计)
+ *
+ * @param key    项目唯一标识
+ * @param points 参与统计的行数 (含窗口起点之前带入的一行)
+ * @param first  窗口起点的值
+ * @param last   窗口内最后的值
+ * @param min    最小值
+ * @param max    最大值
+ */
+public record HistoryStatVO(ProjectKey key, int points, double first, double last, double min, double max) {
+
+    /**
+     * @return 窗口内的变化量
+     */
+    public double change() {
+        return last - first;
+    }
+
+    /**
+     * @return 窗口内的相对变化, 起点为 0 时返回 {@link Double#NaN}
+     */
+    public double changeRatio() {
+        return first == 0 ? Double.NaN : last / first - 1;
+    }
+}
@@ -0,0 +1,63 @@
+package xin.eason.smartfollow.domain.model.vo.observation;
+
+import xin.eason.smartfollow.types.exceptions.AppException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * 快照汇总分辨率
+ * <ul>
+ *     <li><code>H1</code>: 1 小时桶, 由原始快照计算</li>
+ *     <li><code>D1</code>: 1 天桶 (UTC 自然日), 由 24 个 1 小时桶合并</li>
+ * </ul>
+ */
+public enum RollupResolution {
+    H1("1h", Duration.ofHours(1)), D1("1d", Duration.ofDays(1));
+
+    /**
+     * 持久化代码
+     */
+    private final String code;
+    /**
+     * 桶宽
+     */
+    private final Duration step;
+
+    RollupResolution(String code, Duration step) {
+        this.code = code;
+        this.step = step;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public Duration getStep() {
+        return step;
+    }
+
+    /**
+     * 将时间向下取整到桶起点
+     *
+     * @param ts 时间
+     * @return 所在桶的起点
+     */
+    public Instant floor(Instant ts) {
+        return ts.truncatedTo(this == H1 ? ChronoUnit.HOURS : ChronoUnit.DAYS);
+    }
+
+    /**
+     * 由持久化代码解析分辨率
+     *
+     * @param code 持久化代码 (1h / 1d)
+     * @return 分辨率
+     */
+    public static RollupResolution parse(String code) {
+        for (RollupResolution resolution : values())
+            if (resolution.code.equals(code))
+                return resolution;
+        throw AppException.of("非法的汇总分辨率: " + code);
+    }
+}
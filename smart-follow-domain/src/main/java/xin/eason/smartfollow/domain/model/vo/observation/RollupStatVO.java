@@ -0,0 +1,14 @@
+package xin.eason.smartfollow.domain.model.vo.observation;
+
+import java.math.BigDecimal;
+
+/**
+ * 单个指标在一个汇总桶内的统计
+ *
+ * @param last 桶内最后一个值
+ * @param min  最小值
+ * @param max  最大值
+ * @param avg  按持续时间加权的平均值
+ */
+public record RollupStatVO(BigDecimal last, BigDecimal min, BigDecimal max, BigDecimal avg) {
+}
@@ -0,0 +1,56 @@
+package xin.eason.smartfollow.domain.model.vo.observation;
+
+import xin.eason.smartfollow.types.exceptions.IllegalParamException;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+
+/**
+ * 可降采样的时序指标
+ * <ul>
+ *     <li><code>AUM_USD</code>: 带单规模</li>
+ *     <li><code>FOLLOWERS</code>: 跟随者数量</li>
+ *     <li><code>WIN_RATIO</code>: 胜率</li>
+ *     <li><code>PNL_RATIO_90D</code>: 近 90 日收益率</li>
+ *     <li><code>PNL_90D_USD</code>: 近 90 日收益</li>
+ * </ul>
+ */
+public enum SeriesMetric {
+    AUM_USD, FOLLOWERS, WIN_RATIO, PNL_RATIO_90D, PNL_90D_USD;
+
+    /**
+     * 取时序点上该指标的数值
+     *
+     * @param point 时序点
+     * @return 指标值, 缺失时返回 {@link Double#NaN}
+     */
+    public double valueOf(SnapshotPointVO point) {
+        return switch (this) {
+            case AUM_USD -> toDouble(point.getAumUsd());
+            case FOLLOWERS -> point.getFollowers() == null ? Double.NaN : point.getFollowers();
+            case WIN_RATIO -> toDouble(point.getWinRatio());
+            case PNL_RATIO_90D -> toDouble(point.getPnlRatio90d());
+            case PNL_90D_USD -> toDouble(point.getPnl90dUsd());
+        };
+    }
+
+    /**
+     * 将请求参数解析为指标 (忽略大小写), 非法值抛 IllegalParamException
+     *
+     * @param string 字符串值, 如 <code>aum_usd</code>
+     * @return 指标
+     */
+    public static SeriesMetric parse(String string) {
+        if (string == null || string.isBlank())
+            throw IllegalParamException.of("metric 不能为空");
+        try {
+            return valueOf(string.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw IllegalParamException.of("非法的 metric 值: " + string);
+        }
+    }
+
+    private static double toDouble(BigDecimal value) {
+        return value == null ? Double.NaN : value.doubleValue();
+    }
+}
@@ -0,0 +1,54 @@
+package xin.eason.smartfollow.domain.model.vo.observation;
+
+import xin.eason.smartfollow.domain.model.aggregate.observation.ProjectSnapshotAggregate;
+import xin.eason.smartfollow.types.enums.Visibility;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * 快照指标向量, 用于判断相邻两次观察是否有变化 (数值按大小比较, 忽略精度差异)
+ *
+ * @param aumUsd      带单规模
+ * @param followers   跟随者数量
+ * @param winRatio    胜率
+ * @param pnlRatio90d 近 90 日收益率
+ * @param pnl90dUsd   近 90 日收益
+ * @param visibility  可见性
+ */
+public record SnapshotMetricVO(BigDecimal aumUsd, Integer followers, BigDecimal winRatio,
+                               BigDecimal pnlRatio90d, BigDecimal pnl90dUsd, Visibility visibility) {
+
+    /**
+     * 从快照聚合提取指标向量
+     *
+     * @param snapshot 快照聚合
+     * @return 指标向量
+     */
+    public static SnapshotMetricVO of(ProjectSnapshotAggregate snapshot) {
+        return new SnapshotMetricVO(snapshot.getAumUsd(), snapshot.getFollowers(), snapshot.getWinRatio(),
+                snapshot.getPnlRatio90d(), snapshot.getPnl90dUsd(), snapshot.getVisibility());
+    }
+
+    /**
+     * 判断两个指标向量是否相同
+     *
+     * @param other 另一个指标向量
+     * @return 全部指标相同时返回 true
+     */
+    public boolean sameAs(SnapshotMetricVO other) {
+        return other != null
+                && visibility == other.visibility
+                && Objects.equals(followers, other.followers)
+                && sameNumber(aumUsd, other.aumUsd)
+                && sameNumber(winRatio, other.winRatio)
+                && sameNumber(pnlRatio90d, other.pnlRatio90d)
+                && sameNumber(pnl90dUsd, other.pnl90dUsd);
+    }
+
+    private static boolean sameNumber(BigDecimal a, BigDecimal b) {
+        if (a == null || b == null)
+            return a == b;
+        return a.compareTo(b) == 0;
+    }
+}
@@ -0,0 +1,21 @@
+package xin.eason.smartfollow.domain.model.vo.observation;
+
+import xin.eason.smartfollow.types.enums.SnapshotSource;
+
+import java.time.Instant;
+
+/**
+ * 一个项目, 一个来源在一个汇总桶内的快照统计
+ *
+ * @param projectId  数据库主键 (exchange_project.id)
+ * @param source     快照来源
+ * @param resolution 分辨率
+ * @param bucketTs   桶起点
+ * @param coveredMs  桶内有观察值覆盖的毫秒数 (合并为更粗分辨率时作为均值权重)
+ * @param aum        带单规模统计
+ * @param followers  跟随者数量统计
+ * @param pnl        近 90 日收益统计
+ */
+public record SnapshotRollupVO(long projectId, SnapshotSource source, RollupResolution resolution, Instant bucketTs,
+                               long coveredMs, RollupStatVO aum, RollupStatVO followers, RollupStatVO pnl) {
+}
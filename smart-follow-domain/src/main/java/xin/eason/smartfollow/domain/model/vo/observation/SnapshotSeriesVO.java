@@ -0,0 +1,14 @@
+package xin.eason.smartfollow.domain.model.vo.observation;
+
+import java.util.List;
+
+/**
+ * 降采样后的时序
+ *
+ * @param metric     降采样依据的指标
+ * @param resolution 数据分辨率 (<code>raw</code> / <code>1h</code> / <code>1d</code>)
+ * @param rawPoints  降采样前的点数 (指标缺失的点不计入)
+ * @param points     降采样后的时序点, 按时间升序
+ */
+public record SnapshotSeriesVO(SeriesMetric metric, String resolution, int rawPoints, List<SnapshotPointVO> points) {
+}
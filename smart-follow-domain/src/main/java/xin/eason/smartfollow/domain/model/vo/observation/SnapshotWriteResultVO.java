@@ -0,0 +1,38 @@
+package xin.eason.smartfollow.domain.model.vo.observation;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 批量写入快照的结果统计
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SnapshotWriteResultVO {
+    /**
+     * 提交的快照数量
+     */
+    private int total;
+    /**
+     * 实际插入的行数
+     */
+    private int inserted;
+    /**
+     * 因唯一键重复被忽略的行数
+     */
+    private int ignored;
+    /**
+     * 指标未变化, 只延长上一行 valid_until 的快照数量
+     */
+    private int extended;
+    /**
+     * 项目未注册 (无法解析 project_id) 而跳过的快照数量
+     */
+    private int skipped;
+    /**
+     * 执行的 SQL 语句数 (分块数)
+     */
+    private int statements;
+}
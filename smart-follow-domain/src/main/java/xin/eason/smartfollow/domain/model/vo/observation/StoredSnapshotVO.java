@@ -0,0 +1,45 @@
+package xin.eason.smartfollow.domain.model.vo.observation;
+
+import xin.eason.smartfollow.types.enums.SnapshotSource;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * 已落库的一行快照 (增量压缩后的区间表示): 指标在 [ts, validUntil] 内保持不变
+ *
+ * @param projectId  数据库主键 (exchange_project.id)
+ * @param source     快照来源
+ * @param ts         该行指标首次被观察到的时间
+ * @param validUntil 最后一次观察到相同指标的时间, 为空表示只观察到一次
+ * @param dataVer    首次观察时的数据版本号
+ * @param metrics    指标向量
+ */
+public record StoredSnapshotVO(long projectId, SnapshotSource source, Instant ts, Instant validUntil,
+                               String dataVer, SnapshotMetricVO metrics) {
+
+    /**
+     * 一行快照的最大跨度: 指标不变但距该行 ts 已达此时长时新起一行;
+     * 因此覆盖某一时刻的行一定在该时刻之前的这段时间内开始, "最后一行" 查询以此作为回查下界 (用于分区裁剪)
+     */
+    public static final Duration MAX_SPAN = Duration.ofDays(7);
+
+    /**
+     * 区间的结束时间 (无 validUntil 时等于 ts)
+     *
+     * @return 结束时间
+     */
+    public Instant end() {
+        return validUntil == null || validUntil.isBefore(ts) ? ts : validUntil;
+    }
+
+    /**
+     * 以新的结束时间生成副本
+     *
+     * @param newValidUntil 新的结束时间
+     * @return 新对象
+     */
+    public StoredSnapshotVO extendTo(Instant newValidUntil) {
+        return new StoredSnapshotVO(projectId, source, ts, newValidUntil, dataVer, metrics);
+    }
+}
@@ -0,0 +1,36 @@
+package xin.eason.smartfollow.domain.model.vo.observation;
+
+import java.time.Instant;
+import java.util.BitSet;
+
+/**
+ * 某一时刻的可见性横截面
+ *
+ * @param asOf      查询时刻
+ * @param invisible 该时刻处于不可见状态的项目 (下标为稠密编号, 只读)
+ * @param universe  参与统计的项目总数 (首次出现时间不晚于查询时刻的项目, 首次出现时间未知的视为一直存在)
+ */
+public record TombstoneCrossSectionVO(Instant asOf, BitSet invisible, int universe) {
+
+    /**
+     * @return 不可见项目数量
+     */
+    public int invisibleCount() {
+        return invisible.cardinality();
+    }
+
+    /**
+     * @return 可见项目数量
+     */
+    public int visibleCount() {
+        return universe - invisibleCount();
+    }
+
+    /**
+     * @param denseId 稠密编号
+     * @return 该项目在此时刻是否可见
+     */
+    public boolean isVisible(int denseId) {
+        return !invisible.get(denseId);
+    }
+}
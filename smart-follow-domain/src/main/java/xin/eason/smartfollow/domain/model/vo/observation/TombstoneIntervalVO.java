@@ -0,0 +1,15 @@
+package xin.eason.smartfollow.domain.model.vo.observation;
+
+import xin.eason.smartfollow.domain.model.vo.project.ProjectKey;
+
+import java.time.Instant;
+
+/**
+ * 墓碑不可见区间 <code>[fromTs, toTs)</code>
+ *
+ * @param projectKey 项目唯一标识
+ * @param fromTs     开始不可见的时间
+ * @param toTs       不可见结束时间, 为空表示仍处于不可见
+ */
+public record TombstoneIntervalVO(ProjectKey projectKey, Instant fromTs, Instant toTs) {
+}
@@ -3,6 +3,7 @@ package xin.eason.smartfollow.domain.model.vo.observation;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectKey;
 import xin.eason.smartfollow.types.enums.Visibility;
 
 import java.time.Instant;
@@ -14,6 +15,10 @@ import java.time.Instant;
 @NoArgsConstructor
 @AllArgsConstructor
 public class VisibilityChangeVO {
+    /**
+     * 项目唯一标识
+     */
+    private ProjectKey projectKey;
     /**
      * 从某个状态开始变化
      *
@@ -0,0 +1,21 @@
+package xin.eason.smartfollow.domain.model.vo.observation;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * 一次榜单扫描的可见性差分结果
+ *
+ * @param scope       扫描范围 (如 instType), 不同范围的成员集合互不比较
+ * @param dataVer     本次扫描的数据版本号
+ * @param atTs        扫描时间
+ * @param members     本次扫描的成员数量
+ * @param appeared    相对上一次扫描新出现的项目数量
+ * @param disappeared 相对上一次扫描消失的项目数量
+ * @param skipped     未注册 (无法分配稠密编号) 而跳过的项目数量
+ * @param baseline    是否为本进程内该范围的首次扫描 (只建立基线, 不判定消失)
+ * @param changes     本次产生的可见性变化事件
+ */
+public record VisibilitySweepVO(String scope, String dataVer, Instant atTs, int members, int appeared, int disappeared,
+                                int skipped, boolean baseline, List<VisibilityChangeVO> changes) {
+}
@@ -0,0 +1,12 @@
+package xin.eason.smartfollow.domain.model.vo.partition;
+
+/**
+ * 单个分区转入冷存储的结果
+ *
+ * @param table     分区表
+ * @param partition 分区名
+ * @param rows      冷存储中的行数
+ * @param detached  是否已从 MySQL 摘除
+ */
+public record ColdArchiveVO(PartitionedTable table, String partition, long rows, boolean detached) {
+}
@@ -0,0 +1,21 @@
+package xin.eason.smartfollow.domain.model.vo.partition;
+
+import java.time.LocalDate;
+
+/**
+ * 单个分区的状态
+ *
+ * @param name       分区名
+ * @param lessThan   分区上界 (不包含), 兜底分区为 <code>null</code>
+ * @param rows       行数 (information_schema 的统计估算值)
+ * @param dataBytes  数据 + 索引占用字节数
+ */
+public record PartitionInfoVO(String name, LocalDate lessThan, long rows, long dataBytes) {
+
+    /**
+     * @return 是否为兜底分区 (VALUES LESS THAN MAXVALUE)
+     */
+    public boolean isMax() {
+        return lessThan == null;
+    }
+}
@@ -0,0 +1,29 @@
+package xin.eason.smartfollow.domain.model.vo.partition;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * 单张表一次分区维护的结果
+ *
+ * @param table      分区表
+ * @param atTs       维护时间
+ * @param created    新建的分区
+ * @param dropped    删除的分区
+ * @param archived   交换出的归档表
+ * @param partitions 维护完成后的分区状态 (按上界升序)
+ * @param skipped    需要切出但因兜底分区非空而跳过的分区 (需要人工处理)
+ */
+public record PartitionMaintenanceVO(PartitionedTable table, Instant atTs, List<String> created, List<String> dropped,
+                                     List<String> archived, List<PartitionInfoVO> partitions, List<String> skipped) {
+
+    /**
+     * @return 兜底分区的估算行数, 不存在时返回 0
+     */
+    public long maxPartitionRows() {
+        for (PartitionInfoVO partition : partitions)
+            if (partition.isMax())
+                return partition.rows();
+        return 0L;
+    }
+}
@@ -0,0 +1,24 @@
+package xin.eason.smartfollow.domain.model.vo.partition;
+
+import java.util.Map;
+
+/**
+ * 分区维护策略
+ *
+ * @param aheadMonths     提前创建的月份数 (不含当月)
+ * @param retentionMonths 各表保留的月份数 (不含当月), 缺省或不大于 0 表示永久保留
+ * @param retentionMode   过期分区的处理方式
+ */
+public record PartitionPolicyVO(int aheadMonths, Map<PartitionedTable, Integer> retentionMonths, RetentionMode retentionMode) {
+
+    /**
+     * @param table 分区表
+     * @return 该表保留的月份数, 不清理时返回 0
+     */
+    public int retentionOf(PartitionedTable table) {
+        if (retentionMode == null || retentionMode == RetentionMode.NONE || retentionMonths == null)
+            return 0;
+        Integer months = retentionMonths.get(table);
+        return months == null || months <= 0 ? 0 : months;
+    }
+}
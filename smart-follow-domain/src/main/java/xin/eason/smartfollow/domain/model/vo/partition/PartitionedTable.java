@@ -0,0 +1,35 @@
+package xin.eason.smartfollow.domain.model.vo.partition;
+
+/**
+ * 按月 RANGE 分区的事实表
+ * <ul>
+ *     <li>分区名为 <code>pYYYY_MM</code>, 上界为下个月 1 日; 兜底分区为 <code>pMAX</code></li>
+ * </ul>
+ */
+public enum PartitionedTable {
+    SNAPSHOT("exchange_project_snapshot", "ts"),
+    TRADE("exchange_project_trade", "ts_open"),
+    TRADE_METRICS("exchange_project_trade_metrics", "ts_open");
+
+    /**
+     * 表名
+     */
+    private final String tableName;
+    /**
+     * 分区键列名
+     */
+    private final String partitionColumn;
+
+    PartitionedTable(String tableName, String partitionColumn) {
+        this.tableName = tableName;
+        this.partitionColumn = partitionColumn;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public String getPartitionColumn() {
+        return partitionColumn;
+    }
+}
@@ -0,0 +1,13 @@
+package xin.eason.smartfollow.domain.model.vo.partition;
+
+/**
+ * 过期分区的处理方式
+ * <ul>
+ *     <li><code>NONE</code>: 不清理</li>
+ *     <li><code>DROP</code>: 直接删除分区, 数据不可恢复</li>
+ *     <li><code>EXCHANGE</code>: 先把分区数据交换到同结构的独立归档表 (<code>表名_分区名</code>), 再删除空分区</li>
+ * </ul>
+ */
+public enum RetentionMode {
+    NONE, DROP, EXCHANGE
+}
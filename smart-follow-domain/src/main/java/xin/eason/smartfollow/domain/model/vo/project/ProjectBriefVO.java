@@ -35,6 +35,26 @@ public class ProjectBriefVO {
      * 项目跟随者数量
      */
     private Integer followers;        // ranks[].copyTraderNum (可空)
+    /**
+     * 项目跟随者数量上限
+     */
+    private Integer maxFollowers;     // ranks[].maxCopyTraderNum (可空)
+    /**
+     * 带单天数
+     */
+    private Integer leadDays;         // ranks[].leadDays (可空)
+    /**
+     * 收益额
+     */
+    private BigDecimal pnl;           // ranks[].pnl (可空)
+    /**
+     * 收益率
+     */
+    private BigDecimal pnlRatio;      // ranks[].pnlRatio (可空)
+    /**
+     * 胜率
+     */
+    private BigDecimal winRatio;      // ranks[].winRatio (可空)
     /**
      * 项目数据版本
      */
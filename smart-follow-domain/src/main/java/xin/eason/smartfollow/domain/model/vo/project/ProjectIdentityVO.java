@@ -0,0 +1,12 @@
+package xin.eason.smartfollow.domain.model.vo.project;
+
+/**
+ * 项目身份映射值对象
+ * <p>将业务键 {@link ProjectKey} 映射到数据库主键 <code>exchange_project.id</code> 与进程内稠密编号</p>
+ *
+ * @param key       项目唯一标识
+ * @param projectId 数据库主键 (exchange_project.id)
+ * @param denseId   进程内稠密编号, 从 0 开始连续分配, 仅在当前进程内有效, 供内存分析结构按数组下标寻址
+ */
+public record ProjectIdentityVO(ProjectKey key, long projectId, int denseId) {
+}
@@ -0,0 +1,16 @@
+package xin.eason.smartfollow.domain.model.vo.project;
+
+import xin.eason.smartfollow.types.enums.Visibility;
+
+import java.time.Instant;
+
+/**
+ * 项目观察状态 (写后缓冲合并后的 lastSeen / lastVisibility)
+ *
+ * @param projectId      数据库主键 (exchange_project.id)
+ * @param key            项目唯一标识
+ * @param lastSeen       合并后的最后一次可见时间, 为空表示本批只更新可见性
+ * @param lastVisibility 最近一次记录的可见状态, 为空表示本批只更新时间
+ */
+public record ProjectSeenVO(long projectId, ProjectKey key, Instant lastSeen, Visibility lastVisibility) {
+}
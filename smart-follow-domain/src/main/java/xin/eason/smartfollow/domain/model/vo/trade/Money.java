@@ -1,5 +1,7 @@
 package xin.eason.smartfollow.domain.model.vo.trade;
 
+import xin.eason.smartfollow.types.utils.FixedPointUtils;
+
 import java.math.BigDecimal;
 
 /**
@@ -20,4 +22,14 @@ public record Money(BigDecimal amount, String ccy) {
         this.amount = amount == null ? BigDecimal.ZERO : amount.stripTrailingZeros();
         this.ccy = (ccy == null || ccy.isBlank()) ? "USDT" : ccy.toUpperCase();
     }
+
+    /**
+     * 按币种小数位转换为定点数, 供逐行累计的热点路径使用
+     *
+     * @return 定点数; 无法精确表示时为 {@link FixedPointUtils#INEXACT}
+     * @see FixedPointUtils#scaleOf(String)
+     */
+    public long toScaled() {
+        return FixedPointUtils.toScaled(amount, FixedPointUtils.scaleOf(ccy));
+    }
 }
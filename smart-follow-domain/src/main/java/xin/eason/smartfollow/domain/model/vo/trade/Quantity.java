@@ -3,6 +3,7 @@ package xin.eason.smartfollow.domain.model.vo.trade;
 import java.math.BigDecimal;
 
 import xin.eason.smartfollow.types.exceptions.IllegalParamException;
+import xin.eason.smartfollow.types.utils.FixedPointUtils;
 
 /**
  * 仓位数量, 恒大于 0
@@ -26,4 +27,13 @@ public record Quantity(BigDecimal amount, String unit) {
         this.amount = amount.stripTrailingZeros();
         this.unit = (unit == null || unit.isBlank()) ? "COIN" : unit.toUpperCase();
     }
+
+    /**
+     * 以 {@link FixedPointUtils#QTY_SCALE} 位小数转换为定点数, 供逐行累计的热点路径使用
+     *
+     * @return 定点数; 无法精确表示时为 {@link FixedPointUtils#INEXACT}
+     */
+    public long toScaled() {
+        return FixedPointUtils.toScaled(amount, FixedPointUtils.QTY_SCALE);
+    }
 }
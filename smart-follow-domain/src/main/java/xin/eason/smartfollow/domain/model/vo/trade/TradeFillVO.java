@@ -0,0 +1,49 @@
+package xin.eason.smartfollow.domain.model.vo.trade;
+
+import xin.eason.smartfollow.domain.model.vo.project.ProjectKey;
+import xin.eason.smartfollow.types.enums.OrderType;
+import xin.eason.smartfollow.types.enums.PositionAction;
+import xin.eason.smartfollow.types.enums.TradeSide;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import static xin.eason.smartfollow.types.utils.FieldValidateUtils.require;
+import static xin.eason.smartfollow.types.utils.FieldValidateUtils.requireNotBlank;
+import static xin.eason.smartfollow.types.utils.FieldValidateUtils.requireNotNull;
+
+/**
+ * 单笔成交 (撮合引擎的输入)
+ * <p>side 为成交所属仓位的方向: 合约为 LONG / SHORT; 现货以 BUY 为持仓方向, 卖出成交记为 (BUY, CLOSE)</p>
+ *
+ * @param projectKey        项目唯一标识
+ * @param item              标的
+ * @param side              仓位方向
+ * @param action            开仓 / 平仓
+ * @param ordType           订单类型, 可为空
+ * @param leverage          杠杆倍数, 可为空
+ * @param qty               成交数量, 恒正
+ * @param price             成交价格, 恒正
+ * @param fee               手续费, 可为空
+ * @param ts                成交时间
+ * @param source            数据来源
+ * @param externalFillId    交易所成交 ID, 可为空; 开仓成交的 ID 作为回合的外部 ID
+ * @param externalOrderId   交易所订单 ID, 可为空
+ * @param sourcePayloadHash 来源原文的 SHA-256 (十六进制)
+ */
+public record TradeFillVO(ProjectKey projectKey, ItemId item, TradeSide side, PositionAction action,
+                          OrderType ordType, BigDecimal leverage, BigDecimal qty, BigDecimal price, Money fee,
+                          Instant ts, String source, String externalFillId, String externalOrderId,
+                          String sourcePayloadHash) {
+
+    public TradeFillVO {
+        requireNotNull(projectKey, "projectKey 不能为空");
+        requireNotNull(item, "item 不能为空");
+        requireNotNull(side, "side 不能为空");
+        requireNotNull(action, "action 不能为空");
+        require(qty != null && qty.signum() > 0, "qty 必须 > 0");
+        require(price != null && price.signum() > 0, "price 必须 > 0");
+        requireNotNull(ts, "ts 不能为空");
+        requireNotBlank(source, "source 不能为空");
+    }
+}
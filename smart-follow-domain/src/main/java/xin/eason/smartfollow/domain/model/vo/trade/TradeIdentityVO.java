@@ -0,0 +1,30 @@
+package xin.eason.smartfollow.domain.model.vo.trade;
+
+/**
+ * 仓位回合的幂等身份: 对应 <code>uk_trade_uid</code> 与 <code>uk_proj_source_trade_id</code> 两个唯一键 (项目维度之外的部分)
+ *
+ * @param tradeId         系统内回合唯一 ID (trade_uid)
+ * @param source          数据来源
+ * @param externalTradeId 交易所侧成交 ID, 可为空
+ */
+public record TradeIdentityVO(String tradeId, String source, String externalTradeId) {
+
+    /**
+     * 外部成交 ID 在过滤器中的键: <code>来源 + \u001F + 外部 ID</code>, 没有外部 ID 时为 <code>null</code>
+     *
+     * @param source          数据来源
+     * @param externalTradeId 交易所侧成交 ID
+     * @return 过滤器键
+     */
+    public static String externalKey(String source, String externalTradeId) {
+        return externalTradeId == null ? null : source + '\u001F' + externalTradeId;
+    }
+
+    /**
+     * @return 本身份的外部成交 ID 过滤器键
+     * @see #externalKey(String, String)
+     */
+    public String externalKey() {
+        return externalKey(source, externalTradeId);
+    }
+}
@@ -0,0 +1,14 @@
+package xin.eason.smartfollow.domain.model.vo.trade;
+
+/**
+ * 一批仓位回合的写入结果
+ *
+ * @param total          输入的回合数
+ * @param known          过滤器判定为已落库的终态回合, 未发往 MySQL
+ * @param falsePositives 过滤器命中但回查确认不存在的回合 (假阳性), 已作为新回合写入
+ * @param written        发往 MySQL 的回合数
+ * @param affected       MySQL 返回的影响行数 (新插入计 1, 状态推进计 2, 无变化计 0)
+ * @param skipped        项目未注册而跳过的回合数
+ */
+public record TradeIngestResultVO(int total, int known, int falsePositives, int written, int affected, int skipped) {
+}
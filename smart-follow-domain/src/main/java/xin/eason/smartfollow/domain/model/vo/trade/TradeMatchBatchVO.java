@@ -0,0 +1,17 @@
+package xin.eason.smartfollow.domain.model.vo.trade;
+
+import xin.eason.smartfollow.domain.model.aggregate.trade.ProjectTradeAggregate;
+
+import java.util.List;
+
+/**
+ * 一批成交的撮合结果
+ *
+ * @param trades    本批状态发生变化的仓位回合 (OPEN / PARTIALLY_CLOSED / CLOSED), 每个回合一条最新状态, 按 trade_uid 幂等写入
+ * @param fills     输入的成交数
+ * @param closed    本批完全平仓的回合数
+ * @param unmatched 找不到足够开仓数量的平仓成交数 (如历史起点之前已有持仓), 超出部分被丢弃
+ * @param failed    构建聚合失败 (数据不合法) 而跳过的回合数
+ */
+public record TradeMatchBatchVO(List<ProjectTradeAggregate> trades, int fills, int closed, int unmatched, int failed) {
+}
@@ -0,0 +1,31 @@
+package xin.eason.smartfollow.domain.model.vo.trade;
+
+import xin.eason.smartfollow.types.enums.TradeSide;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * 计算 MAE / MFE 所需的已落库回合字段
+ *
+ * @param tradeId    exchange_project_trade.id
+ * @param projectId  项目主键
+ * @param symbol     交易标的, 与 K 线存储的标的一致
+ * @param side       方向, LONG / BUY 为多头, SHORT / SELL 为空头
+ * @param tsOpen     开仓时间
+ * @param tsClose    平仓时间, 为空时计算到最新一根 K 线
+ * @param entryPrice 入场价格
+ * @param qty        仓位 (恒正)
+ * @param inputCrc   以上输入字段在库内的 CRC32, 随指标写入, 回合被修正后与库内重新计算的值不一致
+ */
+public record TradeMetricInputVO(long tradeId, long projectId, String symbol, TradeSide side,
+                                 Instant tsOpen, Instant tsClose, BigDecimal entryPrice, BigDecimal qty,
+                                 long inputCrc) {
+
+    /**
+     * @return 是否为多头 (LONG / BUY)
+     */
+    public boolean isLong() {
+        return side == TradeSide.LONG || side == TradeSide.BUY;
+    }
+}
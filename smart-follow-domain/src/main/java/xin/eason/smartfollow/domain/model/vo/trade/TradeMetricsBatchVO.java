@@ -0,0 +1,14 @@
+package xin.eason.smartfollow.domain.model.vo.trade;
+
+import java.util.List;
+
+/**
+ * 一批回合的指标计算结果
+ *
+ * @param metrics 计算成功的指标
+ * @param trades  输入的回合数
+ * @param noBars  持仓区间内没有 K 线而跳过的回合数
+ * @param failed  数据不合法 (如入场价格为空或非正) 而跳过的回合数
+ */
+public record TradeMetricsBatchVO(List<TradeMetricsVO> metrics, int trades, int noBars, int failed) {
+}
@@ -0,0 +1,15 @@
+package xin.eason.smartfollow.domain.model.vo.trade;
+
+import java.time.Instant;
+
+/**
+ * 指标重算中一个已完成分块的检查点
+ *
+ * @param algoVer    算法版本
+ * @param chunkStart 分块起点 (ts_open, 包含)
+ * @param chunkEnd   分块终点 (ts_open, 不包含), 不跨月分区
+ * @param pass       完成该分块的轮次
+ * @param result     分块内缺失或输入变化的回合的计算统计
+ */
+public record TradeMetricsChunkVO(String algoVer, Instant chunkStart, Instant chunkEnd, int pass, TradeMetricsResultVO result) {
+}
@@ -0,0 +1,14 @@
+package xin.eason.smartfollow.domain.model.vo.trade;
+
+/**
+ * 一次指标重算的结果
+ *
+ * @param pass      本次所属的轮次
+ * @param chunks    本次待处理的分块数 (本轮已完成的分块不计)
+ * @param done      本次完成的分块数
+ * @param failed    本次失败的分块数, 下次继续
+ * @param metrics   各分块计算统计之和
+ * @param elapsedMs 耗时 (毫秒)
+ */
+public record TradeMetricsRecomputeVO(int pass, int chunks, int done, int failed, TradeMetricsResultVO metrics, long elapsedMs) {
+}
@@ -0,0 +1,22 @@
+package xin.eason.smartfollow.domain.model.vo.trade;
+
+/**
+ * 指标计算与写入的统计
+ *
+ * @param trades    输入的回合数
+ * @param computed  计算成功并写入的回合数
+ * @param noBars    持仓区间内没有 K 线而跳过的回合数
+ * @param failed    数据不合法而跳过的回合数
+ * @param affected  MySQL 返回的影响行数
+ * @param elapsedMs 耗时 (毫秒)
+ */
+public record TradeMetricsResultVO(int trades, int computed, int noBars, int failed, int affected, long elapsedMs) {
+
+    /**
+     * 累加另一批的统计
+     */
+    public TradeMetricsResultVO plus(TradeMetricsResultVO other) {
+        return new TradeMetricsResultVO(trades + other.trades, computed + other.computed, noBars + other.noBars,
+                failed + other.failed, affected + other.affected, elapsedMs + other.elapsedMs);
+    }
+}
@@ -0,0 +1,37 @@
+package xin.eason.smartfollow.domain.model.vo.trade;
+
+import xin.eason.smartfollow.types.enums.BarInterval;
+import xin.eason.smartfollow.types.enums.PriceSource;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * 一个回合在某个算法版本下的行情指标 (exchange_project_trade_metrics 的一行)
+ * <p>百分比以 entry_price 为基准, <code>-1.5</code> 表示 -1.5%; 回撤 / 回升按持仓方向计算</p>
+ *
+ * @param tradeId      exchange_project_trade.id
+ * @param projectId    项目主键
+ * @param tsOpen       开仓时间 (与分区对齐)
+ * @param algoVer      算法版本
+ * @param barInterval  使用的 K 线粒度
+ * @param priceSource  使用的价格口径
+ * @param maePct       最大不利变动百分比
+ * @param mfePct       最大有利变动百分比
+ * @param maeUsd       最大不利变动金额 (线性近似, mae_pct · entry_price · qty)
+ * @param mfeUsd       最大有利变动金额 (线性近似, mfe_pct · entry_price · qty)
+ * @param maeTs        发生 MAE 的 K 线时间 (截断到持仓区间内)
+ * @param mfeTs        发生 MFE 的 K 线时间 (截断到持仓区间内)
+ * @param maxDdPct     区间最大回撤百分比 (非正)
+ * @param maxRuPct     区间最大回升百分比 (非负)
+ * @param qualityScore 数据质量分: 实际 K 线根数 / 持仓区间应有根数, 上限 1
+ * @param bars         实际使用的 K 线根数
+ * @param expectedBars 持仓区间应有的 K 线根数
+ * @param inputCrc     计算时回合输入字段的 CRC32
+ */
+public record TradeMetricsVO(long tradeId, long projectId, Instant tsOpen, String algoVer,
+                             BarInterval barInterval, PriceSource priceSource,
+                             BigDecimal maePct, BigDecimal mfePct, BigDecimal maeUsd, BigDecimal mfeUsd,
+                             Instant maeTs, Instant mfeTs, BigDecimal maxDdPct, BigDecimal maxRuPct,
+                             float qualityScore, int bars, long expectedBars, long inputCrc) {
+}
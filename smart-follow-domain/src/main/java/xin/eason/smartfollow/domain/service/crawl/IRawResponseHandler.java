@@ -0,0 +1,25 @@
+package xin.eason.smartfollow.domain.service.crawl;
+
+import xin.eason.smartfollow.domain.model.vo.crawl.RawResponseVO;
+
+/**
+ * 原始响应处理器 (解析器 + 入库管道的入口)
+ * <p>在线抓取与离线回放共用同一组处理器, 回放时无需访问 OKX</p>
+ */
+public interface IRawResponseHandler {
+
+    /**
+     * 判断当前处理器是否支持该抓取目标
+     *
+     * @param target 规范化抓取目标 (URL)
+     * @return 是否支持
+     */
+    boolean supports(String target);
+
+    /**
+     * 处理一条原始响应 (解析并进入入库管道)
+     *
+     * @param response 原始响应
+     */
+    void handle(RawResponseVO response);
+}
@@ -0,0 +1,81 @@
+package xin.eason.smartfollow.domain.service.crawl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import xin.eason.smartfollow.domain.IRawResponseReplayService;
+import xin.eason.smartfollow.domain.adapter.repository.IRawResponseArchiveRepository;
+import xin.eason.smartfollow.domain.model.vo.crawl.RawResponseVO;
+import xin.eason.smartfollow.domain.model.vo.crawl.ReplayReportVO;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * 原始响应离线回放服务实现
+ * <ul>
+ *     <li>从 {@link IRawResponseArchiveRepository} 按 crawl_log ID 顺序读取归档响应</li>
+ *     <li>按抓取目标路由到第一个支持的 {@link IRawResponseHandler}</li>
+ *     <li>单条处理失败只计数并记录日志, 不中断整体回放</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RawResponseReplayService implements IRawResponseReplayService {
+
+    /**
+     * 原始响应归档仓储
+     */
+    private final IRawResponseArchiveRepository archiveRepository;
+    /**
+     * 所有已注册的原始响应处理器
+     */
+    private final List<IRawResponseHandler> handlers;
+
+    /**
+     * 回放指定时间范围内的归档响应
+     *
+     * @param from         请求开始时间下界 (包含), 为空表示不限制
+     * @param to           请求开始时间上界 (不包含), 为空表示不限制
+     * @param targetPrefix 抓取目标前缀, 为空表示全部目标
+     * @return 回放结果统计
+     */
+    @Override
+    public ReplayReportVO replay(Instant from, Instant to, String targetPrefix) {
+        long start = System.nanoTime();
+        ReplayReportVO report = new ReplayReportVO();
+        log.info("[回放] 开始回放归档响应, from={}, to={}, targetPrefix={}, 处理器数量={}", from, to, targetPrefix, handlers.size());
+
+        long total = archiveRepository.forEach(from, to, targetPrefix, response -> dispatch(response, report));
+
+        report.setTotal(total);
+        report.setElapsedMs((System.nanoTime() - start) / 1_000_000L);
+        log.info("[回放] 回放完成: {}", report);
+        return report;
+    }
+
+    /**
+     * 将一条归档响应分发给第一个支持其抓取目标的处理器
+     *
+     * @param response 归档响应
+     * @param report   回放结果统计
+     */
+    private void dispatch(RawResponseVO response, ReplayReportVO report) {
+        report.setBytes(report.getBytes() + (response.getBody() == null ? 0 : response.getBody().length));
+        for (IRawResponseHandler handler : handlers) {
+            if (!handler.supports(response.getTarget()))
+                continue;
+            try {
+                handler.handle(response);
+                report.setHandled(report.getHandled() + 1);
+            } catch (RuntimeException e) {
+                report.setFailed(report.getFailed() + 1);
+                log.warn("[回放] 处理归档响应失败, crawlLogId={}, target={}, 原因: {}",
+                        response.getCrawlLogId(), response.getTarget(), e.getMessage(), e);
+            }
+            return;
+        }
+        report.setUnhandled(report.getUnhandled() + 1);
+    }
+}
@@ -0,0 +1,129 @@
+package xin.eason.smartfollow.domain.service.leaderboard;
+
+import xin.eason.smartfollow.domain.model.vo.leaderboard.LeaderboardCacheStatsVO;
+import xin.eason.smartfollow.domain.model.vo.leaderboard.LeaderboardQueryVO;
+import xin.eason.smartfollow.domain.model.vo.project.LeadTradersPageVO;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static xin.eason.smartfollow.types.utils.FieldValidateUtils.require;
+
+/**
+ * 榜单查询结果缓存
+ * <ul>
+ *     <li>键为规范化查询条件 (dataVer 已固定为实际使用的版本), 值为分页结果</li>
+ *     <li>LRU 淘汰, 同时受条目数上限与字节预算约束</li>
+ *     <li>发布新版本时整体失效; 以代数 (generation) 防止失效前开始计算的旧结果在失效后写回</li>
+ * </ul>
+ */
+public class LeaderboardResultCache {
+
+    /**
+     * 单个条目的固定开销估算 (键, 值对象, 链表节点)
+     */
+    private static final long ENTRY_OVERHEAD_BYTES = 256;
+    /**
+     * 每行的引用开销估算 (项目简表对象与榜单共享, 不重复计入)
+     */
+    private static final long ROW_REF_BYTES = 8;
+
+    /**
+     * 条目数上限
+     */
+    private final int maxEntries;
+    /**
+     * 字节预算
+     */
+    private final long maxBytes;
+    /**
+     * 访问顺序的 LinkedHashMap, 队首为最久未使用
+     */
+    private final LinkedHashMap<LeaderboardQueryVO, LeadTradersPageVO> entries = new LinkedHashMap<>(256, 0.75f, true);
+
+    // ===== 状态与统计 (均在 this 锁内修改) =====
+    private long bytes;
+    private long generation;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    /**
+     * @param maxEntries 条目数上限
+     * @param maxBytes   字节预算
+     */
+    public LeaderboardResultCache(int maxEntries, long maxBytes) {
+        require(maxEntries > 0, "maxEntries 必须大于 0");
+        require(maxBytes > 0, "maxBytes 必须大于 0");
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * 读取缓存, 未命中时在锁外计算并写回
+     *
+     * @param key    规范化查询条件 (dataVer 已固定)
+     * @param loader 结果计算函数
+     * @return 分页结果
+     */
+    public LeadTradersPageVO get(LeaderboardQueryVO key, Supplier<LeadTradersPageVO> loader) {
+        long observedGeneration;
+        synchronized (this) {
+            LeadTradersPageVO cached = entries.get(key);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+            observedGeneration = generation;
+        }
+        LeadTradersPageVO computed = loader.get();
+        synchronized (this) {
+            if (observedGeneration == generation && !entries.containsKey(key)) {
+                entries.put(key, computed);
+                bytes += estimate(computed);
+                evict();
+            }
+        }
+        return computed;
+    }
+
+    /**
+     * 整体失效 (新版本发布时调用)
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+        bytes = 0;
+        generation++;
+        invalidations++;
+    }
+
+    /**
+     * 获取统计信息
+     *
+     * @return 统计信息
+     */
+    public synchronized LeaderboardCacheStatsVO stats() {
+        return new LeaderboardCacheStatsVO(hits, misses, evictions, invalidations, entries.size(), bytes);
+    }
+
+    /**
+     * 按 LRU 顺序淘汰, 直到满足条目数上限与字节预算
+     */
+    private void evict() {
+        Iterator<Map.Entry<LeaderboardQueryVO, LeadTradersPageVO>> it = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || bytes > maxBytes) && it.hasNext()) {
+            bytes -= estimate(it.next().getValue());
+            it.remove();
+            evictions++;
+        }
+    }
+
+    private static long estimate(LeadTradersPageVO page) {
+        int rows = page.getRanks() == null ? 0 : page.getRanks().size();
+        return ENTRY_OVERHEAD_BYTES + ROW_REF_BYTES * rows;
+    }
+}
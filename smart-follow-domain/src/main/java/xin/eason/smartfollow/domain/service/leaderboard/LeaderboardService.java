@@ -0,0 +1,167 @@
+package xin.eason.smartfollow.domain.service.leaderboard;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import xin.eason.smartfollow.domain.ILeaderboardService;
+import xin.eason.smartfollow.domain.model.vo.leaderboard.LeaderboardCacheStatsVO;
+import xin.eason.smartfollow.domain.model.vo.leaderboard.LeaderboardQueryVO;
+import xin.eason.smartfollow.domain.model.vo.leaderboard.LeaderboardStatsVO;
+import xin.eason.smartfollow.domain.model.vo.project.LeadTradersPageVO;
+import xin.eason.smartfollow.domain.model.vo.project.LeadTradersQuery;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectBriefVO;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static xin.eason.smartfollow.types.utils.FieldValidateUtils.requireNotBlank;
+
+/**
+ * 内存榜单服务实现 (双缓冲)
+ * <ul>
+ *     <li>读路径只读取 volatile 引用指向的不可变结构, 无锁</li>
+ *     <li>写路径在副本上构建新榜单, 完成后一次性替换引用; 每个产品类型保留最近 {@value #MAX_VERSIONS} 个版本</li>
+ *     <li>分页结果经 {@link LeaderboardResultCache} 缓存, 新版本发布后整体失效</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LeaderboardService implements ILeaderboardService {
+
+    /**
+     * 每个产品类型保留的版本数 (OKX 仅保留最新的 5 个版本)
+     */
+    private static final int MAX_VERSIONS = 5;
+
+    /**
+     * 查询结果缓存
+     */
+    private final LeaderboardResultCache resultCache;
+
+    /**
+     * 产品类型 → 榜单列表 (按 dataVer 降序), 整体不可变, 发布时整体替换
+     */
+    private volatile Map<String, List<LeaderboardSnapshot>> boards = Map.of();
+
+    // ===== 统计 =====
+    private final LongAdder published = new LongAdder();
+    private final LongAdder queryCount = new LongAdder();
+    private final LongAdder queryTotalNanos = new LongAdder();
+    private final AtomicLong queryMaxNanos = new AtomicLong();
+
+    @Override
+    public void publish(String instType, String dataVer, List<ProjectBriefVO> ranks) {
+        requireNotBlank(instType, "instType 不能为空");
+        requireNotBlank(dataVer, "dataVer 不能为空");
+        String type = instType.trim().toUpperCase(Locale.ROOT);
+        long start = System.nanoTime();
+        // 构建在锁外完成, 不阻塞读路径, 也不阻塞其他产品类型的发布
+        LeaderboardSnapshot snapshot = LeaderboardSnapshot.builder(type, dataVer).addAll(ranks).build();
+        synchronized (this) {
+            List<LeaderboardSnapshot> versions = new ArrayList<>(boards.getOrDefault(type, List.of()));
+            versions.removeIf(s -> s.getDataVer().equals(dataVer));
+            versions.add(snapshot);
+            versions.sort((a, b) -> b.getDataVer().compareTo(a.getDataVer()));
+            if (versions.size() > MAX_VERSIONS)
+                versions = versions.subList(0, MAX_VERSIONS);
+            Map<String, List<LeaderboardSnapshot>> next = new HashMap<>(boards);
+            next.put(type, List.copyOf(versions));
+            boards = Map.copyOf(next);
+            resultCache.invalidateAll();
+        }
+        published.increment();
+        log.info("[榜单] 发布 {} 榜单版本 {}, 共 {} 行, 构建耗时 {}ms",
+                type, dataVer, snapshot.getSize(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Override
+    public LeaderboardQueryVO validate(LeadTradersQuery query) {
+        LeaderboardQueryVO normalized = LeaderboardQueryVO.of(query);
+        LeaderboardSnapshot.requireSupported(normalized);
+        return normalized;
+    }
+
+    @Override
+    public Optional<LeadTradersPageVO> query(LeadTradersQuery query) {
+        long start = System.nanoTime();
+        LeaderboardQueryVO normalized = validate(query);
+        LeaderboardSnapshot snapshot = resolve(normalized.instType(), normalized.dataVer());
+        if (snapshot == null)
+            return Optional.empty();
+        LeadTradersPageVO page = resultCache.get(normalized.withDataVer(snapshot.getDataVer()), () -> snapshot.query(normalized));
+        recordLatency(System.nanoTime() - start);
+        return Optional.of(page);
+    }
+
+    @Override
+    public Optional<String> latestDataVer(String instType) {
+        if (instType == null || instType.isBlank())
+            return Optional.empty();
+        List<LeaderboardSnapshot> versions = boards.get(instType.trim().toUpperCase(Locale.ROOT));
+        return versions == null || versions.isEmpty() ? Optional.empty() : Optional.of(versions.get(0).getDataVer());
+    }
+
+    @Override
+    public boolean holdsDataVer(String instType, String dataVer) {
+        if (instType == null || dataVer == null)
+            return false;
+        List<LeaderboardSnapshot> versions = boards.get(instType.trim().toUpperCase(Locale.ROOT));
+        if (versions != null)
+            for (LeaderboardSnapshot snapshot : versions)
+                if (snapshot.getDataVer().equals(dataVer))
+                    return true;
+        return false;
+    }
+
+    @Override
+    public LeaderboardStatsVO stats() {
+        Map<String, List<LeaderboardSnapshot>> current = boards;
+        int versions = 0;
+        long rows = 0;
+        long bytes = 0;
+        for (List<LeaderboardSnapshot> list : current.values())
+            for (LeaderboardSnapshot snapshot : list) {
+                versions++;
+                rows += snapshot.getSize();
+                bytes += snapshot.estimatedBytes();
+            }
+        return new LeaderboardStatsVO(versions, rows, bytes, published.sum(),
+                queryCount.sum(), queryTotalNanos.sum(), queryMaxNanos.get());
+    }
+
+    @Override
+    public LeaderboardCacheStatsVO cacheStats() {
+        return resultCache.stats();
+    }
+
+    /**
+     * 定位榜单: 指定版本存在则使用该版本, 否则使用最新版本
+     *
+     * @param instType 产品类型 (已规范化)
+     * @param dataVer  数据版本, 可空
+     * @return 榜单, 尚无该产品类型榜单时为 null
+     */
+    LeaderboardSnapshot resolve(String instType, String dataVer) {
+        List<LeaderboardSnapshot> versions = boards.get(instType);
+        if (versions == null || versions.isEmpty())
+            return null;
+        if (dataVer != null)
+            for (LeaderboardSnapshot snapshot : versions)
+                if (snapshot.getDataVer().equals(dataVer))
+                    return snapshot;
+        return versions.get(0);
+    }
+
+    private void recordLatency(long nanos) {
+        queryCount.increment();
+        queryTotalNanos.add(nanos);
+        queryMaxNanos.accumulateAndGet(nanos, Math::max);
+    }
+}
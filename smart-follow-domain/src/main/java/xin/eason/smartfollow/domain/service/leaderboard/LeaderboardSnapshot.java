@@ -0,0 +1,237 @@
+package xin.eason.smartfollow.domain.service.leaderboard;
+
+import lombok.Getter;
+import xin.eason.smartfollow.domain.model.vo.leaderboard.LeaderboardQueryVO;
+import xin.eason.smartfollow.domain.model.vo.project.LeadTradersPageVO;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectBriefVO;
+import xin.eason.smartfollow.types.exceptions.IllegalParamException;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static xin.eason.smartfollow.types.utils.FieldValidateUtils.requireNotBlank;
+
+/**
+ * 某一产品类型, 某一数据版本的只读内存榜单
+ * <ul>
+ *     <li>数值字段按列存放为原始类型数组 (struct-of-arrays), 缺失值为 {@code NaN} / -1</li>
+ *     <li>每个排序字段预先计算降序下标数组, 查询时沿下标数组过滤并截取分页, 不做排序</li>
+ *     <li>构建完成后不再修改, 可被任意线程并发读取</li>
+ * </ul>
+ */
+public final class LeaderboardSnapshot {
+
+    /**
+     * 单行列式数据的估算字节数: 4 个 double + 3 个 int 列 + 1 个 boolean 列 + 4 个排序下标 + 1 个引用
+     */
+    private static final long ROW_BYTES = 4 * 8 + 3 * 4 + 1 + 4 * 4 + 8;
+
+    /**
+     * 产品类型
+     */
+    @Getter
+    private final String instType;
+    /**
+     * 数据版本
+     */
+    @Getter
+    private final String dataVer;
+    /**
+     * 构建完成时间
+     */
+    @Getter
+    private final Instant builtAt;
+    /**
+     * 行数
+     */
+    @Getter
+    private final int size;
+
+    // ===== 列 =====
+    private final ProjectBriefVO[] rows;
+    private final double[] aum;
+    private final double[] pnl;
+    private final double[] pnlRatio;
+    private final double[] winRatio;
+    private final int[] leadDays;
+    private final int[] followers;
+    private final int[] maxFollowers;
+    private final boolean[] vacant;
+
+    // ===== 预排序下标 (降序, 缺失值排最后, 同值保持原始名次) =====
+    private final int[] byAum;
+    private final int[] byPnl;
+    private final int[] byPnlRatio;
+    private final int[] byWinRatio;
+
+    private LeaderboardSnapshot(String instType, String dataVer, List<ProjectBriefVO> briefs) {
+        this.instType = instType;
+        this.dataVer = dataVer;
+        this.size = briefs.size();
+        this.rows = briefs.toArray(new ProjectBriefVO[0]);
+        this.aum = new double[size];
+        this.pnl = new double[size];
+        this.pnlRatio = new double[size];
+        this.winRatio = new double[size];
+        this.leadDays = new int[size];
+        this.followers = new int[size];
+        this.maxFollowers = new int[size];
+        this.vacant = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            ProjectBriefVO brief = rows[i];
+            aum[i] = toDouble(brief.getAum());
+            pnl[i] = toDouble(brief.getPnl());
+            pnlRatio[i] = toDouble(brief.getPnlRatio());
+            winRatio[i] = toDouble(brief.getWinRatio());
+            leadDays[i] = brief.getLeadDays() == null ? -1 : brief.getLeadDays();
+            followers[i] = brief.getFollowers() == null ? -1 : brief.getFollowers();
+            maxFollowers[i] = brief.getMaxFollowers() == null ? -1 : brief.getMaxFollowers();
+            // 上限未知时视为有空位
+            vacant[i] = maxFollowers[i] < 0 || followers[i] < maxFollowers[i];
+        }
+        this.byAum = sortDesc(aum);
+        this.byPnl = sortDesc(pnl);
+        this.byPnlRatio = sortDesc(pnlRatio);
+        this.byWinRatio = sortDesc(winRatio);
+        this.builtAt = Instant.now();
+    }
+
+    /**
+     * 创建构建器, 一次扫描对应一个构建器
+     *
+     * @param instType 产品类型
+     * @param dataVer  数据版本
+     * @return 构建器
+     */
+    public static Builder builder(String instType, String dataVer) {
+        requireNotBlank(instType, "instType 不能为空");
+        requireNotBlank(dataVer, "dataVer 不能为空");
+        return new Builder(instType, dataVer);
+    }
+
+    /**
+     * 校验查询能在内存中回答; 榜单数据不含资产与当前跟单人收益, 且没有可回退的数据源, 这类条件直接拒绝
+     *
+     * @param query 规范化查询条件
+     * @throws IllegalParamException 带有资产范围条件或按当前跟单人收益排序时抛出
+     */
+    public static void requireSupported(LeaderboardQueryVO query) {
+        if (query.assetsRange())
+            throw IllegalParamException.of("榜单不支持按交易员资产范围 (minAssets / maxAssets) 过滤");
+        if ("current_copy_trader_pnl".equals(query.sortType()))
+            throw IllegalParamException.of("榜单不支持按 current_copy_trader_pnl 排序");
+    }
+
+    /**
+     * 过滤, 排序并分页
+     *
+     * @param query 规范化查询条件 (需已通过 {@link #requireSupported})
+     * @return 分页结果, 版本号为本榜单的版本
+     */
+    public LeadTradersPageVO query(LeaderboardQueryVO query) {
+        int[] order = switch (query.sortType()) {
+            case "aum" -> byAum;
+            case "pnl" -> byPnl;
+            case "pnl_ratio" -> byPnlRatio;
+            case "win_ratio" -> byWinRatio;
+            default -> null; // overview: 原始名次
+        };
+        boolean filterAum = query.minAum() != Double.NEGATIVE_INFINITY || query.maxAum() != Double.POSITIVE_INFINITY;
+        int skip = (query.page() - 1) * query.limit();
+        List<ProjectBriefVO> page = new ArrayList<>(Math.min(query.limit(), size));
+        int matched = 0;
+        for (int n = 0; n < size; n++) {
+            int i = order == null ? n : order[n];
+            if (query.vacantOnly() && !vacant[i])
+                continue;
+            if (query.minLeadDays() > 0 && leadDays[i] < query.minLeadDays())
+                continue;
+            // NaN 与任何数比较均为 false, 缺失规模的行在有规模条件时被排除
+            if (filterAum && !(aum[i] >= query.minAum() && aum[i] <= query.maxAum()))
+                continue;
+            if (matched >= skip && page.size() < query.limit())
+                page.add(rows[i]);
+            matched++;
+        }
+        int totalPage = (matched + query.limit() - 1) / query.limit();
+        return new LeadTradersPageVO(dataVer, totalPage, page);
+    }
+
+    /**
+     * 估算列式数组与排序下标的内存占用 (不含 {@link ProjectBriefVO} 本身)
+     *
+     * @return 字节数
+     */
+    public long estimatedBytes() {
+        return ROW_BYTES * size;
+    }
+
+    /**
+     * 生成降序下标数组: 缺失值 ({@code NaN}) 排最后, 同值按原始名次
+     */
+    private static int[] sortDesc(double[] column) {
+        Integer[] boxed = new Integer[column.length];
+        for (int i = 0; i < boxed.length; i++)
+            boxed[i] = i;
+        Arrays.sort(boxed, Comparator.<Integer>comparingDouble(i -> Double.isNaN(column[i]) ? Double.NEGATIVE_INFINITY : column[i])
+                .reversed()
+                .thenComparingInt(i -> i));
+        int[] order = new int[boxed.length];
+        for (int i = 0; i < order.length; i++)
+            order[i] = boxed[i];
+        return order;
+    }
+
+    private static double toDouble(BigDecimal value) {
+        return value == null ? Double.NaN : value.doubleValue();
+    }
+
+    /**
+     * 榜单构建器: 按名次顺序追加每页数据, 完成后一次性生成不可变榜单
+     */
+    public static final class Builder {
+        private final String instType;
+        private final String dataVer;
+        private final List<ProjectBriefVO> briefs = new ArrayList<>();
+
+        private Builder(String instType, String dataVer) {
+            this.instType = instType;
+            this.dataVer = dataVer;
+        }
+
+        /**
+         * 追加一页项目 (按榜单名次顺序)
+         *
+         * @param page 项目简单快照列表
+         * @return 构建器本身
+         */
+        public Builder addAll(List<ProjectBriefVO> page) {
+            if (page != null)
+                for (ProjectBriefVO brief : page)
+                    if (brief != null)
+                        briefs.add(brief);
+            return this;
+        }
+
+        public String dataVer() {
+            return dataVer;
+        }
+
+        public String instType() {
+            return instType;
+        }
+
+        /**
+         * 生成不可变榜单
+         *
+         * @return 榜单
+         */
+        public LeaderboardSnapshot build() {
+            return new LeaderboardSnapshot(instType, dataVer, briefs);
+        }
+    }
+}
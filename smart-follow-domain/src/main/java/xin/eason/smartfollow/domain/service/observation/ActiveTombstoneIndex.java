@@ -0,0 +1,177 @@
+package xin.eason.smartfollow.domain.service.observation;
+
+import org.springframework.stereotype.Component;
+import xin.eason.smartfollow.domain.model.aggregate.observation.TombstoneAggregate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+import static xin.eason.smartfollow.types.utils.FieldValidateUtils.requireNotNull;
+
+/**
+ * 打开状态墓碑索引: 稠密编号 → 当前打开的墓碑
+ * <ul>
+ *     <li>每个项目同一时间至多一个打开的墓碑, 数组下标即稠密编号, "是否不可见" / "不可见起点" 为一次数组读取</li>
+ *     <li>不可见项目数量随打开 / 关闭同步维护, 计数为 O(1)</li>
+ *     <li>读操作无锁 (volatile 数组, 与 {@link xin.eason.smartfollow.domain.service.project.ProjectIdentityCache} 相同的发布方式), 写操作串行化</li>
+ *     <li>只在墓碑落库成功后更新, 关闭墓碑时直接从索引取出, 无需回查数据库</li>
+ *     <li>加载完成前的打开 / 关闭按顺序记录, {@link #load} 时重放到全量结果上 (与 {@link TombstoneIntervalIndex} 一致), 不被较早的全量扫描覆盖</li>
+ * </ul>
+ */
+@Component
+public class ActiveTombstoneIndex {
+
+    /**
+     * 稠密编号 → 打开的墓碑, 扩容时整体替换
+     */
+    private volatile TombstoneAggregate[] byDenseId = new TombstoneAggregate[1024];
+    /**
+     * 当前打开的墓碑数量
+     */
+    private volatile int count;
+    /**
+     * 是否已从数据库加载
+     */
+    private volatile boolean loaded;
+    /**
+     * 加载完成前的写入, 按发生顺序排列
+     */
+    private final List<PendingWrite> pending = new ArrayList<>();
+
+    /**
+     * 用全量打开状态的墓碑替换索引内容 (启动预热)
+     *
+     * @param tombstones 打开状态的墓碑
+     * @param denseIdOf  墓碑 → 稠密编号, 返回负数表示项目未注册, 跳过
+     * @return 实际载入的数量
+     */
+    public synchronized int load(Collection<TombstoneAggregate> tombstones, ToIntFunction<TombstoneAggregate> denseIdOf) {
+        requireNotNull(tombstones, "tombstones 不能为空");
+        TombstoneAggregate[] table = new TombstoneAggregate[byDenseId.length];
+        int loadedCount = 0;
+        for (TombstoneAggregate tombstone : tombstones) {
+            int denseId = denseIdOf.applyAsInt(tombstone);
+            if (denseId < 0 || !tombstone.isOpen())
+                continue;
+            table = ensureCapacity(table, denseId);
+            if (table[denseId] == null)
+                loadedCount++;
+            table[denseId] = tombstone;
+        }
+        byDenseId = table;
+        count = loadedCount;
+        // 加载完成前写入的打开 / 关闭可能晚于全量扫描, 按顺序重放到新表上
+        if (!loaded) {
+            loaded = true;
+            for (PendingWrite write : pending) {
+                if (write.opened() != null)
+                    open(write.denseId(), write.opened());
+                else
+                    remove(write.denseId(), write.closedFrom());
+            }
+            pending.clear();
+        }
+        return loadedCount;
+    }
+
+    /**
+     * 登记一个已落库的打开墓碑; 同一项目已有打开墓碑时保留较早的一个
+     *
+     * @param denseId   稠密编号
+     * @param tombstone 打开状态的墓碑
+     */
+    public synchronized void open(int denseId, TombstoneAggregate tombstone) {
+        requireNotNull(tombstone, "tombstone 不能为空");
+        if (denseId < 0 || !tombstone.isOpen())
+            return;
+        if (!loaded)
+            pending.add(new PendingWrite(denseId, tombstone, null));
+        TombstoneAggregate[] table = ensureCapacity(byDenseId, denseId);
+        TombstoneAggregate current = table[denseId];
+        if (current == null)
+            count++;
+        else if (!tombstone.getFromTs().isBefore(current.getFromTs()))
+            tombstone = current;
+        table[denseId] = tombstone;
+        byDenseId = table;
+    }
+
+    /**
+     * 移除项目的打开墓碑 (墓碑已关闭落库); 索引中的墓碑晚于被关闭的墓碑打开时 (已重新打开) 保留
+     *
+     * @param denseId 稠密编号
+     * @param fromTs  被关闭墓碑的开始时间
+     * @return 被移除的墓碑, 不存在返回 <code>null</code>
+     */
+    public synchronized TombstoneAggregate remove(int denseId, Instant fromTs) {
+        requireNotNull(fromTs, "fromTs 不能为空");
+        if (denseId < 0)
+            return null;
+        if (!loaded)
+            pending.add(new PendingWrite(denseId, null, fromTs));
+        TombstoneAggregate[] table = byDenseId;
+        if (denseId >= table.length || table[denseId] == null || table[denseId].getFromTs().isAfter(fromTs))
+            return null;
+        TombstoneAggregate removed = table[denseId];
+        table[denseId] = null;
+        count--;
+        byDenseId = table;
+        return removed;
+    }
+
+    /**
+     * 获取项目当前打开的墓碑
+     *
+     * @param denseId 稠密编号
+     * @return 打开的墓碑, 项目可见时返回 <code>null</code>
+     */
+    public TombstoneAggregate get(int denseId) {
+        TombstoneAggregate[] table = byDenseId;
+        return denseId < 0 || denseId >= table.length ? null : table[denseId];
+    }
+
+    /**
+     * @param denseId 稠密编号
+     * @return 项目当前是否处于不可见状态
+     */
+    public boolean isInvisible(int denseId) {
+        return get(denseId) != null;
+    }
+
+    /**
+     * @return 当前处于不可见状态的项目数量
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * @return 是否已完成启动加载; 未加载前调用方应回退到数据库查询
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    private static TombstoneAggregate[] ensureCapacity(TombstoneAggregate[] table, int denseId) {
+        if (denseId < table.length)
+            return table;
+        int length = table.length;
+        while (length <= denseId)
+            length <<= 1;
+        return Arrays.copyOf(table, length);
+    }
+
+    /**
+     * 加载完成前的一次写入
+     *
+     * @param denseId    稠密编号
+     * @param opened     打开的墓碑, 关闭时为 <code>null</code>
+     * @param closedFrom 被关闭墓碑的开始时间, 打开时为 <code>null</code>
+     */
+    private record PendingWrite(int denseId, TombstoneAggregate opened, Instant closedFrom) {
+    }
+}
@@ -0,0 +1,102 @@
+package xin.eason.smartfollow.domain.service.observation;
+
+import xin.eason.smartfollow.domain.model.vo.observation.RollupResolution;
+import xin.eason.smartfollow.domain.model.vo.observation.RollupStatVO;
+import xin.eason.smartfollow.domain.model.vo.observation.SnapshotRollupVO;
+import xin.eason.smartfollow.types.enums.SnapshotSource;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.time.Instant;
+
+/**
+ * 一个汇总桶的累加器: 按持续时间加权累计 AUM / 跟随者 / 收益三个指标
+ * <p>既可以累加原始快照的一段持续区间, 也可以合并更细分辨率的桶 (以 coveredMs 为权重)</p>
+ */
+class RollupAccumulator {
+
+    private final Metric aum = new Metric();
+    private final Metric followers = new Metric();
+    private final Metric pnl = new Metric();
+    private long coveredMs;
+
+    /**
+     * 累加一段取值不变的区间
+     *
+     * @param startMs    区间起点 (毫秒), 用于判定桶内最后一个值
+     * @param durationMs 区间长度 (毫秒)
+     */
+    void addSpan(long startMs, long durationMs, BigDecimal aumValue, Integer followersValue, BigDecimal pnlValue) {
+        if (durationMs <= 0)
+            return;
+        coveredMs += durationMs;
+        aum.add(startMs, durationMs, aumValue, aumValue, aumValue, aumValue);
+        BigDecimal f = followersValue == null ? null : BigDecimal.valueOf(followersValue);
+        followers.add(startMs, durationMs, f, f, f, f);
+        pnl.add(startMs, durationMs, pnlValue, pnlValue, pnlValue, pnlValue);
+    }
+
+    /**
+     * 合并一个更细分辨率的桶
+     *
+     * @param bucket 细分辨率的桶
+     */
+    void addBucket(SnapshotRollupVO bucket) {
+        long weight = bucket.coveredMs();
+        if (weight <= 0)
+            return;
+        long startMs = bucket.bucketTs().toEpochMilli();
+        coveredMs += weight;
+        aum.add(startMs, weight, bucket.aum());
+        followers.add(startMs, weight, bucket.followers());
+        pnl.add(startMs, weight, bucket.pnl());
+    }
+
+    boolean isEmpty() {
+        return coveredMs == 0;
+    }
+
+    SnapshotRollupVO toVO(long projectId, SnapshotSource source, RollupResolution resolution, Instant bucketTs) {
+        return new SnapshotRollupVO(projectId, source, resolution, bucketTs, coveredMs,
+                aum.toStat(), followers.toStat(), pnl.toStat());
+    }
+
+    /**
+     * 单个指标的累计值
+     */
+    private static final class Metric {
+        private BigDecimal last;
+        private long lastAt = Long.MIN_VALUE;
+        private BigDecimal min;
+        private BigDecimal max;
+        private BigDecimal weighted = BigDecimal.ZERO;
+        private long weight;
+
+        void add(long startMs, long durationMs, RollupStatVO stat) {
+            if (stat != null)
+                add(startMs, durationMs, stat.last(), stat.min(), stat.max(), stat.avg());
+        }
+
+        void add(long startMs, long durationMs, BigDecimal lastValue, BigDecimal minValue, BigDecimal maxValue, BigDecimal avgValue) {
+            if (lastValue != null && startMs >= lastAt) {
+                last = lastValue;
+                lastAt = startMs;
+            }
+            if (minValue != null && (min == null || minValue.compareTo(min) < 0))
+                min = minValue;
+            if (maxValue != null && (max == null || maxValue.compareTo(max) > 0))
+                max = maxValue;
+            if (avgValue != null) {
+                weighted = weighted.add(avgValue.multiply(BigDecimal.valueOf(durationMs)));
+                weight += durationMs;
+            }
+        }
+
+        RollupStatVO toStat() {
+            if (weight == 0 && last == null)
+                return null;
+            BigDecimal avg = weight == 0 ? null : weighted.divide(BigDecimal.valueOf(weight), MathContext.DECIMAL64);
+            return new RollupStatVO(last, min, max, avg);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package xin.eason.smartfollow.domain.service.observation;
+
+import org.springframework.stereotype.Component;
+import xin.eason.smartfollow.domain.model.vo.observation.StoredSnapshotVO;
+import xin.eason.smartfollow.types.enums.SnapshotSource;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 快照增量缓存: 记录每个项目, 每个来源最后一行已落库快照的指标向量与区间
+ * <p>只在写入成功后更新; 进程重启后为空, 首次观察时由仓储批量回查最近一行补齐</p>
+ */
+@Component
+public class SnapshotDeltaCache {
+
+    /**
+     * (projectId, source) → 最后一行已落库快照
+     */
+    private final Map<Long, StoredSnapshotVO> lastStored = new ConcurrentHashMap<>();
+
+    /**
+     * 获取最后一行已落库快照
+     *
+     * @param projectId 数据库主键
+     * @param source    快照来源
+     * @return 最后一行, 未缓存时为 null
+     */
+    public StoredSnapshotVO get(long projectId, SnapshotSource source) {
+        return lastStored.get(key(projectId, source));
+    }
+
+    /**
+     * 更新最后一行 (只接受不早于当前缓存的行, 避免乱序回放覆盖较新的状态)
+     *
+     * @param stored 已落库快照
+     */
+    public void put(StoredSnapshotVO stored) {
+        lastStored.merge(key(stored.projectId(), stored.source()), stored,
+                (current, next) -> next.ts().isBefore(current.ts()) ? current : next);
+    }
+
+    /**
+     * 当前缓存的条目数
+     *
+     * @return 条目数
+     */
+    public int size() {
+        return lastStored.size();
+    }
+
+    private static long key(long projectId, SnapshotSource source) {
+        return projectId * SnapshotSource.values().length + source.ordinal();
+    }
+}
@@ -0,0 +1,388 @@
+package xin.eason.smartfollow.domain.service.observation;
+
+import xin.eason.smartfollow.domain.model.vo.observation.SnapshotMetricVO;
+import xin.eason.smartfollow.types.enums.SnapshotSource;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+
+import static xin.eason.smartfollow.types.utils.FieldValidateUtils.require;
+import static xin.eason.smartfollow.types.utils.FieldValidateUtils.requireNotNull;
+
+/**
+ * 项目近期历史环形缓冲: 每个项目最近 {@code capacity} 行快照的 ts / aum_usd / followers / pnl_ratio_90d
+ * <ul>
+ *     <li>全部项目共用四个扁平的基本类型数组, 项目 d 的第 i 个槽位为 <code>d * capacity + i</code>, 不为每个点创建对象</li>
+ *     <li>与 MySQL 中的行一一对应 (增量压缩后的变化点), 每行的值持续到下一行; 缺失的指标记为 {@link Double#NaN}</li>
+ *     <li>每个环按 ts 升序, 写满后覆盖最旧的一行; 乱序到达的行插入到对应位置, 同一 ts 覆盖</li>
+ *     <li>写操作逐行持有写锁, 扫描整体持有读锁, 扫描期间看到的是一致的快照</li>
+ * </ul>
+ */
+public class SnapshotHistoryBuffer {
+
+    /**
+     * 缓冲的快照来源
+     */
+    private final SnapshotSource source;
+    /**
+     * 每个项目保留的行数
+     */
+    private final int capacity;
+    /**
+     * 启动预热回查的时间范围
+     */
+    private final Duration warmUpLookback;
+    private final StampedLock lock = new StampedLock();
+
+    // ===== 按槽位寻址的列, 长度 = 项目容量 * capacity =====
+    private long[] ts;
+    private double[] aumUsd;
+    private double[] followers;
+    private double[] pnlRatio90d;
+    // ===== 按稠密编号寻址, 长度 = 项目容量 =====
+    /**
+     * 最旧一行所在的环内位置
+     */
+    private int[] head;
+    /**
+     * 环内的行数
+     */
+    private int[] count;
+
+    public SnapshotHistoryBuffer(SnapshotSource source, int capacity, Duration warmUpLookback) {
+        requireNotNull(source, "source 不能为空");
+        requireNotNull(warmUpLookback, "warmUpLookback 不能为空");
+        require(capacity >= 2, "capacity 不能小于 2");
+        this.source = source;
+        this.capacity = capacity;
+        this.warmUpLookback = warmUpLookback;
+        allocate(1024);
+    }
+
+    /**
+     * 追加一行快照
+     *
+     * @param denseId     稠密编号
+     * @param tsMs        快照时间 (毫秒)
+     * @param aumUsd      带单规模, 缺失为 NaN
+     * @param followers   跟随者数量, 缺失为 NaN
+     * @param pnlRatio90d 近 90 日收益率, 缺失为 NaN
+     * @return 是否写入; 环已写满且早于环内最旧一行时丢弃
+     */
+    public boolean append(int denseId, long tsMs, double aumUsd, double followers, double pnlRatio90d) {
+        if (denseId < 0)
+            return false;
+        long stamp = lock.writeLock();
+        try {
+            if (denseId >= head.length)
+                grow(denseId);
+            return put(denseId, tsMs, aumUsd, followers, pnlRatio90d);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * 追加一行快照, 指标取自指标向量
+     *
+     * @param denseId 稠密编号
+     * @param tsMs    快照时间 (毫秒)
+     * @param metrics 指标向量
+     * @return 是否写入
+     */
+    public boolean append(int denseId, long tsMs, SnapshotMetricVO metrics) {
+        requireNotNull(metrics, "metrics 不能为空");
+        return append(denseId, tsMs, toDouble(metrics.aumUsd()),
+                metrics.followers() == null ? Double.NaN : metrics.followers(), toDouble(metrics.pnlRatio90d()));
+    }
+
+    /**
+     * 清空全部项目 (重新预热前调用)
+     */
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            Arrays.fill(count, 0);
+            Arrays.fill(head, 0);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * 扫描全部有历史的项目在 [fromMs, toMs) 内的行; 窗口起点之前的最后一行作为起点值一并给出
+     *
+     * @param fromMs  起始时间 (包含)
+     * @param toMs    结束时间 (不包含)
+     * @param visitor 回调, 每个窗口非空的项目一次; 窗口对象在回调之间复用, 不可保留
+     * @return 访问的项目数
+     */
+    public int scan(long fromMs, long toMs, Visitor visitor) {
+        requireNotNull(visitor, "visitor 不能为空");
+        Window window = new Window();
+        long stamp = lock.readLock();
+        try {
+            int visited = 0;
+            for (int denseId = 0; denseId < count.length; denseId++)
+                if (window.select(denseId, fromMs, toMs)) {
+                    visitor.visit(denseId, window);
+                    visited++;
+                }
+            return visited;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * 扫描指定项目在 [fromMs, toMs) 内的行, 语义同 {@link #scan(long, long, Visitor)}
+     *
+     * @param denseIds 稠密编号
+     */
+    public int scan(int[] denseIds, long fromMs, long toMs, Visitor visitor) {
+        requireNotNull(denseIds, "denseIds 不能为空");
+        requireNotNull(visitor, "visitor 不能为空");
+        Window window = new Window();
+        long stamp = lock.readLock();
+        try {
+            int visited = 0;
+            for (int denseId : denseIds)
+                if (denseId >= 0 && denseId < count.length && window.select(denseId, fromMs, toMs)) {
+                    visitor.visit(denseId, window);
+                    visited++;
+                }
+            return visited;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * @return 至少有一行历史的项目数
+     */
+    public int projects() {
+        long stamp = lock.readLock();
+        try {
+            int projects = 0;
+            for (int n : count)
+                if (n > 0)
+                    projects++;
+            return projects;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * @return 已分配数组的估算占用 (字节)
+     */
+    public long memoryBytes() {
+        long stamp = lock.readLock();
+        try {
+            return (long) ts.length * (Long.BYTES + 3 * Double.BYTES) + (long) head.length * 2 * Integer.BYTES;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public SnapshotSource getSource() {
+        return source;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public Duration getWarmUpLookback() {
+        return warmUpLookback;
+    }
+
+    // ===== 写入 (持有写锁) =====
+
+    private boolean put(int denseId, long tsMs, double aum, double follower, double pnlRatio) {
+        int base = denseId * capacity;
+        int start = head[denseId];
+        int n = count[denseId];
+        if (n == 0 || tsMs > ts[slot(base, start, n - 1)]) {
+            // 常见情况: 追加到末尾, 写满时覆盖最旧一行
+            if (n == capacity) {
+                write(slot(base, start, 0), tsMs, aum, follower, pnlRatio);
+                head[denseId] = start + 1 == capacity ? 0 : start + 1;
+            } else {
+                write(slot(base, start, n), tsMs, aum, follower, pnlRatio);
+                count[denseId] = n + 1;
+            }
+            return true;
+        }
+        // 乱序: 从最新一行向前找到插入位置
+        int i = n - 1;
+        while (i >= 0 && ts[slot(base, start, i)] > tsMs)
+            i--;
+        if (i >= 0 && ts[slot(base, start, i)] == tsMs) {
+            write(slot(base, start, i), tsMs, aum, follower, pnlRatio);
+            return true;
+        }
+        if (n == capacity) {
+            if (i < 0)
+                return false;
+            // 丢弃最旧一行, [1, i] 左移一格后写入 i
+            for (int j = 0; j < i; j++)
+                move(slot(base, start, j + 1), slot(base, start, j));
+            write(slot(base, start, i), tsMs, aum, follower, pnlRatio);
+            return true;
+        }
+        // [i + 1, n) 右移一格后写入 i + 1
+        for (int j = n; j > i + 1; j--)
+            move(slot(base, start, j - 1), slot(base, start, j));
+        write(slot(base, start, i + 1), tsMs, aum, follower, pnlRatio);
+        count[denseId] = n + 1;
+        return true;
+    }
+
+    private void write(int slot, long tsMs, double aum, double follower, double pnlRatio) {
+        ts[slot] = tsMs;
+        aumUsd[slot] = aum;
+        followers[slot] = follower;
+        pnlRatio90d[slot] = pnlRatio;
+    }
+
+    private void move(int from, int to) {
+        ts[to] = ts[from];
+        aumUsd[to] = aumUsd[from];
+        followers[to] = followers[from];
+        pnlRatio90d[to] = pnlRatio90d[from];
+    }
+
+    private void grow(int denseId) {
+        int projects = head.length;
+        while (projects <= denseId)
+            projects <<= 1;
+        int slots = Math.multiplyExact(projects, capacity);
+        ts = Arrays.copyOf(ts, slots);
+        aumUsd = Arrays.copyOf(aumUsd, slots);
+        followers = Arrays.copyOf(followers, slots);
+        pnlRatio90d = Arrays.copyOf(pnlRatio90d, slots);
+        head = Arrays.copyOf(head, projects);
+        count = Arrays.copyOf(count, projects);
+    }
+
+    private void allocate(int projects) {
+        int slots = Math.multiplyExact(projects, capacity);
+        ts = new long[slots];
+        aumUsd = new double[slots];
+        followers = new double[slots];
+        pnlRatio90d = new double[slots];
+        head = new int[projects];
+        count = new int[projects];
+    }
+
+    private static double toDouble(BigDecimal value) {
+        return value == null ? Double.NaN : value.doubleValue();
+    }
+
+    /**
+     * 第 i 行 (按时间升序, 0 为最旧) 的槽位
+     */
+    private int slot(int base, int start, int i) {
+        int pos = start + i;
+        return base + (pos >= capacity ? pos - capacity : pos);
+    }
+
+    /**
+     * 扫描回调
+     */
+    @FunctionalInterface
+    public interface Visitor {
+
+        /**
+         * @param denseId 稠密编号
+         * @param window  该项目窗口内的行, 回调返回后失效
+         */
+        void visit(int denseId, Window window);
+    }
+
+    /**
+     * 单个项目的窗口视图, 只保存下标, 读取时直接访问缓冲数组; 在读锁内有效
+     */
+    public final class Window {
+
+        private int base;
+        private int start;
+        private int first;
+        private int size;
+        private boolean carried;
+
+        /**
+         * 选定项目的窗口: 第一行为 fromMs 之前的最后一行 (若存在), 之后为 [fromMs, toMs) 内的行
+         *
+         * @return 窗口是否非空
+         */
+        private boolean select(int denseId, long fromMs, long toMs) {
+            int n = count[denseId];
+            if (n == 0)
+                return false;
+            base = denseId * capacity;
+            start = head[denseId];
+            int lo = lowerBound(n, fromMs);
+            int hi = lowerBound(n, toMs);
+            carried = lo > 0 && lo <= hi;
+            first = carried ? lo - 1 : lo;
+            size = Math.max(0, hi - first);
+            return size > 0;
+        }
+
+        /**
+         * 第一个 ts &gt;= tsMs 的行号
+         */
+        private int lowerBound(int n, long tsMs) {
+            int lo = 0;
+            int hi = n;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (ts[slot(base, start, mid)] < tsMs)
+                    lo = mid + 1;
+                else
+                    hi = mid;
+            }
+            return lo;
+        }
+
+        /**
+         * @return 窗口内的行数
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * @return 第一行是否为窗口起点之前带入的行
+         */
+        public boolean carried() {
+            return carried;
+        }
+
+        public long ts(int i) {
+            return ts[at(i)];
+        }
+
+        public double aumUsd(int i) {
+            return aumUsd[at(i)];
+        }
+
+        public double followers(int i) {
+            return followers[at(i)];
+        }
+
+        public double pnlRatio90d(int i) {
+            return pnlRatio90d[at(i)];
+        }
+
+        private int at(int i) {
+            if (i < 0 || i >= size)
+                throw new IndexOutOfBoundsException(i);
+            return slot(base, start, first + i);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package xin.eason.smartfollow.domain.service.observation;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import xin.eason.smartfollow.domain.ISnapshotHistoryService;
+import xin.eason.smartfollow.domain.adapter.repository.IProjectSnapshotRepository;
+import xin.eason.smartfollow.domain.model.vo.observation.HistoryStatVO;
+import xin.eason.smartfollow.domain.model.vo.observation.SeriesMetric;
+import xin.eason.smartfollow.domain.model.vo.observation.StoredSnapshotVO;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectIdentityVO;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectKey;
+import xin.eason.smartfollow.domain.service.project.ProjectIdentityCache;
+import xin.eason.smartfollow.types.exceptions.IllegalParamException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static xin.eason.smartfollow.types.utils.FieldValidateUtils.require;
+import static xin.eason.smartfollow.types.utils.FieldValidateUtils.requireNotNull;
+
+/**
+ * 项目近期历史服务实现
+ * <ul>
+ *     <li>容器刷新完成后 (身份缓存预热之后) 按稠密编号分批回查每个项目最近 capacity 行, 载入 {@link SnapshotHistoryBuffer}</li>
+ *     <li>之后由 {@link SnapshotIngestService} 在快照落库后同步追加</li>
+ *     <li>窗口统计在读锁内直接遍历基本类型数组, 每个项目只在有结果时创建一个统计对象</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SnapshotHistoryService implements ISnapshotHistoryService {
+
+    /**
+     * 预热时单次回查的项目数
+     */
+    private static final int PROJECT_CHUNK = 500;
+
+    private final IProjectSnapshotRepository snapshotRepository;
+    private final ProjectIdentityCache identityCache;
+    private final SnapshotHistoryBuffer historyBuffer;
+    /**
+     * 是否已预热, 避免多次容器刷新事件重复加载
+     */
+    private final AtomicBoolean warmed = new AtomicBoolean(false);
+
+    /**
+     * 容器刷新完成后加载近期历史
+     *
+     * @param event 容器刷新事件
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    public void onContextRefreshed(ContextRefreshedEvent event) {
+        if (!warmed.compareAndSet(false, true))
+            return;
+        try {
+            warmUp();
+        } catch (Exception e) {
+            // 预热失败不影响启动, 历史随后续入库逐步补齐
+            log.warn("[项目历史] 预热失败: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public int warmUp() {
+        long start = System.currentTimeMillis();
+        historyBuffer.clear();
+        Instant since = Instant.now().minus(historyBuffer.getWarmUpLookback());
+        int projects = identityCache.size();
+        int loaded = 0;
+        for (int from = 0; from < projects; from += PROJECT_CHUNK) {
+            List<Long> ids = new ArrayList<>(PROJECT_CHUNK);
+            for (int denseId = from; denseId < Math.min(from + PROJECT_CHUNK, projects); denseId++) {
+                ProjectIdentityVO identity = identityCache.getByDenseId(denseId);
+                if (identity != null)
+                    ids.add(identity.projectId());
+            }
+            if (ids.isEmpty())
+                continue;
+            for (StoredSnapshotVO row : snapshotRepository.findRecent(ids, historyBuffer.getSource(), since, historyBuffer.getCapacity())) {
+                ProjectIdentityVO identity = identityCache.getByProjectId(row.projectId());
+                if (identity != null && historyBuffer.append(identity.denseId(), row.ts().toEpochMilli(), row.metrics()))
+                    loaded++;
+            }
+        }
+        log.info("[项目历史] 预热完成, {} 个项目共 {} 行, 占用约 {}MB, 耗时 {}ms", historyBuffer.projects(), loaded,
+                historyBuffer.memoryBytes() >> 20, System.currentTimeMillis() - start);
+        return loaded;
+    }
+
+    @Override
+    public List<HistoryStatVO> windowStats(SeriesMetric metric, Instant from, Instant to) {
+        checkWindow(metric, from, to);
+        List<HistoryStatVO> result = new ArrayList<>();
+        historyBuffer.scan(from.toEpochMilli(), to.toEpochMilli(), (denseId, window) -> collect(denseId, window, metric, result));
+        return result;
+    }
+
+    @Override
+    public List<HistoryStatVO> windowStats(Collection<ProjectKey> keys, SeriesMetric metric, Instant from, Instant to) {
+        requireNotNull(keys, "keys 不能为空");
+        checkWindow(metric, from, to);
+        int[] denseIds = new int[keys.size()];
+        int n = 0;
+        for (ProjectKey key : keys)
+            denseIds[n++] = key == null ? -1 : identityCache.denseId(key);
+        List<HistoryStatVO> result = new ArrayList<>(n);
+        historyBuffer.scan(denseIds, from.toEpochMilli(), to.toEpochMilli(), (denseId, window) -> collect(denseId, window, metric, result));
+        return result;
+    }
+
+    private void collect(int denseId, SnapshotHistoryBuffer.Window window, SeriesMetric metric, List<HistoryStatVO> result) {
+        double first = Double.NaN;
+        double last = Double.NaN;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        int points = 0;
+        for (int i = 0; i < window.size(); i++) {
+            double value = valueOf(window, metric, i);
+            if (Double.isNaN(value))
+                continue;
+            if (points++ == 0)
+                first = value;
+            last = value;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        ProjectIdentityVO identity = identityCache.getByDenseId(denseId);
+        if (points > 0 && identity != null)
+            result.add(new HistoryStatVO(identity.key(), points, first, last, min, max));
+    }
+
+    private static double valueOf(SnapshotHistoryBuffer.Window window, SeriesMetric metric, int i) {
+        return switch (metric) {
+            case AUM_USD -> window.aumUsd(i);
+            case FOLLOWERS -> window.followers(i);
+            case PNL_RATIO_90D -> window.pnlRatio90d(i);
+            default -> throw IllegalParamException.of("内存历史不支持的指标: " + metric);
+        };
+    }
+
+    private static void checkWindow(SeriesMetric metric, Instant from, Instant to) {
+        requireNotNull(metric, "metric 不能为空");
+        requireNotNull(from, "from 不能为空");
+        requireNotNull(to, "to 不能为空");
+        require(from.isBefore(to), "from 必须早于 to");
+        if (metric != SeriesMetric.AUM_USD && metric != SeriesMetric.FOLLOWERS && metric != SeriesMetric.PNL_RATIO_90D)
+            throw IllegalParamException.of("内存历史不支持的指标: " + metric);
+    }
+}
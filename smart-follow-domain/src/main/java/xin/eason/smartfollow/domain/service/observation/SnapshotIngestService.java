@@ -0,0 +1,128 @@
+package xin.eason.smartfollow.domain.service.observation;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import xin.eason.smartfollow.domain.IProjectIdentityService;
+import xin.eason.smartfollow.domain.ISnapshotIngestService;
+import xin.eason.smartfollow.domain.adapter.repository.IProjectSnapshotRepository;
+import xin.eason.smartfollow.domain.model.aggregate.observation.ProjectSnapshotAggregate;
+import xin.eason.smartfollow.domain.model.vo.observation.SnapshotMetricVO;
+import xin.eason.smartfollow.domain.model.vo.observation.SnapshotWriteResultVO;
+import xin.eason.smartfollow.domain.model.vo.observation.StoredSnapshotVO;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectIdentityVO;
+import xin.eason.smartfollow.types.enums.SnapshotSource;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static xin.eason.smartfollow.types.utils.FieldValidateUtils.requireNotNull;
+
+/**
+ * 快照入库服务实现 (增量压缩)
+ * <ul>
+ *     <li>按时间升序逐条与 {@link SnapshotDeltaCache} 中的上一行比较指标向量, 相同则只延长 valid_until; 单行跨度不超过 {@link StoredSnapshotVO#MAX_SPAN}</li>
+ *     <li>缓存缺失的项目先批量回查最近一行, 避免重启后每个项目都多写一行</li>
+ *     <li>先插入后延长, 同一批内新插入的行也可以被后续观察延长; 全部成功后才更新缓存与 {@link SnapshotHistoryBuffer}</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SnapshotIngestService implements ISnapshotIngestService {
+
+    /**
+     * 缓存缺失时回查最近一行的时间窗口 (用于分区裁剪); 行跨度不超过该值, 更早的行不会再被延长
+     */
+    private static final Duration LOOKBACK = StoredSnapshotVO.MAX_SPAN;
+
+    private final IProjectSnapshotRepository snapshotRepository;
+    private final IProjectIdentityService identityService;
+    private final SnapshotDeltaCache deltaCache;
+    private final SnapshotHistoryBuffer historyBuffer;
+
+    @Override
+    public SnapshotWriteResultVO ingest(Collection<ProjectSnapshotAggregate> snapshots) {
+        requireNotNull(snapshots, "snapshots 不能为空");
+        List<ProjectSnapshotAggregate> ordered = new ArrayList<>(snapshots);
+        ordered.sort(Comparator.comparing(ProjectSnapshotAggregate::getSnapshotTs));
+
+        // ===== 解析项目主键, 补齐缓存 =====
+        Map<ProjectSnapshotAggregate, ProjectIdentityVO> identities = new HashMap<>();
+        Map<SnapshotSource, Set<Long>> misses = new EnumMap<>(SnapshotSource.class);
+        int skipped = 0;
+        for (ProjectSnapshotAggregate snapshot : ordered) {
+            ProjectIdentityVO identity = identityService.resolve(snapshot.getProjectKey());
+            if (identity == null) {
+                skipped++;
+                log.warn("[项目快照] 项目未注册, 跳过快照: {}", snapshot.snapshotId());
+                continue;
+            }
+            identities.put(snapshot, identity);
+            if (deltaCache.get(identity.projectId(), snapshot.getSource()) == null)
+                misses.computeIfAbsent(snapshot.getSource(), k -> new HashSet<>()).add(identity.projectId());
+        }
+        if (!misses.isEmpty() && !ordered.isEmpty()) {
+            Instant since = ordered.get(0).getSnapshotTs().minus(LOOKBACK);
+            misses.forEach((source, ids) -> snapshotRepository.findLatest(ids, source, since).forEach(deltaCache::put));
+        }
+
+        // ===== 逐条比较: 插入或延长 =====
+        Map<Long, StoredSnapshotVO> local = new HashMap<>();
+        Map<String, StoredSnapshotVO> extensions = new LinkedHashMap<>();
+        List<ProjectSnapshotAggregate> inserts = new ArrayList<>();
+        int suppressed = 0;
+        for (ProjectSnapshotAggregate snapshot : ordered) {
+            ProjectIdentityVO identity = identities.get(snapshot);
+            if (identity == null)
+                continue;
+            long projectId = identity.projectId();
+            long stateKey = projectId * SnapshotSource.values().length + snapshot.getSource().ordinal();
+            StoredSnapshotVO last = local.getOrDefault(stateKey, deltaCache.get(projectId, snapshot.getSource()));
+            SnapshotMetricVO metrics = SnapshotMetricVO.of(snapshot);
+            Instant ts = snapshot.getSnapshotTs();
+
+            // 跨度达到 MAX_SPAN 后即使指标不变也新起一行, 保证 "最后一行" 查询的回查下界成立
+            if (last != null && ts.isAfter(last.ts()) && ts.isBefore(last.ts().plus(StoredSnapshotVO.MAX_SPAN))
+                    && metrics.sameAs(last.metrics())) {
+                StoredSnapshotVO extended = last.extendTo(ts.isAfter(last.end()) ? ts : last.end());
+                local.put(stateKey, extended);
+                extensions.put(projectId + "@" + last.ts().toEpochMilli() + "#" + last.source(), extended);
+                suppressed++;
+                continue;
+            }
+            inserts.add(snapshot);
+            // 乱序 (早于上一行) 的观察照常插入, 但不作为后续比较的基准
+            if (last == null || ts.isAfter(last.ts()))
+                local.put(stateKey, new StoredSnapshotVO(projectId, snapshot.getSource(), ts, null,
+                        snapshot.getDataVer(), metrics));
+        }
+
+        // ===== 落库: 先插入后延长 =====
+        SnapshotWriteResultVO written = snapshotRepository.insertBatch(inserts);
+        if (!extensions.isEmpty())
+            snapshotRepository.extendValidUntil(extensions.values());
+        local.values().forEach(deltaCache::put);
+        for (ProjectSnapshotAggregate snapshot : inserts)
+            if (snapshot.getSource() == historyBuffer.getSource())
+                historyBuffer.append(identities.get(snapshot).denseId(), snapshot.getSnapshotTs().toEpochMilli(),
+                        SnapshotMetricVO.of(snapshot));
+
+        SnapshotWriteResultVO result = new SnapshotWriteResultVO(snapshots.size(), written.getInserted(),
+                written.getIgnored(), suppressed, skipped + written.getSkipped(),
+                written.getStatements() + (extensions.isEmpty() ? 0 : 1));
+        log.debug("[项目快照] 入库 {} 条, 插入 {} 条, 忽略 {} 条, 延长 {} 条, 跳过 {} 条",
+                result.getTotal(), result.getInserted(), result.getIgnored(), result.getExtended(), result.getSkipped());
+        return result;
+    }
+}
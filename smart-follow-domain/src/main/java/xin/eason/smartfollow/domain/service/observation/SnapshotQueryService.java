@@ -0,0 +1,176 @@
+package xin.eason.smartfollow.domain.service.observation;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import xin.eason.smartfollow.domain.IProjectIdentityService;
+import xin.eason.smartfollow.domain.ISnapshotQueryService;
+import xin.eason.smartfollow.domain.adapter.repository.IProjectSnapshotRepository;
+import xin.eason.smartfollow.domain.adapter.repository.ISnapshotRollupRepository;
+import xin.eason.smartfollow.domain.model.vo.observation.RollupResolution;
+import xin.eason.smartfollow.domain.model.vo.observation.RollupStatVO;
+import xin.eason.smartfollow.domain.model.vo.observation.SeriesMetric;
+import xin.eason.smartfollow.domain.model.vo.observation.SnapshotMetricVO;
+import xin.eason.smartfollow.domain.model.vo.observation.SnapshotPointVO;
+import xin.eason.smartfollow.domain.model.vo.observation.SnapshotRollupVO;
+import xin.eason.smartfollow.domain.model.vo.observation.SnapshotSeriesVO;
+import xin.eason.smartfollow.domain.model.vo.observation.StoredSnapshotVO;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectIdentityVO;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectKey;
+import xin.eason.smartfollow.types.enums.SnapshotSource;
+import xin.eason.smartfollow.types.utils.DownsampleUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static xin.eason.smartfollow.types.utils.FieldValidateUtils.require;
+import static xin.eason.smartfollow.types.utils.FieldValidateUtils.requireNotNull;
+
+/**
+ * 快照查询服务实现
+ * <ul>
+ *     <li>区间行 [ts, valid_until] 还原为两个端点; 起点之前开始但仍覆盖起点的行被截断到起点</li>
+ *     <li>降采样在还原后的阶梯时序上按 LTTB 选点, 返回点数与历史长度无关</li>
+ *     <li>平均每个目标点覆盖 1 小时 / 1 天以上时改读对应分辨率的汇总桶, 每个桶输出最小 / 最大两个点以保留峰谷;
+ *     第一个桶之前 (尚未汇总) 与汇总水位之后的部分仍读原始快照</li>
+ * </ul>
+ */
+@Service
+@RequiredArgsConstructor
+public class SnapshotQueryService implements ISnapshotQueryService {
+
+    private final IProjectSnapshotRepository snapshotRepository;
+    private final IProjectIdentityService identityService;
+    private final ISnapshotRollupRepository rollupRepository;
+
+    @Override
+    public List<SnapshotPointVO> series(ProjectKey key, SnapshotSource source, Instant from, Instant to) {
+        requireNotNull(key, "key 不能为空");
+        requireNotNull(source, "source 不能为空");
+        requireNotNull(from, "from 不能为空");
+        requireNotNull(to, "to 不能为空");
+        require(from.isBefore(to), "from 必须早于 to");
+        ProjectIdentityVO identity = identityService.resolve(key);
+        if (identity == null)
+            return List.of();
+
+        List<StoredSnapshotVO> rows = new ArrayList<>();
+        snapshotRepository.findLastBefore(identity.projectId(), source, from, from.minus(StoredSnapshotVO.MAX_SPAN))
+                .filter(r -> !r.end().isBefore(from))
+                .ifPresent(rows::add);
+        rows.addAll(snapshotRepository.findRange(identity.projectId(), source, from, to));
+
+        List<SnapshotPointVO> points = new ArrayList<>(rows.size() * 2);
+        for (StoredSnapshotVO row : rows) {
+            Instant start = row.ts().isBefore(from) ? from : row.ts();
+            Instant end = row.end().isBefore(to) ? row.end() : to.minusMillis(1);
+            points.add(toPoint(start, row));
+            if (end.isAfter(start))
+                points.add(toPoint(end, row));
+        }
+        return points;
+    }
+
+    @Override
+    public SnapshotSeriesVO downsample(ProjectKey key, SnapshotSource source, SeriesMetric metric, Instant from, Instant to, int maxPoints) {
+        requireNotNull(metric, "metric 不能为空");
+        require(maxPoints >= 3, "maxPoints 不能小于 3");
+        RollupResolution resolution = pickResolution(metric, from, to, maxPoints);
+        List<SnapshotPointVO> points = null;
+        if (resolution != null)
+            points = rollupSeries(key, source, resolution, from, to);
+        if (points == null) {
+            resolution = null;
+            points = series(key, source, from, to);
+        }
+
+        // 指标缺失的点无法绘制, 先剔除; 其余点转为列式数组交给 LTTB
+        long[] xs = new long[points.size()];
+        double[] ys = new double[points.size()];
+        List<SnapshotPointVO> valid = new ArrayList<>(points.size());
+        for (SnapshotPointVO point : points) {
+            double y = metric.valueOf(point);
+            if (Double.isNaN(y))
+                continue;
+            xs[valid.size()] = point.getTs().toEpochMilli();
+            ys[valid.size()] = y;
+            valid.add(point);
+        }
+        int[] picked = DownsampleUtils.lttb(xs, ys, valid.size(), maxPoints);
+        List<SnapshotPointVO> sampled = new ArrayList<>(picked.length);
+        for (int index : picked)
+            sampled.add(valid.get(index));
+        return new SnapshotSeriesVO(metric, resolution == null ? "raw" : resolution.getCode(), valid.size(), sampled);
+    }
+
+    /**
+     * 按平均每个目标点覆盖的时长选择分辨率; 汇总表只包含 AUM / 跟随者 / 收益三个指标
+     *
+     * @return 分辨率, 需要读原始快照时返回 <code>null</code>
+     */
+    private static RollupResolution pickResolution(SeriesMetric metric, Instant from, Instant to, int maxPoints) {
+        if (metric == SeriesMetric.WIN_RATIO || metric == SeriesMetric.PNL_RATIO_90D)
+            return null;
+        Duration perPoint = Duration.between(from, to).dividedBy(maxPoints);
+        if (perPoint.compareTo(RollupResolution.D1.getStep()) >= 0)
+            return RollupResolution.D1;
+        if (perPoint.compareTo(RollupResolution.H1.getStep()) >= 0)
+            return RollupResolution.H1;
+        return null;
+    }
+
+    /**
+     * 由汇总桶构造时序, 第一个桶之前与汇总水位之后的部分拼接原始快照
+     *
+     * @return 时序点, 区间内没有汇总桶时返回 <code>null</code> (回退到原始快照)
+     */
+    private List<SnapshotPointVO> rollupSeries(ProjectKey key, SnapshotSource source, RollupResolution resolution, Instant from, Instant to) {
+        requireNotNull(key, "key 不能为空");
+        requireNotNull(source, "source 不能为空");
+        ProjectIdentityVO identity = identityService.resolve(key);
+        if (identity == null)
+            return null;
+        List<SnapshotRollupVO> buckets = rollupRepository.findRange(identity.projectId(), source, resolution, from, to);
+        if (buckets.isEmpty())
+            return null;
+        List<SnapshotPointVO> points = new ArrayList<>(buckets.size() * 2 + 16);
+        Instant head = buckets.get(0).bucketTs();
+        if (from.isBefore(head))
+            points.addAll(series(key, source, from, head));
+        for (SnapshotRollupVO bucket : buckets) {
+            Instant mid = bucket.bucketTs().plus(resolution.getStep().dividedBy(2));
+            points.add(extremePoint(bucket.bucketTs(), bucket, true, source));
+            points.add(extremePoint(mid, bucket, false, source));
+        }
+        Instant covered = buckets.get(buckets.size() - 1).bucketTs().plus(resolution.getStep());
+        if (covered.isBefore(to))
+            points.addAll(series(key, source, covered, to));
+        return points;
+    }
+
+    /**
+     * 桶内极值点: 桶内最后值不低于均值时视为上行, 先最小后最大, 否则先最大后最小 (各指标分别判断)
+     *
+     * @param first 是否为桶内的第一个点
+     */
+    private static SnapshotPointVO extremePoint(Instant ts, SnapshotRollupVO bucket, boolean first, SnapshotSource source) {
+        BigDecimal followers = extreme(bucket.followers(), first);
+        return new SnapshotPointVO(ts, extreme(bucket.aum(), first), followers == null ? null : followers.intValue(),
+                null, null, extreme(bucket.pnl(), first), null, source.getName());
+    }
+
+    private static BigDecimal extreme(RollupStatVO stat, boolean first) {
+        if (stat == null)
+            return null;
+        boolean rising = stat.last() == null || stat.avg() == null || stat.last().compareTo(stat.avg()) >= 0;
+        return first == rising ? stat.min() : stat.max();
+    }
+
+    private static SnapshotPointVO toPoint(Instant ts, StoredSnapshotVO row) {
+        SnapshotMetricVO m = row.metrics();
+        return new SnapshotPointVO(ts, m.aumUsd(), m.followers(), m.winRatio(), m.pnlRatio90d(), m.pnl90dUsd(),
+                m.visibility(), row.source().getName());
+    }
+}
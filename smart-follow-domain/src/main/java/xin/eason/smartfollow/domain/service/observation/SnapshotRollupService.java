@@ -0,0 +1,244 @@
+package xin.eason.smartfollow.domain.service.observation;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import xin.eason.smartfollow.domain.ISnapshotRollupService;
+import xin.eason.smartfollow.domain.adapter.repository.IPartitionRepository;
+import xin.eason.smartfollow.domain.adapter.repository.IProjectSnapshotRepository;
+import xin.eason.smartfollow.domain.adapter.repository.ISnapshotRollupRepository;
+import xin.eason.smartfollow.domain.model.vo.observation.RollupResolution;
+import xin.eason.smartfollow.domain.model.vo.observation.SnapshotMetricVO;
+import xin.eason.smartfollow.domain.model.vo.observation.SnapshotRollupVO;
+import xin.eason.smartfollow.domain.model.vo.observation.StoredSnapshotVO;
+import xin.eason.smartfollow.domain.model.vo.partition.PartitionInfoVO;
+import xin.eason.smartfollow.domain.model.vo.partition.PartitionedTable;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectIdentityVO;
+import xin.eason.smartfollow.domain.service.project.ProjectIdentityCache;
+import xin.eason.smartfollow.types.enums.SnapshotSource;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static xin.eason.smartfollow.types.utils.FieldValidateUtils.requireNotNull;
+
+/**
+ * 快照汇总服务实现
+ * <ul>
+ *     <li>原始快照是阶梯函数: 每行的取值持续到下一行的 ts, 但不超过该行最后一次观察 (end) 之后 {@link #HOLD_GRACE}, 避免把消失期间算作有值</li>
+ *     <li>区间起点之前的最后一行作为带入值, 保证跨桶持续的取值不丢失</li>
+ *     <li>项目按 {@link #PROJECT_CHUNK} 个一组批量读取, 每个来源每组只发两条查询</li>
+ *     <li>水位保存在内存中, 启动后首次使用时由汇总表的最大桶初始化; 没有任何数据的小时也会推进水位</li>
+ *     <li>首次汇总之前的存量分区由 {@link #backfill} 从最早的桶向前逐日补算, 直到最老的月分区起点; 续跑位置取汇总表的最小桶</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SnapshotRollupService implements ISnapshotRollupService {
+
+    /**
+     * 一行快照在最后一次观察之后仍视为有效的时长 (略大于榜单 10 分钟一版的刷新间隔)
+     */
+    private static final Duration HOLD_GRACE = Duration.ofMinutes(15);
+    /**
+     * 回查带入值的时间窗口
+     */
+    private static final Duration CARRY_LOOKBACK = Duration.ofDays(1);
+    /**
+     * 汇总表为空时从多久之前开始
+     */
+    private static final Duration INITIAL_LOOKBACK = Duration.ofDays(7);
+    /**
+     * 单次任务最多推进的 1 小时桶时长, 避免首轮或长时间停机后单次执行过久
+     */
+    private static final Duration MAX_CATCH_UP = Duration.ofDays(1);
+    /**
+     * 每批处理的项目数量
+     */
+    private static final int PROJECT_CHUNK = 500;
+
+    private final IProjectSnapshotRepository snapshotRepository;
+    private final ISnapshotRollupRepository rollupRepository;
+    private final ProjectIdentityCache identityCache;
+    private final IPartitionRepository partitionRepository;
+    /**
+     * 各分辨率已汇总到的位置
+     */
+    private final Map<RollupResolution, Instant> watermarks = new EnumMap<>(RollupResolution.class);
+    /**
+     * 向前补算已完成到的位置 (1 小时桶), 早于它的存量快照尚未汇总
+     */
+    private Instant backfillCursor;
+
+    @Override
+    public synchronized int rollupClosed(Instant now) {
+        requireNotNull(now, "now 不能为空");
+        int written = 0;
+
+        // ===== 1 小时桶 =====
+        Instant hourFrom = watermark(RollupResolution.H1, now);
+        Instant hourTo = RollupResolution.H1.floor(now);
+        if (hourTo.isAfter(hourFrom.plus(MAX_CATCH_UP)))
+            hourTo = hourFrom.plus(MAX_CATCH_UP);
+        if (hourFrom.isBefore(hourTo)) {
+            written += rollup(RollupResolution.H1, hourFrom, hourTo);
+            watermarks.put(RollupResolution.H1, hourTo);
+        }
+
+        // ===== 1 天桶: 只合并 1 小时桶已全部完成的日 =====
+        Instant dayFrom = watermark(RollupResolution.D1, now);
+        Instant dayTo = RollupResolution.D1.floor(watermarks.get(RollupResolution.H1));
+        if (dayFrom.isBefore(dayTo)) {
+            written += rollup(RollupResolution.D1, dayFrom, dayTo);
+            watermarks.put(RollupResolution.D1, dayTo);
+        }
+        return written;
+    }
+
+    @Override
+    public synchronized int backfill(Instant now) {
+        requireNotNull(now, "now 不能为空");
+        if (backfillCursor == null)
+            backfillCursor = rollupRepository.findEarliestBucket(RollupResolution.H1)
+                    .orElseGet(() -> watermark(RollupResolution.H1, now));
+        Instant floor = oldestPartitionStart();
+        if (floor == null || !floor.isBefore(backfillCursor))
+            return 0;
+
+        // 每次最多补一个自然日: [当日起点, 游标) 的 1 小时桶, 再重算当日的 1 天桶
+        Instant day = RollupResolution.D1.floor(backfillCursor.minusMillis(1));
+        Instant from = day.isBefore(floor) ? floor : day;
+        int written = rollup(RollupResolution.H1, from, backfillCursor);
+        // 当日尚未被前向水位合并时留给 rollupClosed, 避免提前写出不完整的 1 天桶推高水位
+        Instant dayEnd = day.plus(RollupResolution.D1.getStep());
+        if (!dayEnd.isAfter(watermark(RollupResolution.D1, now)))
+            written += rollup(RollupResolution.D1, day, dayEnd);
+        backfillCursor = from;
+        if (!from.isAfter(floor))
+            log.info("[快照汇总] 存量分区补算完成, 已覆盖到 {}", floor);
+        return written;
+    }
+
+    @Override
+    public int rollup(RollupResolution resolution, Instant from, Instant to) {
+        requireNotNull(resolution, "resolution 不能为空");
+        requireNotNull(from, "from 不能为空");
+        requireNotNull(to, "to 不能为空");
+        Instant start = resolution.floor(from);
+        Instant end = resolution.floor(to);
+        if (!start.isBefore(end))
+            return 0;
+
+        long begin = System.currentTimeMillis();
+        int written = 0;
+        int projects = identityCache.size();
+        for (int offset = 0; offset < projects; offset += PROJECT_CHUNK) {
+            List<Long> ids = new ArrayList<>(PROJECT_CHUNK);
+            for (int denseId = offset; denseId < Math.min(offset + PROJECT_CHUNK, projects); denseId++) {
+                ProjectIdentityVO identity = identityCache.getByDenseId(denseId);
+                if (identity != null)
+                    ids.add(identity.projectId());
+            }
+            if (ids.isEmpty())
+                continue;
+            for (SnapshotSource source : SnapshotSource.values()) {
+                List<SnapshotRollupVO> buckets = resolution == RollupResolution.H1
+                        ? hourly(ids, source, start, end)
+                        : daily(ids, source, start, end);
+                if (!buckets.isEmpty())
+                    written += rollupRepository.upsertBatch(buckets);
+            }
+        }
+        log.info("[快照汇总] {} 汇总完成 [{}, {}), 写入 {} 个桶, 耗时 {}ms",
+                resolution.getCode(), start, end, written, System.currentTimeMillis() - begin);
+        return written;
+    }
+
+    /**
+     * 由原始快照计算 1 小时桶
+     */
+    private List<SnapshotRollupVO> hourly(List<Long> ids, SnapshotSource source, Instant from, Instant to) {
+        Map<Long, List<StoredSnapshotVO>> byProject = new HashMap<>();
+        for (StoredSnapshotVO carry : snapshotRepository.findLastBefore(ids, source, from, from.minus(CARRY_LOOKBACK)))
+            byProject.computeIfAbsent(carry.projectId(), k -> new ArrayList<>()).add(carry);
+        for (StoredSnapshotVO row : snapshotRepository.findWindow(ids, source, from, to))
+            byProject.computeIfAbsent(row.projectId(), k -> new ArrayList<>()).add(row);
+
+        long stepMs = RollupResolution.H1.getStep().toMillis();
+        long fromMs = from.toEpochMilli();
+        long toMs = to.toEpochMilli();
+        List<SnapshotRollupVO> result = new ArrayList<>();
+        for (Map.Entry<Long, List<StoredSnapshotVO>> entry : byProject.entrySet()) {
+            List<StoredSnapshotVO> rows = entry.getValue();
+            Map<Long, RollupAccumulator> buckets = new TreeMap<>();
+            for (int i = 0; i < rows.size(); i++) {
+                StoredSnapshotVO row = rows.get(i);
+                long start = Math.max(row.ts().toEpochMilli(), fromMs);
+                long hold = row.end().toEpochMilli() + HOLD_GRACE.toMillis();
+                if (i + 1 < rows.size())
+                    hold = Math.min(hold, rows.get(i + 1).ts().toEpochMilli());
+                long end = Math.min(hold, toMs);
+                SnapshotMetricVO m = row.metrics();
+                // 按桶边界切分持续区间
+                for (long bucket = fromMs + (start - fromMs) / stepMs * stepMs; bucket < end; bucket += stepMs) {
+                    long segStart = Math.max(start, bucket);
+                    long segEnd = Math.min(end, bucket + stepMs);
+                    buckets.computeIfAbsent(bucket, k -> new RollupAccumulator())
+                            .addSpan(segStart, segEnd - segStart, m.aumUsd(), m.followers(), m.pnl90dUsd());
+                }
+            }
+            buckets.forEach((bucket, acc) -> {
+                if (!acc.isEmpty())
+                    result.add(acc.toVO(entry.getKey(), source, RollupResolution.H1, Instant.ofEpochMilli(bucket)));
+            });
+        }
+        return result;
+    }
+
+    /**
+     * 由 1 小时桶合并 1 天桶
+     */
+    private List<SnapshotRollupVO> daily(List<Long> ids, SnapshotSource source, Instant from, Instant to) {
+        Map<Long, Map<Instant, RollupAccumulator>> byProject = new HashMap<>();
+        for (SnapshotRollupVO hour : rollupRepository.findBuckets(ids, source, RollupResolution.H1, from, to))
+            byProject.computeIfAbsent(hour.projectId(), k -> new TreeMap<>())
+                    .computeIfAbsent(RollupResolution.D1.floor(hour.bucketTs()), k -> new RollupAccumulator())
+                    .addBucket(hour);
+        List<SnapshotRollupVO> result = new ArrayList<>();
+        byProject.forEach((projectId, days) -> days.forEach((day, acc) -> {
+            if (!acc.isEmpty())
+                result.add(acc.toVO(projectId, source, RollupResolution.D1, day));
+        }));
+        return result;
+    }
+
+    /**
+     * 最老的月分区起点 (上界前推一个月), 向前补算到此为止
+     *
+     * @return 起点, 快照表未分区时返回 <code>null</code>
+     */
+    private Instant oldestPartitionStart() {
+        LocalDate oldest = null;
+        for (PartitionInfoVO partition : partitionRepository.findPartitions(PartitionedTable.SNAPSHOT))
+            if (!partition.isMax() && (oldest == null || partition.lessThan().isBefore(oldest)))
+                oldest = partition.lessThan();
+        return oldest == null ? null : oldest.minusMonths(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+
+    /**
+     * 读取水位, 首次使用时由汇总表初始化
+     */
+    private Instant watermark(RollupResolution resolution, Instant now) {
+        return watermarks.computeIfAbsent(resolution, r -> rollupRepository.findWatermark(r)
+                .orElseGet(() -> r.floor(now.minus(INITIAL_LOOKBACK))));
+    }
+}
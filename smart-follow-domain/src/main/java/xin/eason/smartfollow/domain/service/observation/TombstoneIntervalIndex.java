@@ -0,0 +1,529 @@
+package xin.eason.smartfollow.domain.service.observation;
+
+import org.springframework.stereotype.Component;
+import xin.eason.smartfollow.domain.model.aggregate.observation.TombstoneAggregate;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.ToIntFunction;
+
+import static xin.eason.smartfollow.types.utils.FieldValidateUtils.requireNotNull;
+
+/**
+ * 墓碑区间索引: 全部墓碑区间 <code>[fromTs, toTs)</code> 的横截面 / 区间重叠查询
+ * <ul>
+ *     <li>基线按 (fromTs, 稠密编号) 升序存为列式数组, 其上建一棵 "区间内最大 toTs" 的隐式线段树;
+ *     查询先二分出 fromTs 满足条件的前缀, 再在线段树上只下探 maxTo 超过阈值的节点</li>
+ *     <li>打开的墓碑 toTs 记为 {@link Long#MAX_VALUE}</li>
+ *     <li>增量维护: 新打开的区间进入增量段, 增量段与基线结构相同 (有序 + maxTo 线段树), 查询同样不做线性扫描;
+ *     基线中的区间被关闭时只记录覆盖值 (按基线下标有序的数组, 二分查找), 线段树仍按覆盖前的 toTs 剪枝</li>
+ *     <li>增量段与覆盖值合计 d 超过 max({@value #MIN_MERGE_THRESHOLD}, √n) 时与基线线性归并为新基线 (O(n), 均摊到每次写入约 O(√n));
+ *     查询 O((k + d + 1) · log n), k 为命中区间数, 其中 d 一项只来自已关闭但尚未归并的基线区间;
+ *     每次写入 (单条或一批 b 条) 重建增量段与覆盖值, O(d + b log b)</li>
+ *     <li>{@link #openAll} / {@link #closeAll} 一批只发布一个快照; 所有状态封装在不可变的 {@link Snapshot} 中, 读无锁, 写串行化并整体替换</li>
+ * </ul>
+ */
+@Component
+public class TombstoneIntervalIndex {
+
+    /**
+     * 打开墓碑的 toTs
+     */
+    private static final long OPEN = Long.MAX_VALUE;
+    /**
+     * 触发归并的增量规模下限 (实际阈值取该值与 √基线规模 的较大者)
+     */
+    private static final int MIN_MERGE_THRESHOLD = 1024;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    /**
+     * 区间消费者
+     */
+    @FunctionalInterface
+    public interface IntervalConsumer {
+        /**
+         * @param denseId    稠密编号
+         * @param fromMillis 区间起点 (毫秒)
+         * @param toMillis   区间终点 (毫秒), 打开的墓碑为 {@link Long#MAX_VALUE}
+         */
+        void accept(int denseId, long fromMillis, long toMillis);
+    }
+
+    /**
+     * 用全量墓碑重建索引 (启动预热)
+     *
+     * @param tombstones 全部墓碑 (含已关闭)
+     * @param denseIdOf  墓碑 → 稠密编号, 返回负数表示项目未注册, 跳过
+     * @return 载入的区间数量
+     */
+    public synchronized int load(Collection<TombstoneAggregate> tombstones, ToIntFunction<TombstoneAggregate> denseIdOf) {
+        requireNotNull(tombstones, "tombstones 不能为空");
+        Intervals all = intervals(tombstones, denseIdOf, false);
+        all.sort();
+        Base pending = snapshot.loaded ? Base.EMPTY : snapshot.delta;
+        Base base = new Base(all);
+        snapshot = new Snapshot(base, Overrides.EMPTY, Base.EMPTY, true);
+        // 加载完成前写入的打开 / 关闭 (可能晚于全量扫描) 作为一批重放到新基线上, 不被全量结果覆盖
+        if (pending.size > 0) {
+            Intervals opened = new Intervals(pending.size);
+            Intervals closed = new Intervals(pending.size);
+            for (int i = 0; i < pending.size; i++) {
+                int pos = base.indexOf(pending.denseId[i], pending.from[i]);
+                if (pos < 0)
+                    opened.add(pending.denseId[i], pending.from[i], pending.to[i]);
+                else if (pending.to[i] != base.to[pos])
+                    closed.add(pending.denseId[i], pending.from[i], pending.to[i]);
+            }
+            apply(opened, closed);
+        }
+        return all.size;
+    }
+
+    /**
+     * 追加一个新打开的墓碑区间
+     *
+     * @param denseId 稠密编号
+     * @param fromTs  开始不可见的时间
+     */
+    public synchronized void open(int denseId, Instant fromTs) {
+        requireNotNull(fromTs, "fromTs 不能为空");
+        if (denseId < 0)
+            return;
+        Intervals opened = new Intervals(1);
+        opened.add(denseId, fromTs.toEpochMilli(), OPEN);
+        apply(opened, Intervals.EMPTY);
+    }
+
+    /**
+     * 追加一批新打开的墓碑区间, 整批只发布一个快照
+     *
+     * @param tombstones 已落库的打开墓碑
+     * @param denseIdOf  墓碑 → 稠密编号, 返回负数表示项目未注册, 跳过
+     */
+    public synchronized void openAll(Collection<TombstoneAggregate> tombstones, ToIntFunction<TombstoneAggregate> denseIdOf) {
+        requireNotNull(tombstones, "tombstones 不能为空");
+        Intervals opened = intervals(tombstones, denseIdOf, false);
+        if (opened.size > 0)
+            apply(opened, Intervals.EMPTY);
+    }
+
+    /**
+     * 关闭一个墓碑区间
+     *
+     * @param denseId 稠密编号
+     * @param fromTs  区间起点 (与打开时相同)
+     * @param toTs    不可见结束时间
+     */
+    public synchronized void close(int denseId, Instant fromTs, Instant toTs) {
+        requireNotNull(fromTs, "fromTs 不能为空");
+        requireNotNull(toTs, "toTs 不能为空");
+        if (denseId < 0)
+            return;
+        Intervals closed = new Intervals(1);
+        closed.add(denseId, fromTs.toEpochMilli(), toTs.toEpochMilli());
+        apply(Intervals.EMPTY, closed);
+    }
+
+    /**
+     * 关闭一批墓碑区间, 整批只发布一个快照
+     *
+     * @param tombstones 已落库的关闭墓碑 (fromTs 与打开时相同, toTs 不为空)
+     * @param denseIdOf  墓碑 → 稠密编号, 返回负数表示项目未注册, 跳过
+     */
+    public synchronized void closeAll(Collection<TombstoneAggregate> tombstones, ToIntFunction<TombstoneAggregate> denseIdOf) {
+        requireNotNull(tombstones, "tombstones 不能为空");
+        Intervals closed = intervals(tombstones, denseIdOf, true);
+        if (closed.size > 0)
+            apply(Intervals.EMPTY, closed);
+    }
+
+    /**
+     * 遍历时刻 {@code asOf} 处于不可见的区间: <code>fromTs &lt;= asOf AND toTs &gt; asOf</code>
+     *
+     * @param asOf     查询时刻
+     * @param consumer 区间消费者
+     */
+    public void forEachAt(Instant asOf, IntervalConsumer consumer) {
+        long t = asOf.toEpochMilli();
+        snapshot.collect(t, true, t, consumer);
+    }
+
+    /**
+     * 遍历与 <code>[from, to)</code> 重叠的区间: <code>fromTs &lt; to AND toTs &gt; from</code>
+     *
+     * @param from     区间起点
+     * @param to       区间终点 (不含)
+     * @param consumer 区间消费者
+     */
+    public void forEachOverlapping(Instant from, Instant to, IntervalConsumer consumer) {
+        long a = from.toEpochMilli();
+        long b = to.toEpochMilli();
+        snapshot.collect(b, false, a, consumer);
+    }
+
+    /**
+     * @return 当前索引的区间总数
+     */
+    public int size() {
+        Snapshot current = snapshot;
+        return current.base.size + current.delta.size;
+    }
+
+    /**
+     * @return 是否已完成启动加载
+     */
+    public boolean isLoaded() {
+        return snapshot.loaded;
+    }
+
+    /**
+     * 在当前快照上应用一批打开 / 关闭并发布新快照; 增量超过阈值时先与基线归并
+     *
+     * @param opened 新打开的区间 (无序)
+     * @param closed 被关闭的区间 (无序, toTs 为关闭时间)
+     */
+    private void apply(Intervals opened, Intervals closed) {
+        Snapshot current = snapshot;
+        // 新打开的区间与现有增量段归并为新的有序增量段 (副本, 不修改旧快照)
+        Intervals delta = current.delta.mergeWith(opened);
+        boolean deltaChanged = opened.size > 0;
+        boolean unsorted = false;
+        // 关闭: 增量段中的区间直接改写 toTs, 基线中的区间记录覆盖值
+        int[] basePos = new int[closed.size];
+        long[] baseTo = new long[closed.size];
+        int overrides = 0;
+        for (int i = 0; i < closed.size; i++) {
+            int deltaPos = delta.indexOf(closed.denseId[i], closed.from[i]);
+            if (deltaPos >= 0) {
+                delta.to[deltaPos] = closed.to[i];
+                deltaChanged = true;
+                continue;
+            }
+            int pos = current.base.indexOf(closed.denseId[i], closed.from[i]);
+            if (pos >= 0) {
+                basePos[overrides] = pos;
+                baseTo[overrides++] = closed.to[i];
+            } else if (!current.loaded) {
+                // 尚未加载: 打开记录在全量数据里, 先暂存关闭后的区间, 加载时重放
+                delta.add(closed.denseId[i], closed.from[i], closed.to[i]);
+                unsorted = deltaChanged = true;
+            }
+        }
+        if (unsorted)
+            delta.sort();
+        if (!deltaChanged && overrides == 0)
+            return;
+        Snapshot next = new Snapshot(current.base, current.closed.with(basePos, baseTo, overrides),
+                deltaChanged ? new Base(delta) : current.delta, current.loaded);
+        int threshold = Math.max(MIN_MERGE_THRESHOLD, (int) Math.sqrt(next.base.size));
+        if (next.delta.size + next.closed.size() > threshold)
+            next = next.merge();
+        snapshot = next;
+    }
+
+    /**
+     * 墓碑 → 列式区间
+     *
+     * @param closing true 时取 toTs (跳过 toTs 为空的墓碑), 否则打开的墓碑 toTs 记为 {@link #OPEN}
+     */
+    private static Intervals intervals(Collection<TombstoneAggregate> tombstones, ToIntFunction<TombstoneAggregate> denseIdOf, boolean closing) {
+        Intervals result = new Intervals(tombstones.size());
+        for (TombstoneAggregate tombstone : tombstones) {
+            int denseId = denseIdOf.applyAsInt(tombstone);
+            if (denseId < 0 || (closing && tombstone.getToTs() == null))
+                continue;
+            result.add(denseId, tombstone.getFromTs().toEpochMilli(),
+                    tombstone.getToTs() == null ? OPEN : tombstone.getToTs().toEpochMilli());
+        }
+        return result;
+    }
+
+    // ===== 内部结构 =====
+
+    /**
+     * 一组区间的列式数组 (构建用, 可变)
+     */
+    private static final class Intervals {
+        static final Intervals EMPTY = new Intervals(0);
+
+        int[] denseId;
+        long[] from;
+        long[] to;
+        int size;
+
+        Intervals(int capacity) {
+            this.denseId = new int[capacity];
+            this.from = new long[capacity];
+            this.to = new long[capacity];
+        }
+
+        void add(int id, long fromMillis, long toMillis) {
+            if (size == denseId.length) {
+                int capacity = Math.max(16, size << 1);
+                denseId = Arrays.copyOf(denseId, capacity);
+                from = Arrays.copyOf(from, capacity);
+                to = Arrays.copyOf(to, capacity);
+            }
+            denseId[size] = id;
+            from[size] = fromMillis;
+            to[size] = toMillis;
+            size++;
+        }
+
+        /**
+         * 在按 (fromTs, denseId) 升序的数组中二分查找
+         */
+        int indexOf(int id, long fromMillis) {
+            int lo = 0, hi = size - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                int c = compare(from[mid], denseId[mid], fromMillis, id);
+                if (c < 0) lo = mid + 1;
+                else if (c > 0) hi = mid - 1;
+                else return mid;
+            }
+            return -1;
+        }
+
+        /**
+         * 按 (fromTs, denseId) 升序原地排序
+         */
+        void sort() {
+            if (size < 2)
+                return;
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++)
+                order[i] = i;
+            Arrays.sort(order, (x, y) -> compare(from[x], denseId[x], from[y], denseId[y]));
+            int[] sortedId = new int[size];
+            long[] sortedFrom = new long[size];
+            long[] sortedTo = new long[size];
+            for (int i = 0; i < size; i++) {
+                sortedId[i] = denseId[order[i]];
+                sortedFrom[i] = from[order[i]];
+                sortedTo[i] = to[order[i]];
+            }
+            denseId = sortedId;
+            from = sortedFrom;
+            to = sortedTo;
+        }
+    }
+
+    private static int compare(long fromA, int idA, long fromB, int idB) {
+        return fromA != fromB ? Long.compare(fromA, fromB) : Integer.compare(idA, idB);
+    }
+
+    /**
+     * 按 (fromTs, denseId) 升序的区间 + maxTo 线段树 (不可变), 用作基线与增量段
+     */
+    private static final class Base {
+        static final Base EMPTY = new Base(Intervals.EMPTY);
+
+        final int[] denseId;
+        final long[] from;
+        final long[] to;
+        final int size;
+        /**
+         * 隐式线段树, 叶子数为 2 的幂, 节点 i 的子节点为 2i / 2i+1
+         */
+        final long[] maxTo;
+        final int leaves;
+
+        Base(Intervals sorted) {
+            this.denseId = Arrays.copyOf(sorted.denseId, sorted.size);
+            this.from = Arrays.copyOf(sorted.from, sorted.size);
+            this.to = Arrays.copyOf(sorted.to, sorted.size);
+            this.size = sorted.size;
+            int n = 1;
+            while (n < size)
+                n <<= 1;
+            this.leaves = n;
+            this.maxTo = new long[n << 1];
+            Arrays.fill(maxTo, Long.MIN_VALUE);
+            System.arraycopy(to, 0, maxTo, n, size);
+            for (int i = n - 1; i >= 1; i--)
+                maxTo[i] = Math.max(maxTo[i << 1], maxTo[(i << 1) | 1]);
+        }
+
+        /**
+         * @return 第一个 fromTs &gt; t 的下标 (即 fromTs &lt;= t 的前缀长度)
+         */
+        int upperBound(long t) {
+            int lo = 0, hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (from[mid] <= t) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+
+        /**
+         * @return 第一个 fromTs &gt;= t 的下标 (即 fromTs &lt; t 的前缀长度)
+         */
+        int lowerBound(long t) {
+            int lo = 0, hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (from[mid] < t) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+
+        int indexOf(int id, long fromMillis) {
+            for (int i = lowerBound(fromMillis); i < size && from[i] == fromMillis; i++)
+                if (denseId[i] == id)
+                    return i;
+            return -1;
+        }
+
+        /**
+         * 与一批无序区间归并为新的有序数组 (副本)
+         */
+        Intervals mergeWith(Intervals added) {
+            Intervals sorted = added;
+            if (added.size > 1) {
+                sorted = new Intervals(0);
+                sorted.denseId = Arrays.copyOf(added.denseId, added.size);
+                sorted.from = Arrays.copyOf(added.from, added.size);
+                sorted.to = Arrays.copyOf(added.to, added.size);
+                sorted.size = added.size;
+                sorted.sort();
+            }
+            Intervals merged = new Intervals(size + sorted.size);
+            int i = 0, j = 0;
+            while (i < size || j < sorted.size) {
+                if (j >= sorted.size || (i < size && compare(from[i], denseId[i], sorted.from[j], sorted.denseId[j]) <= 0)) {
+                    merged.add(denseId[i], from[i], to[i]);
+                    i++;
+                } else {
+                    merged.add(sorted.denseId[j], sorted.from[j], sorted.to[j]);
+                    j++;
+                }
+            }
+            return merged;
+        }
+
+        /**
+         * 在前缀 [0, prefix) 中遍历 toTs &gt; threshold 的区间 (线段树中的 toTs 是覆盖前的值, 关闭只会让 toTs 变小, 作为上界剪枝)
+         */
+        void collect(int node, int lo, int hi, int prefix, long threshold, Overrides closed, IntervalConsumer consumer) {
+            if (lo >= prefix || maxTo[node] <= threshold)
+                return;
+            if (hi - lo == 1) {
+                long effectiveTo = closed.get(lo, to[lo]);
+                if (effectiveTo > threshold)
+                    consumer.accept(denseId[lo], from[lo], effectiveTo);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            collect(node << 1, lo, mid, prefix, threshold, closed, consumer);
+            collect((node << 1) | 1, mid, hi, prefix, threshold, closed, consumer);
+        }
+    }
+
+    /**
+     * 基线关闭覆盖值: 按基线下标升序的 (下标, toTs) (不可变)
+     */
+    private static final class Overrides {
+        static final Overrides EMPTY = new Overrides(new int[0], new long[0]);
+
+        final int[] pos;
+        final long[] to;
+
+        Overrides(int[] pos, long[] to) {
+            this.pos = pos;
+            this.to = to;
+        }
+
+        int size() {
+            return pos.length;
+        }
+
+        long get(int p, long defaultTo) {
+            if (pos.length == 0)
+                return defaultTo;
+            int i = Arrays.binarySearch(pos, p);
+            return i >= 0 ? to[i] : defaultTo;
+        }
+
+        /**
+         * 加入一批覆盖值 (无序, 同一下标以后出现的为准), 返回新实例
+         */
+        Overrides with(int[] addPos, long[] addTo, int n) {
+            if (n == 0)
+                return this;
+            TreeMap<Integer, Long> added = new TreeMap<>();
+            for (int i = 0; i < n; i++)
+                added.put(addPos[i], addTo[i]);
+            int[] mergedPos = new int[pos.length + added.size()];
+            long[] mergedTo = new long[mergedPos.length];
+            int k = 0, i = 0;
+            for (Map.Entry<Integer, Long> entry : added.entrySet()) {
+                int p = entry.getKey();
+                for (; i < pos.length && pos[i] < p; i++, k++) {
+                    mergedPos[k] = pos[i];
+                    mergedTo[k] = to[i];
+                }
+                if (i < pos.length && pos[i] == p)
+                    i++;
+                mergedPos[k] = p;
+                mergedTo[k++] = entry.getValue();
+            }
+            for (; i < pos.length; i++, k++) {
+                mergedPos[k] = pos[i];
+                mergedTo[k] = to[i];
+            }
+            return new Overrides(Arrays.copyOf(mergedPos, k), Arrays.copyOf(mergedTo, k));
+        }
+    }
+
+    /**
+     * 不可变快照: 基线 + 基线关闭覆盖值 + 增量段
+     */
+    private record Snapshot(Base base, Overrides closed, Base delta, boolean loaded) {
+        static final Snapshot EMPTY = new Snapshot(Base.EMPTY, Overrides.EMPTY, Base.EMPTY, false);
+
+        /**
+         * @param fromBound fromTs 上界
+         * @param inclusive fromTs 上界是否包含
+         * @param threshold toTs 需严格大于的阈值
+         */
+        void collect(long fromBound, boolean inclusive, long threshold, IntervalConsumer consumer) {
+            if (base.size > 0)
+                base.collect(1, 0, base.leaves, inclusive ? base.upperBound(fromBound) : base.lowerBound(fromBound),
+                        threshold, closed, consumer);
+            if (delta.size > 0)
+                delta.collect(1, 0, delta.leaves, inclusive ? delta.upperBound(fromBound) : delta.lowerBound(fromBound),
+                        threshold, Overrides.EMPTY, consumer);
+        }
+
+        /**
+         * 应用覆盖值, 将增量段与基线线性归并为新基线
+         */
+        Snapshot merge() {
+            Intervals merged = new Intervals(base.size + delta.size);
+            int i = 0, j = 0, k = 0;
+            while (i < base.size || j < delta.size) {
+                boolean takeBase = j >= delta.size
+                        || (i < base.size && compare(base.from[i], base.denseId[i], delta.from[j], delta.denseId[j]) <= 0);
+                if (takeBase) {
+                    long to = base.to[i];
+                    if (k < closed.pos.length && closed.pos[k] == i)
+                        to = closed.to[k++];
+                    merged.add(base.denseId[i], base.from[i], to);
+                    i++;
+                } else {
+                    merged.add(delta.denseId[j], delta.from[j], delta.to[j]);
+                    j++;
+                }
+            }
+            return new Snapshot(new Base(merged), Overrides.EMPTY, Base.EMPTY, loaded);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package xin.eason.smartfollow.domain.service.observation;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import xin.eason.smartfollow.domain.ITombstoneQueryService;
+import xin.eason.smartfollow.domain.adapter.repository.ITombstoneRepository;
+import xin.eason.smartfollow.domain.model.aggregate.observation.TombstoneAggregate;
+import xin.eason.smartfollow.domain.model.vo.observation.TombstoneCrossSectionVO;
+import xin.eason.smartfollow.domain.model.vo.observation.TombstoneIntervalVO;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectIdentityVO;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectKey;
+import xin.eason.smartfollow.domain.service.project.ProjectIdentityCache;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static xin.eason.smartfollow.types.utils.FieldValidateUtils.requireNotNull;
+
+/**
+ * 墓碑查询服务实现
+ * <ul>
+ *     <li>容器刷新完成后 (身份缓存预热之后) 扫描全部墓碑, 打开的载入 {@link ActiveTombstoneIndex}, 全部载入 {@link TombstoneIntervalIndex}</li>
+ *     <li>之后由 {@link VisibilityService} 在墓碑打开 / 关闭落库后同步维护两个索引</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TombstoneQueryService implements ITombstoneQueryService {
+
+    private final ITombstoneRepository tombstoneRepository;
+    private final ActiveTombstoneIndex activeIndex;
+    private final TombstoneIntervalIndex intervalIndex;
+    private final ProjectIdentityCache identityCache;
+    /**
+     * 是否已预热, 避免多次容器刷新事件重复加载
+     */
+    private final AtomicBoolean warmed = new AtomicBoolean(false);
+
+    /**
+     * 容器刷新完成后加载打开状态的墓碑
+     *
+     * @param event 容器刷新事件
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    public void onContextRefreshed(ContextRefreshedEvent event) {
+        if (warmed.compareAndSet(false, true))
+            warmUp();
+    }
+
+    @Override
+    public int warmUp() {
+        long start = System.currentTimeMillis();
+        List<TombstoneAggregate> all = new ArrayList<>();
+        tombstoneRepository.scanAll(all::add);
+        List<TombstoneAggregate> open = all.stream().filter(TombstoneAggregate::isOpen).toList();
+        int loaded = activeIndex.load(open, t -> identityCache.denseId(t.getProjectKey()));
+        int intervals = intervalIndex.load(all, t -> identityCache.denseId(t.getProjectKey()));
+        log.info("[墓碑] 墓碑索引加载完成, 共 {} 个区间, {} 个不可见项目, 耗时 {}ms",
+                intervals, loaded, System.currentTimeMillis() - start);
+        return intervals;
+    }
+
+    @Override
+    public boolean isInvisibleNow(ProjectKey key) {
+        requireNotNull(key, "key 不能为空");
+        return activeIndex.isInvisible(identityCache.denseId(key));
+    }
+
+    @Override
+    public int countInvisible() {
+        return activeIndex.count();
+    }
+
+    @Override
+    public Optional<Instant> invisibleSince(ProjectKey key) {
+        requireNotNull(key, "key 不能为空");
+        return Optional.ofNullable(activeIndex.get(identityCache.denseId(key))).map(TombstoneAggregate::getFromTs);
+    }
+
+    @Override
+    public List<ProjectKey> invisibleAt(Instant asOf) {
+        requireNotNull(asOf, "asOf 不能为空");
+        List<ProjectKey> result = new ArrayList<>();
+        intervalIndex.forEachAt(asOf, (denseId, from, to) -> {
+            ProjectIdentityVO identity = identityCache.getByDenseId(denseId);
+            if (identity != null)
+                result.add(identity.key());
+        });
+        return result;
+    }
+
+    @Override
+    public List<TombstoneIntervalVO> overlapping(Instant from, Instant to) {
+        requireNotNull(from, "from 不能为空");
+        requireNotNull(to, "to 不能为空");
+        List<TombstoneIntervalVO> result = new ArrayList<>();
+        intervalIndex.forEachOverlapping(from, to, (denseId, fromMillis, toMillis) -> {
+            ProjectIdentityVO identity = identityCache.getByDenseId(denseId);
+            if (identity != null)
+                result.add(new TombstoneIntervalVO(identity.key(), Instant.ofEpochMilli(fromMillis),
+                        toMillis == Long.MAX_VALUE ? null : Instant.ofEpochMilli(toMillis)));
+        });
+        return result;
+    }
+
+    @Override
+    public List<TombstoneCrossSectionVO> crossSections(List<Instant> asOfs) {
+        requireNotNull(asOfs, "asOfs 不能为空");
+        // 按首次出现时间升序, 每个时刻二分得到当时已出现的项目数量, 之后才出现的项目不计入分母
+        long[] firstSeen = identityCache.sortedFirstSeen();
+        List<TombstoneCrossSectionVO> result = new ArrayList<>(asOfs.size());
+        for (Instant asOf : asOfs) {
+            requireNotNull(asOf, "asOf 不能为空");
+            int universe = countSeenBy(firstSeen, asOf.toEpochMilli());
+            BitSet invisible = new BitSet(firstSeen.length);
+            // 同一项目的墓碑区间互不重叠, 位图置位即可去重
+            intervalIndex.forEachAt(asOf, (denseId, from, to) -> invisible.set(denseId));
+            result.add(new TombstoneCrossSectionVO(asOf, invisible, universe));
+        }
+        return result;
+    }
+
+    /**
+     * 升序数组中不晚于给定时刻的元素个数 (上界二分)
+     */
+    private static int countSeenBy(long[] sortedFirstSeen, long asOfMillis) {
+        int low = 0;
+        int high = sortedFirstSeen.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sortedFirstSeen[mid] <= asOfMillis)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+}
@@ -0,0 +1,190 @@
+package xin.eason.smartfollow.domain.service.observation;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import xin.eason.smartfollow.domain.IProjectIdentityService;
+import xin.eason.smartfollow.domain.IProjectSeenService;
+import xin.eason.smartfollow.domain.IVisibilityService;
+import xin.eason.smartfollow.domain.adapter.repository.IProjectRepository;
+import xin.eason.smartfollow.domain.adapter.repository.ITombstoneRepository;
+import xin.eason.smartfollow.domain.model.aggregate.observation.TombstoneAggregate;
+import xin.eason.smartfollow.domain.model.aggregate.project.ProjectAggregate;
+import xin.eason.smartfollow.domain.model.vo.observation.VisibilityChangeVO;
+import xin.eason.smartfollow.domain.model.vo.observation.VisibilitySweepVO;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectIdentityVO;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectKey;
+import xin.eason.smartfollow.domain.service.project.ProjectIdentityCache;
+import xin.eason.smartfollow.types.enums.Visibility;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static xin.eason.smartfollow.types.utils.FieldValidateUtils.requireNotBlank;
+import static xin.eason.smartfollow.types.utils.FieldValidateUtils.requireNotNull;
+
+/**
+ * 项目可见性差分服务实现
+ * <ul>
+ *     <li>每个范围的成员集合是一张以稠密编号为下标的 {@link BitSet}, 出现 = 本次 &amp; ~上次, 消失 = 上次 &amp; ~本次</li>
+ *     <li>只有出现 / 消失的项目才会被加载, 打开 / 关闭墓碑与可见性落库都按整次扫描批量执行</li>
+ *     <li>重新出现的项目直接从 {@link ActiveTombstoneIndex} 取出打开的墓碑关闭, 索引未加载时才回查数据库</li>
+ *     <li>进程内某范围的首次扫描只建立基线: 不判定消失, 但会恢复此前处于不可见状态的在榜项目</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class VisibilityService implements IVisibilityService {
+
+    /**
+     * 榜单缺席的原因代码 / 触发来源
+     */
+    private static final String RANK_GAP = "RANK_GAP";
+    /**
+     * 重新上榜的原因代码
+     */
+    private static final String REAPPEARED = "REAPPEARED";
+
+    private final IProjectRepository projectRepository;
+    private final ITombstoneRepository tombstoneRepository;
+    private final IProjectIdentityService identityService;
+    private final IProjectSeenService projectSeenService;
+    private final ProjectIdentityCache identityCache;
+    private final ActiveTombstoneIndex activeIndex;
+    private final TombstoneIntervalIndex intervalIndex;
+    /**
+     * 范围 → 最近一次成功应用的成员位图
+     */
+    private final Map<String, BitSet> lastMembers = new ConcurrentHashMap<>();
+
+    @Override
+    public synchronized VisibilitySweepVO applySweep(String scope, String dataVer, Instant atTs, Collection<ProjectKey> members) {
+        requireNotBlank(scope, "scope 不能为空");
+        requireNotNull(atTs, "atTs 不能为空");
+        requireNotNull(members, "members 不能为空");
+
+        // ===== 本次成员位图与集合差 =====
+        BitSet current = new BitSet(identityCache.size());
+        int skipped = 0;
+        for (ProjectKey key : members) {
+            ProjectIdentityVO identity = key == null ? null : identityService.resolve(key);
+            if (identity == null) {
+                skipped++;
+                continue;
+            }
+            current.set(identity.denseId());
+        }
+        BitSet previous = lastMembers.get(scope);
+        boolean baseline = previous == null;
+        BitSet appeared = (BitSet) current.clone();
+        BitSet disappeared = new BitSet();
+        if (!baseline) {
+            appeared.andNot(previous);
+            disappeared = (BitSet) previous.clone();
+            disappeared.andNot(current);
+        }
+
+        // ===== 批量加载变化的项目并推进状态 =====
+        List<ProjectKey> changedKeys = new ArrayList<>(appeared.cardinality() + disappeared.cardinality());
+        collectKeys(appeared, changedKeys);
+        collectKeys(disappeared, changedKeys);
+        List<VisibilityChangeVO> changes = new ArrayList<>();
+        List<ProjectAggregate> changed = new ArrayList<>();
+        List<TombstoneAggregate> opened = new ArrayList<>();
+        List<ProjectKey> restored = new ArrayList<>();
+        if (!changedKeys.isEmpty()) {
+            // 先刷新写后缓冲, 保证从库里读到的可见性是最新的
+            projectSeenService.flush();
+            String missingMsg = "榜单版本 " + dataVer + " 中缺席";
+            String restoredMsg = "榜单版本 " + dataVer + " 中重新出现";
+            for (ProjectAggregate project : projectRepository.findByKeys(changedKeys)) {
+                ProjectKey key = project.getKey();
+                int denseId = identityCache.denseId(key);
+                Visibility before = project.getLastVisibility();
+                if (disappeared.get(denseId)) {
+                    // 已被详情接口等其他来源确认隐藏 (或已有打开墓碑) 的项目不再降级为 MISSING
+                    if (before == Visibility.MISSING || before == Visibility.HIDDEN || activeIndex.isInvisible(denseId))
+                        continue;
+                    project.markMissing();
+                    opened.add(TombstoneAggregate.open(key, atTs, RANK_GAP, missingMsg, RANK_GAP));
+                    changes.add(new VisibilityChangeVO(key, before, Visibility.MISSING, atTs, RANK_GAP, missingMsg));
+                } else if ((before != null && !before.isVisible()) || activeIndex.isInvisible(denseId)) {
+                    project.restoreVisible(atTs);
+                    restored.add(key);
+                    changes.add(new VisibilityChangeVO(key, before, Visibility.VISIBLE, atTs, REAPPEARED, restoredMsg));
+                } else {
+                    continue;
+                }
+                changed.add(project);
+            }
+        }
+
+        // ===== 批量落库: 墓碑 → 项目可见性 =====
+        List<TombstoneAggregate> closed = new ArrayList<>();
+        if (!restored.isEmpty()) {
+            for (TombstoneAggregate tombstone : openTombstones(restored)) {
+                if (!atTs.isAfter(tombstone.getFromTs()))
+                    continue;
+                tombstone.close(atTs);
+                closed.add(tombstone);
+            }
+        }
+        if (!opened.isEmpty()) {
+            tombstoneRepository.openBatch(opened);
+            for (TombstoneAggregate tombstone : opened)
+                activeIndex.open(identityCache.denseId(tombstone.getProjectKey()), tombstone);
+            intervalIndex.openAll(opened, t -> identityCache.denseId(t.getProjectKey()));
+        }
+        if (!closed.isEmpty()) {
+            tombstoneRepository.closeBatch(closed);
+            for (TombstoneAggregate tombstone : closed)
+                activeIndex.remove(identityCache.denseId(tombstone.getProjectKey()), tombstone.getFromTs());
+            intervalIndex.closeAll(closed, t -> identityCache.denseId(t.getProjectKey()));
+        }
+        if (!changed.isEmpty()) {
+            changed.forEach(projectSeenService::absorb);
+            projectSeenService.flush();
+        }
+        lastMembers.put(scope, current);
+
+        VisibilitySweepVO result = new VisibilitySweepVO(scope, dataVer, atTs, current.cardinality(),
+                appeared.cardinality(), disappeared.cardinality(), skipped, baseline, changes);
+        log.info("[可见性] 范围 {} 版本 {} 差分完成{}: 在榜 {} 个, 出现 {} 个, 消失 {} 个, 打开墓碑 {} 个, 关闭墓碑 {} 个, 跳过 {} 个",
+                scope, dataVer, baseline ? " (基线)" : "", result.members(), result.appeared(), result.disappeared(),
+                opened.size(), closed.size(), skipped);
+        return result;
+    }
+
+    /**
+     * 取出项目当前打开的墓碑: 索引已加载时直接读取 (返回副本, 落库成功前不改动索引中的对象), 否则批量回查数据库
+     */
+    private List<TombstoneAggregate> openTombstones(List<ProjectKey> keys) {
+        if (!activeIndex.isLoaded())
+            return tombstoneRepository.findOpen(keys);
+        List<TombstoneAggregate> result = new ArrayList<>(keys.size());
+        for (ProjectKey key : keys) {
+            TombstoneAggregate tombstone = activeIndex.get(identityCache.denseId(key));
+            if (tombstone != null)
+                result.add(TombstoneAggregate.restore(tombstone.getProjectKey(), tombstone.getFromTs(), null,
+                        tombstone.getReasonCode(), tombstone.getReasonMsg(), tombstone.getDetector()));
+        }
+        return result;
+    }
+
+    /**
+     * 将位图中置位的稠密编号还原为业务键
+     */
+    private void collectKeys(BitSet bits, List<ProjectKey> keys) {
+        for (int denseId = bits.nextSetBit(0); denseId >= 0; denseId = bits.nextSetBit(denseId + 1)) {
+            ProjectIdentityVO identity = identityCache.getByDenseId(denseId);
+            if (identity != null)
+                keys.add(identity.key());
+        }
+    }
+}
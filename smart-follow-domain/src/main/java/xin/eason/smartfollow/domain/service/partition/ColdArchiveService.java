@@ -0,0 +1,103 @@
+package xin.eason.smartfollow.domain.service.partition;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import xin.eason.smartfollow.domain.IColdArchiveService;
+import xin.eason.smartfollow.domain.adapter.repository.IColdArchiveRepository;
+import xin.eason.smartfollow.domain.adapter.repository.IPartitionRepository;
+import xin.eason.smartfollow.domain.model.vo.partition.ColdArchiveVO;
+import xin.eason.smartfollow.domain.model.vo.partition.PartitionInfoVO;
+import xin.eason.smartfollow.domain.model.vo.partition.PartitionedTable;
+import xin.eason.smartfollow.types.exceptions.AppException;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static xin.eason.smartfollow.types.utils.FieldValidateUtils.require;
+import static xin.eason.smartfollow.types.utils.FieldValidateUtils.requireNotNull;
+
+/**
+ * 冷存储归档服务实现
+ * <ul>
+ *     <li>先把分区交换到归档表 <code>{表名}_{分区名}</code> ({@link IPartitionRepository#exchangePartition}), 之后的写入只会落入已清空的分区</li>
+ *     <li>从归档表导出 → 发布 → 与归档表精确核对行数 → 删除归档表; 归档表不再接收写入, 核对与删除之间没有竞争</li>
+ *     <li>最后在表写锁下确认分区为空再删除; 交换之后写入的迟到行留在分区中, 由读路径与冷分区合并 (同一行以 MySQL 为准)</li>
+ *     <li>任一步失败后重跑: 归档表仍在时从归档表继续 (已发布则只核对), 归档表已删除时只处理分区中的迟到行</li>
+ *     <li>只处理有冷存储读路径的表 ({@link IColdArchiveRepository#supports})</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ColdArchiveService implements IColdArchiveService {
+
+    private final IPartitionRepository partitionRepository;
+    private final IColdArchiveRepository coldArchiveRepository;
+
+    @Override
+    public synchronized List<ColdArchiveVO> archiveExpired(Instant now, int afterMonths) {
+        requireNotNull(now, "now 不能为空");
+        require(afterMonths >= 1, "afterMonths 不能小于 1");
+        LocalDate cutoff = YearMonth.from(LocalDate.ofInstant(now, ZoneOffset.UTC)).minusMonths(afterMonths).atDay(1);
+        List<ColdArchiveVO> result = new ArrayList<>();
+        for (PartitionedTable table : PartitionedTable.values()) {
+            if (!coldArchiveRepository.supports(table))
+                continue;
+            for (PartitionInfoVO partition : partitionRepository.findPartitions(table)) {
+                if (partition.isMax() || partition.lessThan().isAfter(cutoff))
+                    continue;
+                try {
+                    result.add(archive(table, partition.name()));
+                } catch (Exception e) {
+                    log.warn("[冷存储] 表 {} 分区 {} 归档失败, 下次重试: {}", table.getTableName(), partition.name(), e.getMessage());
+                }
+            }
+        }
+        return result;
+    }
+
+    private ColdArchiveVO archive(PartitionedTable table, String partition) {
+        boolean published = coldArchiveRepository.isArchived(table, partition);
+        String archive = partitionRepository.findArchiveTable(table, partition);
+        if (archive == null) {
+            // 已发布且归档表已删除: 上次只差删除分区, 或分区中留有交换之后写入的迟到行
+            if (published)
+                return detach(table, partition, coldArchiveRepository.archivedRows(table, partition));
+            archive = partitionRepository.exchangePartition(table, partition);
+            if (archive == null)
+                return detach(table, partition, 0L);
+        }
+
+        long frozen = partitionRepository.countArchiveRows(table, partition);
+        long archived = published
+                ? coldArchiveRepository.archivedRows(table, partition)
+                : coldArchiveRepository.export(table, partition, archive);
+        if (archived != frozen) {
+            log.warn("[冷存储] 表 {} 分区 {} 行数不一致 (归档表 {} 行, 冷存储 {} 行), 从归档表重新导出",
+                    table.getTableName(), partition, frozen, archived);
+            coldArchiveRepository.discard(table, partition);
+            archived = coldArchiveRepository.export(table, partition, archive);
+            if (archived != frozen)
+                throw AppException.of("冷分区行数与归档表不一致: " + partition + ", 归档表 " + frozen + " 行, 冷存储 " + archived + " 行");
+        }
+        partitionRepository.dropArchiveTable(table, partition);
+        return detach(table, partition, archived);
+    }
+
+    /**
+     * 冷分区已发布且核对通过后摘除 MySQL 分区; 分区非空 (交换之后仍有写入) 时保留分区
+     */
+    private ColdArchiveVO detach(PartitionedTable table, String partition, long archived) {
+        if (!partitionRepository.dropPartitionIfEmpty(table, partition)) {
+            log.warn("[冷存储] 表 {} 分区 {} 交换后仍有写入, 保留分区; 冷存储 {} 行", table.getTableName(), partition, archived);
+            return new ColdArchiveVO(table, partition, archived, false);
+        }
+        log.info("[冷存储] 表 {} 分区 {} 已转入冷存储并从 MySQL 摘除, {} 行", table.getTableName(), partition, archived);
+        return new ColdArchiveVO(table, partition, archived, true);
+    }
+}
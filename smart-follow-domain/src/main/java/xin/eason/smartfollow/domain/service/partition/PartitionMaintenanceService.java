@@ -0,0 +1,161 @@
+package xin.eason.smartfollow.domain.service.partition;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import xin.eason.smartfollow.domain.IPartitionMaintenanceService;
+import xin.eason.smartfollow.domain.adapter.repository.IPartitionRepository;
+import xin.eason.smartfollow.domain.model.vo.partition.PartitionInfoVO;
+import xin.eason.smartfollow.domain.model.vo.partition.PartitionMaintenanceVO;
+import xin.eason.smartfollow.domain.model.vo.partition.PartitionPolicyVO;
+import xin.eason.smartfollow.domain.model.vo.partition.PartitionedTable;
+import xin.eason.smartfollow.domain.model.vo.partition.RetentionMode;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static xin.eason.smartfollow.types.utils.FieldValidateUtils.requireNotNull;
+
+/**
+ * 按月分区维护服务实现
+ * <ul>
+ *     <li>最后一个月分区的上界不足 "当月 + aheadMonths" 时, 对空的 pMAX 执行一次 REORGANIZE 切出缺少的月份, 只改元数据</li>
+ *     <li>pMAX 非空时拆分会在锁表状态下搬迁数据, 因此跳过拆分并记录到结果的 skipped (暴露为指标), 留待人工处理</li>
+ *     <li>上界不晚于 "当月 - retentionMonths" 的分区视为过期, 按 {@link RetentionMode} 删除或先交换到归档表再删除</li>
+ *     <li>月份按 UTC 计算, 与 TIMESTAMP 分区键一致</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PartitionMaintenanceService implements IPartitionMaintenanceService {
+
+    /**
+     * 兜底分区名
+     */
+    private static final String MAX_PARTITION = "pMAX";
+
+    private final IPartitionRepository partitionRepository;
+    private final PartitionPolicyVO policy;
+    /**
+     * 各表最近一次维护的结果
+     */
+    private final Map<PartitionedTable, PartitionMaintenanceVO> reports = new EnumMap<>(PartitionedTable.class);
+
+    @Override
+    public List<PartitionMaintenanceVO> maintain(Instant now) {
+        List<PartitionMaintenanceVO> result = new ArrayList<>();
+        for (PartitionedTable table : PartitionedTable.values()) {
+            try {
+                result.add(maintain(table, now));
+            } catch (Exception e) {
+                // 单表失败不影响其他表, 下次维护重试
+                log.warn("[分区维护] 表 {} 维护失败: {}", table.getTableName(), e.getMessage());
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized PartitionMaintenanceVO maintain(PartitionedTable table, Instant now) {
+        requireNotNull(table, "table 不能为空");
+        requireNotNull(now, "now 不能为空");
+        YearMonth currentMonth = YearMonth.from(LocalDate.ofInstant(now, ZoneOffset.UTC));
+        List<PartitionInfoVO> partitions = partitionRepository.findPartitions(table);
+        List<String> created = new ArrayList<>();
+        List<String> dropped = new ArrayList<>();
+        List<String> archived = new ArrayList<>();
+        List<String> skipped = new ArrayList<>();
+        if (partitions.isEmpty()) {
+            log.warn("[分区维护] 表 {} 未分区, 跳过", table.getTableName());
+            return remember(new PartitionMaintenanceVO(table, now, created, dropped, archived, partitions, skipped));
+        }
+
+        // ===== 提前切出未来月份 =====
+        Map<String, LocalDate> upcoming = upcoming(partitions, currentMonth);
+        if (!upcoming.isEmpty()) {
+            PartitionInfoVO max = partitions.stream().filter(PartitionInfoVO::isMax).findFirst().orElse(null);
+            if (max == null) {
+                log.warn("[分区维护] 表 {} 没有兜底分区 {}, 无法切出新分区", table.getTableName(), MAX_PARTITION);
+            } else if (!partitionRepository.isEmpty(table, max.name())) {
+                skipped.addAll(upcoming.keySet());
+                log.error("[分区维护] 表 {} 的兜底分区 {} 非空 (约 {} 行), 拆分需要搬迁数据, 已跳过 {}, 请人工处理",
+                        table.getTableName(), MAX_PARTITION, max.rows(), skipped);
+            } else {
+                partitionRepository.splitMax(table, upcoming);
+                created.addAll(upcoming.keySet());
+            }
+        }
+
+        // ===== 过期分区 =====
+        int retention = policy.retentionOf(table);
+        if (retention > 0) {
+            LocalDate cutoff = currentMonth.minusMonths(retention).atDay(1);
+            List<String> expired = new ArrayList<>();
+            for (PartitionInfoVO partition : partitions)
+                if (!partition.isMax() && !partition.lessThan().isAfter(cutoff))
+                    expired.add(partition.name());
+            if (!expired.isEmpty()) {
+                if (policy.retentionMode() == RetentionMode.EXCHANGE)
+                    for (String partition : expired) {
+                        String archive = partitionRepository.exchangePartition(table, partition);
+                        if (archive != null)
+                            archived.add(archive);
+                    }
+                partitionRepository.dropPartitions(table, expired);
+                dropped.addAll(expired);
+            }
+        }
+
+        if (!created.isEmpty() || !dropped.isEmpty())
+            partitions = partitionRepository.findPartitions(table);
+        PartitionMaintenanceVO result = new PartitionMaintenanceVO(table, now, created, dropped, archived, partitions, skipped);
+        log.info("[分区维护] 表 {} 维护完成: 共 {} 个分区, 新建 {}, 删除 {}, 归档 {}, 兜底分区约 {} 行",
+                table.getTableName(), partitions.size(), created, dropped, archived, result.maxPartitionRows());
+        return remember(result);
+    }
+
+    @Override
+    public synchronized List<PartitionMaintenanceVO> lastReports() {
+        return List.copyOf(reports.values());
+    }
+
+    /**
+     * 计算需要补齐的月分区: 从最后一个月分区的上界所在月份开始, 直到覆盖 "当月 + aheadMonths"
+     *
+     * @return 分区名 → 上界, 按上界升序
+     */
+    private Map<String, LocalDate> upcoming(List<PartitionInfoVO> partitions, YearMonth currentMonth) {
+        LocalDate lastBound = null;
+        for (PartitionInfoVO partition : partitions)
+            if (!partition.isMax() && (lastBound == null || partition.lessThan().isAfter(lastBound)))
+                lastBound = partition.lessThan();
+        LocalDate target = currentMonth.plusMonths(Math.max(policy.aheadMonths(), 0) + 1L).atDay(1);
+        Map<String, LocalDate> result = new LinkedHashMap<>();
+        YearMonth month = lastBound == null ? currentMonth : YearMonth.from(lastBound);
+        while (!month.plusMonths(1).atDay(1).isAfter(target)) {
+            result.put(partitionName(month), month.plusMonths(1).atDay(1));
+            month = month.plusMonths(1);
+        }
+        return result;
+    }
+
+    private synchronized PartitionMaintenanceVO remember(PartitionMaintenanceVO report) {
+        reports.put(report.table(), report);
+        return report;
+    }
+
+    /**
+     * @return 月分区名, 如 p2025_11
+     */
+    private static String partitionName(YearMonth month) {
+        return String.format("p%04d_%02d", month.getYear(), month.getMonthValue());
+    }
+}
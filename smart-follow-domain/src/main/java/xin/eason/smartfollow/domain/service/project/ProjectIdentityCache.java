@@ -0,0 +1,158 @@
+package xin.eason.smartfollow.domain.service.project;
+
+import org.springframework.stereotype.Component;
+import xin.eason.smartfollow.domain.adapter.port.IProjectIdentityRegistry;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectIdentityVO;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectKey;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static xin.eason.smartfollow.types.utils.FieldValidateUtils.requireNotNull;
+
+/**
+ * 项目身份缓存: {@link ProjectKey} → <code>exchange_project.id</code> + 稠密编号
+ * <ul>
+ *     <li>读操作无锁 (ConcurrentHashMap + volatile 数组), 可被入库线程与分析线程并发读取</li>
+ *     <li>写操作 (注册新项目) 串行化, 同一个 key 只会分配一个稠密编号, 保证原子性</li>
+ *     <li>稠密编号从 0 开始连续分配, 内存分析结构 (位图/列式数组/环形缓冲) 可直接以其为下标</li>
+ *     <li>按稠密编号记录首次出现时间, 供历史横截面只统计当时已出现的项目</li>
+ * </ul>
+ */
+@Component
+public class ProjectIdentityCache implements IProjectIdentityRegistry {
+
+    /**
+     * 首次出现时间未知 (仅按主键注册, 尚未读到 first_seen): 视为一直存在, 参与任意时刻的统计
+     */
+    public static final long UNKNOWN_FIRST_SEEN = Long.MIN_VALUE;
+
+    /**
+     * 业务键 → 身份
+     */
+    private final Map<ProjectKey, ProjectIdentityVO> byKey = new ConcurrentHashMap<>();
+    /**
+     * 数据库主键 → 身份 (用于把数据库行反查回稠密编号)
+     */
+    private final Map<Long, ProjectIdentityVO> byProjectId = new ConcurrentHashMap<>();
+    /**
+     * 稠密编号 → 身份, 扩容时整体替换 (写时复制)
+     */
+    private volatile ProjectIdentityVO[] byDenseId = new ProjectIdentityVO[1024];
+    /**
+     * 稠密编号 → 首次出现时间 (epoch 毫秒), 未知为 {@link #UNKNOWN_FIRST_SEEN}; 与 {@link #byDenseId} 同步扩容
+     */
+    private volatile long[] firstSeenByDenseId = newFirstSeen(1024);
+    /**
+     * 已分配的稠密编号数量
+     */
+    private volatile int size;
+
+    @Override
+    public ProjectIdentityVO register(ProjectKey key, long projectId) {
+        return register(key, projectId, null);
+    }
+
+    @Override
+    public ProjectIdentityVO register(ProjectKey key, long projectId, Instant firstSeen) {
+        requireNotNull(key, "key 不能为空");
+        long firstSeenMillis = firstSeen == null ? UNKNOWN_FIRST_SEEN : firstSeen.toEpochMilli();
+        ProjectIdentityVO existing = byKey.get(key);
+        if (existing != null && !isEarlier(firstSeenMillis, firstSeenByDenseId[existing.denseId()]))
+            return existing;
+        synchronized (this) {
+            existing = byKey.get(key);
+            if (existing != null) {
+                long[] seen = firstSeenByDenseId;
+                if (isEarlier(firstSeenMillis, seen[existing.denseId()]))
+                    seen[existing.denseId()] = firstSeenMillis;
+                return existing;
+            }
+            int denseId = size;
+            ProjectIdentityVO[] table = byDenseId;
+            long[] seen = firstSeenByDenseId;
+            if (denseId == table.length) {
+                table = Arrays.copyOf(table, table.length << 1);
+                seen = Arrays.copyOf(seen, table.length);
+                Arrays.fill(seen, denseId, seen.length, UNKNOWN_FIRST_SEEN);
+            }
+            ProjectIdentityVO identity = new ProjectIdentityVO(key, projectId, denseId);
+            table[denseId] = identity;
+            seen[denseId] = firstSeenMillis;
+            // 先发布数组与大小, 再发布 Map, 保证通过 key 查到的稠密编号一定可以按下标读到
+            firstSeenByDenseId = seen;
+            byDenseId = table;
+            size = denseId + 1;
+            byProjectId.put(projectId, identity);
+            byKey.put(key, identity);
+            return identity;
+        }
+    }
+
+    @Override
+    public ProjectIdentityVO get(ProjectKey key) {
+        return byKey.get(key);
+    }
+
+    @Override
+    public ProjectIdentityVO getByProjectId(long projectId) {
+        return byProjectId.get(projectId);
+    }
+
+    /**
+     * 按稠密编号查找身份
+     *
+     * @param denseId 稠密编号
+     * @return 项目身份, 越界返回 <code>null</code>
+     */
+    public ProjectIdentityVO getByDenseId(int denseId) {
+        if (denseId < 0 || denseId >= size)
+            return null;
+        return byDenseId[denseId];
+    }
+
+    /**
+     * 获取稠密编号
+     *
+     * @param key 项目唯一标识
+     * @return 稠密编号, 未注册返回 <code>-1</code>
+     */
+    public int denseId(ProjectKey key) {
+        ProjectIdentityVO identity = byKey.get(key);
+        return identity == null ? -1 : identity.denseId();
+    }
+
+    /**
+     * @return 已注册的项目数量 (即稠密编号上界, 不含)
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 复制当前全部项目的首次出现时间并升序排序, 供按时刻二分统计当时已出现的项目数量
+     *
+     * @return 升序的首次出现时间 (epoch 毫秒), 未知的记为 {@link #UNKNOWN_FIRST_SEEN} 排在最前
+     */
+    public long[] sortedFirstSeen() {
+        int n = size;
+        long[] sorted = Arrays.copyOf(firstSeenByDenseId, n);
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    /**
+     * 候选时间是否应覆盖当前记录: 已知时间总是覆盖未知, 两者都已知时取更早的
+     */
+    private static boolean isEarlier(long candidate, long current) {
+        return candidate != UNKNOWN_FIRST_SEEN && (current == UNKNOWN_FIRST_SEEN || candidate < current);
+    }
+
+    private static long[] newFirstSeen(int capacity) {
+        long[] seen = new long[capacity];
+        Arrays.fill(seen, UNKNOWN_FIRST_SEEN);
+        return seen;
+    }
+}
@@ -0,0 +1,80 @@
+package xin.eason.smartfollow.domain.service.project;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import xin.eason.smartfollow.domain.IProjectIdentityService;
+import xin.eason.smartfollow.domain.adapter.repository.IProjectRepository;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectIdentityVO;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectKey;
+import xin.eason.smartfollow.types.exceptions.AppException;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 项目身份服务实现
+ * <ul>
+ *     <li>容器刷新完成后预热 {@link ProjectIdentityCache}</li>
+ *     <li>缓存未命中 (如其他实例新插入的项目) 时回退查询一次数据库, 查到后注册, 之后不再查询</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProjectIdentityService implements IProjectIdentityService {
+
+    /**
+     * 项目主档仓储
+     */
+    private final IProjectRepository projectRepository;
+    /**
+     * 项目身份缓存
+     */
+    private final ProjectIdentityCache identityCache;
+    /**
+     * 是否已预热, 避免多次容器刷新事件重复加载
+     */
+    private final AtomicBoolean warmed = new AtomicBoolean(false);
+
+    /**
+     * 容器刷新完成后预热身份缓存; 最先执行, 其他按稠密编号建立的内存索引依赖它
+     *
+     * @param event 容器刷新事件
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ContextRefreshedEvent.class)
+    public void onContextRefreshed(ContextRefreshedEvent event) {
+        if (warmed.compareAndSet(false, true))
+            warmUp();
+    }
+
+    @Override
+    public long warmUp() {
+        long start = System.currentTimeMillis();
+        long count = projectRepository.scanIdentities(identityCache::register);
+        log.info("[项目身份] 预热完成, 共加载 {} 个项目, 耗时 {}ms", count, System.currentTimeMillis() - start);
+        return count;
+    }
+
+    @Override
+    public ProjectIdentityVO resolve(ProjectKey key) {
+        ProjectIdentityVO identity = identityCache.get(key);
+        if (identity != null)
+            return identity;
+        return projectRepository.findIdByKey(key)
+                .map(id -> identityCache.register(key, id))
+                .orElse(null);
+    }
+
+    @Override
+    public long requireProjectId(ProjectKey key) {
+        ProjectIdentityVO identity = resolve(key);
+        if (identity == null)
+            throw AppException.of("项目不存在: " + key.asString());
+        return identity.projectId();
+    }
+}
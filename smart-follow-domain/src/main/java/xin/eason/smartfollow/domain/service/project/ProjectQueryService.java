@@ -0,0 +1,38 @@
+package xin.eason.smartfollow.domain.service.project;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import xin.eason.smartfollow.domain.IProjectQueryService;
+import xin.eason.smartfollow.domain.adapter.repository.IProjectRepository;
+import xin.eason.smartfollow.domain.model.aggregate.project.ProjectAggregate;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectKey;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static xin.eason.smartfollow.types.utils.FieldValidateUtils.requireNotNull;
+
+/**
+ * 项目主档查询服务实现
+ */
+@Service
+@RequiredArgsConstructor
+public class ProjectQueryService implements IProjectQueryService {
+
+    /**
+     * 项目主档仓储
+     */
+    private final IProjectRepository projectRepository;
+
+    @Override
+    public Optional<Instant> lastModified(ProjectKey key) {
+        requireNotNull(key, "key 不能为空");
+        return projectRepository.findUpdatedAtByKey(key);
+    }
+
+    @Override
+    public Optional<ProjectAggregate> findProject(ProjectKey key) {
+        requireNotNull(key, "key 不能为空");
+        return projectRepository.findByKey(key);
+    }
+}
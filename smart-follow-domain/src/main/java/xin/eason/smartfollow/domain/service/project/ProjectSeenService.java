@@ -0,0 +1,141 @@
+package xin.eason.smartfollow.domain.service.project;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+import xin.eason.smartfollow.domain.IProjectSeenService;
+import xin.eason.smartfollow.domain.adapter.repository.IProjectRepository;
+import xin.eason.smartfollow.domain.model.aggregate.project.ProjectAggregate;
+import xin.eason.smartfollow.domain.model.aggregate.project.ProjectField;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectIdentityVO;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectKey;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectSeenVO;
+import xin.eason.smartfollow.types.enums.Visibility;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import static xin.eason.smartfollow.types.utils.FieldValidateUtils.requireNotNull;
+
+/**
+ * 项目观察状态写后缓冲实现
+ * <ul>
+ *     <li>以 {@link ConcurrentHashMap#merge} 按项目合并观察, lastSeen 合并沿用 {@link ProjectAggregate#ensureMonotonic}</li>
+ *     <li>刷新时逐个摘除缓冲项, 期间的新观察进入下一批; 落库失败时合并回缓冲</li>
+ *     <li>容器关闭时做最后一次刷新</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProjectSeenService implements IProjectSeenService, DisposableBean {
+
+    /**
+     * 项目主档仓储
+     */
+    private final IProjectRepository projectRepository;
+    /**
+     * 项目身份缓存
+     */
+    private final ProjectIdentityCache identityCache;
+    /**
+     * 待落库的观察状态 (projectId → 合并后的状态)
+     */
+    private final Map<Long, ProjectSeenVO> buffer = new ConcurrentHashMap<>();
+    /**
+     * 累计记录次数
+     */
+    private final LongAdder recorded = new LongAdder();
+    /**
+     * 累计落库行数
+     */
+    private final LongAdder flushed = new LongAdder();
+
+    @Override
+    public void record(ProjectKey key, Instant seenAt, Visibility visibility) {
+        requireNotNull(key, "key 不能为空");
+        if (seenAt == null && visibility == null)
+            return;
+        ProjectIdentityVO identity = identityCache.get(key);
+        if (identity == null) {
+            log.warn("[项目观察] 项目未注册, 忽略观察: {}", key.asString());
+            return;
+        }
+        recorded.increment();
+        buffer.merge(identity.projectId(), new ProjectSeenVO(identity.projectId(), key, seenAt, visibility),
+                ProjectSeenService::merge);
+    }
+
+    @Override
+    public boolean absorb(ProjectAggregate project) {
+        requireNotNull(project, "project 不能为空");
+        if (identityCache.get(project.getKey()) == null)
+            return false;
+        Set<ProjectField> dirty = project.getDirtyFields();
+        boolean seen = dirty.contains(ProjectField.LAST_SEEN);
+        boolean visibility = dirty.contains(ProjectField.LAST_VISIBILITY);
+        if (!seen && !visibility)
+            return false;
+        record(project.getKey(), seen ? project.getLastSeen() : null, visibility ? project.getLastVisibility() : null);
+        project.markClean(ProjectField.LAST_SEEN, ProjectField.LAST_VISIBILITY);
+        return true;
+    }
+
+    @Override
+    public synchronized int flush() {
+        if (buffer.isEmpty())
+            return 0;
+        List<ProjectSeenVO> batch = new ArrayList<>(buffer.size());
+        for (Long projectId : buffer.keySet()) {
+            ProjectSeenVO seen = buffer.remove(projectId);
+            if (seen != null)
+                batch.add(seen);
+        }
+        if (batch.isEmpty())
+            return 0;
+        try {
+            int rows = projectRepository.updateSeenBatch(batch);
+            flushed.add(batch.size());
+            log.debug("[项目观察] 写后缓冲落库 {} 个项目, 影响 {} 行, 累计记录 {} 次 / 落库 {} 个",
+                    batch.size(), rows, recorded.sum(), flushed.sum());
+            return batch.size();
+        } catch (RuntimeException e) {
+            // 合并回缓冲, 下次刷新重试; 合并规则保证与期间的新观察不冲突
+            for (ProjectSeenVO seen : batch)
+                buffer.merge(seen.projectId(), seen, (current, failed) -> merge(failed, current));
+            log.error("[项目观察] 写后缓冲落库失败, {} 个项目已放回缓冲", batch.size(), e);
+            throw e;
+        }
+    }
+
+    @Override
+    public int pending() {
+        return buffer.size();
+    }
+
+    @Override
+    public void destroy() {
+        int count = flush();
+        log.info("[项目观察] 停机前刷新写后缓冲, 落库 {} 个项目", count);
+    }
+
+    /**
+     * 合并两次观察: lastSeen 单调递增, 可见性以较新的一次记录为准 (为空则保留旧值)
+     *
+     * @param older 较早的状态
+     * @param newer 较新的状态
+     * @return 合并后的状态
+     */
+    private static ProjectSeenVO merge(ProjectSeenVO older, ProjectSeenVO newer) {
+        Instant lastSeen = newer.lastSeen() == null ? older.lastSeen()
+                : ProjectAggregate.ensureMonotonic(older.lastSeen(), newer.lastSeen());
+        Visibility visibility = newer.lastVisibility() != null ? newer.lastVisibility() : older.lastVisibility();
+        return new ProjectSeenVO(older.projectId(), older.key(), lastSeen, visibility);
+    }
+}
@@ -0,0 +1,168 @@
+package xin.eason.smartfollow.domain.service.trade;
+
+import xin.eason.smartfollow.domain.model.vo.market.BarSeries;
+
+/**
+ * 一段 K 线上的区间极值线段树, 供同一标的的大量回合在 O(log n) 内查询各自持仓区间的极值
+ * <ul>
+ *     <li>构建时把 K 线复制为连续数组 (只复制一次, 之后的查询不再访问底层存储)</li>
+ *     <li>自底向上的非递归线段树, 叶子在 [n, 2n); 每个节点保存区间内最低价 / 最高价的下标 (同值取最早) 以及两个跨 K 线比值:
+ *     <code>fall = min(low[j] / high[i])</code>, <code>rise = max(high[j] / low[i])</code>, 其中 i &lt; j</li>
+ *     <li>两个比值可以由左右子区间合并得到 (<code>min(左.fall, 右.fall, 右.最低 / 左.最高)</code>), 查询时按左右顺序分别累积, 合并不可交换也能得到正确结果</li>
+ *     <li>同一根 K 线内高低点的先后未知, 回撤 / 回升只在不同 K 线之间计算</li>
+ * </ul>
+ * 实例构建后只读, 可被多个线程同时查询; {@link Range} 由调用线程自备
+ */
+final class BarRangeTree {
+
+    private final int n;
+    private final long[] ts;
+    private final double[] low;
+    private final double[] high;
+    private final int[] minAt;
+    private final int[] maxAt;
+    private final double[] fall;
+    private final double[] rise;
+
+    BarRangeTree(BarSeries series) {
+        n = series.size();
+        ts = new long[n];
+        low = new double[n];
+        high = new double[n];
+        minAt = new int[2 * n];
+        maxAt = new int[2 * n];
+        fall = new double[2 * n];
+        rise = new double[2 * n];
+        for (int i = 0; i < n; i++) {
+            ts[i] = series.ts(i);
+            low[i] = series.low(i);
+            high[i] = series.high(i);
+            minAt[n + i] = i;
+            maxAt[n + i] = i;
+            fall[n + i] = Double.POSITIVE_INFINITY;
+            rise[n + i] = Double.NEGATIVE_INFINITY;
+        }
+        for (int p = n - 1; p > 0; p--) {
+            int a = p << 1;
+            int b = a | 1;
+            minAt[p] = low[minAt[b]] < low[minAt[a]] ? minAt[b] : minAt[a];
+            maxAt[p] = high[maxAt[b]] > high[maxAt[a]] ? maxAt[b] : maxAt[a];
+            fall[p] = Math.min(Math.min(fall[a], fall[b]), low[minAt[b]] / high[maxAt[a]]);
+            rise[p] = Math.max(Math.max(rise[a], rise[b]), high[maxAt[b]] / low[minAt[a]]);
+        }
+    }
+
+    int size() {
+        return n;
+    }
+
+    long ts(int i) {
+        return ts[i];
+    }
+
+    double low(int i) {
+        return low[i];
+    }
+
+    double high(int i) {
+        return high[i];
+    }
+
+    /**
+     * 第一个开盘时间 &gt;= tsMs 的下标
+     */
+    int lowerBound(long tsMs) {
+        int lo = 0;
+        int hi = n;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (ts[mid] < tsMs)
+                lo = mid + 1;
+            else
+                hi = mid;
+        }
+        return lo;
+    }
+
+    /**
+     * 查询下标 [from, to) 的极值
+     *
+     * @param out   结果
+     * @param right 右侧累积用的临时对象
+     * @return out; 区间为空时 {@link Range#isEmpty()} 为 true
+     */
+    Range query(int from, int to, Range out, Range right) {
+        out.clear();
+        right.clear();
+        for (int l = from + n, r = to + n; l < r; l >>= 1, r >>= 1) {
+            if ((l & 1) == 1) {
+                append(out, minAt[l], maxAt[l], fall[l], rise[l]);
+                l++;
+            }
+            if ((r & 1) == 1) {
+                r--;
+                prepend(minAt[r], maxAt[r], fall[r], rise[r], right);
+            }
+        }
+        if (!right.isEmpty())
+            append(out, right.minAt, right.maxAt, right.fall, right.rise);
+        return out;
+    }
+
+    /**
+     * acc = acc ⊕ b
+     */
+    private void append(Range acc, int bMin, int bMax, double bFall, double bRise) {
+        if (acc.isEmpty()) {
+            acc.set(bMin, bMax, bFall, bRise);
+            return;
+        }
+        double f = Math.min(Math.min(acc.fall, bFall), low[bMin] / high[acc.maxAt]);
+        double r = Math.max(Math.max(acc.rise, bRise), high[bMax] / low[acc.minAt]);
+        acc.set(low[bMin] < low[acc.minAt] ? bMin : acc.minAt, high[bMax] > high[acc.maxAt] ? bMax : acc.maxAt, f, r);
+    }
+
+    /**
+     * acc = a ⊕ acc
+     */
+    private void prepend(int aMin, int aMax, double aFall, double aRise, Range acc) {
+        if (acc.isEmpty()) {
+            acc.set(aMin, aMax, aFall, aRise);
+            return;
+        }
+        double f = Math.min(Math.min(aFall, acc.fall), low[acc.minAt] / high[aMax]);
+        double r = Math.max(Math.max(aRise, acc.rise), high[acc.maxAt] / low[aMin]);
+        acc.set(low[acc.minAt] < low[aMin] ? acc.minAt : aMin, high[acc.maxAt] > high[aMax] ? acc.maxAt : aMax, f, r);
+    }
+
+    /**
+     * 区间查询结果
+     * <ul>
+     *     <li><code>minAt</code> / <code>maxAt</code>: 最低价 / 最高价所在下标, 区间为空时为 -1</li>
+     *     <li><code>fall</code>: 先高后低的最小比值, 区间只有一根 K 线时为正无穷</li>
+     *     <li><code>rise</code>: 先低后高的最大比值, 区间只有一根 K 线时为负无穷</li>
+     * </ul>
+     */
+    static final class Range {
+
+        int minAt = -1;
+        int maxAt = -1;
+        double fall = Double.POSITIVE_INFINITY;
+        double rise = Double.NEGATIVE_INFINITY;
+
+        boolean isEmpty() {
+            return minAt < 0;
+        }
+
+        private void clear() {
+            set(-1, -1, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY);
+        }
+
+        private void set(int minAt, int maxAt, double fall, double rise) {
+            this.minAt = minAt;
+            this.maxAt = maxAt;
+            this.fall = fall;
+            this.rise = rise;
+        }
+    }
+}
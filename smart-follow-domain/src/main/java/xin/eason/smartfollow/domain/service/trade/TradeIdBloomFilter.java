@@ -0,0 +1,136 @@
+package xin.eason.smartfollow.domain.service.trade;
+
+import static xin.eason.smartfollow.types.utils.FieldValidateUtils.require;
+import static xin.eason.smartfollow.types.utils.FieldValidateUtils.requireNotNull;
+
+/**
+ * 单个 (项目, 月分区) 的 tradeId 布隆过滤器
+ * <ul>
+ *     <li>位数组与哈希函数个数按 <code>m = -n·ln(p) / ln²2</code>, <code>k = m/n·ln2</code> 由容量 n 与目标假阳性率 p 计算</li>
+ *     <li>对字符串计算一次 64 位哈希, 拆成两个 32 位半部以双重哈希 <code>h1 + i·h2</code> 派生 k 个位置, 不分配对象</li>
+ *     <li>只会假阳性, 不会假阴性; 写入超过容量后假阳性率上升, 由 {@link #isSaturated()} 提示重建</li>
+ *     <li>写入持有对象锁, 查询不加锁: 并发写入时查询最多漏看刚写入的位, 结果只是多发一次幂等写入</li>
+ * </ul>
+ */
+public class TradeIdBloomFilter {
+
+    private static final double LN2 = Math.log(2);
+
+    private final long[] bits;
+    private final long numBits;
+    private final int hashes;
+    /**
+     * 设计容量
+     */
+    private final long capacity;
+    /**
+     * 已写入的键数 (重复写入同一个键也计数, 偏保守)
+     */
+    private volatile long insertions;
+
+    /**
+     * @param capacity 设计容量
+     * @param fpp      目标假阳性率, (0, 1)
+     */
+    public TradeIdBloomFilter(long capacity, double fpp) {
+        require(capacity > 0, "capacity 必须 > 0");
+        require(fpp > 0 && fpp < 1, "fpp 必须在 (0, 1) 之间");
+        long m = (long) Math.ceil(-capacity * Math.log(fpp) / (LN2 * LN2));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (m + 63) >>> 6));
+        this.bits = new long[words];
+        this.numBits = (long) words << 6;
+        this.hashes = Math.max(1, (int) Math.round((double) numBits / capacity * LN2));
+        this.capacity = capacity;
+    }
+
+    /**
+     * 写入一个键
+     *
+     * @param key 键
+     */
+    public synchronized void put(String key) {
+        requireNotNull(key, "key 不能为空");
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashes; i++) {
+            long index = index(h1 + i * h2);
+            bits[(int) (index >>> 6)] |= 1L << index;
+        }
+        insertions++;
+    }
+
+    /**
+     * 判断键是否可能已写入
+     *
+     * @param key 键
+     * @return <code>false</code> 时一定未写入; <code>true</code> 时以 {@link #expectedFpp()} 的概率为假阳性
+     */
+    public boolean mightContain(String key) {
+        requireNotNull(key, "key 不能为空");
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashes; i++) {
+            long index = index(h1 + i * h2);
+            if ((bits[(int) (index >>> 6)] & (1L << index)) == 0)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * 按当前写入量估算的假阳性率 <code>(1 - e^(-k·n/m))^k</code>
+     *
+     * @return 估算假阳性率
+     */
+    public double expectedFpp() {
+        return Math.pow(1 - Math.exp(-hashes * (double) insertions / numBits), hashes);
+    }
+
+    /**
+     * @return 写入量是否已超过设计容量
+     */
+    public boolean isSaturated() {
+        return insertions > capacity;
+    }
+
+    public long getCapacity() {
+        return capacity;
+    }
+
+    public long getInsertions() {
+        return insertions;
+    }
+
+    public int getHashes() {
+        return hashes;
+    }
+
+    /**
+     * @return 位数组占用 (字节)
+     */
+    public long memoryBytes() {
+        return (long) bits.length * Long.BYTES;
+    }
+
+    private long index(int combined) {
+        // 负数取反, 保证落在 [0, numBits)
+        return (combined < 0 ? ~combined : combined) % numBits;
+    }
+
+    /**
+     * 逐字符的 64 位混合哈希, 末尾使用 MurmurHash3 的 fmix64 雪崩
+     */
+    private static long hash(String key) {
+        long h = 0x9E3779B97F4A7C15L ^ key.length();
+        for (int i = 0; i < key.length(); i++)
+            h = Long.rotateLeft((h ^ key.charAt(i)) * 0xBF58476D1CE4E5B9L, 31);
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
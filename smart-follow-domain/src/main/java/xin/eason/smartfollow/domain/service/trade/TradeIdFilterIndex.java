@@ -0,0 +1,221 @@
+package xin.eason.smartfollow.domain.service.trade;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import static xin.eason.smartfollow.types.utils.FieldValidateUtils.require;
+import static xin.eason.smartfollow.types.utils.FieldValidateUtils.requireNotNull;
+
+/**
+ * 仓位回合幂等预检索引: (项目稠密编号, 开仓月份) → 该月分区已落库终态回合的 {@link TradeIdBloomFilter}
+ * <ul>
+ *     <li>与 exchange_project_trade 的按月分区对齐, 加载 / 重建一个过滤器只读取单个分区中单个项目的行</li>
+ *     <li>过滤器按需加载, 容量取 max(库内行数 × 2, {@code minCapacity}), 为本月后续写入预留空间</li>
+ *     <li>统计过滤器判定为新的键数与回查确认的假阳性数, 两者之比即实测假阳性率</li>
+ * </ul>
+ */
+public class TradeIdFilterIndex {
+
+    /**
+     * 目标假阳性率
+     */
+    private final double fpp;
+    /**
+     * 单个过滤器的最小容量
+     */
+    private final long minCapacity;
+    /**
+     * 超过该时长未访问的过滤器在重建时淘汰
+     */
+    private final Duration idleTtl;
+    /**
+     * 过滤器命中时是否回查数据库确认 (关闭后假阳性的新回合会被丢弃)
+     */
+    private final boolean verifyPositives;
+    /**
+     * (稠密编号 &lt;&lt; 32 | 月份序号) → 过滤器
+     */
+    private final Map<Long, Entry> filters = new ConcurrentHashMap<>();
+
+    // ===== 统计 =====
+    private final LongAdder negatives = new LongAdder();
+    private final LongAdder positives = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    public TradeIdFilterIndex(double fpp, long minCapacity, Duration idleTtl, boolean verifyPositives) {
+        require(fpp > 0 && fpp < 1, "fpp 必须在 (0, 1) 之间");
+        require(minCapacity > 0, "minCapacity 必须 > 0");
+        requireNotNull(idleTtl, "idleTtl 不能为空");
+        this.fpp = fpp;
+        this.minCapacity = minCapacity;
+        this.idleTtl = idleTtl;
+        this.verifyPositives = verifyPositives;
+    }
+
+    /**
+     * 取出已加载的过滤器, 并刷新访问时间
+     *
+     * @param denseId 稠密编号
+     * @param month   开仓月份 (UTC)
+     * @return 过滤器, 未加载时为 <code>null</code>
+     */
+    public TradeIdBloomFilter get(int denseId, YearMonth month) {
+        Entry entry = filters.get(key(denseId, month));
+        if (entry == null)
+            return null;
+        entry.lastAccessMs = System.currentTimeMillis();
+        return entry.filter;
+    }
+
+    /**
+     * 按库内行数创建一个空过滤器 (尚未安装)
+     *
+     * @param rows 库内已有的终态键数
+     * @return 空过滤器
+     */
+    public TradeIdBloomFilter newFilter(long rows) {
+        return new TradeIdBloomFilter(Math.max(rows * 2, minCapacity), fpp);
+    }
+
+    /**
+     * 安装 (或替换) 过滤器
+     *
+     * @param denseId 稠密编号
+     * @param month   开仓月份 (UTC)
+     * @param filter  已写入库内全部终态键的过滤器
+     */
+    public void install(int denseId, YearMonth month, TradeIdBloomFilter filter) {
+        requireNotNull(filter, "filter 不能为空");
+        filters.put(key(denseId, month), new Entry(filter, System.currentTimeMillis()));
+    }
+
+    /**
+     * 移除过滤器
+     *
+     * @param denseId 稠密编号
+     * @param month   开仓月份 (UTC)
+     */
+    public void remove(int denseId, YearMonth month) {
+        filters.remove(key(denseId, month));
+    }
+
+    /**
+     * 淘汰长时间未访问的过滤器, 并列出需要重建的 (已饱和的) 过滤器
+     *
+     * @param nowMs 当前时间 (毫秒)
+     * @return 需要重建的过滤器键, 可用 {@link #denseId(long)} / {@link #month(long)} 还原
+     */
+    public List<Long> evictIdleAndListSaturated(long nowMs) {
+        long idleBefore = nowMs - idleTtl.toMillis();
+        List<Long> saturated = new ArrayList<>();
+        filters.entrySet().removeIf(e -> e.getValue().lastAccessMs < idleBefore);
+        filters.forEach((key, entry) -> {
+            if (entry.filter.isSaturated())
+                saturated.add(key);
+        });
+        return saturated;
+    }
+
+    /**
+     * 记录一批预检结果
+     *
+     * @param negatives      过滤器判定为新的键数
+     * @param positives      过滤器命中的键数
+     * @param falsePositives 命中后回查确认不存在的键数
+     */
+    public void record(int negatives, int positives, int falsePositives) {
+        this.negatives.add(negatives);
+        this.positives.add(positives);
+        this.falsePositives.add(falsePositives);
+    }
+
+    /**
+     * 实测假阳性率: 假阳性 / (假阳性 + 判定为新的键); 未开启回查时恒为 0
+     *
+     * @return 实测假阳性率
+     */
+    public double observedFpp() {
+        long fp = falsePositives.sum();
+        long total = fp + negatives.sum();
+        return total == 0 ? 0 : (double) fp / total;
+    }
+
+    /**
+     * 已加载过滤器按当前写入量估算的假阳性率的最大值
+     *
+     * @return 估算假阳性率
+     */
+    public double maxExpectedFpp() {
+        double max = 0;
+        for (Entry entry : filters.values())
+            max = Math.max(max, entry.filter.expectedFpp());
+        return max;
+    }
+
+    /**
+     * @return 已加载的过滤器数量
+     */
+    public int size() {
+        return filters.size();
+    }
+
+    /**
+     * @return 已加载过滤器的位数组总占用 (字节)
+     */
+    public long memoryBytes() {
+        long bytes = 0;
+        for (Entry entry : filters.values())
+            bytes += entry.filter.memoryBytes();
+        return bytes;
+    }
+
+    public long getPositives() {
+        return positives.sum();
+    }
+
+    public long getFalsePositives() {
+        return falsePositives.sum();
+    }
+
+    public double getFpp() {
+        return fpp;
+    }
+
+    public boolean isVerifyPositives() {
+        return verifyPositives;
+    }
+
+    // ===== 键编码 =====
+
+    public static long key(int denseId, YearMonth month) {
+        return ((long) denseId << 32) | (month.getYear() * 12L + month.getMonthValue() - 1);
+    }
+
+    public static int denseId(long key) {
+        return (int) (key >>> 32);
+    }
+
+    public static YearMonth month(long key) {
+        int index = (int) key;
+        return YearMonth.of(index / 12, index % 12 + 1);
+    }
+
+    /**
+     * 过滤器与最近访问时间
+     */
+    private static final class Entry {
+
+        private final TradeIdBloomFilter filter;
+        private volatile long lastAccessMs;
+
+        private Entry(TradeIdBloomFilter filter, long lastAccessMs) {
+            this.filter = filter;
+            this.lastAccessMs = lastAccessMs;
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package xin.eason.smartfollow.domain.service.trade;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import xin.eason.smartfollow.domain.IProjectIdentityService;
+import xin.eason.smartfollow.domain.ITradeIngestService;
+import xin.eason.smartfollow.domain.adapter.repository.ITradeRepository;
+import xin.eason.smartfollow.domain.model.aggregate.trade.ProjectTradeAggregate;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectIdentityVO;
+import xin.eason.smartfollow.domain.model.vo.trade.TradeIdentityVO;
+import xin.eason.smartfollow.domain.model.vo.trade.TradeIngestResultVO;
+import xin.eason.smartfollow.domain.service.project.ProjectIdentityCache;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static xin.eason.smartfollow.types.utils.FieldValidateUtils.requireNotNull;
+
+/**
+ * 仓位回合批量写入服务实现
+ * <ul>
+ *     <li>按 (项目, 开仓月份) 分组, 每组对应一个 {@link TradeIdBloomFilter}, 过滤器中是该月分区已落库的终态回合的 tradeId 与 (来源, 外部成交 ID)</li>
+ *     <li>终态回合两个键都未命中时一定是新回合; 命中时默认以唯一索引回查确认, 假阳性的回合照常写入, 不会丢数据</li>
+ *     <li>非终态回合不做预检, 总是写入以推进状态; 写入成功后终态回合的键补入过滤器</li>
+ *     <li>重复抓取的页面中已落库的回合在进程内被拦下, MySQL 的写入量只与新回合 (及状态变化) 的数量相关</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TradeIngestService implements ITradeIngestService {
+
+    private final ITradeRepository tradeRepository;
+    private final IProjectIdentityService identityService;
+    private final ProjectIdentityCache identityCache;
+    private final TradeIdFilterIndex filterIndex;
+
+    @Override
+    public TradeIngestResultVO ingest(Collection<ProjectTradeAggregate> trades) {
+        requireNotNull(trades, "trades 不能为空");
+
+        // ===== 按 (项目, 开仓月份) 分组 =====
+        Map<Long, Group> groups = new LinkedHashMap<>();
+        int skipped = 0;
+        for (ProjectTradeAggregate trade : trades) {
+            ProjectIdentityVO identity = identityService.resolve(trade.getProjectKey());
+            if (identity == null) {
+                skipped++;
+                continue;
+            }
+            YearMonth month = YearMonth.from(trade.getTsOpen().atOffset(ZoneOffset.UTC));
+            groups.computeIfAbsent(TradeIdFilterIndex.key(identity.denseId(), month), k -> new Group(identity, month))
+                    .trades.add(trade);
+        }
+
+        // ===== 预检: 过滤器未命中 → 新回合; 命中 → 回查确认 =====
+        List<ProjectTradeAggregate> candidates = new ArrayList<>();
+        int known = 0;
+        int falsePositives = 0;
+        for (Group group : groups.values()) {
+            TradeIdBloomFilter filter = group.filter = filter(group.identity, group.month);
+            List<ProjectTradeAggregate> probable = new ArrayList<>();
+            int negatives = 0;
+            for (ProjectTradeAggregate trade : group.trades) {
+                if (!trade.getStatus().isFinal()) {
+                    candidates.add(trade);
+                    continue;
+                }
+                String externalKey = TradeIdentityVO.externalKey(trade.getSource(), trade.getExternalTradeId());
+                if (filter.mightContain(trade.getTradeId()) || (externalKey != null && filter.mightContain(externalKey))) {
+                    probable.add(trade);
+                } else {
+                    candidates.add(trade);
+                    group.finals.add(trade);
+                    negatives++;
+                }
+            }
+            int groupFalsePositives = 0;
+            if (!probable.isEmpty() && filterIndex.isVerifyPositives()) {
+                Set<String> confirmed = confirmed(group.identity, probable);
+                for (ProjectTradeAggregate trade : probable) {
+                    String externalKey = TradeIdentityVO.externalKey(trade.getSource(), trade.getExternalTradeId());
+                    if (confirmed.contains(trade.getTradeId()) || (externalKey != null && confirmed.contains(externalKey))) {
+                        known++;
+                    } else {
+                        candidates.add(trade);
+                        group.finals.add(trade);
+                        groupFalsePositives++;
+                    }
+                }
+            } else {
+                known += probable.size();
+            }
+            falsePositives += groupFalsePositives;
+            filterIndex.record(negatives, probable.size(), groupFalsePositives);
+        }
+
+        // ===== 多行写入, 成功后补入过滤器 =====
+        int affected = candidates.isEmpty() ? 0 : tradeRepository.upsertBatch(candidates);
+        for (Group group : groups.values())
+            for (ProjectTradeAggregate trade : group.finals)
+                put(group.filter, new TradeIdentityVO(trade.getTradeId(), trade.getSource(), trade.getExternalTradeId()));
+
+        TradeIngestResultVO result = new TradeIngestResultVO(trades.size(), known, falsePositives, candidates.size(), affected, skipped);
+        log.info("[回合写入] 输入 {} 条: 预检跳过 {} 条, 假阳性 {} 条, 写入 {} 条 (影响 {} 行), 未注册跳过 {} 条",
+                result.total(), result.known(), result.falsePositives(), result.written(), result.affected(), result.skipped());
+        return result;
+    }
+
+    @Override
+    public int rebuildFilters() {
+        List<Long> saturated = filterIndex.evictIdleAndListSaturated(System.currentTimeMillis());
+        int rebuilt = 0;
+        for (long key : saturated) {
+            int denseId = TradeIdFilterIndex.denseId(key);
+            YearMonth month = TradeIdFilterIndex.month(key);
+            ProjectIdentityVO identity = identityCache.getByDenseId(denseId);
+            if (identity == null) {
+                filterIndex.remove(denseId, month);
+                continue;
+            }
+            filterIndex.install(denseId, month, load(identity, month));
+            rebuilt++;
+        }
+        log.info("[回合写入] 过滤器重建 {} 个, 当前 {} 个 ({} 字节), 估算假阳性率上限 {}, 实测假阳性率 {}",
+                rebuilt, filterIndex.size(), filterIndex.memoryBytes(), filterIndex.maxExpectedFpp(), filterIndex.observedFpp());
+        return rebuilt;
+    }
+
+    /**
+     * 取出 (项目, 月份) 的过滤器, 未加载时从该月分区读取终态回合后安装
+     */
+    private TradeIdBloomFilter filter(ProjectIdentityVO identity, YearMonth month) {
+        TradeIdBloomFilter filter = filterIndex.get(identity.denseId(), month);
+        if (filter != null)
+            return filter;
+        filter = load(identity, month);
+        filterIndex.install(identity.denseId(), month, filter);
+        return filter;
+    }
+
+    /**
+     * 读取项目在该月分区内的终态回合, 构建一个新的过滤器
+     */
+    private TradeIdBloomFilter load(ProjectIdentityVO identity, YearMonth month) {
+        Instant from = month.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+        Instant to = month.plusMonths(1).atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+        List<TradeIdentityVO> rows = new ArrayList<>();
+        tradeRepository.scanFinal(identity.key(), from, to, rows::add);
+        TradeIdBloomFilter filter = filterIndex.newFilter(rows.size() * 2L);
+        for (TradeIdentityVO row : rows)
+            put(filter, row);
+        log.debug("[回合写入] 加载过滤器 {} {}: 终态回合 {} 条, 容量 {}, 哈希函数 {} 个",
+                identity.key().asString(), month, rows.size(), filter.getCapacity(), filter.getHashes());
+        return filter;
+    }
+
+    /**
+     * 以唯一索引回查命中过滤器的回合, 返回库内确认存在的 tradeId 与外部成交 ID 键
+     */
+    private Set<String> confirmed(ProjectIdentityVO identity, List<ProjectTradeAggregate> probable) {
+        List<TradeIdentityVO> identities = new ArrayList<>(probable.size());
+        for (ProjectTradeAggregate trade : probable)
+            identities.add(new TradeIdentityVO(trade.getTradeId(), trade.getSource(), trade.getExternalTradeId()));
+        Set<String> confirmed = new HashSet<>();
+        for (TradeIdentityVO row : tradeRepository.findFinal(identity.key(), identities)) {
+            confirmed.add(row.tradeId());
+            String externalKey = row.externalKey();
+            if (externalKey != null)
+                confirmed.add(externalKey);
+        }
+        return confirmed;
+    }
+
+    private static void put(TradeIdBloomFilter filter, TradeIdentityVO identity) {
+        filter.put(identity.tradeId());
+        String externalKey = identity.externalKey();
+        if (externalKey != null)
+            filter.put(externalKey);
+    }
+
+    /**
+     * 同一 (项目, 月份) 的一组回合
+     */
+    private static final class Group {
+
+        private final ProjectIdentityVO identity;
+        private final YearMonth month;
+        private final List<ProjectTradeAggregate> trades = new ArrayList<>();
+        /**
+         * 预检判定为新的终态回合, 写入成功后补入过滤器
+         */
+        private final List<ProjectTradeAggregate> finals = new ArrayList<>();
+        private TradeIdBloomFilter filter;
+
+        private Group(ProjectIdentityVO identity, YearMonth month) {
+            this.identity = identity;
+            this.month = month;
+        }
+    }
+}
@@ -0,0 +1,450 @@
+package xin.eason.smartfollow.domain.service.trade;
+
+import lombok.extern.slf4j.Slf4j;
+import xin.eason.smartfollow.domain.model.aggregate.trade.ProjectTradeAggregate;
+import xin.eason.smartfollow.domain.model.aggregate.trade.TradeIdSynthesizer;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectKey;
+import xin.eason.smartfollow.domain.model.vo.trade.ItemId;
+import xin.eason.smartfollow.domain.model.vo.trade.Money;
+import xin.eason.smartfollow.domain.model.vo.trade.Quantity;
+import xin.eason.smartfollow.domain.model.vo.trade.TradeFillVO;
+import xin.eason.smartfollow.domain.model.vo.trade.TradeMatchBatchVO;
+import xin.eason.smartfollow.types.enums.PositionAction;
+import xin.eason.smartfollow.types.enums.TradeSide;
+import xin.eason.smartfollow.types.enums.TradeStatus;
+import xin.eason.smartfollow.types.exceptions.AppException;
+import xin.eason.smartfollow.types.utils.FixedPointUtils;
+
+import java.io.Closeable;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static xin.eason.smartfollow.types.utils.FieldValidateUtils.require;
+import static xin.eason.smartfollow.types.utils.FieldValidateUtils.requireNotNull;
+import static xin.eason.smartfollow.types.utils.FixedPointUtils.INEXACT;
+import static xin.eason.smartfollow.types.utils.FixedPointUtils.PRICE_SCALE;
+import static xin.eason.smartfollow.types.utils.FixedPointUtils.QTY_SCALE;
+import static xin.eason.smartfollow.types.utils.FixedPointUtils.add;
+import static xin.eason.smartfollow.types.utils.FixedPointUtils.multiply;
+import static xin.eason.smartfollow.types.utils.FixedPointUtils.scaleOf;
+import static xin.eason.smartfollow.types.utils.FixedPointUtils.subtract;
+import static xin.eason.smartfollow.types.utils.FixedPointUtils.toDecimal;
+import static xin.eason.smartfollow.types.utils.FixedPointUtils.toScaled;
+
+/**
+ * 先进先出开平仓撮合引擎
+ * <ul>
+ *     <li>每个项目按 (标的, 方向) 维护一个开仓队列, 平仓成交从队首开始消耗, 不足一笔时该笔开仓进入 PARTIALLY_CLOSED</li>
+ *     <li>项目按哈希分配到固定的分片, 每个分片一个单线程执行器, 队列只被所属线程访问, 无锁; 一批成交的各分片并行处理</li>
+ *     <li>一笔开仓成交对应一个仓位回合, 回合 ID 由开仓字段合成 (每批新开仓一次性批量生成并缓存在队列中), 部分平仓与完全平仓输出同一 ID 的最新状态</li>
+ *     <li>回合的出场价为已平数量的加权均价, 盈亏按线性合约计算, 平仓手续费按匹配数量分摊</li>
+ *     <li>数量 / 价格 / 盈亏以 {@link FixedPointUtils} 的定点 long 计算, 无法精确表示时该笔开仓回落到 BigDecimal</li>
+ * </ul>
+ */
+@Slf4j
+public class TradeMatchingEngine implements Closeable {
+
+    /**
+     * 出场均价与手续费分摊的精度
+     */
+    private static final MathContext MC = MathContext.DECIMAL64;
+    /**
+     * 同一时刻先开后平, 保证同一毫秒的开平仓可以配对
+     */
+    private static final Comparator<TradeFillVO> FILL_ORDER = Comparator.comparing(TradeFillVO::ts)
+            .thenComparing(TradeFillVO::action);
+
+    private final Shard[] shards;
+    /**
+     * 全部分片中未完全平仓的开仓数量
+     */
+    private final AtomicLong openLots = new AtomicLong();
+
+    /**
+     * @param shards 分片数 (并行度)
+     */
+    public TradeMatchingEngine(int shards) {
+        require(shards >= 1, "shards 不能小于 1");
+        this.shards = new Shard[shards];
+        for (int i = 0; i < shards; i++)
+            this.shards[i] = new Shard(i);
+    }
+
+    /**
+     * 撮合一批成交, 阻塞到全部分片处理完成
+     *
+     * @param fills 成交集合
+     * @return 撮合结果
+     */
+    public TradeMatchBatchVO match(Collection<TradeFillVO> fills) {
+        requireNotNull(fills, "fills 不能为空");
+        List<List<TradeFillVO>> perShard = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++)
+            perShard.add(new ArrayList<>());
+        for (TradeFillVO fill : fills)
+            perShard.get(shardOf(fill.projectKey())).add(fill);
+
+        List<Future<ShardResult>> futures = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            List<TradeFillVO> batch = perShard.get(i);
+            if (!batch.isEmpty()) {
+                Shard shard = shards[i];
+                futures.add(shard.executor.submit(() -> shard.process(batch)));
+            }
+        }
+
+        List<ProjectTradeAggregate> trades = new ArrayList<>();
+        int closed = 0;
+        int unmatched = 0;
+        int failed = 0;
+        for (Future<ShardResult> future : futures) {
+            ShardResult result = await(future);
+            trades.addAll(result.trades);
+            closed += result.closed;
+            unmatched += result.unmatched;
+            failed += result.failed;
+        }
+        return new TradeMatchBatchVO(trades, fills.size(), closed, unmatched, failed);
+    }
+
+    /**
+     * 丢弃项目的全部开仓队列
+     *
+     * @param key 项目唯一标识
+     */
+    public void reset(ProjectKey key) {
+        requireNotNull(key, "key 不能为空");
+        Shard shard = shards[shardOf(key)];
+        await(shard.executor.submit(() -> shard.reset(key)));
+    }
+
+    /**
+     * @return 当前未完全平仓的开仓数量
+     */
+    public long openLots() {
+        return openLots.get();
+    }
+
+    /**
+     * @return 分片数
+     */
+    public int shards() {
+        return shards.length;
+    }
+
+    @Override
+    public void close() {
+        for (Shard shard : shards)
+            shard.executor.shutdown();
+        try {
+            for (Shard shard : shards)
+                if (!shard.executor.awaitTermination(10, TimeUnit.SECONDS))
+                    shard.executor.shutdownNow();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private int shardOf(ProjectKey key) {
+        return Math.floorMod(key.hashCode(), shards.length);
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AppException("撮合被中断", e);
+        } catch (ExecutionException e) {
+            throw new AppException("撮合失败: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    // =========================== 分片 ===========================
+
+    /**
+     * 单个分片: 只在自己的执行线程中访问 books
+     */
+    private final class Shard {
+
+        private final ExecutorService executor;
+        /**
+         * 项目 → (标的, 方向) → 开仓队列
+         */
+        private final Map<ProjectKey, Map<LotKey, ArrayDeque<Lot>>> books = new HashMap<>();
+
+        private Shard(int index) {
+            this.executor = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, "trade-matching-" + index);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        private ShardResult process(List<TradeFillVO> fills) {
+            fills.sort(FILL_ORDER);
+            List<Lot> touched = new ArrayList<>();
+            List<Lot> unnamed = new ArrayList<>();
+            int unmatched = 0;
+            for (TradeFillVO fill : fills) {
+                ArrayDeque<Lot> queue = books.computeIfAbsent(fill.projectKey(), k -> new HashMap<>())
+                        .computeIfAbsent(new LotKey(fill.item(), fill.side()), k -> new ArrayDeque<>());
+                if (fill.action() == PositionAction.OPEN) {
+                    Lot lot = new Lot(fill);
+                    queue.addLast(lot);
+                    openLots.incrementAndGet();
+                    if (fill.externalFillId() == null || fill.externalFillId().isBlank())
+                        unnamed.add(lot);
+                    touch(lot, touched);
+                    continue;
+                }
+                // 定点快路径; 无法精确表示时 left 非空, 本笔成交剩余部分改走 BigDecimal
+                long fillQty = toScaled(fill.qty(), QTY_SCALE);
+                long price = toScaled(fill.price(), PRICE_SCALE);
+                long leftQty = fillQty;
+                BigDecimal left = fillQty == INEXACT || price == INEXACT ? fill.qty() : null;
+                while (!queue.isEmpty() && (left == null ? leftQty > 0 : left.signum() > 0)) {
+                    Lot lot = queue.peekFirst();
+                    if (left == null) {
+                        long take = lot.close(leftQty, fillQty, price, fill);
+                        if (take == INEXACT) {
+                            left = toDecimal(leftQty, QTY_SCALE);
+                            continue;
+                        }
+                        leftQty -= take;
+                    } else {
+                        lot.degrade();
+                        BigDecimal take = lot.remaining.min(left);
+                        lot.close(take, fill);
+                        left = left.subtract(take);
+                    }
+                    touch(lot, touched);
+                    if (lot.isFlat()) {
+                        queue.pollFirst();
+                        openLots.decrementAndGet();
+                    }
+                }
+                if (left == null ? leftQty > 0 : left.signum() > 0) {
+                    unmatched++;
+                    log.debug("[撮合] 平仓成交找不到足够的开仓, 丢弃 {}: {} {} {}",
+                            (left == null ? toDecimal(leftQty, QTY_SCALE) : left).toPlainString(),
+                            fill.projectKey().asString(), fill.item(), fill.side());
+                }
+            }
+
+            if (!unnamed.isEmpty()) {
+                String[] ids = TradeIdSynthesizer.synthesizeAll(unnamed.stream().map(lot -> lot.open).toList());
+                for (int i = 0; i < ids.length; i++)
+                    unnamed.get(i).tradeId = ids[i];
+            }
+
+            ShardResult result = new ShardResult(new ArrayList<>(touched.size()));
+            result.unmatched = unmatched;
+            for (Lot lot : touched) {
+                lot.dirty = false;
+                try {
+                    ProjectTradeAggregate trade = lot.toAggregate();
+                    result.trades.add(trade);
+                    if (trade.getStatus() == TradeStatus.CLOSED)
+                        result.closed++;
+                } catch (RuntimeException e) {
+                    result.failed++;
+                    log.warn("[撮合] 构建仓位回合失败, 跳过: {} {}", lot.open.projectKey().asString(), e.getMessage());
+                }
+            }
+            return result;
+        }
+
+        private boolean reset(ProjectKey key) {
+            Map<LotKey, ArrayDeque<Lot>> book = books.remove(key);
+            if (book != null)
+                book.values().forEach(queue -> openLots.addAndGet(-queue.size()));
+            return book != null;
+        }
+
+        private void touch(Lot lot, List<Lot> touched) {
+            if (lot.dirty)
+                return;
+            lot.dirty = true;
+            touched.add(lot);
+        }
+    }
+
+    private static final class ShardResult {
+        private final List<ProjectTradeAggregate> trades;
+        private int closed;
+        private int unmatched;
+        private int failed;
+
+        private ShardResult(List<ProjectTradeAggregate> trades) {
+            this.trades = trades;
+        }
+    }
+
+    /**
+     * 队列键: 同一项目内的 (标的, 方向)
+     */
+    private record LotKey(ItemId item, TradeSide side) {
+    }
+
+    /**
+     * 一笔开仓成交及其平仓进度 (只在所属分片线程内修改)
+     * <p>数量 / 价格 / 金额默认以定点 long 累计; 任一步无法精确表示 (溢出或小数位不够) 时整体转为 {@link BigDecimal}, 结果在数值上不变</p>
+     */
+    private static final class Lot {
+
+        private final TradeFillVO open;
+        /**
+         * 合成的回合 ID, 有交易所成交 ID 时为空
+         */
+        private String tradeId;
+        /**
+         * 平仓手续费 (按比例分摊需要除法, 始终以 BigDecimal 累计)
+         */
+        private BigDecimal closeFee = BigDecimal.ZERO;
+        private Instant lastCloseTs;
+        private boolean dirty;
+
+        // ===== 定点快路径, exact 为 true 时有效 =====
+        private boolean exact;
+        /**
+         * 金额 (出场名义价值 / 盈亏) 的小数位, 取决于手续费币种
+         */
+        private final int moneyScale;
+        private final long entryPrice;
+        private long remainingQty;
+        private long closedQtyScaled;
+        private long exitNotionalScaled;
+        private long pnlScaled;
+
+        // ===== BigDecimal 回落路径, exact 为 false 时有效 =====
+        private BigDecimal remaining;
+        private BigDecimal closedQty;
+        /**
+         * 已平部分的 Σ(平仓价 × 数量)
+         */
+        private BigDecimal exitNotional;
+        private BigDecimal pnl;
+
+        private Lot(TradeFillVO open) {
+            this.open = open;
+            this.moneyScale = scaleOf(open.fee() == null ? null : open.fee().ccy());
+            this.entryPrice = toScaled(open.price(), PRICE_SCALE);
+            this.remainingQty = toScaled(open.qty(), QTY_SCALE);
+            this.exact = entryPrice != INEXACT && remainingQty != INEXACT;
+            if (!exact) {
+                remaining = open.qty();
+                closedQty = BigDecimal.ZERO;
+                exitNotional = BigDecimal.ZERO;
+                pnl = BigDecimal.ZERO;
+            }
+        }
+
+        /**
+         * 定点路径的平仓: 消耗 min(剩余, left)
+         *
+         * @param left    平仓成交尚未匹配的数量 (定点)
+         * @param fillQty 平仓成交的总数量 (定点)
+         * @param price   平仓价 (定点)
+         * @return 本次消耗的数量; 无法精确计算时返回 {@link FixedPointUtils#INEXACT} 且不做任何修改
+         */
+        private long close(long left, long fillQty, long price, TradeFillVO fill) {
+            if (!exact)
+                return INEXACT;
+            long take = Math.min(remainingQty, left);
+            long notional = add(exitNotionalScaled, multiply(price, PRICE_SCALE, take, QTY_SCALE, moneyScale));
+            long move = multiply(subtract(price, entryPrice), PRICE_SCALE, take, QTY_SCALE, moneyScale);
+            long nextPnl = isShort(open.side()) ? subtract(pnlScaled, move) : add(pnlScaled, move);
+            if (notional == INEXACT || nextPnl == INEXACT)
+                return INEXACT;
+            remainingQty -= take;
+            closedQtyScaled += take;
+            exitNotionalScaled = notional;
+            pnlScaled = nextPnl;
+            if (fill.fee() != null && fill.fee().amount().signum() != 0)
+                closeFee = closeFee.add(take == fillQty
+                        ? fill.fee().amount()
+                        : fill.fee().amount().multiply(toDecimal(take, QTY_SCALE)).divide(fill.qty(), MC));
+            lastCloseTs = fill.ts();
+            return take;
+        }
+
+        private void close(BigDecimal qty, TradeFillVO fill) {
+            remaining = remaining.subtract(qty);
+            closedQty = closedQty.add(qty);
+            exitNotional = exitNotional.add(fill.price().multiply(qty));
+            BigDecimal move = fill.price().subtract(open.price()).multiply(qty);
+            pnl = isShort(open.side()) ? pnl.subtract(move) : pnl.add(move);
+            if (fill.fee() != null && fill.fee().amount().signum() != 0)
+                closeFee = closeFee.add(qty.compareTo(fill.qty()) == 0
+                        ? fill.fee().amount()
+                        : fill.fee().amount().multiply(qty).divide(fill.qty(), MC));
+            lastCloseTs = fill.ts();
+        }
+
+        /**
+         * 转为 BigDecimal 路径 (不可逆)
+         */
+        private void degrade() {
+            if (!exact)
+                return;
+            remaining = toDecimal(remainingQty, QTY_SCALE);
+            closedQty = toDecimal(closedQtyScaled, QTY_SCALE);
+            exitNotional = toDecimal(exitNotionalScaled, moneyScale);
+            pnl = toDecimal(pnlScaled, moneyScale);
+            exact = false;
+        }
+
+        private boolean isFlat() {
+            return exact ? remainingQty == 0 : remaining.signum() == 0;
+        }
+
+        private ProjectTradeAggregate toAggregate() {
+            BigDecimal closed = exact ? toDecimal(closedQtyScaled, QTY_SCALE) : closedQty;
+            TradeStatus status = isFlat() ? TradeStatus.CLOSED
+                    : closed.signum() > 0 ? TradeStatus.PARTIALLY_CLOSED : TradeStatus.OPEN;
+            String feeCcy = open.fee() == null ? null : open.fee().ccy();
+            BigDecimal openFee = open.fee() == null ? BigDecimal.ZERO : open.fee().amount();
+            BigDecimal notional = exact ? toDecimal(exitNotionalScaled, moneyScale) : exitNotional;
+            return ProjectTradeAggregate.builder()
+                    .tradeId(tradeId)
+                    .projectKey(open.projectKey())
+                    .item(open.item())
+                    .side(open.side())
+                    .ordType(open.ordType())
+                    .leverage(open.leverage())
+                    .qty(new Quantity(open.qty(), null))
+                    .entryPrice(open.price())
+                    .exitPrice(closed.signum() == 0 ? null : notional.divide(closed, MC))
+                    .fee(new Money(openFee.add(closeFee), feeCcy))
+                    .pnl(new Money(exact ? toDecimal(pnlScaled, moneyScale) : pnl, feeCcy))
+                    .tsOpen(open.ts())
+                    .tsFilled(open.ts())
+                    .tsClose(status == TradeStatus.CLOSED ? lastCloseTs : null)
+                    .status(status)
+                    .source(open.source())
+                    .externalTradeId(open.externalFillId())
+                    .externalOrderId(open.externalOrderId())
+                    .sourcePayloadHash(open.sourcePayloadHash())
+                    .build();
+        }
+
+        private static boolean isShort(TradeSide side) {
+            return side == TradeSide.SHORT || side == TradeSide.SELL;
+        }
+    }
+}
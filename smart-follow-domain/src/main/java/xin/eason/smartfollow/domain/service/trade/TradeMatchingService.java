@@ -0,0 +1,50 @@
+package xin.eason.smartfollow.domain.service.trade;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import xin.eason.smartfollow.domain.ITradeMatchingService;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectKey;
+import xin.eason.smartfollow.domain.model.vo.trade.TradeFillVO;
+import xin.eason.smartfollow.domain.model.vo.trade.TradeMatchBatchVO;
+
+import java.util.Collection;
+import java.util.List;
+
+import static xin.eason.smartfollow.types.utils.FieldValidateUtils.requireNotNull;
+
+/**
+ * 开平仓撮合服务实现, 撮合由 {@link TradeMatchingEngine} 按项目分片并行完成
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TradeMatchingService implements ITradeMatchingService {
+
+    private final TradeMatchingEngine matchingEngine;
+
+    @Override
+    public TradeMatchBatchVO match(Collection<TradeFillVO> fills) {
+        requireNotNull(fills, "fills 不能为空");
+        if (fills.isEmpty())
+            return new TradeMatchBatchVO(List.of(), 0, 0, 0, 0);
+        long start = System.nanoTime();
+        TradeMatchBatchVO result = matchingEngine.match(fills);
+        log.debug("[撮合] {} 笔成交撮合完成, 输出回合 {} 个 (完全平仓 {} 个), 未匹配平仓 {} 笔, 失败 {} 个, 耗时 {}ms",
+                result.fills(), result.trades().size(), result.closed(), result.unmatched(), result.failed(),
+                (System.nanoTime() - start) / 1_000_000);
+        if (result.failed() > 0 || result.unmatched() > 0)
+            log.warn("[撮合] 本批有 {} 笔平仓找不到开仓, {} 个回合构建失败", result.unmatched(), result.failed());
+        return result;
+    }
+
+    @Override
+    public void reset(ProjectKey key) {
+        matchingEngine.reset(key);
+    }
+
+    @Override
+    public long openLots() {
+        return matchingEngine.openLots();
+    }
+}
@@ -0,0 +1,323 @@
+package xin.eason.smartfollow.domain.service.trade;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import xin.eason.smartfollow.domain.adapter.repository.IMarketBarRepository;
+import xin.eason.smartfollow.domain.model.vo.market.BarSeries;
+import xin.eason.smartfollow.domain.model.vo.trade.TradeMetricInputVO;
+import xin.eason.smartfollow.domain.model.vo.trade.TradeMetricsBatchVO;
+import xin.eason.smartfollow.domain.model.vo.trade.TradeMetricsVO;
+import xin.eason.smartfollow.types.enums.BarInterval;
+import xin.eason.smartfollow.types.enums.PriceSource;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+
+import static xin.eason.smartfollow.types.utils.FieldValidateUtils.require;
+import static xin.eason.smartfollow.types.utils.FieldValidateUtils.requireNotBlank;
+import static xin.eason.smartfollow.types.utils.FieldValidateUtils.requireNotNull;
+
+/**
+ * 回合 MAE / MFE 指标的并行计算引擎 (fork-join)
+ * <ul>
+ *     <li>一批回合按标的分组, 每个标的一个任务: 读取覆盖全部持仓区间的 K 线 (一次范围查询), 构建一棵 {@link BarRangeTree}</li>
+ *     <li>同一标的的回合再按 {@value #LEAF_TRADES} 个一段二分拆成子任务, 每个回合以两次二分定位 + 一次 O(log n) 区间查询得到结果, 不再线性扫描 K 线</li>
+ *     <li>持仓区间取与 [ts_open, ts_close] 有交集的 K 线; 未平仓回合计算到最新一根</li>
+ *     <li>多头以最低价计 MAE, 最高价计 MFE, 空头相反; 回撤 / 回升按持仓方向换算</li>
+ * </ul>
+ */
+@Slf4j
+public class TradeMetricsEngine implements AutoCloseable {
+
+    /**
+     * 叶子任务的回合数
+     */
+    private static final int LEAF_TRADES = 256;
+    private static final int PCT_SCALE = 6;
+    private static final int USD_SCALE = 8;
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+    /**
+     * 单个回合的计算状态
+     */
+    private static final byte FAILED = 0;
+    private static final byte OK = 1;
+    private static final byte NO_BARS = 2;
+
+    private final IMarketBarRepository barRepository;
+    private final ForkJoinPool pool;
+    /**
+     * 算法版本
+     */
+    @Getter
+    private final String algoVer;
+    @Getter
+    private final BarInterval barInterval;
+    @Getter
+    private final PriceSource priceSource;
+    /**
+     * 单批读取并计算的回合数
+     */
+    @Getter
+    private final int batchSize;
+
+    /**
+     * @param barRepository 行情 K 线仓储
+     * @param algoVer       算法版本
+     * @param barInterval   K 线粒度
+     * @param priceSource   价格口径
+     * @param parallelism   并行度
+     * @param batchSize     单批读取并计算的回合数
+     */
+    public TradeMetricsEngine(IMarketBarRepository barRepository, String algoVer, BarInterval barInterval,
+                              PriceSource priceSource, int parallelism, int batchSize) {
+        requireNotNull(barRepository, "barRepository 不能为空");
+        requireNotBlank(algoVer, "algoVer 不能为空");
+        require(algoVer.length() <= 16, "algoVer 长度不能超过 16");
+        requireNotNull(barInterval, "barInterval 不能为空");
+        requireNotNull(priceSource, "priceSource 不能为空");
+        require(parallelism >= 1, "parallelism 不能小于 1");
+        require(batchSize >= 1, "batchSize 不能小于 1");
+        this.barRepository = barRepository;
+        this.algoVer = algoVer;
+        this.barInterval = barInterval;
+        this.priceSource = priceSource;
+        this.batchSize = batchSize;
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * 计算一批回合的指标, 阻塞到全部完成
+     *
+     * @param trades 回合, 可以包含多个标的
+     * @return 计算结果, 指标顺序与输入一致 (跳过的回合除外)
+     */
+    public TradeMetricsBatchVO compute(Collection<TradeMetricInputVO> trades) {
+        requireNotNull(trades, "trades 不能为空");
+        TradeMetricInputVO[] input = trades.toArray(new TradeMetricInputVO[0]);
+        TradeMetricsVO[] output = new TradeMetricsVO[input.length];
+        byte[] status = new byte[input.length];
+
+        Map<String, List<Integer>> bySymbol = new LinkedHashMap<>();
+        for (int i = 0; i < input.length; i++)
+            bySymbol.computeIfAbsent(input[i].symbol(), k -> new ArrayList<>()).add(i);
+        List<SymbolTask> tasks = new ArrayList<>(bySymbol.size());
+        for (Map.Entry<String, List<Integer>> entry : bySymbol.entrySet())
+            tasks.add(new SymbolTask(entry.getKey(), entry.getValue().stream().mapToInt(Integer::intValue).toArray(),
+                    input, output, status));
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                ForkJoinTask.invokeAll(tasks);
+            }
+        });
+
+        List<TradeMetricsVO> metrics = new ArrayList<>(input.length);
+        int noBars = 0;
+        int failed = 0;
+        for (int i = 0; i < input.length; i++) {
+            switch (status[i]) {
+                case OK -> metrics.add(output[i]);
+                case NO_BARS -> noBars++;
+                default -> failed++;
+            }
+        }
+        return new TradeMetricsBatchVO(metrics, input.length, noBars, failed);
+    }
+
+    /**
+     * @return 并行度
+     */
+    public int parallelism() {
+        return pool.getParallelism();
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+        try {
+            if (!pool.awaitTermination(10, TimeUnit.SECONDS))
+                pool.shutdownNow();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // =========================== 任务 ===========================
+
+    /**
+     * 单个标的: 读取 K 线, 构建线段树, 再拆分回合
+     */
+    private final class SymbolTask extends RecursiveAction {
+
+        private final String symbol;
+        private final int[] indexes;
+        private final TradeMetricInputVO[] input;
+        private final TradeMetricsVO[] output;
+        private final byte[] status;
+
+        private SymbolTask(String symbol, int[] indexes, TradeMetricInputVO[] input, TradeMetricsVO[] output, byte[] status) {
+            this.symbol = symbol;
+            this.indexes = indexes;
+            this.input = input;
+            this.output = output;
+            this.status = status;
+        }
+
+        @Override
+        protected void compute() {
+            long fromMs = Long.MAX_VALUE;
+            long toMs = Long.MIN_VALUE;
+            for (int i : indexes) {
+                TradeMetricInputVO trade = input[i];
+                fromMs = Math.min(fromMs, barInterval.floor(trade.tsOpen().toEpochMilli()));
+                toMs = Math.max(toMs, trade.tsClose() == null ? Long.MAX_VALUE : trade.tsClose().toEpochMilli() + 1);
+            }
+            BarSeries series;
+            try {
+                series = barRepository.range(symbol, barInterval, priceSource, Instant.ofEpochMilli(fromMs), Instant.ofEpochMilli(toMs));
+            } catch (RuntimeException e) {
+                log.warn("[回合指标] 读取 {} 的 K 线失败, 跳过 {} 个回合: {}", symbol, indexes.length, e.getMessage());
+                return;
+            }
+            if (series.size() == 0) {
+                for (int i : indexes)
+                    status[i] = NO_BARS;
+                return;
+            }
+            new SliceTask(new BarRangeTree(series), indexes, 0, indexes.length, input, output, status).compute();
+        }
+    }
+
+    /**
+     * 同一标的的一段回合
+     */
+    private final class SliceTask extends RecursiveAction {
+
+        private final BarRangeTree tree;
+        private final int[] indexes;
+        private final int from;
+        private final int to;
+        private final TradeMetricInputVO[] input;
+        private final TradeMetricsVO[] output;
+        private final byte[] status;
+
+        private SliceTask(BarRangeTree tree, int[] indexes, int from, int to,
+                          TradeMetricInputVO[] input, TradeMetricsVO[] output, byte[] status) {
+            this.tree = tree;
+            this.indexes = indexes;
+            this.from = from;
+            this.to = to;
+            this.input = input;
+            this.output = output;
+            this.status = status;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > LEAF_TRADES) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new SliceTask(tree, indexes, from, mid, input, output, status),
+                        new SliceTask(tree, indexes, mid, to, input, output, status));
+                return;
+            }
+            BarRangeTree.Range range = new BarRangeTree.Range();
+            BarRangeTree.Range right = new BarRangeTree.Range();
+            for (int k = from; k < to; k++) {
+                int i = indexes[k];
+                try {
+                    TradeMetricsVO metrics = metrics(tree, input[i], range, right);
+                    output[i] = metrics;
+                    status[i] = metrics == null ? NO_BARS : OK;
+                } catch (RuntimeException e) {
+                    log.debug("[回合指标] 回合 {} 计算失败: {}", input[i].tradeId(), e.getMessage());
+                    status[i] = FAILED;
+                }
+            }
+        }
+    }
+
+    // =========================== 计算 ===========================
+
+    /**
+     * 计算单个回合
+     *
+     * @return 指标; 持仓区间内没有 K 线时为 null
+     */
+    private TradeMetricsVO metrics(BarRangeTree tree, TradeMetricInputVO trade, BarRangeTree.Range range, BarRangeTree.Range right) {
+        BigDecimal entryPrice = trade.entryPrice();
+        require(entryPrice != null && entryPrice.signum() > 0, "入场价格为空或非正");
+        requireNotNull(trade.qty(), "仓位不能为空");
+        long openMs = trade.tsOpen().toEpochMilli();
+        long closeMs = trade.tsClose() == null ? Long.MAX_VALUE : trade.tsClose().toEpochMilli();
+        require(closeMs >= openMs, "平仓时间早于开仓时间");
+
+        // 与 [open, close] 有交集的 K 线: 开盘时间在 [floor(open), close] 内
+        int lo = tree.lowerBound(barInterval.floor(openMs));
+        int hi = closeMs == Long.MAX_VALUE ? tree.size() : tree.lowerBound(closeMs + 1);
+        if (lo >= hi)
+            return null;
+        tree.query(lo, hi, range, right);
+
+        double entry = entryPrice.doubleValue();
+        double lowRatio = tree.low(range.minAt) / entry;
+        double highRatio = tree.high(range.maxAt) / entry;
+        double maePct;
+        double mfePct;
+        long maeTs;
+        long mfeTs;
+        double ddPct;
+        double ruPct;
+        if (trade.isLong()) {
+            maePct = (lowRatio - 1) * 100;
+            mfePct = (highRatio - 1) * 100;
+            maeTs = tree.ts(range.minAt);
+            mfeTs = tree.ts(range.maxAt);
+            ddPct = Double.isInfinite(range.fall) ? 0 : Math.min(0, (range.fall - 1) * 100);
+            ruPct = Double.isInfinite(range.rise) ? 0 : Math.max(0, (range.rise - 1) * 100);
+        } else {
+            maePct = (1 - highRatio) * 100;
+            mfePct = (1 - lowRatio) * 100;
+            maeTs = tree.ts(range.maxAt);
+            mfeTs = tree.ts(range.minAt);
+            ddPct = Double.isInfinite(range.rise) ? 0 : Math.min(0, (1 - range.rise) * 100);
+            ruPct = Double.isInfinite(range.fall) ? 0 : Math.max(0, (1 - range.fall) * 100);
+        }
+
+        long lastMs = closeMs == Long.MAX_VALUE ? tree.ts(hi - 1) : closeMs;
+        long expected = (barInterval.floor(lastMs) - barInterval.floor(openMs)) / barInterval.millis() + 1;
+        int bars = hi - lo;
+        BigDecimal notional = entryPrice.multiply(trade.qty());
+        BigDecimal mae = pct(maePct);
+        BigDecimal mfe = pct(mfePct);
+        return new TradeMetricsVO(trade.tradeId(), trade.projectId(), trade.tsOpen(), algoVer, barInterval, priceSource,
+                mae, mfe, usd(notional, mae), usd(notional, mfe),
+                clamp(maeTs, openMs, closeMs), clamp(mfeTs, openMs, closeMs), pct(ddPct), pct(ruPct),
+                (float) Math.min(1.0, (double) bars / expected), bars, expected, trade.inputCrc());
+    }
+
+    private static BigDecimal pct(double value) {
+        require(Double.isFinite(value), "K 线价格不合法");
+        return BigDecimal.valueOf(value).setScale(PCT_SCALE, RoundingMode.HALF_UP);
+    }
+
+    private static BigDecimal usd(BigDecimal notional, BigDecimal pct) {
+        return notional.multiply(pct).divide(HUNDRED).setScale(USD_SCALE, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * K 线开盘时间截断到持仓区间内 (第一根 K 线可能早于开仓)
+     */
+    private static Instant clamp(long tsMs, long openMs, long closeMs) {
+        return Instant.ofEpochMilli(Math.min(Math.max(tsMs, openMs), closeMs));
+    }
+}
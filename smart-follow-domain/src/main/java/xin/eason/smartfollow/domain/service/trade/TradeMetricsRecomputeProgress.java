@@ -0,0 +1,158 @@
+package xin.eason.smartfollow.domain.service.trade;
+
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static xin.eason.smartfollow.types.utils.FieldValidateUtils.require;
+import static xin.eason.smartfollow.types.utils.FieldValidateUtils.requireNotNull;
+
+/**
+ * 指标重算的分块规划与进度
+ * <ul>
+ *     <li>从 {@code startMonth} 起按月分区切分, 每个月再按 {@code chunk} 切成若干分块, 分块不跨月, 只规划到当前时间</li>
+ *     <li>进度为进程内计数, 每次重算开始时重置; 吞吐量为本次已处理的回合数 / 已用时间, 空闲时保留上一次的值</li>
+ * </ul>
+ */
+public class TradeMetricsRecomputeProgress {
+
+    /**
+     * 第一个分块所在的月份 (UTC)
+     */
+    @Getter
+    private final YearMonth startMonth;
+    /**
+     * 分块时长
+     */
+    @Getter
+    private final Duration chunk;
+    /**
+     * 并行处理分块的工作线程数
+     */
+    @Getter
+    private final int workers;
+
+    // ===== 进度 =====
+    private volatile boolean running;
+    private volatile long startNanos;
+    private volatile long elapsedNanos;
+    private final AtomicInteger pass = new AtomicInteger();
+    private final AtomicInteger chunksTotal = new AtomicInteger();
+    private final AtomicInteger chunksDone = new AtomicInteger();
+    private final AtomicInteger chunksFailed = new AtomicInteger();
+    private final LongAdder trades = new LongAdder();
+    private final LongAdder computed = new LongAdder();
+
+    public TradeMetricsRecomputeProgress(YearMonth startMonth, Duration chunk, int workers) {
+        requireNotNull(startMonth, "startMonth 不能为空");
+        requireNotNull(chunk, "chunk 不能为空");
+        require(chunk.compareTo(Duration.ofHours(1)) >= 0, "chunk 不能小于 1 小时");
+        require(workers >= 1, "workers 不能小于 1");
+        this.startMonth = startMonth;
+        this.chunk = chunk;
+        this.workers = workers;
+    }
+
+    /**
+     * 规划 [startMonth, now) 的分块
+     *
+     * @param now 当前时间
+     * @return 按时间升序的分块 <code>[起点, 终点)</code>
+     */
+    public List<Instant[]> plan(Instant now) {
+        List<Instant[]> chunks = new ArrayList<>();
+        for (YearMonth month = startMonth; ; month = month.plusMonths(1)) {
+            Instant monthStart = month.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+            if (!monthStart.isBefore(now))
+                break;
+            Instant monthEnd = month.plusMonths(1).atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+            for (Instant start = monthStart; start.isBefore(monthEnd) && start.isBefore(now); start = start.plus(chunk)) {
+                Instant end = start.plus(chunk);
+                chunks.add(new Instant[]{start, end.isAfter(monthEnd) ? monthEnd : end});
+            }
+        }
+        return chunks;
+    }
+
+    // ===== 进度更新 =====
+
+    void start(int pass, int chunks) {
+        this.pass.set(pass);
+        chunksTotal.set(chunks);
+        chunksDone.set(0);
+        chunksFailed.set(0);
+        trades.reset();
+        computed.reset();
+        startNanos = System.nanoTime();
+        running = true;
+    }
+
+    void chunkDone(int trades, int computed) {
+        chunksDone.incrementAndGet();
+        this.trades.add(trades);
+        this.computed.add(computed);
+    }
+
+    void chunkFailed() {
+        chunksFailed.incrementAndGet();
+    }
+
+    void finish() {
+        elapsedNanos = System.nanoTime() - startNanos;
+        running = false;
+    }
+
+    // ===== 进度查询 =====
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * @return 当前 (或最近一次) 的轮次
+     */
+    public int pass() {
+        return pass.get();
+    }
+
+    public int chunksTotal() {
+        return chunksTotal.get();
+    }
+
+    public int chunksDone() {
+        return chunksDone.get();
+    }
+
+    public int chunksFailed() {
+        return chunksFailed.get();
+    }
+
+    /**
+     * @return 本次已处理的待重算回合数
+     */
+    public long trades() {
+        return trades.sum();
+    }
+
+    /**
+     * @return 本次已写入指标的回合数
+     */
+    public long computed() {
+        return computed.sum();
+    }
+
+    /**
+     * @return 本次 (空闲时为上一次) 处理的回合数 / 秒
+     */
+    public double throughput() {
+        long nanos = running ? System.nanoTime() - startNanos : elapsedNanos;
+        return nanos <= 0 ? 0 : trades.sum() * 1e9 / nanos;
+    }
+}
@@ -0,0 +1,147 @@
+package xin.eason.smartfollow.domain.service.trade;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import xin.eason.smartfollow.domain.ITradeMetricsRecomputeService;
+import xin.eason.smartfollow.domain.ITradeMetricsService;
+import xin.eason.smartfollow.domain.adapter.repository.ITradeMetricsRepository;
+import xin.eason.smartfollow.domain.adapter.repository.ITradeRepository;
+import xin.eason.smartfollow.domain.model.vo.trade.TradeMetricInputVO;
+import xin.eason.smartfollow.domain.model.vo.trade.TradeMetricsChunkVO;
+import xin.eason.smartfollow.domain.model.vo.trade.TradeMetricsRecomputeVO;
+import xin.eason.smartfollow.domain.model.vo.trade.TradeMetricsResultVO;
+import xin.eason.smartfollow.types.exceptions.AppException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static xin.eason.smartfollow.types.utils.FieldValidateUtils.requireNotNull;
+
+/**
+ * 回合行情指标增量重算服务实现
+ * <ul>
+ *     <li>按 {@link TradeMetricsRecomputeProgress#plan(Instant)} 把 ts_open 切成不跨月分区的分块, 每个分块的查询只命中回合表与指标表各一个分区</li>
+ *     <li>分块内只读取目标算法版本下没有指标, 或指标记录的输入指纹 (input_crc) 与回合当前值不一致的回合, 按主键分页交给 {@link ITradeMetricsService} 计算写入</li>
+ *     <li>分块完成后写入检查点 (algo_ver, 分块起点, 轮次); 本轮仍有未完成分块时继续本轮, 全部完成后下一次调用开始新一轮, 新一轮只处理新增与被修正的回合</li>
+ *     <li>分块内中断时已写入的指标不再是 "缺失", 继续时也不会重复计算</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TradeMetricsRecomputeService implements ITradeMetricsRecomputeService {
+
+    private final ITradeMetricsService metricsService;
+    private final TradeMetricsEngine metricsEngine;
+    private final ITradeRepository tradeRepository;
+    private final ITradeMetricsRepository metricsRepository;
+    private final TradeMetricsRecomputeProgress progress;
+
+    @Override
+    public synchronized TradeMetricsRecomputeVO recompute(Instant now) {
+        requireNotNull(now, "now 不能为空");
+        String algoVer = metricsEngine.getAlgoVer();
+
+        // ===== 确定轮次与待处理分块 =====
+        List<Instant[]> plan = progress.plan(now);
+        Map<Instant, Integer> checkpoints = metricsRepository.findCheckpoints(algoVer);
+        int pass = checkpoints.isEmpty() ? 0 : Collections.max(checkpoints.values());
+        List<Instant[]> pending = pending(plan, checkpoints, pass);
+        if (pass == 0 || pending.isEmpty()) {
+            pass++;
+            pending = plan;
+            log.info("[指标重算] {} 开始第 {} 轮, 分块 {} 个", algoVer, pass, plan.size());
+        } else {
+            log.info("[指标重算] {} 继续第 {} 轮, 已完成 {} 个分块, 剩余 {} 个", algoVer, pass, plan.size() - pending.size(), pending.size());
+        }
+
+        // ===== 多线程处理分块 =====
+        long start = System.nanoTime();
+        progress.start(pass, pending.size());
+        int currentPass = pass;
+        AtomicInteger seq = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(Math.min(progress.getWorkers(), Math.max(1, pending.size())), r -> {
+            Thread thread = new Thread(r, "trade-metrics-recompute-" + seq.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        TradeMetricsResultVO total = new TradeMetricsResultVO(0, 0, 0, 0, 0, 0L);
+        int done = 0;
+        int failed = 0;
+        try {
+            List<Future<TradeMetricsResultVO>> futures = new ArrayList<>(pending.size());
+            for (Instant[] chunk : pending)
+                futures.add(workers.submit(() -> process(algoVer, currentPass, chunk[0], chunk[1])));
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    total = total.plus(futures.get(i).get());
+                    done++;
+                } catch (ExecutionException e) {
+                    failed++;
+                    progress.chunkFailed();
+                    log.warn("[指标重算] 分块 [{}, {}) 失败, 下次继续: {}", pending.get(i)[0], pending.get(i)[1], e.getCause().getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AppException("指标重算被中断", e);
+        } finally {
+            workers.shutdownNow();
+            progress.finish();
+        }
+
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        log.info("[指标重算] {} 第 {} 轮: 分块 {}/{} 完成 (失败 {}), 待重算回合 {} 个, 写入 {} 个, 无 K 线 {} 个, 失败 {} 个, 耗时 {}ms, {} 个/秒",
+                algoVer, pass, done, pending.size(), failed, total.trades(), total.computed(), total.noBars(), total.failed(),
+                elapsedMs, Math.round(progress.throughput()));
+        return new TradeMetricsRecomputeVO(pass, pending.size(), done, failed, total, elapsedMs);
+    }
+
+    /**
+     * 处理一个分块并写入检查点
+     */
+    private TradeMetricsResultVO process(String algoVer, int pass, Instant from, Instant to) {
+        TradeMetricsResultVO total = new TradeMetricsResultVO(0, 0, 0, 0, 0, 0L);
+        long start = System.nanoTime();
+        long afterId = 0L;
+        int batchSize = metricsEngine.getBatchSize();
+        while (true) {
+            List<TradeMetricInputVO> trades = tradeRepository.findMetricsPending(from, to, algoVer, afterId, batchSize);
+            if (trades.isEmpty())
+                break;
+            total = total.plus(metricsService.compute(trades));
+            afterId = trades.get(trades.size() - 1).tradeId();
+            if (trades.size() < batchSize)
+                break;
+        }
+        TradeMetricsResultVO result = new TradeMetricsResultVO(total.trades(), total.computed(), total.noBars(), total.failed(),
+                total.affected(), (System.nanoTime() - start) / 1_000_000);
+        metricsRepository.saveCheckpoint(new TradeMetricsChunkVO(algoVer, from, to, pass, result));
+        progress.chunkDone(result.trades(), result.computed());
+        if (result.trades() > 0)
+            log.info("[指标重算] 分块 [{}, {}) 完成: 回合 {} 个, 写入 {} 个, 耗时 {}ms; 进度 {}/{}, {} 个/秒",
+                    from, to, result.trades(), result.computed(), result.elapsedMs(),
+                    progress.chunksDone(), progress.chunksTotal(), Math.round(progress.throughput()));
+        return result;
+    }
+
+    /**
+     * 计划中本轮尚未完成的分块
+     */
+    private static List<Instant[]> pending(List<Instant[]> plan, Map<Instant, Integer> checkpoints, int pass) {
+        List<Instant[]> pending = new ArrayList<>();
+        for (Instant[] chunk : plan)
+            if (checkpoints.getOrDefault(chunk[0], 0) < pass)
+                pending.add(chunk);
+        return pending;
+    }
+}
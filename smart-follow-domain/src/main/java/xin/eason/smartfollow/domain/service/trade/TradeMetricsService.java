@@ -0,0 +1,68 @@
+package xin.eason.smartfollow.domain.service.trade;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import xin.eason.smartfollow.domain.ITradeMetricsService;
+import xin.eason.smartfollow.domain.adapter.repository.ITradeMetricsRepository;
+import xin.eason.smartfollow.domain.adapter.repository.ITradeRepository;
+import xin.eason.smartfollow.domain.model.vo.trade.TradeMetricInputVO;
+import xin.eason.smartfollow.domain.model.vo.trade.TradeMetricsBatchVO;
+import xin.eason.smartfollow.domain.model.vo.trade.TradeMetricsResultVO;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import static xin.eason.smartfollow.types.utils.FieldValidateUtils.require;
+import static xin.eason.smartfollow.types.utils.FieldValidateUtils.requireNotNull;
+
+/**
+ * 回合行情指标服务实现, 计算由 {@link TradeMetricsEngine} 按标的并行完成, 结果多行写入
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TradeMetricsService implements ITradeMetricsService {
+
+    private final TradeMetricsEngine metricsEngine;
+    private final ITradeRepository tradeRepository;
+    private final ITradeMetricsRepository metricsRepository;
+
+    @Override
+    public TradeMetricsResultVO compute(Collection<TradeMetricInputVO> trades) {
+        requireNotNull(trades, "trades 不能为空");
+        if (trades.isEmpty())
+            return new TradeMetricsResultVO(0, 0, 0, 0, 0, 0L);
+        long start = System.nanoTime();
+        TradeMetricsBatchVO batch = metricsEngine.compute(trades);
+        int affected = batch.metrics().isEmpty() ? 0 : metricsRepository.upsertBatch(batch.metrics());
+        TradeMetricsResultVO result = new TradeMetricsResultVO(batch.trades(), batch.metrics().size(), batch.noBars(),
+                batch.failed(), affected, (System.nanoTime() - start) / 1_000_000);
+        log.debug("[回合指标] {} 个回合计算完成 ({}): 写入 {} 个, 无 K 线 {} 个, 失败 {} 个, 耗时 {}ms",
+                result.trades(), metricsEngine.getAlgoVer(), result.computed(), result.noBars(), result.failed(), result.elapsedMs());
+        return result;
+    }
+
+    @Override
+    public TradeMetricsResultVO computeRange(Instant from, Instant to) {
+        requireNotNull(from, "from 不能为空");
+        requireNotNull(to, "to 不能为空");
+        require(from.isBefore(to), "from 必须早于 to");
+        TradeMetricsResultVO total = new TradeMetricsResultVO(0, 0, 0, 0, 0, 0L);
+        long afterId = 0L;
+        int batchSize = metricsEngine.getBatchSize();
+        while (true) {
+            List<TradeMetricInputVO> trades = tradeRepository.findClosedForMetrics(from, to, afterId, batchSize);
+            if (trades.isEmpty())
+                break;
+            total = total.plus(compute(trades));
+            afterId = trades.get(trades.size() - 1).tradeId();
+            if (trades.size() < batchSize)
+                break;
+        }
+        log.info("[回合指标] [{}, {}) 计算完成 ({}): 回合 {} 个, 写入 {} 个, 无 K 线 {} 个, 失败 {} 个, 耗时 {}ms",
+                from, to, metricsEngine.getAlgoVer(), total.trades(), total.computed(), total.noBars(), total.failed(), total.elapsedMs());
+        return total;
+    }
+}
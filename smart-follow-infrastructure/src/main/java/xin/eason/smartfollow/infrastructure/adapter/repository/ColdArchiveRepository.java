@@ -0,0 +1,84 @@
+package xin.eason.smartfollow.infrastructure.adapter.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Repository;
+import xin.eason.smartfollow.domain.adapter.repository.IColdArchiveRepository;
+import xin.eason.smartfollow.domain.model.vo.partition.PartitionedTable;
+import xin.eason.smartfollow.infrastructure.archive.ColdSnapshotStore;
+import xin.eason.smartfollow.infrastructure.dao.ExchangeProjectSnapshotMapper;
+import xin.eason.smartfollow.infrastructure.dao.po.ProjectSnapshotPO;
+import xin.eason.smartfollow.types.exceptions.AppException;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * 冷存储仓储实现, 目前只支持 exchange_project_snapshot (读路径见 {@link ProjectSnapshotRepository})
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class ColdArchiveRepository implements IColdArchiveRepository {
+
+    /**
+     * 导出的分页大小 (含 raw, 控制单页内存)
+     */
+    private static final int EXPORT_PAGE_SIZE = 1000;
+    /**
+     * 允许拼接进 SQL 的分区名
+     */
+    private static final Pattern PARTITION_NAME = Pattern.compile("p\\d{4}_\\d{2}");
+
+    private final ExchangeProjectSnapshotMapper snapshotMapper;
+    private final ColdSnapshotStore coldSnapshotStore;
+
+    @Override
+    public boolean supports(PartitionedTable table) {
+        return table == PartitionedTable.SNAPSHOT;
+    }
+
+    @Override
+    public boolean isArchived(PartitionedTable table, String partition) {
+        return supports(table) && coldSnapshotStore.contains(partition);
+    }
+
+    @Override
+    public long archivedRows(PartitionedTable table, String partition) {
+        return supports(table) ? coldSnapshotStore.rows(partition) : -1L;
+    }
+
+    @Override
+    public long export(PartitionedTable table, String partition, String archiveTable) {
+        if (!supports(table))
+            throw AppException.of("不支持导出到冷存储的表: " + table.getTableName());
+        if (partition == null || !PARTITION_NAME.matcher(partition).matches())
+            throw AppException.of("非法的分区名: " + partition);
+        if (!(table.getTableName() + "_" + partition).equals(archiveTable))
+            throw AppException.of("非法的归档表名: " + archiveTable);
+        long start = System.currentTimeMillis();
+        try (ColdSnapshotStore.Export export = coldSnapshotStore.beginExport(partition)) {
+            ProjectSnapshotPO after = null;
+            while (true) {
+                List<ProjectSnapshotPO> page = snapshotMapper.selectArchivePage(archiveTable, after, EXPORT_PAGE_SIZE);
+                page.forEach(export::append);
+                if (page.size() < EXPORT_PAGE_SIZE)
+                    break;
+                after = page.get(page.size() - 1);
+            }
+            long rows = export.publish();
+            log.info("[冷存储] 表 {} 分区 {} 从 {} 导出完成, {} 行, 耗时 {}ms",
+                    table.getTableName(), partition, archiveTable, rows, System.currentTimeMillis() - start);
+            return rows;
+        } catch (IOException e) {
+            throw new AppException("导出冷分区失败: " + partition, e);
+        }
+    }
+
+    @Override
+    public void discard(PartitionedTable table, String partition) {
+        if (supports(table))
+            coldSnapshotStore.discard(partition);
+    }
+}
@@ -0,0 +1,132 @@
+package xin.eason.smartfollow.infrastructure.adapter.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Repository;
+import xin.eason.smartfollow.domain.adapter.repository.IMarketBarRepository;
+import xin.eason.smartfollow.domain.model.vo.market.BarSeries;
+import xin.eason.smartfollow.domain.model.vo.market.BarVO;
+import xin.eason.smartfollow.infrastructure.archive.BarFileStore;
+import xin.eason.smartfollow.types.enums.BarInterval;
+import xin.eason.smartfollow.types.enums.PriceSource;
+import xin.eason.smartfollow.types.exceptions.AppException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static xin.eason.smartfollow.types.utils.FieldValidateUtils.requireNotNull;
+
+/**
+ * 行情 K 线仓储实现 (本地内存映射文件)
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class MarketBarRepository implements IMarketBarRepository {
+
+    private static final String CSV_SUFFIX = ".csv";
+
+    private final BarFileStore barFileStore;
+
+    @Override
+    public int append(String symbol, BarInterval interval, PriceSource source, List<BarVO> bars) {
+        requireNotNull(interval, "interval 不能为空");
+        requireNotNull(source, "source 不能为空");
+        requireNotNull(bars, "bars 不能为空");
+        return barFileStore.append(source, interval, symbol, bars);
+    }
+
+    @Override
+    public BarSeries range(String symbol, BarInterval interval, PriceSource source, Instant from, Instant to) {
+        requireNotNull(interval, "interval 不能为空");
+        requireNotNull(source, "source 不能为空");
+        requireNotNull(from, "from 不能为空");
+        requireNotNull(to, "to 不能为空");
+        return barFileStore.range(source, interval, symbol, from.toEpochMilli(), to.toEpochMilli());
+    }
+
+    @Override
+    public long importCsv(Path file, String symbol, BarInterval interval, PriceSource source) {
+        requireNotNull(file, "file 不能为空");
+        List<BarVO> bars = new ArrayList<>();
+        int malformed = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.strip();
+                // 空行与表头 (非数字开头) 跳过
+                if (line.isEmpty() || !Character.isDigit(line.charAt(0)))
+                    continue;
+                BarVO bar = parse(line);
+                if (bar == null)
+                    malformed++;
+                else
+                    bars.add(bar);
+            }
+        } catch (IOException e) {
+            throw new AppException("读取 K 线文件失败: " + file, e);
+        }
+        bars.sort(Comparator.comparingLong(BarVO::ts));
+        int written = append(symbol, interval, source, bars);
+        log.info("[K线] 导入 {}: {} {} {} 读取 {} 根, 写入 {} 根, 格式错误 {} 行",
+                file, source.getName(), interval.getName(), symbol, bars.size(), written, malformed);
+        return written;
+    }
+
+    @Override
+    public long importDir(Path dir) {
+        requireNotNull(dir, "dir 不能为空");
+        if (!Files.isDirectory(dir)) {
+            log.warn("[K线] 导入目录不存在: {}", dir);
+            return 0L;
+        }
+        long written = 0L;
+        try (Stream<Path> paths = Files.find(dir, 3, (path, attrs) -> attrs.isRegularFile()
+                && path.getFileName().toString().endsWith(CSV_SUFFIX) && dir.relativize(path).getNameCount() == 3)) {
+            for (Path file : paths.sorted().toList()) {
+                Path relative = dir.relativize(file);
+                String name = relative.getFileName().toString();
+                try {
+                    PriceSource source = PriceSource.valueOf(relative.getName(0).toString().toUpperCase());
+                    BarInterval interval = BarInterval.of(relative.getName(1).toString());
+                    written += importCsv(file, name.substring(0, name.length() - CSV_SUFFIX.length()), interval, source);
+                } catch (RuntimeException e) {
+                    log.warn("[K线] 跳过无法导入的文件 {}: {}", relative, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            throw new AppException("遍历 K 线导入目录失败: " + dir, e);
+        }
+        return written;
+    }
+
+    /**
+     * 解析一行 <code>ts,open,high,low,close[,...]</code>; 格式错误返回 <code>null</code>
+     */
+    private static BarVO parse(String line) {
+        String[] cols = line.split(",", 6);
+        if (cols.length < 5)
+            return null;
+        try {
+            String ts = cols[0].strip();
+            long tsMs = ts.chars().allMatch(Character::isDigit) ? Long.parseLong(ts) : Instant.parse(ts).toEpochMilli();
+            double open = Double.parseDouble(cols[1].strip());
+            double high = Double.parseDouble(cols[2].strip());
+            double low = Double.parseDouble(cols[3].strip());
+            double close = Double.parseDouble(cols[4].strip());
+            if (!(low <= high) || low <= 0)
+                return null;
+            return new BarVO(tsMs, open, high, low, close);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
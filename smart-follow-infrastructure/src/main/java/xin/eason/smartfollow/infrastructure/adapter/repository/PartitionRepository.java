@@ -0,0 +1,167 @@
+package xin.eason.smartfollow.infrastructure.adapter.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+import xin.eason.smartfollow.domain.adapter.repository.IPartitionRepository;
+import xin.eason.smartfollow.domain.model.vo.partition.PartitionInfoVO;
+import xin.eason.smartfollow.domain.model.vo.partition.PartitionedTable;
+import xin.eason.smartfollow.infrastructure.dao.PartitionMapper;
+import xin.eason.smartfollow.infrastructure.dao.po.PartitionPO;
+import xin.eason.smartfollow.types.exceptions.AppException;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import static xin.eason.smartfollow.types.utils.FieldValidateUtils.requireNotNull;
+
+/**
+ * 分区元数据与分区 DDL 仓储实现
+ * <p>表名来自 {@link PartitionedTable}, 分区名在拼接进 DDL 前按白名单格式校验</p>
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class PartitionRepository implements IPartitionRepository {
+
+    /**
+     * 允许出现在 DDL 中的分区名
+     */
+    private static final Pattern PARTITION_NAME = Pattern.compile("p\\d{4}_\\d{2}|pMAX");
+    private static final String MAX_VALUE = "MAXVALUE";
+
+    private final PartitionMapper partitionMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public List<PartitionInfoVO> findPartitions(PartitionedTable table) {
+        requireNotNull(table, "table 不能为空");
+        List<PartitionInfoVO> result = new ArrayList<>();
+        for (PartitionPO po : partitionMapper.selectPartitions(table.getTableName()))
+            result.add(new PartitionInfoVO(po.getPartitionName(), parseBound(po.getPartitionDescription()),
+                    po.getTableRows() == null ? 0L : po.getTableRows(),
+                    po.getDataLength() == null ? 0L : po.getDataLength()));
+        return result;
+    }
+
+    @Override
+    public boolean isEmpty(PartitionedTable table, String partition) {
+        return !partitionMapper.existsInPartition(table.getTableName(), checked(partition));
+    }
+
+    @Override
+    public long countRows(PartitionedTable table, String partition) {
+        return partitionMapper.countInPartition(table.getTableName(), checked(partition));
+    }
+
+    @Override
+    public void splitMax(PartitionedTable table, Map<String, LocalDate> partitions) {
+        requireNotNull(partitions, "partitions 不能为空");
+        if (partitions.isEmpty())
+            return;
+        List<PartitionPO> specs = new ArrayList<>(partitions.size());
+        partitions.forEach((name, lessThan) -> specs.add(PartitionPO.builder()
+                .partitionName(checked(name))
+                .partitionDescription(lessThan.toString())
+                .build()));
+        long start = System.currentTimeMillis();
+        partitionMapper.reorganizeMax(table.getTableName(), specs);
+        log.info("[分区维护] 表 {} 切出分区 {}, 耗时 {}ms", table.getTableName(), partitions.keySet(), System.currentTimeMillis() - start);
+    }
+
+    @Override
+    public void dropPartitions(PartitionedTable table, List<String> partitions) {
+        requireNotNull(partitions, "partitions 不能为空");
+        if (partitions.isEmpty())
+            return;
+        partitions.forEach(PartitionRepository::checked);
+        partitionMapper.dropPartitions(table.getTableName(), partitions);
+        log.info("[分区维护] 表 {} 删除分区 {}", table.getTableName(), partitions);
+    }
+
+    @Override
+    public boolean dropPartitionIfEmpty(PartitionedTable table, String partition) {
+        String name = table.getTableName();
+        checked(partition);
+        // LOCK TABLES 与后续语句必须在同一连接上执行, 借助事务把连接绑定到当前线程; 分区为空时 DROP 只修改元数据, 锁持有时间很短
+        boolean dropped = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            partitionMapper.lockTableWrite(name);
+            try {
+                if (partitionMapper.existsInPartition(name, partition))
+                    return false;
+                partitionMapper.dropPartitions(name, List.of(partition));
+                return true;
+            } finally {
+                partitionMapper.unlockTables();
+            }
+        }));
+        if (dropped)
+            log.info("[分区维护] 表 {} 删除空分区 {}", name, partition);
+        return dropped;
+    }
+
+    @Override
+    public String exchangePartition(PartitionedTable table, String partition) {
+        String archive = archiveTableOf(table, partition);
+        boolean archiveExists = partitionMapper.existsTable(archive);
+        // 空分区无需交换; 上次交换后删除分区失败时分区同样为空, 直接复用已有的归档表
+        if (isEmpty(table, partition))
+            return archiveExists ? archive : null;
+        if (!archiveExists) {
+            partitionMapper.createTableLike(archive, table.getTableName());
+            partitionMapper.removePartitioning(archive);
+        } else if (partitionMapper.existsInTable(archive)) {
+            throw AppException.of("归档表已存在且非空: " + archive);
+        }
+        partitionMapper.exchangePartition(table.getTableName(), partition, archive);
+        log.info("[分区维护] 表 {} 分区 {} 已交换到归档表 {}", table.getTableName(), partition, archive);
+        return archive;
+    }
+
+    @Override
+    public String findArchiveTable(PartitionedTable table, String partition) {
+        String archive = archiveTableOf(table, partition);
+        return partitionMapper.existsTable(archive) ? archive : null;
+    }
+
+    @Override
+    public long countArchiveRows(PartitionedTable table, String partition) {
+        return partitionMapper.countInTable(archiveTableOf(table, partition));
+    }
+
+    @Override
+    public void dropArchiveTable(PartitionedTable table, String partition) {
+        String archive = archiveTableOf(table, partition);
+        partitionMapper.dropTable(archive);
+        log.info("[分区维护] 删除归档表 {}", archive);
+    }
+
+    /**
+     * 分区交换的目标表名: <code>{表名}_{分区名}</code>
+     */
+    private static String archiveTableOf(PartitionedTable table, String partition) {
+        return table.getTableName() + "_" + checked(partition);
+    }
+
+    /**
+     * 解析 RANGE COLUMNS 的分区上界, 如 <code>'2025-09-01'</code> 或 <code>'2025-09-01 00:00:00'</code>
+     *
+     * @return 上界日期, MAXVALUE 返回 <code>null</code>
+     */
+    private static LocalDate parseBound(String description) {
+        if (description == null || MAX_VALUE.equalsIgnoreCase(description.trim()))
+            return null;
+        String text = description.replace("'", "").trim();
+        return LocalDate.parse(text.length() > 10 ? text.substring(0, 10) : text);
+    }
+
+    private static String checked(String partition) {
+        if (partition == null || !PARTITION_NAME.matcher(partition).matches())
+            throw AppException.of("非法的分区名: " + partition);
+        return partition;
+    }
+}
@@ -0,0 +1,262 @@
+package xin.eason.smartfollow.infrastructure.adapter.repository;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Repository;
+import xin.eason.smartfollow.domain.adapter.port.IProjectIdentityRegistry;
+import xin.eason.smartfollow.domain.adapter.repository.IProjectRepository;
+import xin.eason.smartfollow.domain.model.aggregate.project.ProjectAggregate;
+import xin.eason.smartfollow.domain.model.aggregate.project.ProjectField;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectKey;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectSeenVO;
+import xin.eason.smartfollow.infrastructure.dao.ExchangeProjectMapper;
+import xin.eason.smartfollow.infrastructure.dao.po.ProjectPO;
+import xin.eason.smartfollow.types.enums.Exchange;
+import xin.eason.smartfollow.types.enums.Visibility;
+import xin.eason.smartfollow.types.exceptions.AppException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static xin.eason.smartfollow.types.utils.FieldValidateUtils.requireNotNull;
+
+/**
+ * 项目主档仓储实现 (exchange_project)
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class ProjectRepository implements IProjectRepository {
+
+    /**
+     * 预热扫描的分批大小
+     */
+    private static final int SCAN_BATCH_SIZE = 5000;
+    /**
+     * 批量 upsert / 批量查询的单条 SQL 行数上限
+     */
+    private static final int UPSERT_BATCH_SIZE = 500;
+    /**
+     * 脏字段 → 数据库列名
+     */
+    private static final Map<ProjectField, String> FIELD_COLUMNS = new EnumMap<>(Map.of(
+            ProjectField.NAME, "name",
+            ProjectField.BASE_CURRENCY, "base_currency",
+            ProjectField.LAST_VISIBILITY, "last_visibility",
+            ProjectField.FIRST_SEEN, "first_seen",
+            ProjectField.LAST_SEEN, "last_seen",
+            ProjectField.MIN_COPY_COST, "min_copy_cost",
+            ProjectField.STATUS, "status",
+            ProjectField.EXTRA, "extra"));
+
+    private final ExchangeProjectMapper projectMapper;
+    private final IProjectIdentityRegistry identityRegistry;
+
+    @Override
+    public long scanIdentities(IdentityConsumer consumer) {
+        long lastId = 0L;
+        long count = 0L;
+        while (true) {
+            // 按主键做 keyset 分页, 只取身份列与 first_seen, 避免加载 extra
+            List<ProjectPO> batch = projectMapper.selectList(new LambdaQueryWrapper<ProjectPO>()
+                    .select(ProjectPO::getId, ProjectPO::getExchange, ProjectPO::getLeaderExternalId, ProjectPO::getFirstSeen)
+                    .gt(ProjectPO::getId, lastId)
+                    .orderByAsc(ProjectPO::getId)
+                    .last("LIMIT " + SCAN_BATCH_SIZE));
+            for (ProjectPO po : batch)
+                consumer.accept(ProjectKey.of(Exchange.valueOf(po.getExchange()), po.getLeaderExternalId()), po.getId(), po.getFirstSeen());
+            count += batch.size();
+            if (batch.size() < SCAN_BATCH_SIZE)
+                return count;
+            lastId = batch.get(batch.size() - 1).getId();
+        }
+    }
+
+    @Override
+    public Optional<Long> findIdByKey(ProjectKey key) {
+        ProjectPO po = projectMapper.selectOne(byKey(key).select(ProjectPO::getId));
+        return Optional.ofNullable(po).map(ProjectPO::getId);
+    }
+
+    @Override
+    public Optional<ProjectAggregate> findByKey(ProjectKey key) {
+        ProjectPO po = projectMapper.selectOne(byKey(key));
+        if (po == null)
+            return Optional.empty();
+        identityRegistry.register(key, po.getId(), po.getFirstSeen());
+        return Optional.of(toAggregate(po));
+    }
+
+    @Override
+    public Optional<Instant> findUpdatedAtByKey(ProjectKey key) {
+        ProjectPO po = projectMapper.selectOne(byKey(key).select(ProjectPO::getUpdatedAt));
+        return Optional.ofNullable(po).map(ProjectPO::getUpdatedAt);
+    }
+
+    @Override
+    public long insert(ProjectAggregate project) {
+        requireNotNull(project, "project 不能为空");
+        ProjectPO po = toPO(project);
+        try {
+            projectMapper.insert(po);
+        } catch (DuplicateKeyException e) {
+            // 其他实例已插入同一项目, 回查主键后按已存在处理
+            Long id = findIdByKey(project.getKey())
+                    .orElseThrow(() -> new AppException("插入项目冲突但回查不到主键: " + project.projectId(), e));
+            log.info("[项目主档] 项目已被并发插入, 复用已有主键: {} → {}", project.projectId(), id);
+            po.setId(id);
+        }
+        identityRegistry.register(project.getKey(), po.getId(), project.getFirstSeen());
+        project.markClean();
+        return po.getId();
+    }
+
+    @Override
+    public List<ProjectAggregate> findByKeys(Collection<ProjectKey> keys) {
+        requireNotNull(keys, "keys 不能为空");
+        List<ProjectKey> distinct = new ArrayList<>(new LinkedHashSet<>(keys));
+        List<ProjectAggregate> result = new ArrayList<>(distinct.size());
+        for (int from = 0; from < distinct.size(); from += UPSERT_BATCH_SIZE) {
+            List<ProjectPO> query = distinct.subList(from, Math.min(from + UPSERT_BATCH_SIZE, distinct.size())).stream()
+                    .map(ProjectRepository::toKeyPO)
+                    .toList();
+            for (ProjectPO po : projectMapper.selectByKeys(query)) {
+                ProjectAggregate project = toAggregate(po);
+                identityRegistry.register(project.getKey(), po.getId(), po.getFirstSeen());
+                result.add(project);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public int upsertBatch(Collection<ProjectAggregate> projects) {
+        requireNotNull(projects, "projects 不能为空");
+        // 新项目整行插入; 已有项目按脏字段组合分组, 同组共用一条只更新这些列的 SQL
+        List<ProjectAggregate> created = new ArrayList<>();
+        Map<Set<ProjectField>, List<ProjectAggregate>> groups = new HashMap<>();
+        for (ProjectAggregate project : projects) {
+            if (project == null || !project.isDirty())
+                continue;
+            if (identityRegistry.get(project.getKey()) == null)
+                created.add(project);
+            else
+                groups.computeIfAbsent(project.getDirtyFields(), k -> new ArrayList<>()).add(project);
+        }
+
+        int written = 0;
+        for (int from = 0; from < created.size(); from += UPSERT_BATCH_SIZE) {
+            List<ProjectAggregate> chunk = created.subList(from, Math.min(from + UPSERT_BATCH_SIZE, created.size()));
+            // 新项目若已被其他实例插入, 按全字段合并 (first_seen 取早, last_seen 取晚)
+            writeChunk(chunk, EnumSet.allOf(ProjectField.class));
+            for (ProjectPO po : projectMapper.selectByKeys(chunk.stream().map(p -> toKeyPO(p.getKey())).toList()))
+                identityRegistry.register(ProjectKey.of(Exchange.valueOf(po.getExchange()), po.getLeaderExternalId()),
+                        po.getId(), po.getFirstSeen());
+            written += chunk.size();
+        }
+        for (Map.Entry<Set<ProjectField>, List<ProjectAggregate>> group : groups.entrySet()) {
+            List<ProjectAggregate> members = group.getValue();
+            for (int from = 0; from < members.size(); from += UPSERT_BATCH_SIZE) {
+                List<ProjectAggregate> chunk = members.subList(from, Math.min(from + UPSERT_BATCH_SIZE, members.size()));
+                writeChunk(chunk, group.getKey());
+                written += chunk.size();
+            }
+        }
+        log.debug("[项目主档] 批量 upsert 完成, 新增 {} 个, 更新 {} 个 (分 {} 组脏字段)",
+                created.size(), written - created.size(), groups.size());
+        return written;
+    }
+
+    @Override
+    public int updateSeenBatch(List<ProjectSeenVO> seen) {
+        requireNotNull(seen, "seen 不能为空");
+        int rows = 0;
+        for (int from = 0; from < seen.size(); from += UPSERT_BATCH_SIZE) {
+            List<ProjectPO> chunk = seen.subList(from, Math.min(from + UPSERT_BATCH_SIZE, seen.size())).stream()
+                    .map(s -> ProjectPO.builder()
+                            .id(s.projectId())
+                            .lastSeen(s.lastSeen())
+                            .lastVisibility(s.lastVisibility() == null ? null : s.lastVisibility().getName())
+                            .build())
+                    .toList();
+            rows += projectMapper.updateSeenBatch(chunk);
+        }
+        return rows;
+    }
+
+    /**
+     * 写入一批脏字段组合相同的项目, 成功后清空脏字段; 未变化的 extra 不随 SQL 发送
+     */
+    private void writeChunk(List<ProjectAggregate> chunk, Set<ProjectField> fields) {
+        boolean includeExtra = fields.contains(ProjectField.EXTRA);
+        List<ProjectPO> rows = new ArrayList<>(chunk.size());
+        for (ProjectAggregate project : chunk) {
+            ProjectPO po = toPO(project);
+            if (!includeExtra)
+                po.setExtra(null);
+            rows.add(po);
+        }
+        Set<String> columns = new LinkedHashSet<>();
+        for (ProjectField field : fields)
+            columns.add(FIELD_COLUMNS.get(field));
+        projectMapper.upsertBatch(rows, columns);
+        chunk.forEach(ProjectAggregate::markClean);
+    }
+
+    private static ProjectPO toKeyPO(ProjectKey key) {
+        return ProjectPO.builder()
+                .exchange(key.exchange().getName())
+                .leaderExternalId(key.externalId())
+                .build();
+    }
+
+    /**
+     * 构造按业务键 (exchange + leader_external_id) 查询的条件, 命中唯一键 uk_exchange_leader
+     */
+    private static LambdaQueryWrapper<ProjectPO> byKey(ProjectKey key) {
+        return new LambdaQueryWrapper<ProjectPO>()
+                .eq(ProjectPO::getExchange, key.exchange().getName())
+                .eq(ProjectPO::getLeaderExternalId, key.externalId());
+    }
+
+    private ProjectPO toPO(ProjectAggregate project) {
+        return ProjectPO.builder()
+                .exchange(project.getKey().exchange().getName())
+                .leaderExternalId(project.getKey().externalId())
+                .name(project.getName())
+                .status(project.getStatus())
+                .firstSeen(project.getFirstSeen())
+                .lastSeen(project.getLastSeen())
+                .lastVisibility(project.getLastVisibility() == null ? null : project.getLastVisibility().getName())
+                .minCopyCost(project.getMinCopyCost())
+                .baseCurrency(project.getBaseCurrency())
+                .extra(project.getExtra())
+                .extraHash(project.getExtraHash())
+                .build();
+    }
+
+    private ProjectAggregate toAggregate(ProjectPO po) {
+        return ProjectAggregate.restore(
+                ProjectKey.of(Exchange.valueOf(po.getExchange()), po.getLeaderExternalId()),
+                po.getName(),
+                po.getBaseCurrency(),
+                po.getLastVisibility() == null ? null : Visibility.parse(po.getLastVisibility()),
+                po.getFirstSeen(),
+                po.getLastSeen(),
+                po.getMinCopyCost(),
+                po.getStatus(),
+                po.getExtra(),
+                po.getExtraHash());
+    }
+}
@@ -0,0 +1,279 @@
+package xin.eason.smartfollow.infrastructure.adapter.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+import xin.eason.smartfollow.domain.IProjectIdentityService;
+import xin.eason.smartfollow.domain.adapter.repository.IProjectSnapshotRepository;
+import xin.eason.smartfollow.domain.model.aggregate.observation.ProjectSnapshotAggregate;
+import xin.eason.smartfollow.domain.model.vo.observation.SnapshotMetricVO;
+import xin.eason.smartfollow.domain.model.vo.observation.SnapshotWriteResultVO;
+import xin.eason.smartfollow.domain.model.vo.observation.StoredSnapshotVO;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectIdentityVO;
+import xin.eason.smartfollow.infrastructure.archive.ColdSnapshotStore;
+import xin.eason.smartfollow.infrastructure.dao.ExchangeProjectSnapshotMapper;
+import xin.eason.smartfollow.infrastructure.dao.po.ProjectSnapshotPO;
+import xin.eason.smartfollow.types.enums.SnapshotSource;
+import xin.eason.smartfollow.types.enums.Visibility;
+import xin.eason.smartfollow.types.utils.CompressUtils;
+
+import java.nio.charset.StandardCharsets;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static xin.eason.smartfollow.types.utils.FieldValidateUtils.requireNotNull;
+
+/**
+ * 项目时序快照仓储实现 (exchange_project_snapshot)
+ * <ul>
+ *     <li>指标列 (aum_usd, win_ratio, pnl_ratio_90d, pnl_90d_usd) 由聚合上已解析的值直接写入, 数据库不再解析 JSON</li>
+ *     <li>{@code smart-follow.snapshot.raw-compressed=true} 时原文压缩写入 raw_z, 读取时透明解压</li>
+ *     <li>已转入冷存储的月分区由 {@link ColdSnapshotStore} 补齐: 范围查询合并两侧结果, 同一 (project_id, ts) 以 MySQL 为准;
+ *     "最后一行" 类查询只为 MySQL 中查不到的项目回查冷存储</li>
+ * </ul>
+ */
+@Slf4j
+@Repository
+public class ProjectSnapshotRepository implements IProjectSnapshotRepository {
+
+    /**
+     * 单条多行 INSERT 的行数上限 (raw JSON 较大, 控制单条 SQL 体积低于 max_allowed_packet)
+     */
+    private static final int INSERT_BATCH_SIZE = 500;
+    /**
+     * 范围查询的 keyset 分页大小
+     */
+    private static final int RANGE_PAGE_SIZE = 2000;
+    /**
+     * 不限上界的 "最后一行" 查询使用的上界
+     */
+    private static final Instant UNBOUNDED = Instant.ofEpochMilli(Long.MAX_VALUE);
+    /**
+     * 合并冷热两侧结果时的排序: (project_id, ts)
+     */
+    private static final Comparator<StoredSnapshotVO> BY_PROJECT_TS =
+            Comparator.comparingLong(StoredSnapshotVO::projectId).thenComparing(StoredSnapshotVO::ts);
+
+    private final ExchangeProjectSnapshotMapper snapshotMapper;
+    private final IProjectIdentityService identityService;
+    private final ColdSnapshotStore coldSnapshotStore;
+    /**
+     * 原文是否压缩存储
+     */
+    private final boolean rawCompressed;
+
+    public ProjectSnapshotRepository(ExchangeProjectSnapshotMapper snapshotMapper,
+                                     IProjectIdentityService identityService,
+                                     ColdSnapshotStore coldSnapshotStore,
+                                     @Value("${smart-follow.snapshot.raw-compressed:true}") boolean rawCompressed) {
+        this.snapshotMapper = snapshotMapper;
+        this.identityService = identityService;
+        this.coldSnapshotStore = coldSnapshotStore;
+        this.rawCompressed = rawCompressed;
+    }
+
+    @Override
+    public SnapshotWriteResultVO insertBatch(Collection<ProjectSnapshotAggregate> snapshots) {
+        requireNotNull(snapshots, "snapshots 不能为空");
+        List<ProjectSnapshotPO> rows = new ArrayList<>(snapshots.size());
+        int skipped = 0;
+        for (ProjectSnapshotAggregate snapshot : snapshots) {
+            ProjectIdentityVO identity = identityService.resolve(snapshot.getProjectKey());
+            if (identity == null) {
+                skipped++;
+                log.warn("[项目快照] 项目未注册, 跳过快照: {}", snapshot.snapshotId());
+                continue;
+            }
+            rows.add(toPO(identity.projectId(), snapshot, rawCompressed));
+        }
+
+        int inserted = 0;
+        int statements = 0;
+        for (int from = 0; from < rows.size(); from += INSERT_BATCH_SIZE) {
+            inserted += snapshotMapper.insertIgnoreBatch(rows.subList(from, Math.min(from + INSERT_BATCH_SIZE, rows.size())));
+            statements++;
+        }
+        SnapshotWriteResultVO result = new SnapshotWriteResultVO(snapshots.size(), inserted, rows.size() - inserted, 0, skipped, statements);
+        log.debug("[项目快照] 批量写入 {} 条, 插入 {} 条, 忽略 {} 条, 跳过 {} 条, 共 {} 条 SQL",
+                result.getTotal(), result.getInserted(), result.getIgnored(), result.getSkipped(), result.getStatements());
+        return result;
+    }
+
+    @Override
+    public int extendValidUntil(Collection<StoredSnapshotVO> extended) {
+        requireNotNull(extended, "extended 不能为空");
+        List<ProjectSnapshotPO> rows = extended.stream()
+                .map(e -> ProjectSnapshotPO.builder()
+                        .projectId(e.projectId())
+                        .ts(e.ts())
+                        .source(e.source().getName())
+                        .validUntil(e.end())
+                        .build())
+                .toList();
+        int updated = 0;
+        for (int from = 0; from < rows.size(); from += INSERT_BATCH_SIZE)
+            updated += snapshotMapper.extendValidUntilBatch(rows.subList(from, Math.min(from + INSERT_BATCH_SIZE, rows.size())));
+        return updated;
+    }
+
+    @Override
+    public List<StoredSnapshotVO> findLatest(Collection<Long> projectIds, SnapshotSource source, Instant since) {
+        requireNotNull(projectIds, "projectIds 不能为空");
+        requireNotNull(source, "source 不能为空");
+        List<Long> ids = new ArrayList<>(projectIds);
+        List<StoredSnapshotVO> result = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += INSERT_BATCH_SIZE)
+            for (ProjectSnapshotPO po : snapshotMapper.selectLatest(ids.subList(from, Math.min(from + INSERT_BATCH_SIZE, ids.size())),
+                    source.getName(), since))
+                result.add(toStored(po));
+        return withColdLast(ids, source, UNBOUNDED, since, result);
+    }
+
+    @Override
+    public List<StoredSnapshotVO> findRange(long projectId, SnapshotSource source, Instant from, Instant to) {
+        List<StoredSnapshotVO> result = new ArrayList<>();
+        Instant after = from;
+        boolean inclusive = true;
+        while (true) {
+            List<ProjectSnapshotPO> page = snapshotMapper.selectRangePage(projectId, source.getName(), after, inclusive, to, RANGE_PAGE_SIZE);
+            for (ProjectSnapshotPO po : page)
+                result.add(toStored(po));
+            if (page.size() < RANGE_PAGE_SIZE)
+                return merge(coldSnapshotStore.findRange(projectId, source.getName(), from, to), result);
+            after = page.get(page.size() - 1).getTs();
+            inclusive = false;
+        }
+    }
+
+    @Override
+    public List<StoredSnapshotVO> findWindow(Collection<Long> projectIds, SnapshotSource source, Instant from, Instant to) {
+        requireNotNull(projectIds, "projectIds 不能为空");
+        requireNotNull(source, "source 不能为空");
+        List<Long> ids = new ArrayList<>(projectIds);
+        List<StoredSnapshotVO> result = new ArrayList<>();
+        for (int start = 0; start < ids.size(); start += INSERT_BATCH_SIZE)
+            for (ProjectSnapshotPO po : snapshotMapper.selectWindow(ids.subList(start, Math.min(start + INSERT_BATCH_SIZE, ids.size())),
+                    source.getName(), from, to))
+                result.add(toStored(po));
+        return merge(coldSnapshotStore.findWindow(ids, source.getName(), from, to), result);
+    }
+
+    @Override
+    public List<StoredSnapshotVO> findRecent(Collection<Long> projectIds, SnapshotSource source, Instant since, int limit) {
+        requireNotNull(projectIds, "projectIds 不能为空");
+        requireNotNull(source, "source 不能为空");
+        List<Long> ids = new ArrayList<>(projectIds);
+        List<StoredSnapshotVO> result = new ArrayList<>();
+        for (int start = 0; start < ids.size(); start += INSERT_BATCH_SIZE)
+            for (ProjectSnapshotPO po : snapshotMapper.selectRecent(ids.subList(start, Math.min(start + INSERT_BATCH_SIZE, ids.size())),
+                    source.getName(), since, limit))
+                result.add(toStored(po));
+        return result;
+    }
+
+    @Override
+    public List<StoredSnapshotVO> findLastBefore(Collection<Long> projectIds, SnapshotSource source, Instant before, Instant since) {
+        requireNotNull(projectIds, "projectIds 不能为空");
+        requireNotNull(source, "source 不能为空");
+        List<Long> ids = new ArrayList<>(projectIds);
+        List<StoredSnapshotVO> result = new ArrayList<>(ids.size());
+        for (int start = 0; start < ids.size(); start += INSERT_BATCH_SIZE)
+            for (ProjectSnapshotPO po : snapshotMapper.selectLastBeforeBatch(ids.subList(start, Math.min(start + INSERT_BATCH_SIZE, ids.size())),
+                    source.getName(), before, since))
+                result.add(toStored(po));
+        return withColdLast(ids, source, before, since, result);
+    }
+
+    @Override
+    public Optional<StoredSnapshotVO> findLastBefore(long projectId, SnapshotSource source, Instant before, Instant since) {
+        ProjectSnapshotPO po = snapshotMapper.selectLastBefore(projectId, source.getName(), before, since);
+        if (po == null)
+            po = coldSnapshotStore.findLastBefore(List.of(projectId), source.getName(), before, since).get(projectId);
+        return Optional.ofNullable(po).map(ProjectSnapshotRepository::toStored);
+    }
+
+    @Override
+    public Optional<String> findRawJson(long projectId, SnapshotSource source, Instant ts) {
+        ProjectSnapshotPO po = snapshotMapper.selectRaw(projectId, source.getName(), ts);
+        if (po == null)
+            po = coldSnapshotStore.findRaw(projectId, source.getName(), ts);
+        if (po == null)
+            return Optional.empty();
+        if (po.getRaw() != null)
+            return Optional.of(po.getRaw());
+        return Optional.ofNullable(po.getRawZ())
+                .map(z -> new String(CompressUtils.mysqlUncompress(z), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 合并冷存储与 MySQL 的范围结果, 按 (project_id, ts) 排序; 分区发布后到摘除前两侧会有相同的行, 保留 MySQL 一侧
+     */
+    private static List<StoredSnapshotVO> merge(List<ProjectSnapshotPO> cold, List<StoredSnapshotVO> hot) {
+        if (cold.isEmpty())
+            return hot;
+        List<StoredSnapshotVO> all = new ArrayList<>(cold.size() + hot.size());
+        all.addAll(hot);
+        for (ProjectSnapshotPO po : cold)
+            all.add(toStored(po));
+        // 稳定排序, MySQL 一侧排在同键的冷存储行之前
+        all.sort(BY_PROJECT_TS);
+        List<StoredSnapshotVO> result = new ArrayList<>(all.size());
+        StoredSnapshotVO last = null;
+        for (StoredSnapshotVO row : all) {
+            if (last != null && last.projectId() == row.projectId() && last.ts().equals(row.ts()))
+                continue;
+            result.add(row);
+            last = row;
+        }
+        return result;
+    }
+
+    /**
+     * 为 MySQL 中没有命中的项目从冷存储补查最后一行 (冷分区总是早于仍在 MySQL 中的分区)
+     */
+    private List<StoredSnapshotVO> withColdLast(List<Long> ids, SnapshotSource source, Instant before, Instant since,
+                                                List<StoredSnapshotVO> hot) {
+        if (coldSnapshotStore.partitions().isEmpty() || hot.size() >= ids.size())
+            return hot;
+        Set<Long> missing = new HashSet<>(ids);
+        for (StoredSnapshotVO row : hot)
+            missing.remove(row.projectId());
+        if (missing.isEmpty())
+            return hot;
+        for (ProjectSnapshotPO po : coldSnapshotStore.findLastBefore(missing, source.getName(), before, since).values())
+            hot.add(toStored(po));
+        return hot;
+    }
+
+    private static StoredSnapshotVO toStored(ProjectSnapshotPO po) {
+        SnapshotMetricVO metrics = new SnapshotMetricVO(po.getAumUsd(), po.getFollowers(), po.getWinRatio(),
+                po.getPnlRatio90d(), po.getPnl90dUsd(), Visibility.parse(po.getVisibility()));
+        return new StoredSnapshotVO(po.getProjectId(), SnapshotSource.valueOf(po.getSource()), po.getTs(),
+                po.getValidUntil(), po.getDataVer(), metrics);
+    }
+
+    private static ProjectSnapshotPO toPO(long projectId, ProjectSnapshotAggregate snapshot, boolean rawCompressed) {
+        return ProjectSnapshotPO.builder()
+                .projectId(projectId)
+                .ts(snapshot.getSnapshotTs())
+                .dataVer(snapshot.getDataVer())
+                .source(snapshot.getSource().getName())
+                .visibility(snapshot.getVisibility().getName())
+                .equity(snapshot.getAumUsd())
+                .followers(snapshot.getFollowers())
+                .aumUsd(snapshot.getAumUsd())
+                .winRatio(snapshot.getWinRatio())
+                .pnlRatio90d(snapshot.getPnlRatio90d())
+                .pnl90dUsd(snapshot.getPnl90dUsd())
+                .raw(rawCompressed ? null : snapshot.getRawJson())
+                .rawZ(rawCompressed ? CompressUtils.mysqlCompress(snapshot.getRawJson().getBytes(StandardCharsets.UTF_8)) : null)
+                .build();
+    }
+}
@@ -0,0 +1,83 @@
+package xin.eason.smartfollow.infrastructure.adapter.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+import xin.eason.smartfollow.domain.adapter.repository.IRawResponseArchiveRepository;
+import xin.eason.smartfollow.domain.model.entity.crawl.CrawlLogEntity;
+import xin.eason.smartfollow.domain.model.vo.crawl.RawResponseVO;
+import xin.eason.smartfollow.infrastructure.archive.SegmentLogStore;
+import xin.eason.smartfollow.types.enums.Exchange;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static xin.eason.smartfollow.types.utils.FieldValidateUtils.requireNotNull;
+
+/**
+ * 原始响应归档仓储实现, 基于本地追加写分段日志 {@link SegmentLogStore}
+ */
+@Repository
+@RequiredArgsConstructor
+public class RawResponseArchiveRepository implements IRawResponseArchiveRepository {
+
+    /**
+     * 分段日志存储
+     */
+    private final SegmentLogStore segmentLogStore;
+
+    @Override
+    public boolean archive(CrawlLogEntity crawlLog, byte[] body) {
+        requireNotNull(crawlLog, "crawlLog 不能为空");
+        requireNotNull(crawlLog.getId(), "crawlLog.id 不能为空, 必须先落库再归档");
+        requireNotNull(body, "body 不能为空");
+        long startedAtMs = crawlLog.getStartedAt() == null ? 0L : crawlLog.getStartedAt().toEpochMilli();
+        String exchange = crawlLog.getExchange() == null ? null : crawlLog.getExchange().getName();
+        return segmentLogStore.append(crawlLog.getId(), startedAtMs, exchange, crawlLog.getTarget(), body);
+    }
+
+    @Override
+    public Optional<RawResponseVO> findByCrawlLogId(long crawlLogId) {
+        SegmentLogStore.CrawlEntry entry = segmentLogStore.findEntry(crawlLogId);
+        return Optional.ofNullable(entry).map(this::toVO);
+    }
+
+    @Override
+    public Optional<byte[]> findBodyByContentHash(String contentHash) {
+        return Optional.ofNullable(segmentLogStore.readBody(SegmentLogStore.DigestKey.ofHex(contentHash)));
+    }
+
+    @Override
+    public long forEach(Instant from, Instant to, String targetPrefix, Consumer<RawResponseVO> consumer) {
+        long fromMs = from == null ? Long.MIN_VALUE : from.toEpochMilli();
+        long toMs = to == null ? Long.MAX_VALUE : to.toEpochMilli();
+        AtomicLong count = new AtomicLong();
+        segmentLogStore.forEachEntry(entry -> {
+            if (entry.startedAtMs() < fromMs || entry.startedAtMs() >= toMs)
+                return;
+            if (targetPrefix != null && !targetPrefix.isBlank() && !entry.target().startsWith(targetPrefix))
+                return;
+            consumer.accept(toVO(entry));
+            count.incrementAndGet();
+        });
+        return count.get();
+    }
+
+    /**
+     * 将抓取索引条目转换为归档响应值对象 (读取响应体)
+     *
+     * @param entry 抓取索引条目
+     * @return 归档响应
+     */
+    private RawResponseVO toVO(SegmentLogStore.CrawlEntry entry) {
+        return RawResponseVO.builder()
+                .crawlLogId(entry.crawlLogId())
+                .exchange(entry.exchange().isEmpty() ? null : Exchange.valueOf(entry.exchange()))
+                .target(entry.target())
+                .startedAt(Instant.ofEpochMilli(entry.startedAtMs()))
+                .contentHash(entry.digest().toHex())
+                .body(segmentLogStore.readBody(entry.digest()))
+                .build();
+    }
+}
@@ -0,0 +1,127 @@
+package xin.eason.smartfollow.infrastructure.adapter.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Repository;
+import xin.eason.smartfollow.domain.adapter.repository.ISnapshotRollupRepository;
+import xin.eason.smartfollow.domain.model.vo.observation.RollupResolution;
+import xin.eason.smartfollow.domain.model.vo.observation.RollupStatVO;
+import xin.eason.smartfollow.domain.model.vo.observation.SnapshotRollupVO;
+import xin.eason.smartfollow.infrastructure.dao.SnapshotRollupMapper;
+import xin.eason.smartfollow.infrastructure.dao.po.SnapshotRollupPO;
+import xin.eason.smartfollow.types.enums.SnapshotSource;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static xin.eason.smartfollow.types.utils.FieldValidateUtils.requireNotNull;
+
+/**
+ * 快照汇总仓储实现 (exchange_project_snapshot_rollup)
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class SnapshotRollupRepository implements ISnapshotRollupRepository {
+
+    /**
+     * 单条多行 SQL 的行数上限
+     */
+    private static final int BATCH_SIZE = 500;
+
+    private final SnapshotRollupMapper rollupMapper;
+
+    @Override
+    public int upsertBatch(Collection<SnapshotRollupVO> rollups) {
+        requireNotNull(rollups, "rollups 不能为空");
+        List<SnapshotRollupPO> rows = rollups.stream().map(SnapshotRollupRepository::toPO).toList();
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE)
+            rollupMapper.upsertBatch(rows.subList(from, Math.min(from + BATCH_SIZE, rows.size())));
+        log.debug("[快照汇总] 批量写入 {} 个桶", rows.size());
+        return rows.size();
+    }
+
+    @Override
+    public List<SnapshotRollupVO> findBuckets(Collection<Long> projectIds, SnapshotSource source, RollupResolution resolution,
+                                              Instant from, Instant to) {
+        requireNotNull(projectIds, "projectIds 不能为空");
+        requireNotNull(source, "source 不能为空");
+        requireNotNull(resolution, "resolution 不能为空");
+        List<Long> ids = new ArrayList<>(projectIds);
+        List<SnapshotRollupVO> result = new ArrayList<>();
+        for (int start = 0; start < ids.size(); start += BATCH_SIZE)
+            for (SnapshotRollupPO po : rollupMapper.selectBuckets(ids.subList(start, Math.min(start + BATCH_SIZE, ids.size())),
+                    source.getName(), resolution.getCode(), from, to))
+                result.add(toVO(po));
+        return result;
+    }
+
+    @Override
+    public List<SnapshotRollupVO> findRange(long projectId, SnapshotSource source, RollupResolution resolution, Instant from, Instant to) {
+        return rollupMapper.selectRange(projectId, source.getName(), resolution.getCode(), from, to).stream()
+                .map(SnapshotRollupRepository::toVO)
+                .toList();
+    }
+
+    @Override
+    public Optional<Instant> findWatermark(RollupResolution resolution) {
+        return Optional.ofNullable(rollupMapper.selectMaxBucket(resolution.getCode()))
+                .map(last -> last.plus(resolution.getStep()));
+    }
+
+    @Override
+    public Optional<Instant> findEarliestBucket(RollupResolution resolution) {
+        return Optional.ofNullable(rollupMapper.selectMinBucket(resolution.getCode()));
+    }
+
+    private static SnapshotRollupPO toPO(SnapshotRollupVO vo) {
+        RollupStatVO aum = vo.aum();
+        RollupStatVO followers = vo.followers();
+        RollupStatVO pnl = vo.pnl();
+        return SnapshotRollupPO.builder()
+                .projectId(vo.projectId())
+                .source(vo.source().getName())
+                .resolution(vo.resolution().getCode())
+                .bucketTs(vo.bucketTs())
+                .coveredMs(vo.coveredMs())
+                .aumLast(aum == null ? null : aum.last())
+                .aumMin(aum == null ? null : aum.min())
+                .aumMax(aum == null ? null : aum.max())
+                .aumAvg(aum == null ? null : aum.avg())
+                .followersLast(followers == null ? null : toInt(followers.last()))
+                .followersMin(followers == null ? null : toInt(followers.min()))
+                .followersMax(followers == null ? null : toInt(followers.max()))
+                .followersAvg(followers == null ? null : followers.avg())
+                .pnlLast(pnl == null ? null : pnl.last())
+                .pnlMin(pnl == null ? null : pnl.min())
+                .pnlMax(pnl == null ? null : pnl.max())
+                .pnlAvg(pnl == null ? null : pnl.avg())
+                .build();
+    }
+
+    private static SnapshotRollupVO toVO(SnapshotRollupPO po) {
+        return new SnapshotRollupVO(po.getProjectId(), SnapshotSource.valueOf(po.getSource()),
+                RollupResolution.parse(po.getResolution()), po.getBucketTs(), po.getCoveredMs() == null ? 0L : po.getCoveredMs(),
+                toStat(po.getAumLast(), po.getAumMin(), po.getAumMax(), po.getAumAvg()),
+                toStat(toDecimal(po.getFollowersLast()), toDecimal(po.getFollowersMin()), toDecimal(po.getFollowersMax()), po.getFollowersAvg()),
+                toStat(po.getPnlLast(), po.getPnlMin(), po.getPnlMax(), po.getPnlAvg()));
+    }
+
+    private static RollupStatVO toStat(BigDecimal last, BigDecimal min, BigDecimal max, BigDecimal avg) {
+        if (last == null && min == null && max == null && avg == null)
+            return null;
+        return new RollupStatVO(last, min, max, avg);
+    }
+
+    private static Integer toInt(BigDecimal value) {
+        return value == null ? null : value.intValue();
+    }
+
+    private static BigDecimal toDecimal(Integer value) {
+        return value == null ? null : BigDecimal.valueOf(value);
+    }
+}
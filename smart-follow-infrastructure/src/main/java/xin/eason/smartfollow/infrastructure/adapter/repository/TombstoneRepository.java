@@ -0,0 +1,140 @@
+package xin.eason.smartfollow.infrastructure.adapter.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Repository;
+import xin.eason.smartfollow.domain.IProjectIdentityService;
+import xin.eason.smartfollow.domain.adapter.port.IProjectIdentityRegistry;
+import xin.eason.smartfollow.domain.adapter.repository.ITombstoneRepository;
+import xin.eason.smartfollow.domain.model.aggregate.observation.TombstoneAggregate;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectIdentityVO;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectKey;
+import xin.eason.smartfollow.infrastructure.dao.TombstoneMapper;
+import xin.eason.smartfollow.infrastructure.dao.po.TombstonePO;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static xin.eason.smartfollow.types.utils.FieldValidateUtils.requireNotNull;
+
+/**
+ * 墓碑仓储实现 (tombstone)
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class TombstoneRepository implements ITombstoneRepository {
+
+    /**
+     * 单条多行 SQL 的行数上限
+     */
+    private static final int BATCH_SIZE = 500;
+    /**
+     * 启动扫描的分批大小
+     */
+    private static final int SCAN_BATCH_SIZE = 5000;
+
+    private final TombstoneMapper tombstoneMapper;
+    private final IProjectIdentityService identityService;
+    private final IProjectIdentityRegistry identityRegistry;
+
+    @Override
+    public int openBatch(Collection<TombstoneAggregate> tombstones) {
+        requireNotNull(tombstones, "tombstones 不能为空");
+        List<TombstonePO> rows = toPOs(tombstones);
+        int inserted = 0;
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE)
+            inserted += tombstoneMapper.insertIgnoreBatch(rows.subList(from, Math.min(from + BATCH_SIZE, rows.size())));
+        log.debug("[墓碑] 批量打开 {} 条, 实际插入 {} 条", rows.size(), inserted);
+        return inserted;
+    }
+
+    @Override
+    public int closeBatch(Collection<TombstoneAggregate> tombstones) {
+        requireNotNull(tombstones, "tombstones 不能为空");
+        List<TombstonePO> rows = toPOs(tombstones);
+        int closed = 0;
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE)
+            closed += tombstoneMapper.closeBatch(rows.subList(from, Math.min(from + BATCH_SIZE, rows.size())));
+        log.debug("[墓碑] 批量关闭 {} 条, 实际更新 {} 条", rows.size(), closed);
+        return closed;
+    }
+
+    @Override
+    public List<TombstoneAggregate> findOpen(Collection<ProjectKey> keys) {
+        requireNotNull(keys, "keys 不能为空");
+        Set<Long> distinct = new LinkedHashSet<>();
+        for (ProjectKey key : keys) {
+            ProjectIdentityVO identity = identityService.resolve(key);
+            if (identity != null)
+                distinct.add(identity.projectId());
+        }
+        List<Long> ids = new ArrayList<>(distinct);
+        List<TombstoneAggregate> result = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE)
+            for (TombstonePO po : tombstoneMapper.selectOpenByProjectIds(ids.subList(from, Math.min(from + BATCH_SIZE, ids.size())))) {
+                TombstoneAggregate tombstone = toAggregate(po);
+                if (tombstone != null)
+                    result.add(tombstone);
+            }
+        return result;
+    }
+
+    @Override
+    public long scanAll(Consumer<TombstoneAggregate> consumer) {
+        long lastProjectId = 0L;
+        Instant lastFromTs = null;
+        long count = 0L;
+        while (true) {
+            List<TombstonePO> batch = tombstoneMapper.selectAllAfter(lastProjectId, lastFromTs, SCAN_BATCH_SIZE);
+            for (TombstonePO po : batch) {
+                TombstoneAggregate tombstone = toAggregate(po);
+                if (tombstone == null)
+                    continue;
+                consumer.accept(tombstone);
+                count++;
+            }
+            if (batch.size() < SCAN_BATCH_SIZE)
+                return count;
+            TombstonePO last = batch.get(batch.size() - 1);
+            lastProjectId = last.getProjectId();
+            lastFromTs = last.getFromTs();
+        }
+    }
+
+    private List<TombstonePO> toPOs(Collection<TombstoneAggregate> tombstones) {
+        List<TombstonePO> rows = new ArrayList<>(tombstones.size());
+        for (TombstoneAggregate tombstone : tombstones) {
+            ProjectIdentityVO identity = identityService.resolve(tombstone.getProjectKey());
+            if (identity == null) {
+                log.warn("[墓碑] 项目未注册, 跳过墓碑: {}", tombstone.getProjectKey().asString());
+                continue;
+            }
+            rows.add(TombstonePO.builder()
+                    .projectId(identity.projectId())
+                    .fromTs(tombstone.getFromTs())
+                    .toTs(tombstone.getToTs())
+                    .reasonCode(tombstone.getReasonCode())
+                    .reasonMsg(tombstone.getReasonMsg())
+                    .detector(tombstone.getDetector())
+                    .build());
+        }
+        return rows;
+    }
+
+    /**
+     * 还原墓碑聚合; 本进程尚未注册的项目返回 <code>null</code>
+     */
+    private TombstoneAggregate toAggregate(TombstonePO po) {
+        ProjectIdentityVO identity = identityRegistry.getByProjectId(po.getProjectId());
+        if (identity == null)
+            return null;
+        return TombstoneAggregate.restore(identity.key(), po.getFromTs(), po.getToTs(),
+                po.getReasonCode(), po.getReasonMsg(), po.getDetector());
+    }
+}
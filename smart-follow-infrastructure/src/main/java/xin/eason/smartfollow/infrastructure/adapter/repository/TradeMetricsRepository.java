@@ -0,0 +1,101 @@
+package xin.eason.smartfollow.infrastructure.adapter.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Repository;
+import xin.eason.smartfollow.domain.adapter.repository.ITradeMetricsRepository;
+import xin.eason.smartfollow.domain.model.vo.trade.TradeMetricsChunkVO;
+import xin.eason.smartfollow.domain.model.vo.trade.TradeMetricsVO;
+import xin.eason.smartfollow.infrastructure.dao.ExchangeProjectTradeMetricsMapper;
+import xin.eason.smartfollow.infrastructure.dao.TradeMetricsCheckpointMapper;
+import xin.eason.smartfollow.infrastructure.dao.po.TradeMetricsCheckpointPO;
+import xin.eason.smartfollow.infrastructure.dao.po.TradeMetricsPO;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static xin.eason.smartfollow.types.utils.FieldValidateUtils.requireNotBlank;
+import static xin.eason.smartfollow.types.utils.FieldValidateUtils.requireNotNull;
+
+/**
+ * 回合行情指标仓储实现 (exchange_project_trade_metrics)
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class TradeMetricsRepository implements ITradeMetricsRepository {
+
+    /**
+     * 单条多行 SQL 的行数上限
+     */
+    private static final int BATCH_SIZE = 500;
+    private static final String SOURCE = "COMPUTED";
+
+    private final ExchangeProjectTradeMetricsMapper metricsMapper;
+    private final TradeMetricsCheckpointMapper checkpointMapper;
+
+    @Override
+    public int upsertBatch(Collection<TradeMetricsVO> metrics) {
+        requireNotNull(metrics, "metrics 不能为空");
+        List<TradeMetricsPO> rows = new ArrayList<>(metrics.size());
+        for (TradeMetricsVO vo : metrics)
+            rows.add(toPO(vo));
+        int affected = 0;
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE)
+            affected += metricsMapper.upsertBatch(rows.subList(from, Math.min(from + BATCH_SIZE, rows.size())));
+        log.debug("[回合指标] 批量写入 {} 条, 影响 {} 行", rows.size(), affected);
+        return affected;
+    }
+
+    @Override
+    public Map<Instant, Integer> findCheckpoints(String algoVer) {
+        requireNotBlank(algoVer, "algoVer 不能为空");
+        Map<Instant, Integer> checkpoints = new HashMap<>();
+        for (TradeMetricsCheckpointPO po : checkpointMapper.selectByAlgoVer(algoVer))
+            checkpoints.put(po.getChunkStart(), po.getPass());
+        return checkpoints;
+    }
+
+    @Override
+    public void saveCheckpoint(TradeMetricsChunkVO chunk) {
+        requireNotNull(chunk, "chunk 不能为空");
+        checkpointMapper.upsert(TradeMetricsCheckpointPO.builder()
+                .algoVer(chunk.algoVer())
+                .chunkStart(chunk.chunkStart())
+                .chunkEnd(chunk.chunkEnd())
+                .pass(chunk.pass())
+                .trades(chunk.result().trades())
+                .computed(chunk.result().computed())
+                .noBars(chunk.result().noBars())
+                .failed(chunk.result().failed())
+                .elapsedMs(chunk.result().elapsedMs())
+                .build());
+    }
+
+    private static TradeMetricsPO toPO(TradeMetricsVO vo) {
+        return TradeMetricsPO.builder()
+                .tradeId(vo.tradeId())
+                .projectId(vo.projectId())
+                .tsOpen(vo.tsOpen())
+                .source(SOURCE)
+                .algoVer(vo.algoVer())
+                .barInterval(vo.barInterval().getName())
+                .priceSource(vo.priceSource().getName())
+                .maePct(vo.maePct())
+                .mfePct(vo.mfePct())
+                .maeUsd(vo.maeUsd())
+                .mfeUsd(vo.mfeUsd())
+                .maeTs(vo.maeTs())
+                .mfeTs(vo.mfeTs())
+                .maxDdPct(vo.maxDdPct())
+                .maxRuPct(vo.maxRuPct())
+                .qualityScore(vo.qualityScore())
+                .extra("{\"bars\":" + vo.bars() + ",\"expectedBars\":" + vo.expectedBars() + "}")
+                .inputCrc(vo.inputCrc())
+                .build();
+    }
+}
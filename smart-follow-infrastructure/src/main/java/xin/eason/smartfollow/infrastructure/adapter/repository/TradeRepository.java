@@ -0,0 +1,152 @@
+package xin.eason.smartfollow.infrastructure.adapter.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Repository;
+import xin.eason.smartfollow.domain.IProjectIdentityService;
+import xin.eason.smartfollow.domain.adapter.repository.ITradeRepository;
+import xin.eason.smartfollow.domain.model.aggregate.trade.ProjectTradeAggregate;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectIdentityVO;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectKey;
+import xin.eason.smartfollow.domain.model.vo.trade.TradeIdentityVO;
+import xin.eason.smartfollow.domain.model.vo.trade.TradeMetricInputVO;
+import xin.eason.smartfollow.infrastructure.dao.ExchangeProjectTradeMapper;
+import xin.eason.smartfollow.infrastructure.dao.po.ProjectTradePO;
+import xin.eason.smartfollow.infrastructure.dao.po.TradeMetricInputPO;
+import xin.eason.smartfollow.types.enums.TradeSide;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static xin.eason.smartfollow.types.utils.FieldValidateUtils.requireNotBlank;
+import static xin.eason.smartfollow.types.utils.FieldValidateUtils.requireNotNull;
+
+/**
+ * 仓位回合仓储实现 (exchange_project_trade)
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class TradeRepository implements ITradeRepository {
+
+    /**
+     * 单条多行 SQL 的行数上限
+     */
+    private static final int BATCH_SIZE = 500;
+
+    private final ExchangeProjectTradeMapper tradeMapper;
+    private final IProjectIdentityService identityService;
+
+    @Override
+    public int upsertBatch(Collection<ProjectTradeAggregate> trades) {
+        requireNotNull(trades, "trades 不能为空");
+        List<ProjectTradePO> rows = new ArrayList<>(trades.size());
+        for (ProjectTradeAggregate trade : trades) {
+            ProjectIdentityVO identity = identityService.resolve(trade.getProjectKey());
+            if (identity == null) {
+                log.warn("[回合写入] 项目未注册, 跳过回合: {}", trade.getProjectKey().asString());
+                continue;
+            }
+            rows.add(toPO(identity.projectId(), trade));
+        }
+        int affected = 0;
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE)
+            affected += tradeMapper.upsertBatch(rows.subList(from, Math.min(from + BATCH_SIZE, rows.size())));
+        log.debug("[回合写入] 批量写入 {} 条, 影响 {} 行", rows.size(), affected);
+        return affected;
+    }
+
+    @Override
+    public List<TradeIdentityVO> findFinal(ProjectKey key, Collection<TradeIdentityVO> identities) {
+        requireNotNull(key, "key 不能为空");
+        requireNotNull(identities, "identities 不能为空");
+        ProjectIdentityVO identity = identityService.resolve(key);
+        if (identity == null || identities.isEmpty())
+            return List.of();
+        List<TradeIdentityVO> list = new ArrayList<>(identities);
+        List<TradeIdentityVO> result = new ArrayList<>();
+        for (int from = 0; from < list.size(); from += BATCH_SIZE) {
+            List<TradeIdentityVO> batch = list.subList(from, Math.min(from + BATCH_SIZE, list.size()));
+            List<String> tradeUids = new ArrayList<>(batch.size());
+            List<String> externalTradeIds = new ArrayList<>(batch.size());
+            for (TradeIdentityVO vo : batch) {
+                tradeUids.add(vo.tradeId());
+                if (vo.externalTradeId() != null)
+                    externalTradeIds.add(vo.externalTradeId());
+            }
+            for (ProjectTradePO po : tradeMapper.selectFinalByIds(identity.projectId(), tradeUids, externalTradeIds))
+                result.add(new TradeIdentityVO(po.getTradeUid(), po.getSource(), po.getExternalTradeId()));
+        }
+        return result;
+    }
+
+    @Override
+    public long scanFinal(ProjectKey key, Instant from, Instant to, Consumer<TradeIdentityVO> consumer) {
+        requireNotNull(key, "key 不能为空");
+        requireNotNull(from, "from 不能为空");
+        requireNotNull(to, "to 不能为空");
+        requireNotNull(consumer, "consumer 不能为空");
+        ProjectIdentityVO identity = identityService.resolve(key);
+        if (identity == null)
+            return 0L;
+        long count = 0L;
+        for (ProjectTradePO po : tradeMapper.selectFinalInRange(identity.projectId(), from, to)) {
+            consumer.accept(new TradeIdentityVO(po.getTradeUid(), po.getSource(), po.getExternalTradeId()));
+            count++;
+        }
+        return count;
+    }
+
+    @Override
+    public List<TradeMetricInputVO> findClosedForMetrics(Instant from, Instant to, long afterId, int limit) {
+        requireNotNull(from, "from 不能为空");
+        requireNotNull(to, "to 不能为空");
+        return toInputs(tradeMapper.selectClosedForMetrics(from, to, afterId, limit));
+    }
+
+    @Override
+    public List<TradeMetricInputVO> findMetricsPending(Instant from, Instant to, String algoVer, long afterId, int limit) {
+        requireNotNull(from, "from 不能为空");
+        requireNotNull(to, "to 不能为空");
+        requireNotBlank(algoVer, "algoVer 不能为空");
+        return toInputs(tradeMapper.selectMetricsPending(from, to, algoVer, afterId, limit));
+    }
+
+    private static List<TradeMetricInputVO> toInputs(List<TradeMetricInputPO> rows) {
+        List<TradeMetricInputVO> result = new ArrayList<>(rows.size());
+        for (TradeMetricInputPO po : rows)
+            result.add(new TradeMetricInputVO(po.getId(), po.getProjectId(), po.getSymbol(), TradeSide.valueOf(po.getSide()),
+                    po.getTsOpen(), po.getTsClose(), po.getEntryPrice(), po.getQty(), po.getInputCrc()));
+        return result;
+    }
+
+    private static ProjectTradePO toPO(long projectId, ProjectTradeAggregate trade) {
+        return ProjectTradePO.builder()
+                .projectId(projectId)
+                .tradeUid(trade.getTradeId())
+                .symbol(trade.getItem().symbol())
+                .instType(trade.getItem().itemType())
+                .side(trade.getSide().name())
+                .ordType(trade.getOrdType() == null ? null : trade.getOrdType().getName())
+                .leverage(trade.getLeverage())
+                .tsOpen(trade.getTsOpen())
+                .tsFilled(trade.getTsFilled())
+                .tsClose(trade.getTsClose())
+                .entryPrice(trade.getEntryPrice())
+                .exitPrice(trade.getExitPrice())
+                .qty(trade.getQty().amount())
+                .fees(trade.getFee() == null ? null : trade.getFee().amount())
+                .feeCcy(trade.getFee() == null ? null : trade.getFee().ccy())
+                .pnl(trade.getPnl() == null ? null : trade.getPnl().amount())
+                .pnlCcy(trade.getPnl() == null ? null : trade.getPnl().ccy())
+                .status(trade.getStatus().getName())
+                .source(trade.getSource())
+                .externalTradeId(trade.getExternalTradeId())
+                .externalOrderId(trade.getExternalOrderId())
+                .sourcePayloadHash(trade.getSourcePayloadHash())
+                .build();
+    }
+}
@@ -0,0 +1,329 @@
+package xin.eason.smartfollow.infrastructure.archive;
+
+import lombok.extern.slf4j.Slf4j;
+import xin.eason.smartfollow.domain.model.vo.market.BarSeries;
+import xin.eason.smartfollow.domain.model.vo.market.BarVO;
+import xin.eason.smartfollow.types.enums.BarInterval;
+import xin.eason.smartfollow.types.enums.PriceSource;
+import xin.eason.smartfollow.types.exceptions.AppException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * 行情 K 线本地存储: 每个 (价格口径, 粒度, 标的) 一个定长记录文件, 通过内存映射读写
+ * <ul>
+ *     <li>文件 <code>{dir}/{价格口径}/{粒度}/{标的}.bars</code>, 文件头 <code>[magic:int][version:int][intervalMs:long][count:long][reserved:long]</code></li>
+ *     <li>记录 40 字节 <code>[ts:long][open:double][high:double][low:double][close:double]</code>, 按开盘时间严格递增, 第 i 根位于 <code>32 + 40·i</code></li>
+ *     <li>文件按 {@code growRecords} 根为单位预扩展并整体映射; 新记录写完后才推进文件头与内存中的 count, 读者只看到完整的记录</li>
+ *     <li>时间定位为对映射内存的二分查找, 范围查询返回映射内存的切片视图, 不复制数据</li>
+ *     <li>写入按文件串行化, 读取无锁</li>
+ * </ul>
+ */
+@Slf4j
+public class BarFileStore implements Closeable {
+
+    /**
+     * 文件魔数 ('SFBR')
+     */
+    private static final int MAGIC = 0x53464252;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int OFF_INTERVAL = 8;
+    private static final int OFF_COUNT = 16;
+    private static final int RECORD_BYTES = 40;
+    /**
+     * 单次映射不能超过 2GB
+     */
+    private static final int MAX_RECORDS = (Integer.MAX_VALUE - HEADER_BYTES) / RECORD_BYTES;
+    private static final String SUFFIX = ".bars";
+    private static final Pattern SYMBOL = Pattern.compile("[A-Z0-9][A-Z0-9._-]{0,63}");
+
+    private final Path dir;
+    /**
+     * 文件每次扩展的记录数
+     */
+    private final int growRecords;
+    /**
+     * 相对路径 → 已打开的文件
+     */
+    private final Map<String, BarFile> files = new ConcurrentHashMap<>();
+
+    /**
+     * 打开 (或创建) K 线存储目录; 文件在首次访问时打开
+     *
+     * @param dir         存储根目录
+     * @param growRecords 文件每次扩展的记录数
+     */
+    public BarFileStore(Path dir, int growRecords) {
+        if (growRecords <= 0 || growRecords > MAX_RECORDS)
+            throw AppException.of("growRecords 必须在 (0, " + MAX_RECORDS + "] 范围内");
+        this.dir = dir;
+        this.growRecords = growRecords;
+        try {
+            Files.createDirectories(dir);
+        } catch (IOException e) {
+            throw new AppException("打开 K 线存储失败: " + dir, e);
+        }
+        log.info("[K线] 已打开 K 线存储 {}", dir);
+    }
+
+    // =========================== 写入 ===========================
+
+    /**
+     * 追加 K 线: 开盘时间大于最后一根时追加, 等于时覆盖最后一根, 小于时忽略
+     *
+     * @param source   价格口径
+     * @param interval 粒度
+     * @param symbol   标的
+     * @param bars     按开盘时间升序的 K 线
+     * @return 追加与覆盖的根数
+     */
+    public int append(PriceSource source, BarInterval interval, String symbol, List<BarVO> bars) {
+        if (bars.isEmpty())
+            return 0;
+        return file(source, interval, symbol, true).append(bars);
+    }
+
+    // =========================== 查询 ===========================
+
+    /**
+     * 查询开盘时间在 [fromMs, toMs) 内的 K 线
+     *
+     * @return 映射内存的只读切片视图; 文件不存在或范围内没有 K 线时为 {@link BarSeries#EMPTY}
+     */
+    public BarSeries range(PriceSource source, BarInterval interval, String symbol, long fromMs, long toMs) {
+        BarFile file = file(source, interval, symbol, false);
+        return file == null ? BarSeries.EMPTY : file.range(fromMs, toMs);
+    }
+
+    /**
+     * @return 文件中的 K 线根数, 文件不存在时为 0
+     */
+    public int count(PriceSource source, BarInterval interval, String symbol) {
+        BarFile file = file(source, interval, symbol, false);
+        return file == null ? 0 : file.count;
+    }
+
+    /**
+     * @return 已打开的文件数
+     */
+    public int openFiles() {
+        return files.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (BarFile file : files.values())
+            file.channel.close();
+        files.clear();
+    }
+
+    // =========================== 文件 ===========================
+
+    private BarFile file(PriceSource source, BarInterval interval, String symbol, boolean create) {
+        String normalized = symbol == null ? "" : symbol.toUpperCase();
+        if (!SYMBOL.matcher(normalized).matches())
+            throw AppException.of("非法的 K 线标的: " + symbol);
+        String key = source.getName() + "/" + interval.getName() + "/" + normalized;
+        BarFile file = files.get(key);
+        if (file != null)
+            return file;
+        Path path = dir.resolve(source.getName()).resolve(interval.getName()).resolve(normalized + SUFFIX);
+        if (!create && !Files.exists(path))
+            return null;
+        return files.computeIfAbsent(key, k -> BarFile.open(path, interval.millis(), growRecords));
+    }
+
+    /**
+     * 单个 K 线文件
+     */
+    private static final class BarFile {
+
+        private final Path path;
+        private final FileChannel channel;
+        private final int growRecords;
+        /**
+         * 整个文件 (含预扩展部分) 的读写映射; 扩展时替换
+         */
+        private volatile MappedByteBuffer map;
+        /**
+         * 已提交的记录数, 读者以它为上界
+         */
+        private volatile int count;
+        private int capacity;
+
+        private BarFile(Path path, FileChannel channel, int growRecords) {
+            this.path = path;
+            this.channel = channel;
+            this.growRecords = growRecords;
+        }
+
+        private static BarFile open(Path path, long intervalMs, int growRecords) {
+            try {
+                Files.createDirectories(path.getParent());
+                FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                BarFile file = new BarFile(path, channel, growRecords);
+                if (channel.size() < HEADER_BYTES) {
+                    file.remap(growRecords);
+                    file.map.putInt(0, MAGIC);
+                    file.map.putInt(4, VERSION);
+                    file.map.putLong(OFF_INTERVAL, intervalMs);
+                    file.map.putLong(OFF_COUNT, 0L);
+                } else {
+                    file.remap((int) Math.min(MAX_RECORDS, (channel.size() - HEADER_BYTES) / RECORD_BYTES));
+                    if (file.map.getInt(0) != MAGIC || file.map.getInt(4) != VERSION)
+                        throw AppException.of("K 线文件格式不正确: " + path);
+                    if (file.map.getLong(OFF_INTERVAL) != intervalMs)
+                        throw AppException.of("K 线文件粒度不一致: " + path);
+                    long committed = file.map.getLong(OFF_COUNT);
+                    if (committed < 0 || committed > file.capacity)
+                        throw AppException.of("K 线文件记录数损坏: " + path);
+                    file.count = (int) committed;
+                }
+                log.debug("[K线] 打开 {}: {} 根", path, file.count);
+                return file;
+            } catch (IOException e) {
+                throw new AppException("打开 K 线文件失败: " + path, e);
+            }
+        }
+
+        private synchronized int append(List<BarVO> bars) {
+            MappedByteBuffer m = map;
+            int n = count;
+            int written = 0;
+            for (BarVO bar : bars) {
+                if (n > 0) {
+                    long last = m.getLong(offset(n - 1));
+                    if (bar.ts() < last)
+                        continue;
+                    if (bar.ts() == last) {
+                        write(m, n - 1, bar);
+                        written++;
+                        continue;
+                    }
+                }
+                if (n == capacity) {
+                    if (capacity == MAX_RECORDS)
+                        throw AppException.of("K 线文件已达到上限: " + path);
+                    try {
+                        remap((int) Math.min(MAX_RECORDS, (long) capacity + growRecords));
+                    } catch (IOException e) {
+                        throw new AppException("扩展 K 线文件失败: " + path, e);
+                    }
+                    m = map;
+                }
+                write(m, n++, bar);
+                written++;
+            }
+            // 记录写完后再提交 count
+            m.putLong(OFF_COUNT, n);
+            count = n;
+            return written;
+        }
+
+        private BarSeries range(long fromMs, long toMs) {
+            int n = count;
+            MappedByteBuffer m = map;
+            int lo = lowerBound(m, n, fromMs);
+            int hi = lowerBound(m, n, toMs);
+            if (hi <= lo)
+                return BarSeries.EMPTY;
+            return new MappedSeries(m.slice(offset(lo), (hi - lo) * RECORD_BYTES).asReadOnlyBuffer(), hi - lo);
+        }
+
+        /**
+         * 第一个开盘时间 &gt;= tsMs 的记录下标
+         */
+        private static int lowerBound(ByteBuffer m, int n, long tsMs) {
+            int lo = 0;
+            int hi = n;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (m.getLong(offset(mid)) < tsMs)
+                    lo = mid + 1;
+                else
+                    hi = mid;
+            }
+            return lo;
+        }
+
+        private void remap(int records) throws IOException {
+            map = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + (long) records * RECORD_BYTES);
+            capacity = records;
+        }
+
+        private static void write(ByteBuffer m, int i, BarVO bar) {
+            int at = offset(i);
+            m.putLong(at, bar.ts());
+            m.putDouble(at + 8, bar.open());
+            m.putDouble(at + 16, bar.high());
+            m.putDouble(at + 24, bar.low());
+            m.putDouble(at + 32, bar.close());
+        }
+
+        private static int offset(int i) {
+            return HEADER_BYTES + i * RECORD_BYTES;
+        }
+    }
+
+    /**
+     * 映射内存切片上的 K 线视图
+     */
+    private static final class MappedSeries implements BarSeries {
+
+        private final ByteBuffer buf;
+        private final int size;
+
+        private MappedSeries(ByteBuffer buf, int size) {
+            this.buf = buf;
+            this.size = size;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public long ts(int i) {
+            return buf.getLong(at(i));
+        }
+
+        @Override
+        public double open(int i) {
+            return buf.getDouble(at(i) + 8);
+        }
+
+        @Override
+        public double high(int i) {
+            return buf.getDouble(at(i) + 16);
+        }
+
+        @Override
+        public double low(int i) {
+            return buf.getDouble(at(i) + 24);
+        }
+
+        @Override
+        public double close(int i) {
+            return buf.getDouble(at(i) + 32);
+        }
+
+        private int at(int i) {
+            if (i < 0 || i >= size)
+                throw new IndexOutOfBoundsException(i);
+            return i * RECORD_BYTES;
+        }
+    }
+}
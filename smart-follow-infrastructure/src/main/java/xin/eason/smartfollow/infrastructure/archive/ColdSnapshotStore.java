@@ -0,0 +1,464 @@
+package xin.eason.smartfollow.infrastructure.archive;
+
+import lombok.extern.slf4j.Slf4j;
+import xin.eason.smartfollow.infrastructure.dao.po.ProjectSnapshotPO;
+import xin.eason.smartfollow.types.exceptions.AppException;
+import xin.eason.smartfollow.types.utils.CompressUtils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.LongPredicate;
+import java.util.stream.Stream;
+
+/**
+ * 快照冷存储: 已从 MySQL 摘除的 exchange_project_snapshot 月分区, 每个分区一个列存文件
+ * <ul>
+ *     <li>文件 <code>{dir}/exchange_project_snapshot/{分区名}.sfc</code>, 行按 (project_id, ts, source) 排序写入, 行组按 project_id / ts 的 min / max 裁剪</li>
+ *     <li>导出先写 <code>.tmp</code>, 刷盘后原子重命名发布; 启动时丢弃残留的 <code>.tmp</code></li>
+ *     <li>查询只解码命中行组的 project_id / ts / source 三列, 有命中行时才解码其余列, raw_z 只在读取原文时解码</li>
+ *     <li>每个冷分区对读取器做引用计数: 删除时立即摘除并删除文件, 读取器在进行中的扫描全部结束后才关闭</li>
+ * </ul>
+ */
+@Slf4j
+public class ColdSnapshotStore implements Closeable {
+
+    private static final String TABLE = "exchange_project_snapshot";
+    private static final String SUFFIX = ".sfc";
+    private static final String TMP_SUFFIX = ".sfc.tmp";
+    private static final String META_MIN_TS = "minTs";
+    private static final String META_MAX_TS = "maxTs";
+
+    /**
+     * 列定义, 与 exchange_project_snapshot 的列一一对应
+     */
+    private static final List<ColumnSpec> COLUMNS = List.of(
+            new ColumnSpec("project_id", ColumnType.LONG),
+            new ColumnSpec("ts", ColumnType.LONG),
+            new ColumnSpec("source", ColumnType.STRING),
+            new ColumnSpec("id", ColumnType.LONG),
+            new ColumnSpec("valid_until", ColumnType.LONG),
+            new ColumnSpec("data_ver", ColumnType.STRING),
+            new ColumnSpec("visibility", ColumnType.STRING),
+            new ColumnSpec("equity", ColumnType.DECIMAL),
+            new ColumnSpec("followers", ColumnType.INT),
+            new ColumnSpec("positions_open", ColumnType.INT),
+            new ColumnSpec("fees_daily", ColumnType.DECIMAL),
+            new ColumnSpec("pnl_daily", ColumnType.DECIMAL),
+            new ColumnSpec("aum_usd", ColumnType.DECIMAL),
+            new ColumnSpec("win_ratio", ColumnType.DECIMAL),
+            new ColumnSpec("pnl_ratio_90d", ColumnType.DECIMAL),
+            new ColumnSpec("pnl_90d_usd", ColumnType.DECIMAL),
+            new ColumnSpec("raw_z", ColumnType.BYTES));
+    private static final int C_PROJECT_ID = 0;
+    private static final int C_TS = 1;
+    private static final int C_SOURCE = 2;
+    private static final int C_RAW_Z = 16;
+
+    private final Path dir;
+    private final int rowGroupRows;
+    /**
+     * 分区名 → 已发布的冷分区
+     */
+    private final NavigableMap<String, ArchivedPartition> partitions = new ConcurrentSkipListMap<>();
+
+    /**
+     * 打开 (或创建) 冷存储目录并加载已发布的分区
+     *
+     * @param dir          冷存储根目录
+     * @param rowGroupRows 每个行组的行数
+     */
+    public ColdSnapshotStore(Path dir, int rowGroupRows) {
+        this.dir = dir.resolve(TABLE);
+        this.rowGroupRows = rowGroupRows;
+        try {
+            Files.createDirectories(this.dir);
+            try (Stream<Path> files = Files.list(this.dir)) {
+                for (Path file : files.toList()) {
+                    String name = file.getFileName().toString();
+                    if (name.endsWith(TMP_SUFFIX)) {
+                        Files.delete(file);
+                        log.warn("[冷存储] 丢弃未发布的导出文件 {}", file);
+                    } else if (name.endsWith(SUFFIX)) {
+                        register(name.substring(0, name.length() - SUFFIX.length()), file);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new AppException("打开快照冷存储失败: " + dir, e);
+        }
+        log.info("[冷存储] 已打开快照冷存储 {}, 分区 {}", this.dir, partitions.keySet());
+    }
+
+    // =========================== 导出 ===========================
+
+    /**
+     * 开始导出一个分区; 同一分区已发布时拒绝
+     *
+     * @param partition 分区名
+     * @return 导出器, 调用方按 (project_id, ts, source) 升序追加行后发布
+     */
+    public Export beginExport(String partition) {
+        if (partitions.containsKey(partition))
+            throw AppException.of("冷存储已存在分区: " + partition);
+        return new Export(partition);
+    }
+
+    /**
+     * 单个分区的导出器
+     */
+    public final class Export implements Closeable {
+        private final String partition;
+        private final Path tmp;
+        private final ColumnarFileWriter writer;
+        private long minTs = Long.MAX_VALUE;
+        private long maxTs = Long.MIN_VALUE;
+        private boolean published;
+
+        private Export(String partition) {
+            this.partition = partition;
+            this.tmp = dir.resolve(partition + TMP_SUFFIX);
+            this.writer = new ColumnarFileWriter(tmp, COLUMNS, rowGroupRows);
+        }
+
+        /**
+         * 追加一行快照, raw 未压缩时在此压缩为 raw_z
+         */
+        public void append(ProjectSnapshotPO po) {
+            long ts = po.getTs().toEpochMilli();
+            minTs = Math.min(minTs, ts);
+            maxTs = Math.max(maxTs, ts);
+            byte[] rawZ = po.getRawZ();
+            if (rawZ == null && po.getRaw() != null)
+                rawZ = CompressUtils.mysqlCompress(po.getRaw().getBytes(StandardCharsets.UTF_8));
+            writer.append(po.getProjectId(), ts, po.getSource(), po.getId(),
+                    po.getValidUntil() == null ? null : po.getValidUntil().toEpochMilli(),
+                    po.getDataVer(), po.getVisibility(), po.getEquity(), po.getFollowers(), po.getPositionsOpen(),
+                    po.getFeesDaily(), po.getPnlDaily(), po.getAumUsd(), po.getWinRatio(), po.getPnlRatio90d(),
+                    po.getPnl90dUsd(), rawZ);
+        }
+
+        public long rows() {
+            return writer.rows();
+        }
+
+        /**
+         * 写出文件尾, 刷盘后原子重命名并开放查询
+         *
+         * @return 发布的行数
+         */
+        public long publish() {
+            writer.putMeta(META_MIN_TS, Long.toString(minTs));
+            writer.putMeta(META_MAX_TS, Long.toString(maxTs));
+            writer.finish();
+            try {
+                writer.close();
+                Path target = dir.resolve(partition + SUFFIX);
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+                register(partition, target);
+            } catch (IOException e) {
+                throw new AppException("发布冷分区失败: " + partition, e);
+            }
+            published = true;
+            log.info("[冷存储] 分区 {} 已发布, {} 行", partition, writer.rows());
+            return writer.rows();
+        }
+
+        /**
+         * 未发布时关闭并删除临时文件
+         */
+        @Override
+        public void close() throws IOException {
+            if (published)
+                return;
+            writer.close();
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * 删除一个已发布的冷分区 (导出后源分区又有写入, 需要重新导出)
+     * <p>新的查询立即看不到该分区; 文件立即删除 (已打开的通道仍可读), 以便同名分区重新导出, 读取器由最后一个进行中的扫描关闭</p>
+     *
+     * @param partition 分区名
+     */
+    public void discard(String partition) {
+        ArchivedPartition archived = partitions.remove(partition);
+        if (archived == null)
+            return;
+        try {
+            Files.deleteIfExists(archived.reader().path());
+        } catch (IOException e) {
+            throw new AppException("删除冷分区失败: " + partition, e);
+        } finally {
+            archived.release();
+        }
+        log.warn("[冷存储] 分区 {} 已删除, 等待重新导出", partition);
+    }
+
+    // =========================== 查询 ===========================
+
+    /**
+     * @return 分区是否已发布到冷存储
+     */
+    public boolean contains(String partition) {
+        return partitions.containsKey(partition);
+    }
+
+    /**
+     * @return 冷分区的行数, 不存在返回 -1
+     */
+    public long rows(String partition) {
+        ArchivedPartition archived = partitions.get(partition);
+        return archived == null ? -1L : archived.reader().totalRows();
+    }
+
+    public Set<String> partitions() {
+        return partitions.keySet();
+    }
+
+    /**
+     * 查询单个项目在 [from, to) 内的快照行, 不含 raw
+     */
+    public List<ProjectSnapshotPO> findRange(long projectId, String source, Instant from, Instant to) {
+        List<ProjectSnapshotPO> result = new ArrayList<>();
+        long fromMs = from.toEpochMilli();
+        long toMs = to.toEpochMilli();
+        for (ArchivedPartition archived : partitions.values())
+            if (archived.overlaps(fromMs, toMs))
+                scan(archived, projectId, projectId, id -> id == projectId, source, fromMs, toMs, false, result::add);
+        return result;
+    }
+
+    /**
+     * 批量查询一组项目在 [from, to) 内的快照行, 不含 raw
+     */
+    public List<ProjectSnapshotPO> findWindow(Collection<Long> projectIds, String source, Instant from, Instant to) {
+        List<ProjectSnapshotPO> result = new ArrayList<>();
+        if (projectIds.isEmpty())
+            return result;
+        long fromMs = from.toEpochMilli();
+        long toMs = to.toEpochMilli();
+        Set<Long> ids = new HashSet<>(projectIds);
+        long minId = ids.stream().mapToLong(Long::longValue).min().orElse(0L);
+        long maxId = ids.stream().mapToLong(Long::longValue).max().orElse(0L);
+        for (ArchivedPartition archived : partitions.values())
+            if (archived.overlaps(fromMs, toMs))
+                scan(archived, minId, maxId, ids::contains, source, fromMs, toMs, false, result::add);
+        return result;
+    }
+
+    /**
+     * 批量查询每个项目在 [since, before) 内的最后一行快照, 不含 raw; 从最新的冷分区向前查找, 全部项目命中后停止
+     *
+     * @param since 回查下界, 为 <code>null</code> 表示不限
+     */
+    public Map<Long, ProjectSnapshotPO> findLastBefore(Collection<Long> projectIds, String source, Instant before, Instant since) {
+        Map<Long, ProjectSnapshotPO> result = new HashMap<>();
+        if (projectIds.isEmpty())
+            return result;
+        long beforeMs = before.toEpochMilli();
+        long sinceMs = since == null ? Long.MIN_VALUE : since.toEpochMilli();
+        Set<Long> pending = new HashSet<>(projectIds);
+        List<ArchivedPartition> newestFirst = new ArrayList<>(partitions.values());
+        newestFirst.sort((a, b) -> Long.compare(b.maxTs(), a.maxTs()));
+        for (ArchivedPartition archived : newestFirst) {
+            if (pending.isEmpty())
+                break;
+            if (!archived.overlaps(sinceMs, beforeMs))
+                continue;
+            long minId = pending.stream().mapToLong(Long::longValue).min().orElse(0L);
+            long maxId = pending.stream().mapToLong(Long::longValue).max().orElse(0L);
+            Map<Long, ProjectSnapshotPO> found = new HashMap<>();
+            scan(archived, minId, maxId, pending::contains, source, sinceMs, beforeMs, false, po -> found.merge(po.getProjectId(), po,
+                    (a, b) -> a.getTs().isAfter(b.getTs()) ? a : b));
+            result.putAll(found);
+            pending.removeAll(found.keySet());
+        }
+        return result;
+    }
+
+    /**
+     * 按唯一键查询冷分区中的原文 (raw_z)
+     */
+    public ProjectSnapshotPO findRaw(long projectId, String source, Instant ts) {
+        long tsMs = ts.toEpochMilli();
+        ProjectSnapshotPO[] hit = new ProjectSnapshotPO[1];
+        for (ArchivedPartition archived : partitions.values())
+            if (archived.overlaps(tsMs, tsMs + 1))
+                scan(archived, projectId, projectId, id -> id == projectId, source, tsMs, tsMs + 1, true, po -> hit[0] = po);
+        return hit[0];
+    }
+
+    /**
+     * 关闭全部冷分区; 进行中的扫描结束后才真正关闭其读取器
+     */
+    @Override
+    public void close() {
+        for (String partition : partitions.keySet()) {
+            ArchivedPartition archived = partitions.remove(partition);
+            if (archived != null)
+                archived.release();
+        }
+    }
+
+    // =========================== 内部 ===========================
+
+    private void register(String partition, Path file) {
+        ColumnarFileReader reader = new ColumnarFileReader(file);
+        String min = reader.meta(META_MIN_TS);
+        String max = reader.meta(META_MAX_TS);
+        partitions.put(partition, new ArchivedPartition(partition, reader,
+                min == null ? Long.MIN_VALUE : Long.parseLong(min), max == null ? Long.MAX_VALUE : Long.parseLong(max)));
+    }
+
+    /**
+     * 扫描一个冷分区, 按 project_id / ts 的行组 min / max 裁剪
+     *
+     * @param minId    目标项目主键下界
+     * @param maxId    目标项目主键上界
+     * @param idFilter 项目过滤
+     * @param fromMs   ts 下界 (包含)
+     * @param toMs     ts 上界 (不包含)
+     * @param withRaw  是否解码 raw_z
+     */
+    private static void scan(ArchivedPartition archived, long minId, long maxId, LongPredicate idFilter, String source,
+                             long fromMs, long toMs, boolean withRaw, Consumer<ProjectSnapshotPO> consumer) {
+        // 分区已被删除且读取器已关闭: 按不存在处理
+        if (!archived.acquire())
+            return;
+        try {
+            scan(archived.reader(), minId, maxId, idFilter, source, fromMs, toMs, withRaw, consumer);
+        } finally {
+            archived.release();
+        }
+    }
+
+    private static void scan(ColumnarFileReader reader, long minId, long maxId, LongPredicate idFilter, String source,
+                             long fromMs, long toMs, boolean withRaw, Consumer<ProjectSnapshotPO> consumer) {
+        for (int g = 0; g < reader.rowGroups(); g++) {
+            if (reader.max(g, C_PROJECT_ID) < minId || reader.min(g, C_PROJECT_ID) > maxId)
+                continue;
+            if (reader.max(g, C_TS) < fromMs || reader.min(g, C_TS) >= toMs)
+                continue;
+            ColumnChunk ids = reader.read(g, C_PROJECT_ID);
+            ColumnChunk tss = reader.read(g, C_TS);
+            ColumnChunk sources = reader.read(g, C_SOURCE);
+            List<Integer> hits = new ArrayList<>();
+            for (int i = 0; i < ids.rows(); i++) {
+                long ts = tss.getLong(i);
+                if (ts >= fromMs && ts < toMs && idFilter.test(ids.getLong(i)) && source.equals(sources.getString(i)))
+                    hits.add(i);
+            }
+            if (hits.isEmpty())
+                continue;
+            ColumnChunk[] chunks = new ColumnChunk[COLUMNS.size()];
+            for (int c = C_SOURCE + 1; c < COLUMNS.size(); c++)
+                if (c != C_RAW_Z || withRaw)
+                    chunks[c] = reader.read(g, c);
+            for (int i : hits) {
+                Long validUntil = chunks[4].getLongOrNull(i);
+                consumer.accept(ProjectSnapshotPO.builder()
+                        .projectId(ids.getLong(i))
+                        .ts(Instant.ofEpochMilli(tss.getLong(i)))
+                        .source(sources.getString(i))
+                        .id(chunks[3].getLongOrNull(i))
+                        .validUntil(validUntil == null ? null : Instant.ofEpochMilli(validUntil))
+                        .dataVer(chunks[5].getString(i))
+                        .visibility(chunks[6].getString(i))
+                        .equity(chunks[7].getDecimal(i))
+                        .followers(chunks[8].getIntOrNull(i))
+                        .positionsOpen(chunks[9].getIntOrNull(i))
+                        .feesDaily(chunks[10].getDecimal(i))
+                        .pnlDaily(chunks[11].getDecimal(i))
+                        .aumUsd(chunks[12].getDecimal(i))
+                        .winRatio(chunks[13].getDecimal(i))
+                        .pnlRatio90d(chunks[14].getDecimal(i))
+                        .pnl90dUsd(chunks[15].getDecimal(i))
+                        .rawZ(withRaw ? chunks[C_RAW_Z].getBytes(i) : null)
+                        .build());
+            }
+        }
+    }
+
+    /**
+     * 已发布的冷分区, 读取器带引用计数
+     * <p>冷存储自身持有一个引用, 摘除 (删除 / 关闭) 时释放; 每次扫描前后各获取 / 释放一次, 计数归零时关闭读取器</p>
+     */
+    private static final class ArchivedPartition {
+
+        private final String name;
+        private final ColumnarFileReader reader;
+        /**
+         * 最早 / 最晚的 ts (毫秒)
+         */
+        private final long minTs;
+        private final long maxTs;
+        private final AtomicInteger refs = new AtomicInteger(1);
+
+        ArchivedPartition(String name, ColumnarFileReader reader, long minTs, long maxTs) {
+            this.name = name;
+            this.reader = reader;
+            this.minTs = minTs;
+            this.maxTs = maxTs;
+        }
+
+        ColumnarFileReader reader() {
+            return reader;
+        }
+
+        long maxTs() {
+            return maxTs;
+        }
+
+        /**
+         * @return 是否与 [fromMs, toMs) 有交集
+         */
+        boolean overlaps(long fromMs, long toMs) {
+            return minTs < toMs && maxTs >= fromMs;
+        }
+
+        /**
+         * 获取一个引用
+         *
+         * @return 读取器已关闭时返回 false
+         */
+        boolean acquire() {
+            while (true) {
+                int current = refs.get();
+                if (current <= 0)
+                    return false;
+                if (refs.compareAndSet(current, current + 1))
+                    return true;
+            }
+        }
+
+        /**
+         * 释放一个引用, 最后一个引用释放时关闭读取器
+         */
+        void release() {
+            if (refs.decrementAndGet() != 0)
+                return;
+            try {
+                reader.close();
+            } catch (IOException e) {
+                log.warn("[冷存储] 关闭冷分区 {} 的读取器失败: {}", name, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package xin.eason.smartfollow.infrastructure.archive;
+
+import java.math.BigDecimal;
+import java.util.BitSet;
+
+/**
+ * 解码后的一个列块 (一个行组中的一列), 按类型只填充对应的数组
+ */
+public final class ColumnChunk {
+
+    private final ColumnType type;
+    private final int rows;
+    private final BitSet nulls;
+    private final long[] longs;
+    private final BigDecimal[] decimals;
+    private final String[] strings;
+    private final byte[][] bytes;
+
+    ColumnChunk(ColumnType type, int rows, BitSet nulls, long[] longs, BigDecimal[] decimals, String[] strings, byte[][] bytes) {
+        this.type = type;
+        this.rows = rows;
+        this.nulls = nulls;
+        this.longs = longs;
+        this.decimals = decimals;
+        this.strings = strings;
+        this.bytes = bytes;
+    }
+
+    public ColumnType type() {
+        return type;
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public boolean isNull(int row) {
+        return nulls.get(row);
+    }
+
+    /**
+     * @return LONG / INT 列的值, 空值返回 0
+     */
+    public long getLong(int row) {
+        return longs[row];
+    }
+
+    public Long getLongOrNull(int row) {
+        return nulls.get(row) ? null : longs[row];
+    }
+
+    public Integer getIntOrNull(int row) {
+        return nulls.get(row) ? null : (int) longs[row];
+    }
+
+    public BigDecimal getDecimal(int row) {
+        return decimals[row];
+    }
+
+    public String getString(int row) {
+        return strings[row];
+    }
+
+    public byte[] getBytes(int row) {
+        return bytes[row];
+    }
+}
@@ -0,0 +1,212 @@
+package xin.eason.smartfollow.infrastructure.archive;
+
+import xin.eason.smartfollow.types.exceptions.AppException;
+import xin.eason.smartfollow.types.utils.CompressUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 列块编解码, 编码格式见 {@link ColumnType}
+ */
+final class ColumnCodec {
+
+    private ColumnCodec() {
+    }
+
+    /**
+     * 编码后的列块
+     *
+     * @param payload   压缩后的列块 (MySQL COMPRESS 格式)
+     * @param nullCount 空值数量
+     * @param min       最小值 (LONG / INT 为数值, DECIMAL 为 double 位模式, 全为空时为 0)
+     * @param max       最大值, 同上
+     */
+    record Encoded(byte[] payload, int nullCount, long min, long max) {
+    }
+
+    static Encoded encode(ColumnType type, Object[] values, int rows) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(rows * 4 + 16);
+        byte[] bitmap = new byte[(rows + 7) >>> 3];
+        int nullCount = 0;
+        for (int i = 0; i < rows; i++)
+            if (values[i] == null) {
+                bitmap[i >>> 3] |= (byte) (1 << (i & 7));
+                nullCount++;
+            }
+        out.writeBytes(bitmap);
+
+        long min = 0L;
+        long max = 0L;
+        boolean first = true;
+        switch (type) {
+            case LONG -> {
+                long prev = 0L;
+                for (int i = 0; i < rows; i++) {
+                    if (values[i] == null)
+                        continue;
+                    long v = ((Number) values[i]).longValue();
+                    writeVarLong(out, zigzag(v - prev));
+                    prev = v;
+                    if (first || v < min)
+                        min = v;
+                    if (first || v > max)
+                        max = v;
+                    first = false;
+                }
+            }
+            case INT -> {
+                for (int i = 0; i < rows; i++) {
+                    if (values[i] == null)
+                        continue;
+                    long v = ((Number) values[i]).longValue();
+                    writeVarLong(out, zigzag(v));
+                    if (first || v < min)
+                        min = v;
+                    if (first || v > max)
+                        max = v;
+                    first = false;
+                }
+            }
+            case DECIMAL -> {
+                double dMin = 0D;
+                double dMax = 0D;
+                for (int i = 0; i < rows; i++) {
+                    if (values[i] == null)
+                        continue;
+                    BigDecimal v = (BigDecimal) values[i];
+                    writeVarLong(out, zigzag(v.scale()));
+                    writeBytes(out, v.unscaledValue().toByteArray());
+                    double d = v.doubleValue();
+                    if (first || d < dMin)
+                        dMin = d;
+                    if (first || d > dMax)
+                        dMax = d;
+                    first = false;
+                }
+                min = Double.doubleToLongBits(dMin);
+                max = Double.doubleToLongBits(dMax);
+            }
+            case STRING -> {
+                Map<String, Integer> dict = new LinkedHashMap<>();
+                for (int i = 0; i < rows; i++)
+                    if (values[i] != null)
+                        dict.putIfAbsent((String) values[i], dict.size());
+                writeVarLong(out, dict.size());
+                for (String s : dict.keySet())
+                    writeBytes(out, s.getBytes(StandardCharsets.UTF_8));
+                for (int i = 0; i < rows; i++)
+                    if (values[i] != null)
+                        writeVarLong(out, dict.get((String) values[i]));
+            }
+            case BYTES -> {
+                for (int i = 0; i < rows; i++)
+                    if (values[i] != null)
+                        writeBytes(out, (byte[]) values[i]);
+            }
+        }
+        return new Encoded(CompressUtils.mysqlCompress(out.toByteArray()), nullCount, min, max);
+    }
+
+    static ColumnChunk decode(ColumnType type, byte[] payload, int rows) {
+        ByteBuffer in = ByteBuffer.wrap(CompressUtils.mysqlUncompress(payload));
+        byte[] bitmap = new byte[(rows + 7) >>> 3];
+        in.get(bitmap);
+        BitSet nulls = BitSet.valueOf(bitmap);
+        long[] longs = null;
+        BigDecimal[] decimals = null;
+        String[] strings = null;
+        byte[][] bytes = null;
+        switch (type) {
+            case LONG -> {
+                longs = new long[rows];
+                long prev = 0L;
+                for (int i = 0; i < rows; i++) {
+                    if (nulls.get(i))
+                        continue;
+                    prev += unzigzag(readVarLong(in));
+                    longs[i] = prev;
+                }
+            }
+            case INT -> {
+                longs = new long[rows];
+                for (int i = 0; i < rows; i++)
+                    if (!nulls.get(i))
+                        longs[i] = unzigzag(readVarLong(in));
+            }
+            case DECIMAL -> {
+                decimals = new BigDecimal[rows];
+                for (int i = 0; i < rows; i++) {
+                    if (nulls.get(i))
+                        continue;
+                    int scale = (int) unzigzag(readVarLong(in));
+                    decimals[i] = new BigDecimal(new BigInteger(readBytes(in)), scale);
+                }
+            }
+            case STRING -> {
+                String[] dict = new String[(int) readVarLong(in)];
+                for (int i = 0; i < dict.length; i++)
+                    dict[i] = new String(readBytes(in), StandardCharsets.UTF_8);
+                strings = new String[rows];
+                for (int i = 0; i < rows; i++)
+                    if (!nulls.get(i))
+                        strings[i] = dict[(int) readVarLong(in)];
+            }
+            case BYTES -> {
+                bytes = new byte[rows][];
+                for (int i = 0; i < rows; i++)
+                    if (!nulls.get(i))
+                        bytes[i] = readBytes(in);
+            }
+        }
+        if (in.hasRemaining())
+            throw AppException.of("列块格式错误: 解码后剩余 " + in.remaining() + " 字节");
+        return new ColumnChunk(type, rows, nulls, longs, decimals, strings, bytes);
+    }
+
+    // ===== 变长整数 =====
+
+    private static long zigzag(long v) {
+        return (v << 1) ^ (v >> 63);
+    }
+
+    private static long unzigzag(long v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long v) {
+        while ((v & ~0x7FL) != 0) {
+            out.write((int) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.write((int) v);
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long result = 0L;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+                return result;
+        }
+        throw AppException.of("列块格式错误: 变长整数超过 10 字节");
+    }
+
+    private static void writeBytes(ByteArrayOutputStream out, byte[] bytes) {
+        writeVarLong(out, bytes.length);
+        out.writeBytes(bytes);
+    }
+
+    private static byte[] readBytes(ByteBuffer in) {
+        byte[] bytes = new byte[(int) readVarLong(in)];
+        in.get(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,10 @@
+package xin.eason.smartfollow.infrastructure.archive;
+
+/**
+ * 列存文件的列定义
+ *
+ * @param name 列名
+ * @param type 列类型
+ */
+public record ColumnSpec(String name, ColumnType type) {
+}
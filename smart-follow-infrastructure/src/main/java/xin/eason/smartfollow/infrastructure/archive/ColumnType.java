@@ -0,0 +1,23 @@
+package xin.eason.smartfollow.infrastructure.archive;
+
+/**
+ * 列存文件的列类型及其编码方式
+ * <ul>
+ *     <li><code>LONG</code>: 与上一个非空值的差做 zigzag 变长编码, 适合已排序的主键 / 时间戳</li>
+ *     <li><code>INT</code>: zigzag 变长编码</li>
+ *     <li><code>DECIMAL</code>: scale + 非标度值的补码字节</li>
+ *     <li><code>STRING</code>: 字典编码, 列块内先写字典再写下标, 适合来源 / 可见性等低基数列</li>
+ *     <li><code>BYTES</code>: 长度 + 原始字节</li>
+ * </ul>
+ * 每个列块先写空值位图, 再写非空值, 最后整体 zlib 压缩。
+ */
+public enum ColumnType {
+    LONG, INT, DECIMAL, STRING, BYTES;
+
+    /**
+     * @return 列块统计中是否记录 min / max (DECIMAL 以 double 位模式记录)
+     */
+    public boolean hasStats() {
+        return this == LONG || this == INT || this == DECIMAL;
+    }
+}
@@ -0,0 +1,208 @@
+package xin.eason.smartfollow.infrastructure.archive;
+
+import xin.eason.smartfollow.types.exceptions.AppException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * 列存文件读取器 (格式见 {@link ColumnarFileWriter})
+ * <p>打开时只读取文件尾目录; 列块按需用定位读取 (positional read) 加载并解码, 可多线程并发读取</p>
+ */
+public class ColumnarFileReader implements Closeable {
+
+    private final Path path;
+    private final FileChannel channel;
+    private final List<ColumnSpec> columns;
+    private final Map<String, Integer> columnIndex = new HashMap<>();
+    private final Map<String, String> meta;
+    private final int[] groupRows;
+    private final ColumnarFileWriter.ChunkEntry[][] chunks;
+    private final long totalRows;
+
+    /**
+     * 打开列存文件并加载目录
+     *
+     * @param path 文件路径
+     */
+    public ColumnarFileReader(Path path) {
+        this.path = path;
+        try {
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+            long size = channel.size();
+            if (size < 20)
+                throw AppException.of("列存文件长度不足: " + path);
+            ByteBuffer head = readAt(0L, 8);
+            ByteBuffer tail = readAt(size - 12, 12);
+            long footerStart = tail.getLong();
+            if (head.getInt() != ColumnarFileWriter.MAGIC || tail.getInt() != ColumnarFileWriter.MAGIC)
+                throw AppException.of("列存文件魔数不匹配: " + path);
+            if (head.getInt() != ColumnarFileWriter.VERSION)
+                throw AppException.of("不支持的列存文件版本: " + path);
+            ByteBuffer footer = readAt(footerStart, (int) (size - 12 - footerStart));
+
+            int columnCount = footer.getInt();
+            List<ColumnSpec> specs = new ArrayList<>(columnCount);
+            for (int c = 0; c < columnCount; c++) {
+                ColumnType type = ColumnType.values()[footer.get()];
+                String name = readString(footer);
+                specs.add(new ColumnSpec(name, type));
+                columnIndex.put(name, c);
+            }
+            int metaCount = footer.getInt();
+            Map<String, String> metaMap = new LinkedHashMap<>();
+            for (int i = 0; i < metaCount; i++)
+                metaMap.put(readString(footer), readString(footer));
+            int groupCount = footer.getInt();
+            int[] rowsByGroup = new int[groupCount];
+            ColumnarFileWriter.ChunkEntry[][] entries = new ColumnarFileWriter.ChunkEntry[groupCount][columnCount];
+            long rows = 0L;
+            for (int g = 0; g < groupCount; g++) {
+                rowsByGroup[g] = footer.getInt();
+                rows += rowsByGroup[g];
+                for (int c = 0; c < columnCount; c++)
+                    entries[g][c] = new ColumnarFileWriter.ChunkEntry(footer.getLong(), footer.getInt(), footer.getInt(),
+                            footer.getInt(), footer.getLong(), footer.getLong());
+            }
+
+            this.columns = List.copyOf(specs);
+            this.meta = Collections.unmodifiableMap(metaMap);
+            this.groupRows = rowsByGroup;
+            this.chunks = entries;
+            this.totalRows = rows;
+        } catch (IOException e) {
+            throw new AppException("打开列存文件失败: " + path, e);
+        }
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    public List<ColumnSpec> columns() {
+        return columns;
+    }
+
+    /**
+     * @param name 列名
+     * @return 列下标
+     */
+    public int column(String name) {
+        Integer index = columnIndex.get(name);
+        if (index == null)
+            throw AppException.of("列存文件 " + path.getFileName() + " 不存在列: " + name);
+        return index;
+    }
+
+    public String meta(String key) {
+        return meta.get(key);
+    }
+
+    public int rowGroups() {
+        return groupRows.length;
+    }
+
+    public int rows(int group) {
+        return groupRows[group];
+    }
+
+    public long totalRows() {
+        return totalRows;
+    }
+
+    /**
+     * @return 列块最小值 (LONG / INT 列), 列块全为空时为 0
+     */
+    public long min(int group, int column) {
+        return chunks[group][column].min();
+    }
+
+    /**
+     * @return 列块最大值 (LONG / INT 列), 列块全为空时为 0
+     */
+    public long max(int group, int column) {
+        return chunks[group][column].max();
+    }
+
+    /**
+     * @return DECIMAL 列块的最小值 (double 近似)
+     */
+    public double minDecimal(int group, int column) {
+        return Double.longBitsToDouble(chunks[group][column].min());
+    }
+
+    /**
+     * @return DECIMAL 列块的最大值 (double 近似)
+     */
+    public double maxDecimal(int group, int column) {
+        return Double.longBitsToDouble(chunks[group][column].max());
+    }
+
+    public int nullCount(int group, int column) {
+        return chunks[group][column].nullCount();
+    }
+
+    /**
+     * 读取并解码一个列块
+     *
+     * @param group  行组下标
+     * @param column 列下标
+     * @return 解码后的列块
+     */
+    public ColumnChunk read(int group, int column) {
+        ColumnarFileWriter.ChunkEntry entry = chunks[group][column];
+        byte[] payload = new byte[entry.length()];
+        try {
+            ByteBuffer buf = ByteBuffer.wrap(payload);
+            long pos = entry.offset();
+            while (buf.hasRemaining()) {
+                int n = channel.read(buf, pos);
+                if (n < 0)
+                    throw AppException.of("列存文件被截断: " + path);
+                pos += n;
+            }
+        } catch (IOException e) {
+            throw new AppException("读取列存文件失败: " + path, e);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        if ((int) crc.getValue() != entry.crc())
+            throw AppException.of("列块校验失败: " + path.getFileName() + ", group=" + group + ", column=" + columns.get(column).name());
+        return ColumnCodec.decode(columns.get(column).type(), payload, groupRows[group]);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private ByteBuffer readAt(long position, int length) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(length);
+        long pos = position;
+        while (buf.hasRemaining()) {
+            int n = channel.read(buf, pos);
+            if (n < 0)
+                throw AppException.of("列存文件被截断: " + path);
+            pos += n;
+        }
+        return buf.flip();
+    }
+
+    private static String readString(ByteBuffer buf) {
+        byte[] bytes = new byte[buf.getShort() & 0xFFFF];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,206 @@
+package xin.eason.smartfollow.infrastructure.archive;
+
+import xin.eason.smartfollow.types.exceptions.AppException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * 列存文件写入器 (只追加, 单线程使用)
+ * <p>
+ * 文件结构:
+ * <ul>
+ *     <li>文件头 <code>[magic:int][version:int]</code></li>
+ *     <li>若干行组, 每个行组按列依次写入压缩后的列块</li>
+ *     <li>文件尾目录: 列定义; 元数据键值对; 每个行组的行数, 以及每个列块的 <code>(offset, length, crc32, nullCount, min, max)</code></li>
+ *     <li>结尾 <code>[footerOffset:long][magic:int]</code>, 读取时从文件末尾定位目录</li>
+ * </ul>
+ * 写入顺序即读取顺序; 调用方按主键排序写入, 行组的 min / max 才能有效裁剪。
+ */
+public class ColumnarFileWriter implements Closeable {
+
+    /**
+     * 文件魔数 ('SFCA')
+     */
+    static final int MAGIC = 0x53464341;
+    static final int VERSION = 1;
+
+    private final FileChannel channel;
+    private final List<ColumnSpec> columns;
+    private final int rowGroupRows;
+    private final Map<String, String> meta = new LinkedHashMap<>();
+    /**
+     * 当前行组的缓冲, [列][行]
+     */
+    private final Object[][] buffer;
+    private final List<GroupEntry> groups = new ArrayList<>();
+    private int buffered;
+    private long position;
+    private long totalRows;
+    private long footerStart;
+    private boolean finished;
+
+    /**
+     * 创建 (覆盖) 一个列存文件
+     *
+     * @param path         文件路径
+     * @param columns      列定义
+     * @param rowGroupRows 每个行组的行数
+     */
+    public ColumnarFileWriter(Path path, List<ColumnSpec> columns, int rowGroupRows) {
+        if (columns == null || columns.isEmpty())
+            throw AppException.of("columns 不能为空");
+        if (rowGroupRows <= 0)
+            throw AppException.of("rowGroupRows 必须大于 0");
+        this.columns = List.copyOf(columns);
+        this.rowGroupRows = rowGroupRows;
+        this.buffer = new Object[columns.size()][rowGroupRows];
+        try {
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE);
+            write(ByteBuffer.allocate(8).putInt(MAGIC).putInt(VERSION).flip());
+        } catch (IOException e) {
+            throw new AppException("创建列存文件失败: " + path, e);
+        }
+    }
+
+    /**
+     * 追加一行, 值的顺序与类型需与列定义一致 (LONG / INT 为 {@link Number}, DECIMAL 为 BigDecimal, STRING 为 String, BYTES 为 byte[]), 空值传 <code>null</code>
+     *
+     * @param values 一行的值
+     */
+    public void append(Object... values) {
+        if (values.length != columns.size())
+            throw AppException.of("列数不一致: 期望 " + columns.size() + ", 实际 " + values.length);
+        for (int c = 0; c < values.length; c++)
+            buffer[c][buffered] = values[c];
+        buffered++;
+        totalRows++;
+        if (buffered == rowGroupRows)
+            flushGroup();
+    }
+
+    /**
+     * 写入一个元数据键值对 (写入文件尾)
+     */
+    public void putMeta(String key, String value) {
+        meta.put(key, value);
+    }
+
+    /**
+     * @return 已追加的行数
+     */
+    public long rows() {
+        return totalRows;
+    }
+
+    /**
+     * 写出剩余行组与文件尾目录并刷盘
+     */
+    public void finish() {
+        if (finished)
+            return;
+        flushGroup();
+        try {
+            write(ByteBuffer.wrap(encodeFooter()));
+            write(ByteBuffer.allocate(12).putLong(footerStart).putInt(MAGIC).flip());
+            channel.force(true);
+        } catch (IOException e) {
+            throw new AppException("写入列存文件尾失败", e);
+        }
+        finished = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // ===== 内部 =====
+
+    private void flushGroup() {
+        if (buffered == 0)
+            return;
+        ChunkEntry[] chunks = new ChunkEntry[columns.size()];
+        try {
+            for (int c = 0; c < columns.size(); c++) {
+                ColumnCodec.Encoded encoded = ColumnCodec.encode(columns.get(c).type(), buffer[c], buffered);
+                CRC32 crc = new CRC32();
+                crc.update(encoded.payload());
+                chunks[c] = new ChunkEntry(position, encoded.payload().length, (int) crc.getValue(),
+                        encoded.nullCount(), encoded.min(), encoded.max());
+                write(ByteBuffer.wrap(encoded.payload()));
+                Arrays.fill(buffer[c], 0, buffered, null);
+            }
+        } catch (IOException e) {
+            throw new AppException("写入列存行组失败", e);
+        }
+        groups.add(new GroupEntry(buffered, chunks));
+        buffered = 0;
+    }
+
+    private byte[] encodeFooter() {
+        footerStart = position;
+        int size = 4 + groups.size() * (4 + columns.size() * 36) + 4;
+        List<byte[]> names = new ArrayList<>(columns.size());
+        for (ColumnSpec column : columns) {
+            byte[] name = column.name().getBytes(StandardCharsets.UTF_8);
+            names.add(name);
+            size += 1 + 2 + name.length;
+        }
+        List<byte[]> metaBytes = new ArrayList<>(meta.size() * 2);
+        for (Map.Entry<String, String> entry : meta.entrySet()) {
+            metaBytes.add(entry.getKey().getBytes(StandardCharsets.UTF_8));
+            metaBytes.add(entry.getValue().getBytes(StandardCharsets.UTF_8));
+        }
+        size += 4;
+        for (byte[] b : metaBytes)
+            size += 2 + b.length;
+
+        ByteBuffer buf = ByteBuffer.allocate(size);
+        buf.putInt(columns.size());
+        for (int c = 0; c < columns.size(); c++) {
+            buf.put((byte) columns.get(c).type().ordinal());
+            buf.putShort((short) names.get(c).length).put(names.get(c));
+        }
+        buf.putInt(meta.size());
+        for (byte[] b : metaBytes)
+            buf.putShort((short) b.length).put(b);
+        buf.putInt(groups.size());
+        for (GroupEntry group : groups) {
+            buf.putInt(group.rows());
+            for (ChunkEntry chunk : group.chunks())
+                buf.putLong(chunk.offset()).putInt(chunk.length()).putInt(chunk.crc())
+                        .putInt(chunk.nullCount()).putLong(chunk.min()).putLong(chunk.max());
+        }
+        return buf.array();
+    }
+
+    private void write(ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining())
+            position += channel.write(buf, position);
+    }
+
+    /**
+     * 列块目录项
+     */
+    record ChunkEntry(long offset, int length, int crc, int nullCount, long min, long max) {
+    }
+
+    /**
+     * 行组目录项
+     */
+    record GroupEntry(int rows, ChunkEntry[] chunks) {
+    }
+}
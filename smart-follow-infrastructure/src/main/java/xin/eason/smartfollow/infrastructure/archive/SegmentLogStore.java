@@ -0,0 +1,570 @@
+package xin.eason.smartfollow.infrastructure.archive;
+
+import lombok.extern.slf4j.Slf4j;
+import xin.eason.smartfollow.types.exceptions.AppException;
+import xin.eason.smartfollow.types.utils.HashUtils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * 追加写分段日志存储 (原始响应归档的底层实现)
+ * <p>
+ * 目录结构:
+ * <ul>
+ *     <li><code>segment-00000000.log</code>: 响应体分段文件, 记录格式 <code>[magic:int][len:int][crc32:int][body]</code>, 写满后滚动到下一个分段</li>
+ *     <li><code>content.idx</code>: 内容索引, <code>sha256 → (segment, offset, length)</code>, 相同内容只写一次</li>
+ *     <li><code>crawl.idx</code>: 抓取索引, <code>crawlLogId → (startedAt, exchange, target, sha256)</code></li>
+ * </ul>
+ * 两个索引文件的记录格式均为 <code>[len:int][payload][crc32:int]</code>, 启动时顺序加载, 遇到残缺记录则截断 (崩溃恢复)。
+ * 写入串行化 (synchronized), 读取通过内存映射 (mmap) 无锁进行。
+ */
+@Slf4j
+public class SegmentLogStore implements Closeable {
+
+    /**
+     * 分段记录魔数 ('SFRL')
+     */
+    private static final int RECORD_MAGIC = 0x5346524C;
+    /**
+     * 分段记录头长度: magic + len + crc32
+     */
+    private static final int RECORD_HEADER_BYTES = 12;
+    /**
+     * SHA-256 摘要字节数
+     */
+    private static final int DIGEST_BYTES = 32;
+    /**
+     * 单个分段文件的最大字节数上限 (MappedByteBuffer 单次映射不能超过 2GB)
+     */
+    private static final long MAX_SEGMENT_BYTES = 1L << 30;
+
+    /**
+     * 归档根目录
+     */
+    private final Path dir;
+    /**
+     * 单个分段文件的滚动阈值 (字节)
+     */
+    private final long segmentSizeBytes;
+    /**
+     * 每次追加后是否强制刷盘
+     */
+    private final boolean fsync;
+
+    /**
+     * 内容索引: 摘要 → 响应体位置
+     */
+    private final Map<DigestKey, Location> contentIndex = new ConcurrentHashMap<>();
+    /**
+     * 抓取索引: crawlLogId → 抓取条目 (有序, 用于按时间顺序回放)
+     */
+    private final ConcurrentSkipListMap<Long, CrawlEntry> crawlIndex = new ConcurrentSkipListMap<>();
+    /**
+     * 分段编号 → 只读内存映射 (当前活跃分段会在读越界时重新映射)
+     */
+    private final Map<Integer, MappedByteBuffer> mappings = new ConcurrentHashMap<>();
+
+    private final FileChannel contentIdxChannel;
+    private final FileChannel crawlIdxChannel;
+    private FileChannel activeChannel;
+    private int activeSegment;
+    private long activePosition;
+
+    /**
+     * 去重命中次数 (响应体已存在, 仅追加抓取索引)
+     */
+    private long dedupHits;
+
+    /**
+     * 打开 (或创建) 一个分段日志存储, 并从索引文件恢复内存索引
+     *
+     * @param dir              归档根目录
+     * @param segmentSizeBytes 单个分段文件的滚动阈值 (字节)
+     * @param fsync            每次追加后是否强制刷盘
+     */
+    public SegmentLogStore(Path dir, long segmentSizeBytes, boolean fsync) {
+        if (segmentSizeBytes <= RECORD_HEADER_BYTES || segmentSizeBytes > MAX_SEGMENT_BYTES)
+            throw AppException.of("segmentSizeBytes 必须在 (" + RECORD_HEADER_BYTES + ", " + MAX_SEGMENT_BYTES + "] 范围内");
+        this.dir = dir;
+        this.segmentSizeBytes = segmentSizeBytes;
+        this.fsync = fsync;
+        try {
+            Files.createDirectories(dir);
+            this.activeSegment = lastSegmentNo();
+            this.contentIdxChannel = openForAppend(dir.resolve("content.idx"));
+            this.crawlIdxChannel = openForAppend(dir.resolve("crawl.idx"));
+            long activeEnd = loadContentIndex();
+            loadCrawlIndex();
+            openActiveSegment(activeEnd);
+        } catch (IOException e) {
+            throw new AppException("打开原始响应归档失败: " + dir, e);
+        }
+        log.info("[归档] 已打开原始响应归档 {}, 分段数={}, 内容数={}, 抓取记录数={}",
+                dir, activeSegment + 1, contentIndex.size(), crawlIndex.size());
+    }
+
+    // =========================== 写入 ===========================
+
+    /**
+     * 追加一条抓取记录及其响应体, 相同响应体 (SHA-256 相同) 只写入一次
+     *
+     * @param crawlLogId  抓取日志 ID
+     * @param startedAtMs 请求开始时间 (毫秒)
+     * @param exchange    交易所名称
+     * @param target      规范化抓取目标
+     * @param body        响应体原文
+     * @return 如果写入了新的响应体返回 <code>true</code>, 响应体已存在或抓取记录已存在返回 <code>false</code>
+     */
+    public synchronized boolean append(long crawlLogId, long startedAtMs, String exchange, String target, byte[] body) {
+        if (crawlIndex.containsKey(crawlLogId))
+            return false;
+        byte[] digest = HashUtils.sha256(body);
+        DigestKey key = DigestKey.of(digest);
+        boolean newContent = !contentIndex.containsKey(key);
+        try {
+            if (newContent) {
+                Location location = appendBody(body);
+                writeIndexRecord(contentIdxChannel, encodeContent(digest, location));
+                contentIndex.put(key, location);
+            } else {
+                dedupHits++;
+            }
+            CrawlEntry entry = new CrawlEntry(crawlLogId, startedAtMs, nullToEmpty(exchange), nullToEmpty(target), key);
+            writeIndexRecord(crawlIdxChannel, encodeCrawl(entry));
+            crawlIndex.put(crawlLogId, entry);
+        } catch (IOException e) {
+            throw new AppException("写入原始响应归档失败, crawlLogId=" + crawlLogId, e);
+        }
+        return newContent;
+    }
+
+    // =========================== 读取 ===========================
+
+    /**
+     * 按 crawlLogId 查找抓取条目
+     *
+     * @param crawlLogId 抓取日志 ID
+     * @return 抓取条目, 不存在返回 <code>null</code>
+     */
+    public CrawlEntry findEntry(long crawlLogId) {
+        return crawlIndex.get(crawlLogId);
+    }
+
+    /**
+     * 读取响应体的只读视图 (零拷贝, 直接指向内存映射区域)
+     *
+     * @param digest 响应体摘要
+     * @return 只读视图, 不存在返回 <code>null</code>
+     */
+    public ByteBuffer readBodyView(DigestKey digest) {
+        Location location = contentIndex.get(digest);
+        if (location == null)
+            return null;
+        MappedByteBuffer mapped = mapping(location.segment(), location.offset() + location.length());
+        ByteBuffer view = mapped.slice((int) location.offset(), location.length()).asReadOnlyBuffer();
+        int expectedCrc = mapped.getInt((int) location.offset() - 4);
+        CRC32 crc = new CRC32();
+        crc.update(view.duplicate());
+        if ((int) crc.getValue() != expectedCrc)
+            throw AppException.of("归档响应体校验失败, segment=" + location.segment() + ", offset=" + location.offset());
+        return view;
+    }
+
+    /**
+     * 读取响应体并拷贝为字节数组
+     *
+     * @param digest 响应体摘要
+     * @return 响应体字节数组, 不存在返回 <code>null</code>
+     */
+    public byte[] readBody(DigestKey digest) {
+        ByteBuffer view = readBodyView(digest);
+        if (view == null)
+            return null;
+        byte[] bytes = new byte[view.remaining()];
+        view.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * 按 crawlLogId 升序遍历抓取条目
+     *
+     * @param consumer 抓取条目消费者
+     */
+    public void forEachEntry(Consumer<CrawlEntry> consumer) {
+        crawlIndex.values().forEach(consumer);
+    }
+
+    /**
+     * @return 已归档的不同响应体数量
+     */
+    public int contentCount() {
+        return contentIndex.size();
+    }
+
+    /**
+     * @return 已归档的抓取记录数量
+     */
+    public int crawlCount() {
+        return crawlIndex.size();
+    }
+
+    /**
+     * @return 自启动以来的去重命中次数
+     */
+    public synchronized long dedupHits() {
+        return dedupHits;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        mappings.clear();
+        if (activeChannel != null)
+            activeChannel.close();
+        contentIdxChannel.close();
+        crawlIdxChannel.close();
+    }
+
+    // =========================== 内部: 分段文件 ===========================
+
+    /**
+     * 将响应体追加到活跃分段, 写满则滚动到新分段
+     *
+     * @param body 响应体
+     * @return 响应体位置
+     */
+    private Location appendBody(byte[] body) throws IOException {
+        long recordBytes = RECORD_HEADER_BYTES + (long) body.length;
+        if (recordBytes > segmentSizeBytes)
+            throw AppException.of("响应体过大 (" + body.length + " 字节), 超过单个分段上限 " + segmentSizeBytes);
+        if (activePosition + recordBytes > segmentSizeBytes)
+            rollSegment();
+
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_BYTES)
+                .putInt(RECORD_MAGIC)
+                .putInt(body.length)
+                .putInt((int) crc.getValue())
+                .flip();
+        long start = activePosition;
+        writeFully(activeChannel, new ByteBuffer[]{header, ByteBuffer.wrap(body)}, start);
+        if (fsync)
+            activeChannel.force(false);
+        activePosition = start + recordBytes;
+        return new Location(activeSegment, start + RECORD_HEADER_BYTES, body.length);
+    }
+
+    /**
+     * 封存当前活跃分段并打开下一个分段
+     */
+    private void rollSegment() throws IOException {
+        activeChannel.force(false);
+        activeChannel.close();
+        // 已封存分段大小不再变化, 重新映射一次即可长期复用
+        mappings.remove(activeSegment);
+        activeSegment++;
+        openActiveSegment(0L);
+        log.info("[归档] 分段滚动, 新的活跃分段编号={}", activeSegment);
+    }
+
+    /**
+     * 打开活跃分段, 并把写入位置截断到最后一条已索引记录的末尾 (丢弃崩溃遗留的孤儿数据)
+     *
+     * @param end 最后一条已索引记录的末尾位置
+     */
+    private void openActiveSegment(long end) throws IOException {
+        activeChannel = FileChannel.open(segmentPath(activeSegment),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (activeChannel.size() > end)
+            activeChannel.truncate(end);
+        activePosition = end;
+    }
+
+    /**
+     * 获取分段的内存映射, 若映射范围不足 (活跃分段有新写入) 则重新映射
+     *
+     * @param segment  分段编号
+     * @param required 需要可读的最小字节数
+     * @return 内存映射
+     */
+    private MappedByteBuffer mapping(int segment, long required) {
+        MappedByteBuffer mapped = mappings.get(segment);
+        if (mapped != null && mapped.capacity() >= required)
+            return mapped;
+        synchronized (mappings) {
+            mapped = mappings.get(segment);
+            if (mapped != null && mapped.capacity() >= required)
+                return mapped;
+            try (FileChannel channel = FileChannel.open(segmentPath(segment), StandardOpenOption.READ)) {
+                mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            } catch (IOException e) {
+                throw new AppException("映射归档分段失败, segment=" + segment, e);
+            }
+            if (mapped.capacity() < required)
+                throw AppException.of("归档分段长度不足, segment=" + segment + ", required=" + required);
+            mappings.put(segment, mapped);
+            return mapped;
+        }
+    }
+
+    /**
+     * @return 目录中最大的分段编号, 没有分段时返回 0
+     */
+    private int lastSegmentNo() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(p -> p.getFileName().toString())
+                    .filter(n -> n.startsWith("segment-") && n.endsWith(".log"))
+                    .mapToInt(n -> Integer.parseInt(n.substring("segment-".length(), n.length() - ".log".length())))
+                    .max()
+                    .orElse(0);
+        }
+    }
+
+    private Path segmentPath(int segment) {
+        return dir.resolve(String.format("segment-%08d.log", segment));
+    }
+
+    // =========================== 内部: 索引文件 ===========================
+
+    /**
+     * 加载内容索引, 丢弃指向分段外的记录并截断残缺尾部
+     *
+     * @return 活跃分段中最后一条已索引记录的末尾位置
+     */
+    private long loadContentIndex() throws IOException {
+        long activeEnd = 0L;
+        long[] segmentSizes = new long[activeSegment + 1];
+        for (int i = 0; i <= activeSegment; i++)
+            segmentSizes[i] = Files.exists(segmentPath(i)) ? Files.size(segmentPath(i)) : 0L;
+
+        List<byte[]> payloads = new ArrayList<>();
+        long validEnd = readIndexRecords(contentIdxChannel, payloads);
+        long position = 0L;
+        for (byte[] payload : payloads) {
+            ByteBuffer buf = ByteBuffer.wrap(payload);
+            byte[] digest = new byte[DIGEST_BYTES];
+            buf.get(digest);
+            Location location = new Location(buf.getInt(), buf.getLong(), buf.getInt());
+            if (location.segment() > activeSegment || location.offset() + location.length() > segmentSizes[location.segment()]) {
+                // 分段数据未落盘而索引已落盘, 从此处开始的索引全部作废
+                validEnd = position;
+                log.warn("[归档] 内容索引指向不存在的分段数据, 从位置 {} 处截断", position);
+                break;
+            }
+            contentIndex.put(DigestKey.of(digest), location);
+            if (location.segment() == activeSegment)
+                activeEnd = Math.max(activeEnd, location.offset() + location.length());
+            position += 8L + payload.length;
+        }
+        truncateIfNeeded(contentIdxChannel, validEnd);
+        return activeEnd;
+    }
+
+    /**
+     * 加载抓取索引, 丢弃引用未知内容的记录并截断残缺尾部
+     */
+    private void loadCrawlIndex() throws IOException {
+        List<byte[]> payloads = new ArrayList<>();
+        long validEnd = readIndexRecords(crawlIdxChannel, payloads);
+        long position = 0L;
+        for (byte[] payload : payloads) {
+            CrawlEntry entry = decodeCrawl(payload);
+            if (!contentIndex.containsKey(entry.digest())) {
+                validEnd = position;
+                log.warn("[归档] 抓取索引引用了不存在的内容, 从位置 {} 处截断", position);
+                break;
+            }
+            crawlIndex.put(entry.crawlLogId(), entry);
+            position += 8L + payload.length;
+        }
+        truncateIfNeeded(crawlIdxChannel, validEnd);
+    }
+
+    /**
+     * 顺序读取索引文件中的完整记录
+     *
+     * @param channel  索引文件通道
+     * @param payloads 读取到的记录载荷
+     * @return 最后一条完整记录的末尾位置
+     */
+    private static long readIndexRecords(FileChannel channel, List<byte[]> payloads) throws IOException {
+        long size = channel.size();
+        if (size == 0)
+            return 0L;
+        MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        long position = 0L;
+        CRC32 crc = new CRC32();
+        while (position + 8 <= size) {
+            int len = mapped.getInt((int) position);
+            if (len <= 0 || position + 8 + len > size)
+                break;
+            byte[] payload = new byte[len];
+            mapped.get((int) position + 4, payload);
+            crc.reset();
+            crc.update(payload);
+            if ((int) crc.getValue() != mapped.getInt((int) (position + 4 + len)))
+                break;
+            payloads.add(payload);
+            position += 8L + len;
+        }
+        return position;
+    }
+
+    /**
+     * 追加一条索引记录 <code>[len][payload][crc32]</code>
+     */
+    private void writeIndexRecord(FileChannel channel, byte[] payload) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer buf = ByteBuffer.allocate(payload.length + 8)
+                .putInt(payload.length)
+                .put(payload)
+                .putInt((int) crc.getValue())
+                .flip();
+        writeFully(channel, new ByteBuffer[]{buf}, channel.size());
+        if (fsync)
+            channel.force(false);
+    }
+
+    private static byte[] encodeContent(byte[] digest, Location location) {
+        return ByteBuffer.allocate(DIGEST_BYTES + 16)
+                .put(digest)
+                .putInt(location.segment())
+                .putLong(location.offset())
+                .putInt(location.length())
+                .array();
+    }
+
+    private static byte[] encodeCrawl(CrawlEntry entry) {
+        byte[] exchange = entry.exchange().getBytes(StandardCharsets.UTF_8);
+        byte[] target = entry.target().getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.allocate(16 + DIGEST_BYTES + 4 + exchange.length + target.length)
+                .putLong(entry.crawlLogId())
+                .putLong(entry.startedAtMs())
+                .put(entry.digest().toBytes())
+                .putShort((short) exchange.length)
+                .put(exchange)
+                .putShort((short) target.length)
+                .put(target)
+                .array();
+    }
+
+    private static CrawlEntry decodeCrawl(byte[] payload) {
+        ByteBuffer buf = ByteBuffer.wrap(payload);
+        long crawlLogId = buf.getLong();
+        long startedAtMs = buf.getLong();
+        byte[] digest = new byte[DIGEST_BYTES];
+        buf.get(digest);
+        byte[] exchange = new byte[buf.getShort() & 0xFFFF];
+        buf.get(exchange);
+        byte[] target = new byte[buf.getShort() & 0xFFFF];
+        buf.get(target);
+        return new CrawlEntry(crawlLogId, startedAtMs,
+                new String(exchange, StandardCharsets.UTF_8), new String(target, StandardCharsets.UTF_8), DigestKey.of(digest));
+    }
+
+    // =========================== 内部: IO 工具 ===========================
+
+    private static FileChannel openForAppend(Path path) throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private static void truncateIfNeeded(FileChannel channel, long validEnd) throws IOException {
+        if (channel.size() > validEnd)
+            channel.truncate(validEnd);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer[] buffers, long position) throws IOException {
+        long pos = position;
+        for (ByteBuffer buffer : buffers)
+            while (buffer.hasRemaining())
+                pos += channel.write(buffer, pos);
+    }
+
+    private static String nullToEmpty(String s) {
+        return s == null ? "" : s;
+    }
+
+    // =========================== 内部类型 ===========================
+
+    /**
+     * 响应体在分段文件中的位置
+     *
+     * @param segment 分段编号
+     * @param offset  响应体起始偏移 (不含记录头)
+     * @param length  响应体字节数
+     */
+    public record Location(int segment, long offset, int length) {
+    }
+
+    /**
+     * 抓取索引条目
+     *
+     * @param crawlLogId  抓取日志 ID
+     * @param startedAtMs 请求开始时间 (毫秒)
+     * @param exchange    交易所名称
+     * @param target      规范化抓取目标
+     * @param digest      响应体摘要
+     */
+    public record CrawlEntry(long crawlLogId, long startedAtMs, String exchange, String target, DigestKey digest) {
+    }
+
+    /**
+     * SHA-256 摘要键, 以 4 个 long 存储, 避免以十六进制字符串作为 Map 键
+     */
+    public record DigestKey(long a, long b, long c, long d) {
+
+        /**
+         * 从 32 字节摘要创建键
+         *
+         * @param digest 32 字节摘要
+         * @return 摘要键
+         */
+        public static DigestKey of(byte[] digest) {
+            if (digest.length != DIGEST_BYTES)
+                throw AppException.of("摘要长度必须为 32 字节");
+            ByteBuffer buf = ByteBuffer.wrap(digest);
+            return new DigestKey(buf.getLong(), buf.getLong(), buf.getLong(), buf.getLong());
+        }
+
+        /**
+         * 从 64 位十六进制摘要创建键
+         *
+         * @param hex 64 位十六进制摘要
+         * @return 摘要键
+         */
+        public static DigestKey ofHex(String hex) {
+            return of(HashUtils.parseSha256Hex(hex));
+        }
+
+        /**
+         * @return 32 字节摘要
+         */
+        public byte[] toBytes() {
+            return ByteBuffer.allocate(DIGEST_BYTES).putLong(a).putLong(b).putLong(c).putLong(d).array();
+        }
+
+        /**
+         * @return 64 位小写十六进制摘要
+         */
+        public String toHex() {
+            return HashUtils.toHex(toBytes());
+        }
+    }
+}
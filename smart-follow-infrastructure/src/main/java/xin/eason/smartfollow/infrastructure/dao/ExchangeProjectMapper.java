@@ -0,0 +1,41 @@
+package xin.eason.smartfollow.infrastructure.dao;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import xin.eason.smartfollow.infrastructure.dao.po.ProjectPO;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 项目主表 Mapper (exchange_project)
+ */
+@Mapper
+public interface ExchangeProjectMapper extends BaseMapper<ProjectPO> {
+
+    /**
+     * 多行 {@code INSERT ... ON DUPLICATE KEY UPDATE}, 冲突时只更新 {@code columns} 中的列
+     *
+     * @param rows    待写入的行
+     * @param columns 冲突时需要更新的列名 (如 {@code last_seen}, {@code extra})
+     * @return 受影响行数 (MySQL 口径: 插入 1, 更新 2, 未变化 0)
+     */
+    int upsertBatch(@Param("rows") List<ProjectPO> rows, @Param("columns") Set<String> columns);
+
+    /**
+     * 按业务键批量查询项目主档 (不含 extra 正文)
+     *
+     * @param keys 只需填充 exchange 与 leaderExternalId 的查询键
+     * @return 命中的项目
+     */
+    List<ProjectPO> selectByKeys(@Param("keys") List<ProjectPO> keys);
+
+    /**
+     * 按主键批量更新观察状态, last_seen 取库内值与新值的较大者, 空值字段保持不变
+     *
+     * @param rows 只需填充 id, lastSeen, lastVisibility
+     * @return 受影响行数
+     */
+    int updateSeenBatch(@Param("rows") List<ProjectPO> rows);
+}
@@ -0,0 +1,100 @@
+package xin.eason.smartfollow.infrastructure.dao;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import xin.eason.smartfollow.infrastructure.dao.po.ProjectSnapshotPO;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 项目时序快照 Mapper (exchange_project_snapshot)
+ */
+@Mapper
+public interface ExchangeProjectSnapshotMapper extends BaseMapper<ProjectSnapshotPO> {
+
+    /**
+     * 多行 {@code INSERT IGNORE}, 依赖 uk_proj_ts_src 幂等, 重复行被忽略
+     *
+     * @param rows 待写入的行
+     * @return 实际插入的行数 (被忽略的行不计入)
+     */
+    int insertIgnoreBatch(@Param("rows") List<ProjectSnapshotPO> rows);
+
+    /**
+     * 批量延长 valid_until, 按唯一键 (project_id, ts, source) 关联派生表更新
+     *
+     * @param rows 只需填充 projectId, ts, source, validUntil
+     * @return 受影响行数
+     */
+    int extendValidUntilBatch(@Param("rows") List<ProjectSnapshotPO> rows);
+
+    /**
+     * 批量查询多个项目在 since 之后的最后一行快照
+     */
+    List<ProjectSnapshotPO> selectLatest(@Param("projectIds") Collection<Long> projectIds,
+                                         @Param("source") String source,
+                                         @Param("since") Instant since);
+
+    /**
+     * 按时间范围做 keyset 分页查询快照行 (升序), 不加载 raw
+     * <p>首页 ts 在 [from, to) 内; 后续页以上一页最后一行的 ts 为开区间下界, 始终带 ts 上下界以做分区裁剪</p>
+     */
+    List<ProjectSnapshotPO> selectRangePage(@Param("projectId") long projectId,
+                                            @Param("source") String source,
+                                            @Param("from") Instant from,
+                                            @Param("inclusive") boolean inclusive,
+                                            @Param("to") Instant to,
+                                            @Param("limit") int limit);
+
+    /**
+     * 批量查询一组项目在 [from, to) 内的快照行, 按 (project_id, ts) 升序, 不加载 raw
+     */
+    List<ProjectSnapshotPO> selectWindow(@Param("projectIds") Collection<Long> projectIds,
+                                         @Param("source") String source,
+                                         @Param("from") Instant from,
+                                         @Param("to") Instant to);
+
+    /**
+     * 批量查询每个项目在 since 之后的最近 limit 行, 按 (project_id, ts) 升序, 不加载 raw
+     */
+    List<ProjectSnapshotPO> selectRecent(@Param("projectIds") Collection<Long> projectIds,
+                                         @Param("source") String source,
+                                         @Param("since") Instant since,
+                                         @Param("limit") int limit);
+
+    /**
+     * 批量查询每个项目在 [since, before) 内的最后一行快照, 不加载 raw
+     */
+    List<ProjectSnapshotPO> selectLastBeforeBatch(@Param("projectIds") Collection<Long> projectIds,
+                                                  @Param("source") String source,
+                                                  @Param("before") Instant before,
+                                                  @Param("since") Instant since);
+
+    /**
+     * 查询 [since, before) 内的最后一行快照, 不加载 raw
+     */
+    ProjectSnapshotPO selectLastBefore(@Param("projectId") long projectId,
+                                       @Param("source") String source,
+                                       @Param("before") Instant before,
+                                       @Param("since") Instant since);
+
+    /**
+     * 按 (project_id, ts, source) 做 keyset 分页读取归档表的全部列 (冷存储导出)
+     *
+     * @param table 分区交换出的归档表名, 拼接进 SQL, 调用方负责校验
+     * @param after 上一页最后一行, 首页传 <code>null</code>
+     */
+    List<ProjectSnapshotPO> selectArchivePage(@Param("table") String table,
+                                              @Param("after") ProjectSnapshotPO after,
+                                              @Param("limit") int limit);
+
+    /**
+     * 按唯一键查询原始快照 (raw / raw_z)
+     */
+    ProjectSnapshotPO selectRaw(@Param("projectId") long projectId,
+                                @Param("source") String source,
+                                @Param("ts") Instant ts);
+}
@@ -0,0 +1,79 @@
+package xin.eason.smartfollow.infrastructure.dao;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import xin.eason.smartfollow.infrastructure.dao.po.ProjectTradePO;
+import xin.eason.smartfollow.infrastructure.dao.po.TradeMetricInputPO;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * 项目仓位回合 Mapper (exchange_project_trade)
+ */
+@Mapper
+public interface ExchangeProjectTradeMapper extends BaseMapper<ProjectTradePO> {
+
+    /**
+     * 多行写入; 唯一键冲突时只推进非终态行的平仓字段与状态, 终态行保持不变
+     *
+     * @param rows 待写入的行
+     * @return 影响行数 (新插入计 1, 更新计 2, 无变化计 0)
+     */
+    int upsertBatch(@Param("rows") List<ProjectTradePO> rows);
+
+    /**
+     * 按 trade_uid 或 external_trade_id 查询项目的终态回合身份 (只返回 trade_uid, source, external_trade_id)
+     *
+     * @param projectId        项目主键
+     * @param tradeUids        待确认的 trade_uid
+     * @param externalTradeIds 待确认的外部成交 ID, 可为空集合
+     * @return 命中的行
+     */
+    List<ProjectTradePO> selectFinalByIds(@Param("projectId") long projectId,
+                                          @Param("tradeUids") List<String> tradeUids,
+                                          @Param("externalTradeIds") List<String> externalTradeIds);
+
+    /**
+     * 查询项目在 [from, to) 内开仓的终态回合身份 (只返回 trade_uid, source, external_trade_id)
+     *
+     * @param projectId 项目主键
+     * @param from      开仓时间下界 (包含)
+     * @param to        开仓时间上界 (不包含)
+     * @return 命中的行
+     */
+    List<ProjectTradePO> selectFinalInRange(@Param("projectId") long projectId,
+                                            @Param("from") Instant from,
+                                            @Param("to") Instant to);
+
+    /**
+     * 按主键分页查询 [from, to) 内开仓的已平仓回合 (只返回指标计算所需的列)
+     *
+     * @param from    开仓时间下界 (包含)
+     * @param to      开仓时间上界 (不包含)
+     * @param afterId 上一页最后一行的主键
+     * @param limit   每页行数
+     * @return 按主键升序的行
+     */
+    List<TradeMetricInputPO> selectClosedForMetrics(@Param("from") Instant from,
+                                                    @Param("to") Instant to,
+                                                    @Param("afterId") long afterId,
+                                                    @Param("limit") int limit);
+
+    /**
+     * 按主键分页查询 [from, to) 内开仓、在 algoVer 下缺少指标或输入指纹已变化的已平仓回合
+     *
+     * @param from    开仓时间下界 (包含)
+     * @param to      开仓时间上界 (不包含)
+     * @param algoVer 目标算法版本
+     * @param afterId 上一页最后一行的主键
+     * @param limit   每页行数
+     * @return 按主键升序的行
+     */
+    List<TradeMetricInputPO> selectMetricsPending(@Param("from") Instant from,
+                                                  @Param("to") Instant to,
+                                                  @Param("algoVer") String algoVer,
+                                                  @Param("afterId") long afterId,
+                                                  @Param("limit") int limit);
+}
@@ -0,0 +1,23 @@
+package xin.eason.smartfollow.infrastructure.dao;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import xin.eason.smartfollow.infrastructure.dao.po.TradeMetricsPO;
+
+import java.util.List;
+
+/**
+ * 回合行情指标 Mapper (exchange_project_trade_metrics)
+ */
+@Mapper
+public interface ExchangeProjectTradeMetricsMapper extends BaseMapper<TradeMetricsPO> {
+
+    /**
+     * 多行写入; (trade_id, algo_ver) 冲突时覆盖计算结果
+     *
+     * @param rows 待写入的行
+     * @return 影响行数 (新插入计 1, 更新计 2, 无变化计 0)
+     */
+    int upsertBatch(@Param("rows") List<TradeMetricsPO> rows);
+}
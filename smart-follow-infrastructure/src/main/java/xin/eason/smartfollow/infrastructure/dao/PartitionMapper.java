@@ -0,0 +1,75 @@
+package xin.eason.smartfollow.infrastructure.dao;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import xin.eason.smartfollow.infrastructure.dao.po.PartitionPO;
+
+import java.util.List;
+
+/**
+ * 分区元数据与分区 DDL Mapper
+ * <p>DDL 不支持占位符, 表名 / 分区名 / 上界以文本拼接, 调用方负责校验</p>
+ */
+@Mapper
+public interface PartitionMapper {
+
+    /**
+     * 查询表的全部分区, 按分区顺序
+     */
+    List<PartitionPO> selectPartitions(@Param("table") String table);
+
+    /**
+     * 查询当前库中表是否存在
+     */
+    boolean existsTable(@Param("table") String table);
+
+    /**
+     * 判断分区内是否至少有一行
+     */
+    boolean existsInPartition(@Param("table") String table, @Param("partition") String partition);
+
+    /**
+     * 精确统计分区行数
+     */
+    long countInPartition(@Param("table") String table, @Param("partition") String partition);
+
+    /**
+     * 精确统计表的行数
+     */
+    long countInTable(@Param("table") String table);
+
+    /**
+     * 判断表内是否至少有一行
+     */
+    boolean existsInTable(@Param("table") String table);
+
+    /**
+     * 把兜底分区 pMAX 拆分为若干月分区 + 新的 pMAX
+     *
+     * @param partitions 只需填充 partitionName, partitionDescription (形如 2025-12-01)
+     */
+    void reorganizeMax(@Param("table") String table, @Param("partitions") List<PartitionPO> partitions);
+
+    /**
+     * 对表加写锁, 之后的语句与 {@link #unlockTables} 必须在同一连接上执行
+     */
+    void lockTableWrite(@Param("table") String table);
+
+    void unlockTables();
+
+    void dropPartitions(@Param("table") String table, @Param("partitions") List<String> partitions);
+
+    /**
+     * 以源表结构创建归档表并去掉分区定义
+     */
+    void createTableLike(@Param("table") String table, @Param("source") String source);
+
+    void removePartitioning(@Param("table") String table);
+
+    void dropTable(@Param("table") String table);
+
+    /**
+     * 交换分区与归档表的数据
+     */
+    void exchangePartition(@Param("table") String table, @Param("partition") String partition, @Param("archive") String archive);
+}
@@ -0,0 +1,53 @@
+package xin.eason.smartfollow.infrastructure.dao;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import xin.eason.smartfollow.infrastructure.dao.po.SnapshotRollupPO;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 快照汇总桶 Mapper (exchange_project_snapshot_rollup)
+ */
+@Mapper
+public interface SnapshotRollupMapper extends BaseMapper<SnapshotRollupPO> {
+
+    /**
+     * 多行 upsert, 按主键 (project_id, source, resolution, bucket_ts) 整行覆盖
+     *
+     * @param rows 汇总桶
+     * @return 受影响行数
+     */
+    int upsertBatch(@Param("rows") List<SnapshotRollupPO> rows);
+
+    /**
+     * 批量查询一组项目在 [from, to) 内的汇总桶
+     */
+    List<SnapshotRollupPO> selectBuckets(@Param("projectIds") Collection<Long> projectIds,
+                                         @Param("source") String source,
+                                         @Param("resolution") String resolution,
+                                         @Param("from") Instant from,
+                                         @Param("to") Instant to);
+
+    /**
+     * 查询单个项目在 [from, to) 内的汇总桶, 按 bucket_ts 升序
+     */
+    List<SnapshotRollupPO> selectRange(@Param("projectId") long projectId,
+                                       @Param("source") String source,
+                                       @Param("resolution") String resolution,
+                                       @Param("from") Instant from,
+                                       @Param("to") Instant to);
+
+    /**
+     * 查询某分辨率最后一个桶的起点
+     */
+    Instant selectMaxBucket(@Param("resolution") String resolution);
+
+    /**
+     * 查询某分辨率第一个桶的起点
+     */
+    Instant selectMinBucket(@Param("resolution") String resolution);
+}
@@ -0,0 +1,51 @@
+package xin.eason.smartfollow.infrastructure.dao;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import xin.eason.smartfollow.infrastructure.dao.po.TombstonePO;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * 墓碑表 Mapper (tombstone)
+ */
+@Mapper
+public interface TombstoneMapper extends BaseMapper<TombstonePO> {
+
+    /**
+     * 多行 {@code INSERT IGNORE}, 同一 (project_id, fromTs) 已存在时忽略
+     *
+     * @param rows 待写入的行
+     * @return 实际插入的行数
+     */
+    int insertIgnoreBatch(@Param("rows") List<TombstonePO> rows);
+
+    /**
+     * 按主键批量写入 toTs, 只更新仍处于打开状态的行
+     *
+     * @param rows 只需填充 projectId, fromTs, toTs
+     * @return 实际关闭的行数
+     */
+    int closeBatch(@Param("rows") List<TombstonePO> rows);
+
+    /**
+     * 批量查询打开状态的墓碑
+     *
+     * @param projectIds 项目主键
+     * @return 打开状态的墓碑
+     */
+    List<TombstonePO> selectOpenByProjectIds(@Param("projectIds") List<Long> projectIds);
+
+    /**
+     * 按主键 (project_id, fromTs) 做 keyset 分页扫描全部墓碑
+     *
+     * @param afterProjectId 上一页最后一行的项目主键
+     * @param afterFromTs    上一页最后一行的 fromTs, 首页传 <code>null</code>
+     * @param limit          每页行数
+     * @return 墓碑, 按主键升序
+     */
+    List<TombstonePO> selectAllAfter(@Param("afterProjectId") long afterProjectId, @Param("afterFromTs") Instant afterFromTs,
+                                     @Param("limit") int limit);
+}
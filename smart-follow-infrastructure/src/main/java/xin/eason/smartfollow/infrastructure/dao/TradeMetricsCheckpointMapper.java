@@ -0,0 +1,31 @@
+package xin.eason.smartfollow.infrastructure.dao;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import xin.eason.smartfollow.infrastructure.dao.po.TradeMetricsCheckpointPO;
+
+import java.util.List;
+
+/**
+ * 行情指标重算检查点 Mapper (exchange_project_trade_metrics_checkpoint)
+ */
+@Mapper
+public interface TradeMetricsCheckpointMapper extends BaseMapper<TradeMetricsCheckpointPO> {
+
+    /**
+     * 查询算法版本的全部检查点 (只返回 chunk_start, pass)
+     *
+     * @param algoVer 算法版本
+     * @return 检查点
+     */
+    List<TradeMetricsCheckpointPO> selectByAlgoVer(@Param("algoVer") String algoVer);
+
+    /**
+     * 写入检查点, 按主键 (algo_ver, chunk_start) 整行覆盖
+     *
+     * @param row 检查点
+     * @return 受影响行数
+     */
+    int upsert(@Param("row") TradeMetricsCheckpointPO row);
+}
@@ -0,0 +1,32 @@
+package xin.eason.smartfollow.infrastructure.dao.po;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 分区元数据 (information_schema.PARTITIONS), 也用作分区 DDL 的参数
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PartitionPO {
+    /**
+     * 分区名
+     */
+    private String partitionName;
+    /**
+     * 分区上界描述, 如 <code>'2025-09-01'</code> 或 <code>MAXVALUE</code>
+     */
+    private String partitionDescription;
+    /**
+     * 行数 (统计估算值)
+     */
+    private Long tableRows;
+    /**
+     * 数据 + 索引占用字节数
+     */
+    private Long dataLength;
+}
@@ -0,0 +1,80 @@
+package xin.eason.smartfollow.infrastructure.dao.po;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * 项目主表持久化对象 (exchange_project)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@TableName("exchange_project")
+public class ProjectPO {
+    /**
+     * 主键ID
+     */
+    @TableId(type = IdType.AUTO)
+    private Long id;
+    /**
+     * 交易所标识 (OKX/BINANCE)
+     */
+    private String exchange;
+    /**
+     * 平台侧项目/领航员稳定外部ID
+     */
+    private String leaderExternalId;
+    /**
+     * 项目/领航员名称
+     */
+    private String name;
+    /**
+     * 运行状态
+     */
+    private String status;
+    /**
+     * 首次被系统发现时间
+     */
+    private Instant firstSeen;
+    /**
+     * 最近一次被看到时间
+     */
+    private Instant lastSeen;
+    /**
+     * 最近可见性 (VISIBLE/MISSING/HIDDEN)
+     */
+    private String lastVisibility;
+    /**
+     * 最小可复制保证金/成本 (USDT口径)
+     */
+    private BigDecimal minCopyCost;
+    /**
+     * 计价币
+     */
+    private String baseCurrency;
+    /**
+     * 数据质量分 (0~1)
+     */
+    private Float dataQualityScore;
+    /**
+     * 平台特有原始字段 (JSON)
+     */
+    private String extra;
+    /**
+     * extra 的 SHA-256 (十六进制)
+     */
+    private String extraHash;
+    /**
+     * 内容最后变化时间 (批量写入 SQL 显式维护, 仅推进 last_seen 时不刷新)
+     */
+    private Instant updatedAt;
+}
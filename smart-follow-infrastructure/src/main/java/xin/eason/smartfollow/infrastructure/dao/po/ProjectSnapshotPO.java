@@ -0,0 +1,99 @@
+package xin.eason.smartfollow.infrastructure.dao.po;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * 项目时序快照持久化对象 (exchange_project_snapshot)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@TableName("exchange_project_snapshot")
+public class ProjectSnapshotPO {
+    /**
+     * 主键ID
+     */
+    @TableId(type = IdType.AUTO)
+    private Long id;
+    /**
+     * 逻辑外键, 指向 exchange_project.id
+     */
+    private Long projectId;
+    /**
+     * 快照时间
+     */
+    private Instant ts;
+    /**
+     * 来源数据版本号
+     */
+    private String dataVer;
+    /**
+     * 快照来源 (OKX_RANK/OKX_DETAIL/COMPUTED)
+     */
+    private String source;
+    /**
+     * 可见性 (VISIBLE/MISSING/HIDDEN)
+     */
+    private String visibility;
+    /**
+     * 权益/AUM (USDT口径)
+     */
+    private BigDecimal equity;
+    /**
+     * 跟随人数
+     */
+    private Integer followers;
+    /**
+     * 持仓笔数
+     */
+    private Integer positionsOpen;
+    /**
+     * 当日费用
+     */
+    private BigDecimal feesDaily;
+    /**
+     * 当日 PnL
+     */
+    private BigDecimal pnlDaily;
+    /**
+     * 原始快照 JSON, 压缩存储时为空
+     */
+    private String raw;
+    /**
+     * 压缩后的原始快照 (MySQL COMPRESS 格式)
+     */
+    private byte[] rawZ;
+    /**
+     * 指标持续不变的最后一次观察时间
+     */
+    private Instant validUntil;
+    /**
+     * AUM(USDT), 入库时由应用写入
+     */
+    private BigDecimal aumUsd;
+    /**
+     * 胜率
+     */
+    private BigDecimal winRatio;
+    /**
+     * 近90日收益率
+     */
+    @TableField("pnl_ratio_90d")
+    private BigDecimal pnlRatio90d;
+    /**
+     * 近90日收益 (USDT)
+     */
+    @TableField("pnl_90d_usd")
+    private BigDecimal pnl90dUsd;
+}
@@ -0,0 +1,116 @@
+package xin.eason.smartfollow.infrastructure.dao.po;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * 项目仓位回合持久化对象 (exchange_project_trade)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@TableName("exchange_project_trade")
+public class ProjectTradePO {
+    /**
+     * 主键ID
+     */
+    @TableId(type = IdType.AUTO)
+    private Long id;
+    /**
+     * 逻辑外键, 指向 exchange_project.id
+     */
+    private Long projectId;
+    /**
+     * 系统内回合唯一ID, 无外部ID时为合成ID
+     */
+    private String tradeUid;
+    /**
+     * 交易标的
+     */
+    private String symbol;
+    /**
+     * 产品类型
+     */
+    private String instType;
+    /**
+     * 方向
+     */
+    private String side;
+    /**
+     * 订单类型
+     */
+    private String ordType;
+    /**
+     * 杠杆
+     */
+    private BigDecimal leverage;
+    /**
+     * 开仓时间
+     */
+    private Instant tsOpen;
+    /**
+     * 完全成交时间
+     */
+    private Instant tsFilled;
+    /**
+     * 平仓时间
+     */
+    private Instant tsClose;
+    /**
+     * 入场价格
+     */
+    private BigDecimal entryPrice;
+    /**
+     * 出场价格
+     */
+    private BigDecimal exitPrice;
+    /**
+     * 仓位 (恒正)
+     */
+    private BigDecimal qty;
+    /**
+     * 手续费
+     */
+    private BigDecimal fees;
+    /**
+     * 手续费币种
+     */
+    private String feeCcy;
+    /**
+     * 实现盈亏
+     */
+    private BigDecimal pnl;
+    /**
+     * PnL 计价币
+     */
+    private String pnlCcy;
+    /**
+     * 成交/持仓状态
+     */
+    private String status;
+    /**
+     * 来源
+     */
+    private String source;
+    /**
+     * 交易所侧成交ID
+     */
+    private String externalTradeId;
+    /**
+     * 交易所侧订单ID
+     */
+    private String externalOrderId;
+    /**
+     * 来源原文的 SHA-256
+     */
+    private String sourcePayloadHash;
+}
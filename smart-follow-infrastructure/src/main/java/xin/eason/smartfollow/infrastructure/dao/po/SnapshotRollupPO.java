@@ -0,0 +1,66 @@
+package xin.eason.smartfollow.infrastructure.dao.po;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * 快照汇总桶持久化对象 (exchange_project_snapshot_rollup)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@TableName("exchange_project_snapshot_rollup")
+public class SnapshotRollupPO {
+    /**
+     * 逻辑外键, 指向 exchange_project.id
+     */
+    private Long projectId;
+    /**
+     * 快照来源 (OKX_RANK/OKX_DETAIL/COMPUTED)
+     */
+    private String source;
+    /**
+     * 分辨率 (1h/1d)
+     */
+    private String resolution;
+    /**
+     * 桶起点
+     */
+    private Instant bucketTs;
+    /**
+     * 桶内有值的时长 (毫秒)
+     */
+    private Long coveredMs;
+    /**
+     * AUM(USDT): 桶内最后值 / 最小值 / 最大值 / 时间加权均值
+     */
+    private BigDecimal aumLast;
+    private BigDecimal aumMin;
+    private BigDecimal aumMax;
+    private BigDecimal aumAvg;
+    /**
+     * 跟随人数: 桶内最后值 / 最小值 / 最大值 / 时间加权均值
+     */
+    private Integer followersLast;
+    private Integer followersMin;
+    private Integer followersMax;
+    private BigDecimal followersAvg;
+    /**
+     * 近90日收益 (USDT): 桶内最后值 / 最小值 / 最大值 / 时间加权均值
+     */
+    private BigDecimal pnlLast;
+    private BigDecimal pnlMin;
+    private BigDecimal pnlMax;
+    private BigDecimal pnlAvg;
+    /**
+     * 更新时间
+     */
+    private Instant updatedAt;
+}
@@ -0,0 +1,51 @@
+package xin.eason.smartfollow.infrastructure.dao.po;
+
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * 墓碑持久化对象 (tombstone)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@TableName("tombstone")
+public class TombstonePO {
+    /**
+     * 逻辑外键, 指向 exchange_project.id
+     */
+    private Long projectId;
+    /**
+     * 开始不可见的时间
+     */
+    @TableField("fromTs")
+    private Instant fromTs;
+    /**
+     * 不可见状态结束时间, 为空表示仍处于不可见
+     */
+    @TableField("toTs")
+    private Instant toTs;
+    /**
+     * 消失前最后一次快照ID
+     */
+    private Long lastSnapshotId;
+    /**
+     * 原因代码
+     */
+    private String reasonCode;
+    /**
+     * 原因信息
+     */
+    private String reasonMsg;
+    /**
+     * 触发来源
+     */
+    private String detector;
+}
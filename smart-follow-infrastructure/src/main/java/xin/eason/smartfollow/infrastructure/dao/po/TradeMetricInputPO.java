@@ -0,0 +1,34 @@
+package xin.eason.smartfollow.infrastructure.dao.po;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * 行情指标计算读取的回合列 (exchange_project_trade 的投影, 附带输入字段指纹)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TradeMetricInputPO {
+    /**
+     * exchange_project_trade.id
+     */
+    private Long id;
+    private Long projectId;
+    private String symbol;
+    private String side;
+    private Instant tsOpen;
+    private Instant tsClose;
+    private BigDecimal entryPrice;
+    private BigDecimal qty;
+    /**
+     * 输入字段的 CRC32
+     */
+    private Long inputCrc;
+}
@@ -0,0 +1,56 @@
+package xin.eason.smartfollow.infrastructure.dao.po;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * 行情指标重算检查点持久化对象 (exchange_project_trade_metrics_checkpoint)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@TableName("exchange_project_trade_metrics_checkpoint")
+public class TradeMetricsCheckpointPO {
+    /**
+     * 算法版本
+     */
+    private String algoVer;
+    /**
+     * 分块起点 (包含)
+     */
+    private Instant chunkStart;
+    /**
+     * 分块终点 (不包含)
+     */
+    private Instant chunkEnd;
+    /**
+     * 完成该分块的轮次
+     */
+    private Integer pass;
+    /**
+     * 缺失或输入变化的回合数
+     */
+    private Integer trades;
+    /**
+     * 计算并写入的回合数
+     */
+    private Integer computed;
+    /**
+     * 无 K 线跳过的回合数
+     */
+    private Integer noBars;
+    /**
+     * 数据不合法跳过的回合数
+     */
+    private Integer failed;
+    /**
+     * 分块耗时 (毫秒)
+     */
+    private Long elapsedMs;
+}
@@ -0,0 +1,108 @@
+package xin.eason.smartfollow.infrastructure.dao.po;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * 回合行情指标持久化对象 (exchange_project_trade_metrics)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@TableName("exchange_project_trade_metrics")
+public class TradeMetricsPO {
+    /**
+     * 主键ID
+     */
+    @TableId(type = IdType.AUTO)
+    private Long id;
+    /**
+     * 逻辑外键, 指向 exchange_project_trade.id
+     */
+    private Long tradeId;
+    /**
+     * 项目主键 (冗余)
+     */
+    private Long projectId;
+    /**
+     * 开仓时间 (冗余, 与分区对齐)
+     */
+    private Instant tsOpen;
+    /**
+     * 指标来源, COMPUTED/BACKFILL/IMPORT 等
+     */
+    private String source;
+    /**
+     * 算法/口径版本
+     */
+    private String algoVer;
+    /**
+     * 行情粒度
+     */
+    private String barInterval;
+    /**
+     * 价格口径
+     */
+    private String priceSource;
+    /**
+     * 最大不利变动百分比
+     */
+    private BigDecimal maePct;
+    /**
+     * 最大有利变动百分比
+     */
+    private BigDecimal mfePct;
+    /**
+     * 最大不利变动金额
+     */
+    private BigDecimal maeUsd;
+    /**
+     * 最大有利变动金额
+     */
+    private BigDecimal mfeUsd;
+    /**
+     * 发生 MAE 的时间
+     */
+    private Instant maeTs;
+    /**
+     * 发生 MFE 的时间
+     */
+    private Instant mfeTs;
+    /**
+     * 滑点百分比
+     */
+    private BigDecimal slippagePct;
+    /**
+     * 滑点金额
+     */
+    private BigDecimal slippageUsd;
+    /**
+     * 区间最大回撤百分比
+     */
+    private BigDecimal maxDdPct;
+    /**
+     * 区间最大回升百分比
+     */
+    private BigDecimal maxRuPct;
+    /**
+     * 数据质量分 (0~1)
+     */
+    private Float qualityScore;
+    /**
+     * 计算上下文 (JSON)
+     */
+    private String extra;
+    /**
+     * 计算时回合输入字段的 CRC32
+     */
+    private Long inputCrc;
+}
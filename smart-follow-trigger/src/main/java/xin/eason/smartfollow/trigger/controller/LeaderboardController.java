@@ -0,0 +1,94 @@
+package xin.eason.smartfollow.trigger.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import xin.eason.smartfollow.api.ILeaderboardApi;
+import xin.eason.smartfollow.api.request.LeadTradersPageRequest;
+import xin.eason.smartfollow.api.response.LeadTradersPageResponse;
+import xin.eason.smartfollow.domain.ILeaderboardService;
+import xin.eason.smartfollow.domain.model.vo.leaderboard.LeaderboardQueryVO;
+import xin.eason.smartfollow.domain.model.vo.project.LeadTradersPageVO;
+import xin.eason.smartfollow.domain.model.vo.project.LeadTradersQuery;
+import xin.eason.smartfollow.trigger.controller.converter.ReadApiConverter;
+import xin.eason.smartfollow.types.utils.ETagUtils;
+
+import java.util.Optional;
+
+/**
+ * 榜单读接口
+ * <ul>
+ *     <li>先规范化并校验查询条件, 内存榜单无法回答的条件在任何缓存判断之前以 400 拒绝</li>
+ *     <li>ETag 只由产品类型与实际使用的 dataVer 构成, 在查询之前算出; 命中 {@code If-None-Match} 时不执行查询也不序列化</li>
+ *     <li>304 与 200 带相同的 Cache-Control, 客户端按同一策略重新验证</li>
+ *     <li>请求的 dataVer 已不在内存中时改用最新版本, 并通过 {@value #DATA_VER_FALLBACK_HEADER} 响应头告知客户端原请求版本</li>
+ * </ul>
+ */
+@RestController
+@RequestMapping("/api/v1/leaderboard")
+@RequiredArgsConstructor
+public class LeaderboardController implements ILeaderboardApi {
+
+    /**
+     * 请求的 dataVer 已过期而改用最新版本时附带的响应头, 值为原请求的 dataVer
+     */
+    public static final String DATA_VER_FALLBACK_HEADER = "X-Data-Ver-Fallback";
+    /**
+     * 200 与 304 共用的缓存策略: 可以缓存, 但每次使用前需用 ETag 重新验证
+     */
+    private static final CacheControl CACHE_CONTROL = CacheControl.noCache();
+
+    /**
+     * 内存榜单服务
+     */
+    private final ILeaderboardService leaderboardService;
+    /**
+     * 读接口 DTO 转换
+     */
+    private final ReadApiConverter converter;
+
+    @Override
+    @GetMapping("/lead-traders")
+    public ResponseEntity<LeadTradersPageResponse> queryLeadTraders(
+            LeadTradersPageRequest request,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        LeadTradersQuery query = converter.toQuery(request);
+        // 参数非法或内存榜单无法回答时抛出 IllegalParamException (400), 不会被 304 掩盖
+        LeaderboardQueryVO normalized = leaderboardService.validate(query);
+
+        String instType = normalized.instType();
+        Optional<String> latest = leaderboardService.latestDataVer(instType);
+        if (latest.isEmpty())
+            return ResponseEntity.notFound().build();
+        String requested = normalized.dataVer();
+        boolean fallback = requested != null && !leaderboardService.holdsDataVer(instType, requested);
+        String dataVer = requested == null || fallback ? latest.get() : requested;
+
+        HttpHeaders headers = new HttpHeaders();
+        if (fallback)
+            headers.set(DATA_VER_FALLBACK_HEADER, requested);
+        String etag = ETagUtils.strong("lb", instType, dataVer);
+        if (ETagUtils.matches(ifNoneMatch, etag))
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(headers).eTag(etag).cacheControl(CACHE_CONTROL).build();
+
+        // 固定版本后再查询; 期间版本被淘汰时以实际返回的版本重新生成 ETag, 保证响应体与 ETag 对应同一版本
+        query.setDataVer(dataVer);
+        Optional<LeadTradersPageVO> page = leaderboardService.query(query);
+        if (page.isEmpty())
+            return ResponseEntity.notFound().build();
+        LeadTradersPageVO result = page.get();
+        if (requested != null && !requested.equals(result.getDataVer()))
+            headers.set(DATA_VER_FALLBACK_HEADER, requested);
+        return ResponseEntity.ok()
+                .headers(headers)
+                .eTag(ETagUtils.strong("lb", instType, result.getDataVer()))
+                .cacheControl(CACHE_CONTROL)
+                .body(converter.toResponse(result));
+    }
+}
@@ -0,0 +1,132 @@
+package xin.eason.smartfollow.trigger.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import xin.eason.smartfollow.api.IProjectApi;
+import xin.eason.smartfollow.api.response.ProjectResponse;
+import xin.eason.smartfollow.api.response.SnapshotSeriesResponse;
+import xin.eason.smartfollow.domain.IProjectQueryService;
+import xin.eason.smartfollow.domain.ISnapshotQueryService;
+import xin.eason.smartfollow.domain.model.vo.observation.SeriesMetric;
+import xin.eason.smartfollow.domain.model.vo.observation.SnapshotSeriesVO;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectKey;
+import xin.eason.smartfollow.trigger.controller.converter.ReadApiConverter;
+import xin.eason.smartfollow.types.enums.Exchange;
+import xin.eason.smartfollow.types.enums.SnapshotSource;
+import xin.eason.smartfollow.types.exceptions.IllegalParamException;
+import xin.eason.smartfollow.types.utils.ETagUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * 项目主档读接口
+ * <p>先只读 updated_at 构造 ETag, 命中 {@code If-None-Match} 时不加载聚合也不序列化;
+ * 先取版本后取数据, 数据只会比 ETag 更新, 最坏情况是客户端下次多拉取一次</p>
+ * <p>updated_at 只在内容列 (名称, 状态, 可见性, extra 等) 变化时刷新, 写后缓冲只推进 last_seen 时不变;
+ * 因此响应中的 lastSeen 可能比缓存副本新, ETag 使用弱标签</p>
+ */
+@RestController
+@RequestMapping("/api/v1/project")
+@RequiredArgsConstructor
+public class ProjectController implements IProjectApi {
+
+    /**
+     * 曲线默认时间跨度
+     */
+    private static final Duration DEFAULT_SERIES_SPAN = Duration.ofDays(90);
+    /**
+     * 曲线默认 / 最大点数
+     */
+    private static final int DEFAULT_SERIES_POINTS = 500;
+    private static final int MAX_SERIES_POINTS = 5000;
+
+    /**
+     * 项目主档查询服务
+     */
+    private final IProjectQueryService projectQueryService;
+    /**
+     * 快照查询服务
+     */
+    private final ISnapshotQueryService snapshotQueryService;
+    /**
+     * 读接口 DTO 转换
+     */
+    private final ReadApiConverter converter;
+
+    @Override
+    @GetMapping("/{exchange}/{externalId}")
+    public ResponseEntity<ProjectResponse> queryProject(
+            @PathVariable("exchange") String exchange,
+            @PathVariable("externalId") String externalId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        ProjectKey key = ProjectKey.of(parseExchange(exchange), externalId);
+        Optional<Instant> lastModified = projectQueryService.lastModified(key);
+        if (lastModified.isEmpty())
+            return ResponseEntity.notFound().build();
+
+        String etag = ETagUtils.weak("p", key.asString(), lastModified.get().toEpochMilli());
+        if (ETagUtils.matches(ifNoneMatch, etag))
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+
+        return projectQueryService.findProject(key)
+                .map(p -> ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(converter.toResponse(p)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @Override
+    @GetMapping("/{exchange}/{externalId}/series")
+    public ResponseEntity<SnapshotSeriesResponse> querySeries(
+            @PathVariable("exchange") String exchange,
+            @PathVariable("externalId") String externalId,
+            @RequestParam(value = "source", required = false) String source,
+            @RequestParam(value = "metric", required = false) String metric,
+            @RequestParam(value = "from", required = false) Long from,
+            @RequestParam(value = "to", required = false) Long to,
+            @RequestParam(value = "points", required = false) Integer points) {
+        ProjectKey key = ProjectKey.of(parseExchange(exchange), externalId);
+        if (projectQueryService.lastModified(key).isEmpty())
+            return ResponseEntity.notFound().build();
+
+        Instant end = to == null ? Instant.now() : Instant.ofEpochMilli(to);
+        Instant start = from == null ? end.minus(DEFAULT_SERIES_SPAN) : Instant.ofEpochMilli(from);
+        if (!start.isBefore(end))
+            throw IllegalParamException.of("from 必须早于 to");
+        int target = points == null ? DEFAULT_SERIES_POINTS : points;
+        if (target < 3 || target > MAX_SERIES_POINTS)
+            throw IllegalParamException.of("points 必须在 3 ~ " + MAX_SERIES_POINTS + " 之间");
+
+        SnapshotSeriesVO series = snapshotQueryService.downsample(key, parseSource(source),
+                metric == null ? SeriesMetric.AUM_USD : SeriesMetric.parse(metric), start, end, target);
+        return ResponseEntity.ok(converter.toResponse(series));
+    }
+
+    private static SnapshotSource parseSource(String source) {
+        if (source == null || source.isBlank())
+            return SnapshotSource.OKX_RANK;
+        try {
+            return SnapshotSource.valueOf(source.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw IllegalParamException.of("source 不支持: " + source);
+        }
+    }
+
+    private static Exchange parseExchange(String exchange) {
+        try {
+            return Exchange.valueOf(exchange.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw IllegalParamException.of("exchange 不支持: " + exchange);
+        }
+    }
+}
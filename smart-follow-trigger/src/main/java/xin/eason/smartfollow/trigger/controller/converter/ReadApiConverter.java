@@ -0,0 +1,37 @@
+package xin.eason.smartfollow.trigger.controller.converter;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import xin.eason.smartfollow.api.request.LeadTradersPageRequest;
+import xin.eason.smartfollow.api.response.LeadTraderResponse;
+import xin.eason.smartfollow.api.response.LeadTradersPageResponse;
+import xin.eason.smartfollow.api.response.ProjectResponse;
+import xin.eason.smartfollow.api.response.SnapshotPointResponse;
+import xin.eason.smartfollow.api.response.SnapshotSeriesResponse;
+import xin.eason.smartfollow.domain.model.aggregate.project.ProjectAggregate;
+import xin.eason.smartfollow.domain.model.vo.observation.SnapshotPointVO;
+import xin.eason.smartfollow.domain.model.vo.observation.SnapshotSeriesVO;
+import xin.eason.smartfollow.domain.model.vo.project.LeadTradersPageVO;
+import xin.eason.smartfollow.domain.model.vo.project.LeadTradersQuery;
+import xin.eason.smartfollow.domain.model.vo.project.ProjectBriefVO;
+
+/**
+ * 读接口 DTO 与领域对象之间的转换
+ */
+@Mapper(componentModel = "spring")
+public interface ReadApiConverter {
+
+    LeadTradersQuery toQuery(LeadTradersPageRequest request);
+
+    LeadTradersPageResponse toResponse(LeadTradersPageVO page);
+
+    LeadTraderResponse toResponse(ProjectBriefVO brief);
+
+    @Mapping(target = "exchange", source = "key.exchange")
+    @Mapping(target = "externalId", source = "key.externalId")
+    ProjectResponse toResponse(ProjectAggregate project);
+
+    SnapshotSeriesResponse toResponse(SnapshotSeriesVO series);
+
+    SnapshotPointResponse toResponse(SnapshotPointVO point);
+}
@@ -0,0 +1,43 @@
+package xin.eason.smartfollow.trigger.job;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import xin.eason.smartfollow.domain.IColdArchiveService;
+
+import java.time.Instant;
+
+/**
+ * 冷存储归档定时任务
+ * <p>仅在 <code>smart-follow.cold-archive.enabled=true</code> 时注册; 把早于 <code>after-months</code> 个月的分区转入冷存储并从 MySQL 摘除</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "smart-follow.cold-archive", name = "enabled", havingValue = "true")
+public class ColdArchiveJob {
+
+    /**
+     * 冷存储归档服务
+     */
+    private final IColdArchiveService coldArchiveService;
+
+    /**
+     * 在 MySQL 中保留的月份数 (不含当月)
+     */
+    @Value("${smart-follow.cold-archive.after-months:6}")
+    private int afterMonths;
+
+    @Scheduled(initialDelayString = "${smart-follow.cold-archive.initial-delay-ms:300000}",
+            fixedDelayString = "${smart-follow.cold-archive.interval-ms:86400000}")
+    public void archive() {
+        try {
+            coldArchiveService.archiveExpired(Instant.now(), afterMonths);
+        } catch (Exception e) {
+            log.warn("[冷存储] 定时归档失败, 下次重试: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package xin.eason.smartfollow.trigger.job;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import xin.eason.smartfollow.domain.adapter.repository.IMarketBarRepository;
+
+import java.nio.file.Path;
+
+/**
+ * 行情 K 线文件导入任务 (离线测试用)
+ * <p>仅在配置了 <code>smart-follow.market.bars.import-dir</code> 时注册; 启动完成后导入目录下全部
+ * <code>{价格口径}/{粒度}/{标的}.csv</code>, 已存在的 K 线不会重复写入</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "smart-follow.market.bars", name = "import-dir")
+public class MarketBarImportJob {
+
+    /**
+     * 行情 K 线仓储
+     */
+    private final IMarketBarRepository marketBarRepository;
+
+    /**
+     * 导入根目录
+     */
+    @Value("${smart-follow.market.bars.import-dir}")
+    private String importDir;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void importOnStartup() {
+        try {
+            long written = marketBarRepository.importDir(Path.of(importDir));
+            log.info("[K线] 启动导入完成: {} 写入 {} 根", importDir, written);
+        } catch (Exception e) {
+            log.warn("[K线] 启动导入失败: {}", e.getMessage());
+        }
+    }
+}
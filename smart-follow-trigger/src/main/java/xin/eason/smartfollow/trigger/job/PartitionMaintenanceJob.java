@@ -0,0 +1,35 @@
+package xin.eason.smartfollow.trigger.job;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import xin.eason.smartfollow.domain.IPartitionMaintenanceService;
+
+import java.time.Instant;
+
+/**
+ * 按月分区维护定时任务
+ * <p>启动后 <code>smart-follow.partition.initial-delay-ms</code> 执行第一次, 之后按 <code>smart-follow.partition.interval-ms</code> 间隔执行;
+ * 维护本身是幂等的, 重复执行不会产生变更</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PartitionMaintenanceJob {
+
+    /**
+     * 按月分区维护服务
+     */
+    private final IPartitionMaintenanceService partitionMaintenanceService;
+
+    @Scheduled(initialDelayString = "${smart-follow.partition.initial-delay-ms:60000}",
+            fixedDelayString = "${smart-follow.partition.interval-ms:21600000}")
+    public void maintain() {
+        try {
+            partitionMaintenanceService.maintain(Instant.now());
+        } catch (Exception e) {
+            log.warn("[分区维护] 定时维护失败, 下次重试: {}", e.getMessage());
+        }
+    }
+}
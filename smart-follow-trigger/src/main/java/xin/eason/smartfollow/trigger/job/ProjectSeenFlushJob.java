@@ -0,0 +1,32 @@
+package xin.eason.smartfollow.trigger.job;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import xin.eason.smartfollow.domain.IProjectSeenService;
+
+/**
+ * 项目观察状态写后缓冲定时刷新任务
+ * <p>间隔由 <code>smart-follow.project.seen-flush.interval-ms</code> 控制, 停机时的最后一次刷新由服务自身完成</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProjectSeenFlushJob {
+
+    /**
+     * 项目观察状态写后缓冲服务
+     */
+    private final IProjectSeenService projectSeenService;
+
+    @Scheduled(initialDelayString = "${smart-follow.project.seen-flush.interval-ms:60000}",
+            fixedDelayString = "${smart-follow.project.seen-flush.interval-ms:60000}")
+    public void flush() {
+        try {
+            projectSeenService.flush();
+        } catch (Exception e) {
+            log.warn("[项目观察] 定时刷新失败, 缓冲保留至下次刷新: {}", e.getMessage());
+        }
+    }
+}
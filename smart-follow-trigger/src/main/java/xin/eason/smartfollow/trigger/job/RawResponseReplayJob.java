@@ -0,0 +1,62 @@
+package xin.eason.smartfollow.trigger.job;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import xin.eason.smartfollow.domain.IRawResponseReplayService;
+import xin.eason.smartfollow.domain.model.vo.crawl.ReplayReportVO;
+
+import java.time.Instant;
+
+/**
+ * 离线回放任务
+ * <p>
+ * 仅在 <code>smart-follow.archive.replay.enabled=true</code> 时注册, 启动后将本地归档的原始响应按时间顺序重新送入解析与入库管道。
+ * 修复解析器或算法后, 可在不访问 OKX 的情况下以磁盘速度重新入库。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "smart-follow.archive.replay", name = "enabled", havingValue = "true")
+public class RawResponseReplayJob implements ApplicationRunner {
+
+    /**
+     * 原始响应离线回放服务
+     */
+    private final IRawResponseReplayService replayService;
+
+    /**
+     * 回放起始时间 (ISO-8601, 包含), 为空表示不限制
+     */
+    @Value("${smart-follow.archive.replay.from:}")
+    private String from;
+    /**
+     * 回放结束时间 (ISO-8601, 不包含), 为空表示不限制
+     */
+    @Value("${smart-follow.archive.replay.to:}")
+    private String to;
+    /**
+     * 抓取目标前缀, 为空表示全部目标
+     */
+    @Value("${smart-follow.archive.replay.target-prefix:}")
+    private String targetPrefix;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        log.info("[回放] 已开启离线回放模式");
+        ReplayReportVO report = replayService.replay(parseInstant(from), parseInstant(to), targetPrefix);
+        log.info("[回放] 离线回放结束, 共 {} 条, 成功 {} 条, 无处理器 {} 条, 失败 {} 条, 耗时 {}ms",
+                report.getTotal(), report.getHandled(), report.getUnhandled(), report.getFailed(), report.getElapsedMs());
+    }
+
+    /**
+     * 解析 ISO-8601 时间, 空串返回 <code>null</code>
+     */
+    private static Instant parseInstant(String text) {
+        return text == null || text.isBlank() ? null : Instant.parse(text.trim());
+    }
+}
@@ -0,0 +1,40 @@
+package xin.eason.smartfollow.trigger.job;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import xin.eason.smartfollow.domain.ISnapshotRollupService;
+
+import java.time.Instant;
+
+/**
+ * 快照汇总定时任务
+ * <p>间隔由 <code>smart-follow.snapshot.rollup.interval-ms</code> 控制, 每次从水位继续汇总已结束的 1 小时 / 1 天桶, 再向前补算一天存量分区</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SnapshotRollupJob {
+
+    /**
+     * 快照汇总服务
+     */
+    private final ISnapshotRollupService rollupService;
+
+    @Scheduled(initialDelayString = "${smart-follow.snapshot.rollup.interval-ms:600000}",
+            fixedDelayString = "${smart-follow.snapshot.rollup.interval-ms:600000}")
+    public void rollup() {
+        Instant now = Instant.now();
+        try {
+            rollupService.rollupClosed(now);
+        } catch (Exception e) {
+            log.warn("[快照汇总] 定时汇总失败, 下次从水位重试: {}", e.getMessage());
+        }
+        try {
+            rollupService.backfill(now);
+        } catch (Exception e) {
+            log.warn("[快照汇总] 存量分区补算失败, 下次从最早的桶重试: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package xin.eason.smartfollow.trigger.job;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import xin.eason.smartfollow.domain.ITradeIngestService;
+
+/**
+ * 仓位回合幂等预检过滤器的定时重建任务: 重建写入量超过设计容量的过滤器, 淘汰长时间未访问的过滤器
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TradeFilterRebuildJob {
+
+    /**
+     * 仓位回合批量写入服务
+     */
+    private final ITradeIngestService tradeIngestService;
+
+    @Scheduled(initialDelayString = "${smart-follow.trade.ingest.rebuild-interval-ms:3600000}",
+            fixedDelayString = "${smart-follow.trade.ingest.rebuild-interval-ms:3600000}")
+    public void rebuild() {
+        try {
+            tradeIngestService.rebuildFilters();
+        } catch (Exception e) {
+            log.warn("[回合写入] 过滤器重建失败, 下次重试: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package xin.eason.smartfollow.trigger.job;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import xin.eason.smartfollow.domain.ITradeMetricsRecomputeService;
+
+import java.time.Instant;
+
+/**
+ * 回合行情指标增量重算定时任务
+ * <p>仅在 <code>smart-follow.trade.metrics.recompute.enabled=true</code> 时注册; 每次继续未完成的一轮, 或开始新一轮补齐新增 / 被修正的回合</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "smart-follow.trade.metrics.recompute", name = "enabled", havingValue = "true")
+public class TradeMetricsRecomputeJob {
+
+    /**
+     * 指标增量重算服务
+     */
+    private final ITradeMetricsRecomputeService recomputeService;
+
+    @Scheduled(initialDelayString = "${smart-follow.trade.metrics.recompute.initial-delay-ms:120000}",
+            fixedDelayString = "${smart-follow.trade.metrics.recompute.interval-ms:3600000}")
+    public void recompute() {
+        try {
+            recomputeService.recompute(Instant.now());
+        } catch (Exception e) {
+            log.warn("[指标重算] 定时重算失败, 下次重试: {}", e.getMessage());
+        }
+    }
+}
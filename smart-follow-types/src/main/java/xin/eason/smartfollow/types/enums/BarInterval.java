@@ -0,0 +1,69 @@
+package xin.eason.smartfollow.types.enums;
+
+import xin.eason.smartfollow.types.exceptions.IllegalParamException;
+
+/**
+ * 行情 K 线粒度, 持久化值与 exchange_project_trade_metrics.bar_interval 一致
+ * <ul>
+ *     <li><code>S1</code>: 1s</li>
+ *     <li><code>M1</code> / <code>M5</code> / <code>M15</code>: 1m / 5m / 15m</li>
+ *     <li><code>H1</code>: 1h</li>
+ *     <li><code>D1</code>: 1d</li>
+ * </ul>
+ */
+public enum BarInterval {
+    S1("1s", 1_000L),
+    M1("1m", 60_000L),
+    M5("5m", 300_000L),
+    M15("15m", 900_000L),
+    H1("1h", 3_600_000L),
+    D1("1d", 86_400_000L);
+
+    private final String code;
+    private final long millis;
+
+    BarInterval(String code, long millis) {
+        this.code = code;
+        this.millis = millis;
+    }
+
+    /**
+     * 获取粒度代码 (如 <code>1m</code>) 用于持久化
+     *
+     * @return 粒度代码
+     */
+    public String getName() {
+        return code;
+    }
+
+    /**
+     * @return 一根 K 线覆盖的毫秒数
+     */
+    public long millis() {
+        return millis;
+    }
+
+    /**
+     * 将时间向下取整到 K 线开盘时间
+     *
+     * @param tsMs 时间 (毫秒)
+     * @return 所在 K 线的开盘时间 (毫秒)
+     */
+    public long floor(long tsMs) {
+        return Math.floorDiv(tsMs, millis) * millis;
+    }
+
+    /**
+     * 按粒度代码解析
+     *
+     * @param code 粒度代码, 如 <code>1m</code>
+     * @return 粒度
+     * @throws IllegalParamException 未知的粒度代码
+     */
+    public static BarInterval of(String code) {
+        for (BarInterval interval : values())
+            if (interval.code.equals(code))
+                return interval;
+        throw IllegalParamException.of("未知的 K 线粒度: " + code);
+    }
+}
@@ -0,0 +1,21 @@
+package xin.eason.smartfollow.types.enums;
+
+/**
+ * 成交对仓位的作用
+ * <ul>
+ *     <li><code>OPEN</code>: 开仓 / 加仓</li>
+ *     <li><code>CLOSE</code>: 平仓 / 减仓</li>
+ * </ul>
+ */
+public enum PositionAction {
+    OPEN, CLOSE;
+
+    /**
+     * 获取枚举值的 Name 用于持久化
+     *
+     * @return 枚举值名称
+     */
+    public String getName() {
+        return this.name();
+    }
+}
@@ -0,0 +1,23 @@
+package xin.eason.smartfollow.types.enums;
+
+/**
+ * 行情价格口径, 持久化值与 exchange_project_trade_metrics.price_source 一致
+ * <ul>
+ *     <li><code>MID</code>: 买一卖一中间价</li>
+ *     <li><code>LAST</code>: 最新成交价</li>
+ *     <li><code>BID</code>: 买一价</li>
+ *     <li><code>ASK</code>: 卖一价</li>
+ * </ul>
+ */
+public enum PriceSource {
+    MID, LAST, BID, ASK;
+
+    /**
+     * 获取枚举值的 Name 用于持久化
+     *
+     * @return 枚举值名称
+     */
+    public String getName() {
+        return this.name();
+    }
+}
@@ -20,4 +20,13 @@ public enum TradeStatus {
     public String getName() {
         return this.name();
     }
+
+    /**
+     * 是否为终态 (<code>CLOSED</code> / <code>CANCELED</code>), 终态的回合不会再发生变化
+     *
+     * @return 是否为终态
+     */
+    public boolean isFinal() {
+        return this == CLOSED || this == CANCELED;
+    }
 }
@@ -0,0 +1,89 @@
+package xin.eason.smartfollow.types.utils;
+
+import xin.eason.smartfollow.types.exceptions.AppException;
+
+import java.io.ByteArrayOutputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 压缩工具类, 输出与 MySQL {@code COMPRESS()} / {@code UNCOMPRESS()} 相同的格式
+ * <ul>
+ *     <li>格式: 4 字节小端序原文长度 + zlib 数据流; 空输入输出空数组</li>
+ *     <li>应用侧压缩的数据可以在 SQL 中直接 {@code UNCOMPRESS()}, 存量数据也可以用 {@code COMPRESS()} 回填</li>
+ *     <li>{@link Deflater} / {@link Inflater} 持有本地内存, 这里按线程复用</li>
+ * </ul>
+ */
+public final class CompressUtils {
+
+    private static final ThreadLocal<Deflater> DEFLATER = ThreadLocal.withInitial(() -> new Deflater(Deflater.DEFAULT_COMPRESSION));
+    private static final ThreadLocal<Inflater> INFLATER = ThreadLocal.withInitial(Inflater::new);
+
+    private CompressUtils() {
+    }
+
+    /**
+     * 按 MySQL {@code COMPRESS()} 格式压缩
+     *
+     * @param bytes 原文
+     * @return 压缩结果, 原文为 <code>null</code> 时返回 <code>null</code>
+     */
+    public static byte[] mysqlCompress(byte[] bytes) {
+        if (bytes == null)
+            return null;
+        if (bytes.length == 0)
+            return new byte[0];
+        Deflater deflater = DEFLATER.get();
+        deflater.reset();
+        deflater.setInput(bytes);
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 16);
+        int length = bytes.length & 0x3FFFFFFF;
+        out.write(length);
+        out.write(length >>> 8);
+        out.write(length >>> 16);
+        out.write(length >>> 24);
+        byte[] buffer = new byte[Math.min(64 * 1024, bytes.length + 64)];
+        while (!deflater.finished()) {
+            int n = deflater.deflate(buffer);
+            out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 解压 MySQL {@code COMPRESS()} 格式的数据
+     *
+     * @param compressed 压缩数据
+     * @return 原文, 输入为 <code>null</code> 时返回 <code>null</code>
+     */
+    public static byte[] mysqlUncompress(byte[] compressed) {
+        if (compressed == null)
+            return null;
+        if (compressed.length == 0)
+            return new byte[0];
+        if (compressed.length < 4)
+            throw AppException.of("压缩数据格式错误: 长度不足 4 字节");
+        int length = (compressed[0] & 0xFF) | (compressed[1] & 0xFF) << 8 | (compressed[2] & 0xFF) << 16
+                | (compressed[3] & 0x3F) << 24;
+        Inflater inflater = INFLATER.get();
+        inflater.reset();
+        inflater.setInput(compressed, 4, compressed.length - 4);
+        byte[] out = new byte[length];
+        try {
+            int offset = 0;
+            while (offset < length && !inflater.finished()) {
+                int n = inflater.inflate(out, offset, length - offset);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+                    break;
+                offset += n;
+            }
+            if (offset != length)
+                throw AppException.of("压缩数据格式错误: 解压长度 " + offset + " 与声明长度 " + length + " 不一致");
+            return out;
+        } catch (DataFormatException e) {
+            throw new AppException("压缩数据格式错误", e);
+        }
+    }
+}
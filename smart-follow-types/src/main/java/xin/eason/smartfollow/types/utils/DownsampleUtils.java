@@ -0,0 +1,70 @@
+package xin.eason.smartfollow.types.utils;
+
+/**
+ * 时序降采样工具类
+ * <p>Largest-Triangle-Three-Buckets (LTTB): 首尾点保留, 中间按点数均分为 {@code threshold - 2} 个桶,
+ * 每个桶选出与 "上一个选中点" 和 "下一个桶均值点" 构成三角形面积最大的点, 峰谷因面积最大而被保留</p>
+ */
+public final class DownsampleUtils {
+
+    private DownsampleUtils() {
+    }
+
+    /**
+     * LTTB 降采样
+     *
+     * @param x         横坐标 (升序, 如毫秒时间戳)
+     * @param y         纵坐标
+     * @param size      有效点数 (只使用前 size 个元素)
+     * @param threshold 目标点数
+     * @return 选中点的下标 (升序); {@code threshold >= size} 或 {@code threshold < 3} 时返回全部下标
+     */
+    public static int[] lttb(long[] x, double[] y, int size, int threshold) {
+        if (threshold >= size || threshold < 3) {
+            int[] all = new int[size];
+            for (int i = 0; i < size; i++)
+                all[i] = i;
+            return all;
+        }
+        // 以首点为原点, 避免毫秒时间戳参与乘法时丢失精度
+        long origin = x[0];
+        int[] sampled = new int[threshold];
+        int count = 0;
+        double every = (double) (size - 2) / (threshold - 2);
+        int a = 0;
+        sampled[count++] = a;
+        for (int i = 0; i < threshold - 2; i++) {
+            // 下一个桶的均值点
+            int avgStart = (int) ((i + 1) * every) + 1;
+            int avgEnd = Math.min((int) ((i + 2) * every) + 1, size);
+            double avgX = 0;
+            double avgY = 0;
+            for (int j = avgStart; j < avgEnd; j++) {
+                avgX += x[j] - origin;
+                avgY += y[j];
+            }
+            int avgLength = avgEnd - avgStart;
+            avgX /= avgLength;
+            avgY /= avgLength;
+
+            // 当前桶内选出面积最大的点
+            int rangeStart = (int) (i * every) + 1;
+            int rangeEnd = (int) ((i + 1) * every) + 1;
+            double ax = x[a] - origin;
+            double ay = y[a];
+            double maxArea = -1;
+            int next = rangeStart;
+            for (int j = rangeStart; j < rangeEnd; j++) {
+                double area = Math.abs((ax - avgX) * (y[j] - ay) - (ax - (x[j] - origin)) * (avgY - ay));
+                if (area > maxArea) {
+                    maxArea = area;
+                    next = j;
+                }
+            }
+            sampled[count++] = next;
+            a = next;
+        }
+        sampled[count] = size - 1;
+        return sampled;
+    }
+}
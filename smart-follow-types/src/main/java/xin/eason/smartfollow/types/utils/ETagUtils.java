@@ -0,0 +1,67 @@
+package xin.eason.smartfollow.types.utils;
+
+/**
+ * HTTP 实体标签 (ETag) 工具类
+ * <ul>
+ *     <li>ETag 由数据版本号拼接而成 (如 dataVer, 记录更新时间), 不依赖响应体, 因此可以在查询之前算出</li>
+ *     <li>{@code If-None-Match} 按弱比较处理 (RFC 9110 §13.1.2), 支持 {@code *} 与逗号分隔的多个值</li>
+ * </ul>
+ */
+public final class ETagUtils {
+
+    private ETagUtils() {
+    }
+
+    /**
+     * 由版本片段构造强 ETag, 片段之间以 {@code -} 连接, 结果带双引号
+     *
+     * @param parts 版本片段
+     * @return 强 ETag, 如 <code>"lb-SWAP-20231010182400"</code>
+     */
+    public static String strong(Object... parts) {
+        StringBuilder sb = new StringBuilder(64).append('"');
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0)
+                sb.append('-');
+            // 双引号与反斜杠不允许出现在 ETag 中
+            sb.append(String.valueOf(parts[i]).replace('"', '_').replace('\\', '_'));
+        }
+        return sb.append('"').toString();
+    }
+
+    /**
+     * 由版本片段构造弱 ETag: 版本相同的表示在语义上等价, 但不保证逐字节相同 (如只差一个观察时间戳)
+     *
+     * @param parts 版本片段
+     * @return 弱 ETag, 如 <code>W/"p-OKX:123-1700000000000"</code>
+     */
+    public static String weak(Object... parts) {
+        return "W/" + strong(parts);
+    }
+
+    /**
+     * 判断请求头 {@code If-None-Match} 是否命中当前 ETag
+     *
+     * @param ifNoneMatch 请求头原值, 可空
+     * @param etag        当前 ETag (带双引号)
+     * @return 命中时返回 true, 此时应返回 304
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank() || etag == null)
+            return false;
+        String current = opaque(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || opaque(tag).equals(current))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * 去掉弱标记 {@code W/}, 用于弱比较
+     */
+    private static String opaque(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
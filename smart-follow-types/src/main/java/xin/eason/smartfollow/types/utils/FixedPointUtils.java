@@ -0,0 +1,242 @@
+package xin.eason.smartfollow.types.utils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Set;
+
+/**
+ * 定点数工具类: 以 "按固定小数位放大后的 long" 表示十进制数, 供逐行计算的热点路径替代 {@link BigDecimal}
+ * <ul>
+ *     <li>数值 v 在小数位 s 下表示为 <code>v × 10^s</code>; 同一批计算中同类字段使用相同的小数位, 比较 / 加减直接作用于 long</li>
+ *     <li>与 <code>DECIMAL(36, 18)</code> 列的互转是精确的: 无法在给定小数位下精确表示, 或超出 long 范围时返回 {@link #INEXACT}</li>
+ *     <li>加 / 减 / 乘同样只在结果精确时返回数值, 否则返回 {@link #INEXACT} 且会一路传递, 调用方据此回落到 {@link BigDecimal}</li>
+ *     <li>不做任何舍入, 快路径与 {@link BigDecimal} 路径的结果在数值上完全一致</li>
+ * </ul>
+ */
+public final class FixedPointUtils {
+
+    /**
+     * 溢出或无法精确表示的标记值 (<code>Long.MIN_VALUE</code> 本身不作为合法数值)
+     */
+    public static final long INEXACT = Long.MIN_VALUE;
+    /**
+     * 数量的小数位
+     */
+    public static final int QTY_SCALE = 10;
+    /**
+     * 价格的小数位
+     */
+    public static final int PRICE_SCALE = 10;
+    /**
+     * 与库表 <code>DECIMAL(36, 18)</code> 一致的最大小数位
+     */
+    public static final int MAX_SCALE = 18;
+
+    /**
+     * 稳定币 / 法币: 金额较大, 小数位较少
+     */
+    private static final Set<String> QUOTE_CCY = Set.of("USDT", "USDC", "USD", "FDUSD", "DAI", "TUSD", "EUR");
+    private static final int QUOTE_SCALE = 8;
+    private static final int COIN_SCALE = 12;
+
+    private static final long[] POW10 = new long[MAX_SCALE + 1];
+    private static final BigInteger[] BIG_POW10 = new BigInteger[MAX_SCALE + 1];
+    /**
+     * 5^k (k ≤ 27, 5^27 &lt; 2^63) 及其模 2^64 的乘法逆元, 用于乘法结果的精确缩小
+     */
+    private static final long[] POW5 = new long[28];
+    private static final long[] INV_POW5 = new long[POW5.length];
+
+    static {
+        POW10[0] = 1;
+        for (int i = 1; i < POW10.length; i++)
+            POW10[i] = POW10[i - 1] * 10;
+        for (int i = 0; i < POW10.length; i++)
+            BIG_POW10[i] = BigInteger.valueOf(POW10[i]);
+        POW5[0] = 1;
+        for (int i = 1; i < POW5.length; i++)
+            POW5[i] = POW5[i - 1] * 5;
+        for (int i = 0; i < POW5.length; i++) {
+            // 牛顿迭代: 奇数 d 满足 d × d ≡ 1 (mod 8), 每轮有效位数翻倍, 5 轮后达到 64 位
+            long d = POW5[i];
+            long inv = d;
+            for (int r = 0; r < 5; r++)
+                inv *= 2 - d * inv;
+            INV_POW5[i] = inv;
+        }
+    }
+
+    private FixedPointUtils() {
+    }
+
+    /**
+     * 币种对应的金额小数位: 稳定币 / 法币为 8, 其他币种为 12
+     *
+     * @param ccy 币种, 为空时按 USDT 处理
+     * @return 小数位
+     */
+    public static int scaleOf(String ccy) {
+        return ccy == null || QUOTE_CCY.contains(ccy) ? QUOTE_SCALE : COIN_SCALE;
+    }
+
+    // ===== 转换 =====
+
+    /**
+     * 精确转换为定点数
+     *
+     * @param value 十进制数
+     * @param scale 小数位, [0, 18]
+     * @return <code>value × 10^scale</code>; 为空, 需要舍入或超出 long 范围时返回 {@link #INEXACT}
+     */
+    public static long toScaled(BigDecimal value, int scale) {
+        if (value == null)
+            return INEXACT;
+        if (value.signum() == 0)
+            return 0L;
+        int shift = scale - value.scale();
+        if (shift < -MAX_SCALE) {
+            value = value.stripTrailingZeros();
+            shift = scale - value.scale();
+            if (shift < 0)
+                return INEXACT;
+        }
+        BigInteger unscaled = value.unscaledValue();
+        if (shift < 0) {
+            // 多出的小数位必须全为 0: 一次整除 10^-shift, 不逐位去零 (DECIMAL(36, 18) 列读出的值都走这里)
+            if (unscaled.bitLength() <= 63) {
+                long u = unscaled.longValue();
+                long pow = POW10[-shift];
+                return u % pow == 0 ? u / pow : INEXACT;
+            }
+            BigInteger[] qr = unscaled.divideAndRemainder(BIG_POW10[-shift]);
+            if (qr[1].signum() != 0 || qr[0].bitLength() > 63)
+                return INEXACT;
+            return qr[0].longValue();
+        }
+        if (unscaled.bitLength() > 63)
+            return INEXACT;
+        return upscale(unscaled.longValue(), shift);
+    }
+
+    /**
+     * 定点数还原为十进制数
+     *
+     * @param scaled 定点数, 不能为 {@link #INEXACT}
+     * @param scale  小数位
+     * @return 十进制数
+     */
+    public static BigDecimal toDecimal(long scaled, int scale) {
+        if (scaled == INEXACT)
+            throw new ArithmeticException("定点数溢出, 无法还原");
+        return BigDecimal.valueOf(scaled, scale);
+    }
+
+    /**
+     * 改变小数位; 缩小小数位时只在能整除时返回结果
+     *
+     * @param scaled 定点数
+     * @param from   原小数位
+     * @param to     目标小数位
+     * @return 目标小数位下的定点数或 {@link #INEXACT}
+     */
+    public static long rescale(long scaled, int from, int to) {
+        if (scaled == INEXACT || from == to)
+            return scaled;
+        if (to > from)
+            return upscale(scaled, to - from);
+        int diff = from - to;
+        if (diff > MAX_SCALE)
+            return scaled == 0 ? 0 : INEXACT;
+        long pow = POW10[diff];
+        return scaled % pow == 0 ? scaled / pow : INEXACT;
+    }
+
+    // ===== 运算 (同小数位) =====
+
+    /**
+     * 精确加法, 两个参数的小数位必须相同
+     *
+     * @return <code>a + b</code>; 任一参数为 {@link #INEXACT} 或结果溢出时返回 {@link #INEXACT}
+     */
+    public static long add(long a, long b) {
+        if (a == INEXACT || b == INEXACT)
+            return INEXACT;
+        long r = a + b;
+        return ((a ^ r) & (b ^ r)) < 0 || r == INEXACT ? INEXACT : r;
+    }
+
+    /**
+     * 精确减法, 两个参数的小数位必须相同
+     *
+     * @return <code>a - b</code>; 任一参数为 {@link #INEXACT} 或结果溢出时返回 {@link #INEXACT}
+     */
+    public static long subtract(long a, long b) {
+        if (a == INEXACT || b == INEXACT)
+            return INEXACT;
+        long r = a - b;
+        return ((a ^ b) & (a ^ r)) < 0 || r == INEXACT ? INEXACT : r;
+    }
+
+    /**
+     * 精确乘法: 乘积先在 <code>aScale + bScale</code> 小数位下以 128 位精确计算, 再精确缩放到 outScale
+     * <p>缩小小数位时 10^k 拆成 2^k (移位) 与 5^k (乘以其模 2^64 的逆元, 再回乘校验), 不做除法; 只要最终结果能用 long 表示就是精确的</p>
+     *
+     * @return outScale 小数位下的乘积; 任一参数为 {@link #INEXACT}, 结果溢出或缩放需要舍入时返回 {@link #INEXACT}
+     */
+    public static long multiply(long a, int aScale, long b, int bScale, int outScale) {
+        if (a == INEXACT || b == INEXACT)
+            return INEXACT;
+        int k = aScale + bScale - outScale;
+        if (k <= 0) {
+            long lo = a * b;
+            long hi = Math.multiplyHigh(a, b);
+            if (hi != (lo >> 63) || lo == INEXACT)
+                return INEXACT;
+            return upscale(lo, -k);
+        }
+        if (k >= POW5.length)
+            return multiplySlow(a, aScale + bScale, b, outScale);
+        boolean negative = (a ^ b) < 0;
+        long ua = Math.abs(a);
+        long ub = Math.abs(b);
+        // |a|, |b| < 2^63, 乘积 < 2^126: 有符号 multiplyHigh 即为无符号高 64 位
+        long lo = ua * ub;
+        long hi = Math.multiplyHigh(ua, ub);
+        // ÷ 2^k: 低 k 位必须为 0
+        if ((lo & ((1L << k) - 1)) != 0)
+            return INEXACT;
+        lo = (lo >>> k) | (hi << (64 - k));
+        hi >>>= k;
+        // ÷ 5^k: 整除且商 < 2^63 时, 商 = 低 64 位 × 逆元 (mod 2^64); 回乘校验同时排除不能整除与溢出
+        long q = lo * INV_POW5[k];
+        long p = POW5[k];
+        if (q < 0 || q * p != lo || Math.multiplyHigh(q, p) != hi)
+            return INEXACT;
+        return negative ? -q : q;
+    }
+
+    /**
+     * 缩小的小数位超过 {@link #POW5} 覆盖范围时以 BigInteger 计算, 实际数据中不会出现
+     */
+    private static long multiplySlow(long a, int productScale, long b, int outScale) {
+        BigInteger product = BigInteger.valueOf(a).multiply(BigInteger.valueOf(b));
+        BigInteger[] qr = product.divideAndRemainder(BigInteger.TEN.pow(productScale - outScale));
+        if (qr[1].signum() != 0 || qr[0].bitLength() > 63)
+            return INEXACT;
+        return qr[0].longValue();
+    }
+
+    /**
+     * 乘以 10 的幂, 溢出时返回 {@link #INEXACT}
+     */
+    private static long upscale(long value, int digits) {
+        if (digits == 0 || value == 0)
+            return value;
+        if (digits > MAX_SCALE)
+            return INEXACT;
+        long pow = POW10[digits];
+        long hi = Math.multiplyHigh(value, pow);
+        long lo = value * pow;
+        return hi != (lo >> 63) || lo == INEXACT ? INEXACT : lo;
+    }
+}
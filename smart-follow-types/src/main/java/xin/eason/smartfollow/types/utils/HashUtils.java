@@ -0,0 +1,105 @@
+package xin.eason.smartfollow.types.utils;
+
+import xin.eason.smartfollow.types.exceptions.AppException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * 哈希工具类, 统一系统内 SHA-256 指纹的计算方式 (十六进制小写, 64 位)
+ * <ul>
+ *     <li>用于 <code>content_hash</code>, <code>params_hash</code>, <code>source_payload_hash</code> 等字段</li>
+ *     <li>{@link MessageDigest} 非线程安全, 这里按线程复用, 避免每次调用 <code>getInstance</code></li>
+ * </ul>
+ */
+public final class HashUtils {
+
+    /**
+     * 十六进制编码器 (小写)
+     */
+    private static final HexFormat HEX = HexFormat.of();
+
+    /**
+     * 按线程复用的 SHA-256 摘要器
+     */
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(HashUtils::newSha256);
+
+    private HashUtils() {
+    }
+
+    /**
+     * 计算字节数组的 SHA-256 原始摘要 (32 字节)
+     *
+     * @param bytes 待计算的字节数组
+     * @return 32 字节的摘要
+     */
+    public static byte[] sha256(byte[] bytes) {
+        MessageDigest md = SHA_256.get();
+        md.reset();
+        return md.digest(bytes);
+    }
+
+    /**
+     * 计算字节数组的 SHA-256 摘要, 并以 64 位小写十六进制输出
+     *
+     * @param bytes 待计算的字节数组
+     * @return 64 位小写十六进制字符串
+     */
+    public static String sha256Hex(byte[] bytes) {
+        return HEX.formatHex(sha256(bytes));
+    }
+
+    /**
+     * 计算字符串 (UTF-8 编码) 的 SHA-256 摘要, 并以 64 位小写十六进制输出
+     *
+     * @param text 待计算的字符串, 为 <code>null</code> 时返回 <code>null</code>
+     * @return 64 位小写十六进制字符串
+     */
+    public static String sha256Hex(String text) {
+        if (text == null)
+            return null;
+        return sha256Hex(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 将 64 位十六进制摘要解析为 32 字节原始摘要
+     *
+     * @param hex 64 位十六进制字符串
+     * @return 32 字节的摘要
+     * @throws AppException 如果 <code>hex</code> 不是 64 位十六进制字符串
+     */
+    public static byte[] parseSha256Hex(String hex) {
+        if (hex == null || hex.length() != 64)
+            throw AppException.of("SHA-256 摘要必须为 64 位十六进制: " + hex);
+        try {
+            return HEX.parseHex(hex);
+        } catch (IllegalArgumentException e) {
+            throw new AppException("SHA-256 摘要必须为 64 位十六进制: " + hex, e);
+        }
+    }
+
+    /**
+     * 将 32 字节原始摘要编码为 64 位小写十六进制
+     *
+     * @param digest 32 字节的摘要
+     * @return 64 位小写十六进制字符串
+     */
+    public static String toHex(byte[] digest) {
+        return HEX.formatHex(digest);
+    }
+
+    /**
+     * 创建一个新的 SHA-256 摘要器
+     *
+     * @return SHA-256 摘要器
+     */
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new AppException("当前 JVM 不支持 SHA-256", e);
+        }
+    }
+}